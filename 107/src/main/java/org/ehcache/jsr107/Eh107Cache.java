@@ -27,20 +27,32 @@ import org.ehcache.core.spi.function.BiFunction;
 import org.ehcache.core.spi.function.Function;
 import org.ehcache.core.spi.function.NullaryFunction;
 import org.ehcache.jsr107.EventListenerAdaptors.EventListenerAdaptor;
+import org.ehcache.jsr107.config.Jsr107Service;
 import org.ehcache.jsr107.internal.Jsr107CacheLoaderWriter;
 import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
 import org.ehcache.spi.loaderwriter.CacheLoadingException;
 import org.ehcache.spi.loaderwriter.CacheWritingException;
 
+import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.cache.Cache;
+import javax.cache.CacheException;
 import javax.cache.CacheManager;
 import javax.cache.configuration.CacheEntryListenerConfiguration;
 import javax.cache.configuration.Configuration;
@@ -66,6 +78,7 @@ class Eh107Cache<K, V> implements Cache<K, V> {
   private final Eh107CacheStatisticsMXBean statisticsBean;
   private final Eh107Configuration<K, V> config;
   private final Jsr107CacheLoaderWriter<? super K, V> cacheLoaderWriter;
+  private final Jsr107Service jsr107Service;
 
   Eh107Cache(String name, Eh107Configuration<K, V> config, CacheResources<K, V> cacheResources,
       InternalCache<K, V> ehCache, Eh107CacheManager cacheManager) {
@@ -78,6 +91,7 @@ class Eh107Cache<K, V> implements Cache<K, V> {
     this.managementBean = new Eh107CacheMXBean(name, cacheManager.getURI(), config);
     this.statisticsBean = new Eh107CacheStatisticsMXBean(name, cacheManager.getURI(),
       cacheManager.getEhCacheManager().getServiceProvider().getService(StatisticsService.class));
+    this.jsr107Service = cacheManager.getEhCacheManager().getServiceProvider().getService(Jsr107Service.class);
 
     for (Map.Entry<CacheEntryListenerConfiguration<K, V>, ListenerResources<K, V>> entry : cacheResources
         .getListenerResources().entrySet()) {
@@ -134,6 +148,59 @@ class Eh107Cache<K, V> implements Cache<K, V> {
       return;
     }
 
+    int concurrency = jsr107Service.getBulkOperationsConcurrency();
+    if (concurrency == 0 || keys.isEmpty()) {
+      try {
+        loadAllInternal(keys, replaceExistingValues);
+      } catch (CacheLoaderException e) {
+        completionListener.onException(e);
+        return;
+      }
+      completionListener.onCompletion();
+    } else {
+      loadAllAsync(keys, replaceExistingValues, completionListener, concurrency);
+    }
+  }
+
+  private void loadAllAsync(Set<? extends K> keys, final boolean replaceExistingValues, final CompletionListener completionListener, int concurrency) {
+    List<Set<K>> chunks = partition(keys, concurrency);
+    final AtomicInteger remaining = new AtomicInteger(chunks.size());
+    final AtomicReference<CacheLoaderException> failure = new AtomicReference<CacheLoaderException>();
+
+    ExecutorService executor = jsr107Service.getBulkOperationsExecutor();
+    try {
+      for (final Set<K> chunk : chunks) {
+        Runnable task = new Runnable() {
+          @Override
+          public void run() {
+            try {
+              loadAllInternal(chunk, replaceExistingValues);
+            } catch (CacheLoaderException e) {
+              failure.compareAndSet(null, e);
+            } finally {
+              if (remaining.decrementAndGet() == 0) {
+                CacheLoaderException e = failure.get();
+                if (e == null) {
+                  completionListener.onCompletion();
+                } else {
+                  completionListener.onException(e);
+                }
+              }
+            }
+          }
+        };
+        try {
+          executor.execute(task);
+        } catch (RejectedExecutionException e) {
+          task.run();
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private void loadAllInternal(Set<? extends K> keys, boolean replaceExistingValues) throws CacheLoaderException {
     try {
       jsr107Cache.loadAll(keys, replaceExistingValues, new Function<Iterable<? extends K>, Map<K, V>>() {
         @Override
@@ -169,11 +236,8 @@ class Eh107Cache<K, V> implements Cache<K, V> {
         cle = new CacheLoaderException(e);
       }
 
-      completionListener.onException(cle);
-      return;
+      throw cle;
     }
-
-    completionListener.onCompletion();
   }
 
   @Override
@@ -403,6 +467,63 @@ class Eh107Cache<K, V> implements Cache<K, V> {
       }
     }
 
+    int concurrency = jsr107Service.getBulkOperationsConcurrency();
+    if (concurrency == 0 || keys.size() <= 1) {
+      return invokeAllInternal(keys, entryProcessor, arguments);
+    } else {
+      return invokeAllParallel(keys, entryProcessor, arguments, concurrency);
+    }
+  }
+
+  private <T> Map<K, EntryProcessorResult<T>> invokeAllParallel(Set<? extends K> keys, final EntryProcessor<K, V, T> entryProcessor,
+                                                                final Object[] arguments, int concurrency) {
+    List<Set<K>> groups = partition(keys, concurrency);
+    List<Future<Map<K, EntryProcessorResult<T>>>> futures = new ArrayList<Future<Map<K, EntryProcessorResult<T>>>>(groups.size());
+
+    ExecutorService executor = jsr107Service.getBulkOperationsExecutor();
+    try {
+      for (final Set<K> group : groups) {
+        FutureTask<Map<K, EntryProcessorResult<T>>> task = new FutureTask<Map<K, EntryProcessorResult<T>>>(new Callable<Map<K, EntryProcessorResult<T>>>() {
+          @Override
+          public Map<K, EntryProcessorResult<T>> call() {
+            return invokeAllInternal(group, entryProcessor, arguments);
+          }
+        });
+        try {
+          executor.execute(task);
+        } catch (RejectedExecutionException e) {
+          task.run();
+        }
+        futures.add(task);
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    Map<K, EntryProcessorResult<T>> results = new HashMap<K, EntryProcessorResult<T>>(keys.size());
+    boolean interrupted = false;
+    try {
+      for (Future<Map<K, EntryProcessorResult<T>>> future : futures) {
+        while (true) {
+          try {
+            results.putAll(future.get());
+            break;
+          } catch (InterruptedException e) {
+            interrupted = true;
+          } catch (ExecutionException e) {
+            throw new CacheException(e.getCause());
+          }
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    return results;
+  }
+
+  private <T> Map<K, EntryProcessorResult<T>> invokeAllInternal(Set<? extends K> keys, EntryProcessor<K, V, T> entryProcessor, Object[] arguments) {
     Map<K, EntryProcessorResult<T>> results = new HashMap<K, EntryProcessorResult<T>>(keys.size());
     for (K key : keys) {
       EntryProcessorResult<T> result = null;
@@ -423,6 +544,28 @@ class Eh107Cache<K, V> implements Cache<K, V> {
     return results;
   }
 
+  /**
+   * Splits the keys in at most {@code count} groups, keys of equal hash landing in the same group.
+   */
+  private static <K> List<Set<K>> partition(Set<? extends K> keys, int count) {
+    int groupCount = Math.min(count, keys.size());
+    List<Set<K>> groups = new ArrayList<Set<K>>(groupCount);
+    for (int i = 0; i < groupCount; i++) {
+      groups.add(new HashSet<K>());
+    }
+    for (K key : keys) {
+      int hash = key.hashCode();
+      hash ^= (hash >>> 16);
+      groups.get((hash & Integer.MAX_VALUE) % groupCount).add(key);
+    }
+    for (Iterator<Set<K>> it = groups.iterator(); it.hasNext(); ) {
+      if (it.next().isEmpty()) {
+        it.remove();
+      }
+    }
+    return groups;
+  }
+
   @Override
   public String getName() {
     return name;
@@ -17,13 +17,14 @@ package org.ehcache.jsr107;
 
 import org.ehcache.core.spi.service.StatisticsService;
 import org.ehcache.core.statistics.CacheStatistics;
+import org.ehcache.core.statistics.LatencyHistogram;
 
 import java.net.URI;
 
 /**
  * @author Ludovic Orban
  */
-class Eh107CacheStatisticsMXBean extends Eh107MXBean implements javax.cache.management.CacheStatisticsMXBean {
+class Eh107CacheStatisticsMXBean extends Eh107MXBean implements EhcacheCacheStatisticsMXBean {
 
   private final String cacheName;
   private final StatisticsService statisticsService;
@@ -94,6 +95,50 @@ class Eh107CacheStatisticsMXBean extends Eh107MXBean implements javax.cache.mana
     return getCacheStatistics().getCacheAverageRemoveTime();
   }
 
+  @Override
+  public float getGetHitTime99thPercentile() {
+    return microseconds(getCacheStatistics().getCacheGetHitLatency(), 99.0);
+  }
+
+  @Override
+  public float getGetHitTime999thPercentile() {
+    return microseconds(getCacheStatistics().getCacheGetHitLatency(), 99.9);
+  }
+
+  @Override
+  public float getGetMissTime99thPercentile() {
+    return microseconds(getCacheStatistics().getCacheGetMissLatency(), 99.0);
+  }
+
+  @Override
+  public float getGetMissTime999thPercentile() {
+    return microseconds(getCacheStatistics().getCacheGetMissLatency(), 99.9);
+  }
+
+  @Override
+  public float getPutTime99thPercentile() {
+    return microseconds(getCacheStatistics().getCachePutLatency(), 99.0);
+  }
+
+  @Override
+  public float getPutTime999thPercentile() {
+    return microseconds(getCacheStatistics().getCachePutLatency(), 99.9);
+  }
+
+  @Override
+  public float getRemoveTime99thPercentile() {
+    return microseconds(getCacheStatistics().getCacheRemoveLatency(), 99.0);
+  }
+
+  @Override
+  public float getRemoveTime999thPercentile() {
+    return microseconds(getCacheStatistics().getCacheRemoveLatency(), 99.9);
+  }
+
+  private static float microseconds(LatencyHistogram histogram, double percentile) {
+    return histogram.getValueAtPercentile(percentile) / 1000f;
+  }
+
   private CacheStatistics getCacheStatistics() {
     return statisticsService.getCacheStatistics(cacheName);
   }
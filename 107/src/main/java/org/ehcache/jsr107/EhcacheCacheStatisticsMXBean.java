@@ -0,0 +1,68 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.jsr107;
+
+import javax.cache.management.CacheStatisticsMXBean;
+
+/**
+ * Ehcache extension of the JSR-107 {@link CacheStatisticsMXBean}, adding latency percentiles.
+ * <p>
+ * Like the averages of {@link CacheStatisticsMXBean}, percentiles are expressed in microseconds. They are computed over
+ * a sample of the operations since the cache creation or the latest {@link #clear()}.
+ */
+public interface EhcacheCacheStatisticsMXBean extends CacheStatisticsMXBean {
+
+  /**
+   * @return the 99th percentile of the latency of gets hitting the cache
+   */
+  float getGetHitTime99thPercentile();
+
+  /**
+   * @return the 99.9th percentile of the latency of gets hitting the cache
+   */
+  float getGetHitTime999thPercentile();
+
+  /**
+   * @return the 99th percentile of the latency of gets missing the cache
+   */
+  float getGetMissTime99thPercentile();
+
+  /**
+   * @return the 99.9th percentile of the latency of gets missing the cache
+   */
+  float getGetMissTime999thPercentile();
+
+  /**
+   * @return the 99th percentile of the latency of puts
+   */
+  float getPutTime99thPercentile();
+
+  /**
+   * @return the 99.9th percentile of the latency of puts
+   */
+  float getPutTime999thPercentile();
+
+  /**
+   * @return the 99th percentile of the latency of removes
+   */
+  float getRemoveTime99thPercentile();
+
+  /**
+   * @return the 99.9th percentile of the latency of removes
+   */
+  float getRemoveTime999thPercentile();
+}
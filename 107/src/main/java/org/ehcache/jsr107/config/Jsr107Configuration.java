@@ -31,6 +31,8 @@ public class Jsr107Configuration implements ServiceCreationConfiguration<Jsr107S
   private final ConfigurationElementState enableManagementAll;
   private final ConfigurationElementState enableStatisticsAll;
   private final Map<String, String> templates;
+  private final String bulkOperationsThreadPool;
+  private final int bulkOperationsConcurrency;
 
   /**
    * Creates a new configuration with the provided parameters.
@@ -42,11 +44,34 @@ public class Jsr107Configuration implements ServiceCreationConfiguration<Jsr107S
    */
   public Jsr107Configuration(final String defaultTemplate, final Map<String, String> templates,
                              boolean jsr107CompliantAtomics, ConfigurationElementState enableManagementAll, ConfigurationElementState enableStatisticsAll) {
+    this(defaultTemplate, templates, jsr107CompliantAtomics, enableManagementAll, enableStatisticsAll, null, 0);
+  }
+
+  /**
+   * Creates a new configuration with the provided parameters.
+   *
+   * @param defaultTemplate the default template
+   * @param templates cache alias to template name map
+   * @param jsr107CompliantAtomics behaviour of loader writer in atomic operations
+   * @param enableManagementAll management enabled on all caches
+   * @param enableStatisticsAll statistics enabled on all caches
+   * @param bulkOperationsThreadPool the thread pool alias used by {@code loadAll} and {@code invokeAll}, {@code null} for the default pool
+   * @param bulkOperationsConcurrency the number of parallel tasks {@code loadAll} and {@code invokeAll} are split into,
+   *                                  {@code 0} to run them on the calling thread
+   */
+  public Jsr107Configuration(final String defaultTemplate, final Map<String, String> templates,
+                             boolean jsr107CompliantAtomics, ConfigurationElementState enableManagementAll, ConfigurationElementState enableStatisticsAll,
+                             String bulkOperationsThreadPool, int bulkOperationsConcurrency) {
+    if (bulkOperationsConcurrency < 0) {
+      throw new IllegalArgumentException("Bulk operations concurrency must be positive or 0");
+    }
     this.defaultTemplate = defaultTemplate;
     this.jsr107CompliantAtomics = jsr107CompliantAtomics;
     this.enableManagementAll = enableManagementAll;
     this.enableStatisticsAll = enableStatisticsAll;
     this.templates = new ConcurrentHashMap<String, String>(templates);
+    this.bulkOperationsThreadPool = bulkOperationsThreadPool;
+    this.bulkOperationsConcurrency = bulkOperationsConcurrency;
   }
 
   /**
@@ -103,4 +128,24 @@ public class Jsr107Configuration implements ServiceCreationConfiguration<Jsr107S
   public ConfigurationElementState isEnableStatisticsAll() {
     return enableStatisticsAll;
   }
+
+  /**
+   * Returns the thread pool alias used by {@code loadAll} and {@code invokeAll}, or {@code null} for the default pool.
+   *
+   * @return the bulk operations thread pool alias
+   */
+  public String getBulkOperationsThreadPool() {
+    return bulkOperationsThreadPool;
+  }
+
+  /**
+   * Returns the number of parallel tasks {@code loadAll} and {@code invokeAll} are split into.
+   * <p>
+   * {@code 0} means both run on the calling thread, {@code loadAll} then completing before returning.
+   *
+   * @return the bulk operations concurrency
+   */
+  public int getBulkOperationsConcurrency() {
+    return bulkOperationsConcurrency;
+  }
 }
@@ -18,6 +18,8 @@ package org.ehcache.jsr107.config;
 
 import org.ehcache.spi.service.Service;
 
+import java.util.concurrent.ExecutorService;
+
 /**
  * {@link Service} interface for JSR-107 integration.
  */
@@ -54,4 +56,22 @@ public interface Jsr107Service extends Service {
    */
   ConfigurationElementState isStatisticsEnabledOnAllCaches();
 
+  /**
+   * Returns the number of parallel tasks {@code loadAll} and {@code invokeAll} are split into.
+   * <p>
+   * {@code 0} means these operations run on the calling thread.
+   *
+   * @return the bulk operations concurrency
+   */
+  int getBulkOperationsConcurrency();
+
+  /**
+   * Returns a new executor on which {@code loadAll} and {@code invokeAll} tasks are run.
+   * <p>
+   * The caller is responsible for shutting down the returned executor once its tasks are submitted.
+   *
+   * @return an executor for bulk operations tasks
+   */
+  ExecutorService getBulkOperationsExecutor();
+
 }
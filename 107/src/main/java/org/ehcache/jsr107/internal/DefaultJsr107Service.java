@@ -16,6 +16,7 @@
 
 package org.ehcache.jsr107.internal;
 
+import org.ehcache.core.spi.service.ExecutionService;
 import org.ehcache.core.spi.service.StatisticsService;
 import org.ehcache.jsr107.config.ConfigurationElementState;
 import org.ehcache.jsr107.config.Jsr107Configuration;
@@ -24,10 +25,14 @@ import org.ehcache.spi.service.ServiceDependencies;
 import org.ehcache.spi.service.ServiceProvider;
 import org.ehcache.spi.service.Service;
 
-@ServiceDependencies(StatisticsService.class)
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+
+@ServiceDependencies({StatisticsService.class, ExecutionService.class})
 public class DefaultJsr107Service implements Jsr107Service {
 
   private final Jsr107Configuration configuration;
+  private volatile ExecutionService executionService;
 
   public DefaultJsr107Service(Jsr107Configuration configuration) {
     this.configuration = configuration;
@@ -35,7 +40,7 @@ public class DefaultJsr107Service implements Jsr107Service {
 
   @Override
   public void start(final ServiceProvider<Service> serviceProvider) {
-    // no-op
+    executionService = serviceProvider.getService(ExecutionService.class);
   }
 
   @Override
@@ -53,7 +58,7 @@ public class DefaultJsr107Service implements Jsr107Service {
 
   @Override
   public void stop() {
-    // no-op
+    executionService = null;
   }
 
   @Override
@@ -82,4 +87,23 @@ public class DefaultJsr107Service implements Jsr107Service {
       return configuration.isEnableStatisticsAll();
     }
   }
+
+  @Override
+  public int getBulkOperationsConcurrency() {
+    if (configuration == null || executionService == null) {
+      return 0;
+    } else {
+      return configuration.getBulkOperationsConcurrency();
+    }
+  }
+
+  @Override
+  public ExecutorService getBulkOperationsExecutor() {
+    ExecutionService service = executionService;
+    if (service == null) {
+      throw new IllegalStateException("Service not started");
+    }
+    return service.getUnorderedExecutor(configuration == null ? null : configuration.getBulkOperationsThreadPool(),
+        new LinkedBlockingQueue<Runnable>());
+  }
 }
@@ -46,6 +46,8 @@ public class Jsr107ServiceConfigurationParser implements CacheManagerServiceConf
   private static final String JSR_107_COMPLIANT_ATOMICS_ATTRIBUTE = "jsr-107-compliant-atomics";
   private static final String ENABLE_STATISTICS_ALL_ATTRIBUTE = "enable-statistics";
   private static final String DEFAULT_TEMPLATE_ATTRIBUTE = "default-template";
+  private static final String BULK_OPERATIONS_THREAD_POOL_ATTRIBUTE = "bulk-operations-thread-pool";
+  private static final String BULK_OPERATIONS_CONCURRENCY_ATTRIBUTE = "bulk-operations-concurrency";
   private static final String CACHE_NAME_ATTRIBUTE = "name";
   private static final String TEMPLATE_NAME_ATTRIBUTE = "template";
 
@@ -73,6 +75,14 @@ public class Jsr107ServiceConfigurationParser implements CacheManagerServiceConf
     if (fragment.hasAttribute(ENABLE_STATISTICS_ALL_ATTRIBUTE)) {
       enableStatisticsAll = parseBoolean(fragment.getAttribute(ENABLE_STATISTICS_ALL_ATTRIBUTE)) ? ConfigurationElementState.ENABLED : ConfigurationElementState.DISABLED;
     }
+    String bulkOperationsThreadPool = null;
+    int bulkOperationsConcurrency = 0;
+    if (fragment.hasAttribute(BULK_OPERATIONS_THREAD_POOL_ATTRIBUTE)) {
+      bulkOperationsThreadPool = fragment.getAttribute(BULK_OPERATIONS_THREAD_POOL_ATTRIBUTE);
+    }
+    if (fragment.hasAttribute(BULK_OPERATIONS_CONCURRENCY_ATTRIBUTE)) {
+      bulkOperationsConcurrency = Integer.parseInt(fragment.getAttribute(BULK_OPERATIONS_CONCURRENCY_ATTRIBUTE));
+    }
     final String defaultTemplate = fragment.getAttribute(DEFAULT_TEMPLATE_ATTRIBUTE);
     final HashMap<String, String> templates = new HashMap<String, String>();
     final NodeList childNodes = fragment.getChildNodes();
@@ -84,6 +94,7 @@ public class Jsr107ServiceConfigurationParser implements CacheManagerServiceConf
       }
     }
 
-    return new Jsr107Configuration(defaultTemplate, templates, jsr107CompliantAtomics, enableManagementAll, enableStatisticsAll);
+    return new Jsr107Configuration(defaultTemplate, templates, jsr107CompliantAtomics, enableManagementAll, enableStatisticsAll,
+        bulkOperationsThreadPool, bulkOperationsConcurrency);
   }
 }
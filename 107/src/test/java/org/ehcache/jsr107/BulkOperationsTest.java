@@ -0,0 +1,212 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.jsr107;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.Factory;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.integration.CacheLoader;
+import javax.cache.integration.CacheLoaderException;
+import javax.cache.integration.CompletionListenerFuture;
+import javax.cache.processor.EntryProcessor;
+import javax.cache.processor.EntryProcessorException;
+import javax.cache.processor.EntryProcessorResult;
+import javax.cache.processor.MutableEntry;
+import javax.cache.spi.CachingProvider;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * BulkOperationsTest
+ */
+public class BulkOperationsTest {
+
+  private CachingProvider cachingProvider;
+  private CacheManager cacheManager;
+
+  @Before
+  public void setUp() throws Exception {
+    cachingProvider = Caching.getCachingProvider();
+    cacheManager = cachingProvider.getCacheManager(getClass().getResource("/ehcache-107-bulk-operations.xml").toURI(),
+        getClass().getClassLoader());
+  }
+
+  @After
+  public void tearDown() {
+    cachingProvider.close();
+  }
+
+  @Test
+  public void testLoadAllDoesNotBlockCaller() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    BlockingLoader loader = new BlockingLoader(release, false);
+    Cache<Long, String> cache = cacheManager.createCache("loadAllCache", configuration(loader));
+
+    Set<Long> keys = keys(100);
+    CompletionListenerFuture future = new CompletionListenerFuture();
+    cache.loadAll(keys, false, future);
+    assertThat(future.isDone(), is(false));
+
+    release.countDown();
+    future.get(10, TimeUnit.SECONDS);
+    for (Long key : keys) {
+      assertThat(cache.get(key), is("value" + key));
+    }
+    assertThat(loader.threads.contains(Thread.currentThread()), is(false));
+  }
+
+  @Test
+  public void testLoadAllReportsFailure() throws Exception {
+    CountDownLatch release = new CountDownLatch(0);
+    Cache<Long, String> cache = cacheManager.createCache("failingLoadAllCache", configuration(new BlockingLoader(release, true)));
+
+    CompletionListenerFuture future = new CompletionListenerFuture();
+    cache.loadAll(keys(10), false, future);
+    try {
+      future.get(10, TimeUnit.SECONDS);
+      fail("Expected ExecutionException");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), instanceOf(CacheLoaderException.class));
+    }
+  }
+
+  @Test
+  public void testInvokeAllProcessesEveryKey() throws Exception {
+    Cache<Long, String> cache = cacheManager.createCache("invokeAllCache", new MutableConfiguration<Long, String>().setTypes(Long.class, String.class));
+    Set<Long> keys = keys(100);
+    Map<Long, String> initial = new HashMap<Long, String>();
+    for (Long key : keys) {
+      initial.put(key, "value" + key);
+    }
+    cache.putAll(initial);
+
+    Map<Long, EntryProcessorResult<String>> results = cache.invokeAll(keys, new EntryProcessor<Long, String, String>() {
+      @Override
+      public String process(MutableEntry<Long, String> entry, Object... arguments) throws EntryProcessorException {
+        if (entry.getKey() == 13L) {
+          throw new IllegalStateException("unlucky");
+        }
+        String old = entry.getValue();
+        entry.setValue(old + arguments[0]);
+        return old;
+      }
+    }, "-updated");
+
+    assertThat(results.size(), is(100));
+    for (Long key : keys) {
+      if (key == 13L) {
+        try {
+          results.get(key).get();
+          fail("Expected EntryProcessorException");
+        } catch (EntryProcessorException e) {
+          assertThat(cache.get(key), is("value" + key));
+        }
+      } else {
+        assertThat(results.get(key).get(), is("value" + key));
+        assertThat(cache.get(key), is("value" + key + "-updated"));
+      }
+    }
+  }
+
+  @Test
+  public void testInvokeAllOnAbsentKeysReturnsNoResults() throws Exception {
+    Cache<Long, String> cache = cacheManager.createCache("absentInvokeAllCache", new MutableConfiguration<Long, String>().setTypes(Long.class, String.class));
+    Map<Long, EntryProcessorResult<String>> results = cache.invokeAll(keys(10), new EntryProcessor<Long, String, String>() {
+      @Override
+      public String process(MutableEntry<Long, String> entry, Object... arguments) throws EntryProcessorException {
+        return entry.getValue();
+      }
+    });
+    assertThat(results.isEmpty(), is(true));
+    assertThat(cache.get(1L), nullValue());
+  }
+
+  private static Set<Long> keys(int count) {
+    Set<Long> keys = new HashSet<Long>();
+    for (long i = 0; i < count; i++) {
+      keys.add(i);
+    }
+    return keys;
+  }
+
+  private static MutableConfiguration<Long, String> configuration(final CacheLoader<Long, String> loader) {
+    MutableConfiguration<Long, String> configuration = new MutableConfiguration<Long, String>();
+    configuration.setTypes(Long.class, String.class);
+    configuration.setCacheLoaderFactory(new Factory<CacheLoader<Long, String>>() {
+      @Override
+      public CacheLoader<Long, String> create() {
+        return loader;
+      }
+    });
+    return configuration;
+  }
+
+  private static class BlockingLoader implements CacheLoader<Long, String> {
+
+    private final CountDownLatch release;
+    private final boolean failing;
+    private final Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+
+    BlockingLoader(CountDownLatch release, boolean failing) {
+      this.release = release;
+      this.failing = failing;
+    }
+
+    @Override
+    public String load(Long key) throws CacheLoaderException {
+      return loadAll(Collections.singleton(key)).get(key);
+    }
+
+    @Override
+    public Map<Long, String> loadAll(Iterable<? extends Long> keys) throws CacheLoaderException {
+      threads.add(Thread.currentThread());
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        throw new CacheLoaderException(e);
+      }
+      if (failing) {
+        throw new CacheLoaderException("failing loadAll");
+      }
+      Map<Long, String> result = new HashMap<Long, String>();
+      for (Long key : keys) {
+        result.put(key, "value" + key);
+      }
+      return result;
+    }
+  }
+}
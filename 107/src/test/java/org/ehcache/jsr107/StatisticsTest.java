@@ -25,6 +25,7 @@ import javax.cache.CacheManager;
 import javax.cache.Caching;
 import javax.cache.configuration.MutableConfiguration;
 import javax.cache.spi.CachingProvider;
+import javax.management.StandardMBean;
 
 import java.util.HashSet;
 import java.util.concurrent.Callable;
@@ -200,6 +201,25 @@ public class StatisticsTest {
     assertThat(heapStatistics.getCacheMissPercentage(), is(allOf(greaterThan(39f), lessThan(41f))));
   }
 
+  @Test
+  public void test_getLatencyPercentiles() throws Exception {
+    assertThat(heapStatistics.getGetHitTime99thPercentile(), is(0.0f));
+
+    heapCache.put("key", "value");
+    for (int i = 0; i < 1000; i++) {
+      heapCache.get("key");
+    }
+
+    assertThat(heapStatistics.getGetHitTime99thPercentile(), greaterThan(0.0f));
+    assertThat(heapStatistics.getGetHitTime999thPercentile(), not(lessThan(heapStatistics.getGetHitTime99thPercentile())));
+
+    StandardMBean mbean = new StandardMBean(heapStatistics, EhcacheCacheStatisticsMXBean.class, true);
+    assertThat((Float) mbean.getAttribute("GetHitTime99thPercentile"), greaterThan(0.0f));
+
+    heapStatistics.clear();
+    assertThat(heapStatistics.getGetHitTime99thPercentile(), is(0.0f));
+  }
+
   @Test
   public void test_getAverageGetTime() throws Exception {
     assertThat(heapStatistics.getAverageGetTime(), is(0.0f));
@@ -0,0 +1,41 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.spi.loaderwriter;
+
+/**
+ * Receives write-behind operations that could not be written by the {@link CacheLoaderWriter}.
+ * <p>
+ * An operation is handed over once all configured retries have been exhausted. When batching, a failed batch is
+ * split until the failing operations are isolated, so only those reach the handler.
+ * <p>
+ * Implementations are invoked from the write-behind threads and should not block for long.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public interface WriteBehindDeadLetterHandler<K, V> {
+
+  /**
+   * Handles an operation that could not be written.
+   *
+   * @param key the key of the failed operation
+   * @param value the value of a failed write, or {@code null} if the failed operation is a delete
+   * @param failure the exception thrown by the last write attempt
+   * @throws Exception if the operation could not be handled, it is then treated as still pending
+   */
+  void deadLetter(K key, V value, Exception failure) throws Exception;
+}
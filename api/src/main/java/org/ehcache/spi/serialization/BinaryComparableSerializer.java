@@ -0,0 +1,33 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.spi.serialization;
+
+/**
+ * Marker for {@link Serializer}s whose serial forms are byte-for-byte identical if, and only if, the instances they
+ * represent are equal as defined by {@link #equals(Object, java.nio.ByteBuffer)}.
+ * <p>
+ * Tiers storing binary forms may then compare two stored serial forms byte-for-byte instead of deserializing either of
+ * them. An instance is still compared against a stored serial form through {@link #equals(Object, java.nio.ByteBuffer)},
+ * which such serializers should implement without deserializing the stored form.
+ * <p>
+ * Do not use this marker if an instance can have several serial forms, for example because its encoding changed
+ * between versions while persisted data in the older encoding remains readable.
+ *
+ * @param <T> the type of the instances to serialize
+ */
+public interface BinaryComparableSerializer<T> extends Serializer<T> {
+}
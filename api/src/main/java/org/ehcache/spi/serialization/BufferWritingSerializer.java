@@ -0,0 +1,60 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.spi.serialization;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Optional extension of {@link Serializer} for implementations able to write their serial form directly into a
+ * caller provided buffer.
+ * <p>
+ * Tiers storing binary forms check for this interface so they can size their own buffer once, lay out their metadata
+ * and have the serial form written in place, instead of copying it out of an intermediate buffer.
+ * Serializers not implementing it keep being used through {@link #serialize(Object)}.
+ * <p>
+ * On the read side, {@link #read(ByteBuffer)} and {@link #equals(Object, ByteBuffer)} may be handed a slice of the
+ * tier's own memory: implementations must not retain the buffer beyond the invocation.
+ *
+ * @param <T> the type of the instances to serialize
+ */
+public interface BufferWritingSerializer<T> extends Serializer<T> {
+
+  /**
+   * Returns the exact number of bytes {@link #serialize(Object, ByteBuffer)} writes for the given instance.
+   *
+   * @param object the instance to size
+   *
+   * @return the size of the serial form in bytes
+   *
+   * @throws SerializerException if sizing fails
+   */
+  int serializedSize(T object) throws SerializerException;
+
+  /**
+   * Writes the serial form of the given instance into the target buffer.
+   * <p>
+   * Exactly {@link #serializedSize(Object)} bytes are written, starting at the buffer's position which is advanced
+   * past them. The serial form must be identical to the one returned by {@link #serialize(Object)}.
+   *
+   * @param object the instance to serialize
+   * @param target the buffer to write into
+   *
+   * @throws SerializerException if serialization fails
+   * @throws java.nio.BufferOverflowException if the target does not have enough remaining space
+   */
+  void serialize(T object, ByteBuffer target) throws SerializerException;
+}
@@ -26,6 +26,7 @@ import org.ehcache.spi.service.ServiceConfiguration;
 public class ClusteredStoreConfiguration implements ServiceConfiguration<ClusteredStore.Provider> {
 
   private final Consistency consistency;
+  private final boolean writeOptimized;
 
   /**
    * Creates a new configuration with consistency set to {@link Consistency#EVENTUAL EVENTUAL}.
@@ -40,7 +41,21 @@ public class ClusteredStoreConfiguration implements ServiceConfiguration<Cluster
    * @param consistency the {@code Consistency}
    */
   public ClusteredStoreConfiguration(Consistency consistency) {
+    this(consistency, false);
+  }
+
+  /**
+   * Creates a new configuration with the provided {@link Consistency}, optionally optimized for writes.
+   * <p>
+   * A write optimized clustered tier sends puts without waiting for the server to process them, so puts no longer
+   * learn whether they replaced a previous mapping.
+   *
+   * @param consistency the {@code Consistency}
+   * @param writeOptimized whether puts should be pipelined
+   */
+  public ClusteredStoreConfiguration(Consistency consistency, boolean writeOptimized) {
     this.consistency = consistency;
+    this.writeOptimized = writeOptimized;
   }
 
   /**
@@ -59,4 +74,13 @@ public class ClusteredStoreConfiguration implements ServiceConfiguration<Cluster
   public Consistency getConsistency() {
     return consistency;
   }
+
+  /**
+   * Indicates whether puts are pipelined to the server instead of waiting for the previous mapping.
+   *
+   * @return {@code true} if this configuration is write optimized
+   */
+  public boolean isWriteOptimized() {
+    return writeOptimized;
+  }
 }
@@ -26,6 +26,7 @@ import org.ehcache.config.Builder;
 public class ClusteredStoreConfigurationBuilder implements Builder<ClusteredStoreConfiguration> {
 
   private final Consistency consistency;
+  private final boolean writeOptimized;
 
   /**
    * Creates a new builder instance with the provided {@link Consistency} configured.
@@ -38,7 +39,22 @@ public class ClusteredStoreConfigurationBuilder implements Builder<ClusteredStor
   }
 
   ClusteredStoreConfigurationBuilder(Consistency consistency) {
+    this(consistency, false);
+  }
+
+  private ClusteredStoreConfigurationBuilder(Consistency consistency, boolean writeOptimized) {
     this.consistency = consistency;
+    this.writeOptimized = writeOptimized;
+  }
+
+  /**
+   * Optimizes the clustered tier for writes: puts are pipelined to the server instead of waiting for the previous
+   * mapping, and their statistics no longer tell new mappings from updated ones.
+   *
+   * @return a new {@code Builder} instance
+   */
+  public ClusteredStoreConfigurationBuilder writeOptimized() {
+    return new ClusteredStoreConfigurationBuilder(consistency, true);
   }
 
   /**
@@ -46,6 +62,6 @@ public class ClusteredStoreConfigurationBuilder implements Builder<ClusteredStor
    */
   @Override
   public ClusteredStoreConfiguration build() {
-    return new ClusteredStoreConfiguration(consistency);
+    return new ClusteredStoreConfiguration(consistency, writeOptimized);
   }
 }
@@ -64,6 +64,7 @@ public class ClusteringServiceConfigurationParser implements CacheManagerService
 
   public static final String CLUSTERED_STORE_ELEMENT_NAME = "clustered-store";
   public static final String CONSISTENCY_ATTRIBUTE_NAME = "consistency";
+  public static final String WRITE_OPTIMIZED_ATTRIBUTE_NAME = "write-optimized";
 
   @Override
   public Source getXmlSchema() throws IOException {
@@ -78,11 +79,12 @@ public class ClusteringServiceConfigurationParser implements CacheManagerService
   @Override
   public ServiceConfiguration<ClusteredStore.Provider> parseServiceConfiguration(Element fragment) {
     if (CLUSTERED_STORE_ELEMENT_NAME.equals(fragment.getLocalName())) {
+      Consistency consistency = Consistency.EVENTUAL;
       if (fragment.hasAttribute(CONSISTENCY_ATTRIBUTE_NAME)) {
-        return new ClusteredStoreConfiguration(Consistency.valueOf(fragment.getAttribute("consistency").toUpperCase()));
-      } else {
-        return new ClusteredStoreConfiguration();
+        consistency = Consistency.valueOf(fragment.getAttribute(CONSISTENCY_ATTRIBUTE_NAME).toUpperCase());
       }
+      boolean writeOptimized = Boolean.parseBoolean(fragment.getAttribute(WRITE_OPTIMIZED_ATTRIBUTE_NAME));
+      return new ClusteredStoreConfiguration(consistency, writeOptimized);
     }
     throw new XmlConfigurationException(String.format("XML configuration element <%s> in <%s> is not supported",
         fragment.getTagName(), (fragment.getParentNode() == null ? "null" : fragment.getParentNode().getLocalName())));
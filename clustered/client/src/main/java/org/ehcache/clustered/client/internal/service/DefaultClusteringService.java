@@ -42,9 +42,12 @@ import org.ehcache.clustered.common.internal.messages.ServerStoreMessageFactory;
 import org.ehcache.config.CacheConfiguration;
 import org.ehcache.config.ResourceType;
 import org.ehcache.core.spi.store.Store;
+import org.ehcache.core.spi.time.SystemTimeSource;
+import org.ehcache.core.spi.time.TimeSourceService;
 import org.ehcache.spi.persistence.StateRepository;
 import org.ehcache.spi.service.MaintainableService;
 import org.ehcache.spi.service.Service;
+import org.ehcache.spi.service.ServiceDependencies;
 import org.ehcache.spi.service.ServiceProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -69,6 +72,7 @@ import java.util.concurrent.TimeoutException;
 /**
  * Provides support for accessing server-based cluster services.
  */
+@ServiceDependencies(TimeSourceService.class)
 class DefaultClusteringService implements ClusteringService, EntityService {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(DefaultClusteringService.class);
@@ -87,6 +91,7 @@ class DefaultClusteringService implements ClusteringService, EntityService {
   private final ConcurrentMap<String, ClusterTierClientEntity> clusterTierEntities = new ConcurrentHashMap<String, ClusterTierClientEntity>();
 
   private volatile boolean inMaintenance = false;
+  private volatile boolean systemTimeSource = false;
 
   DefaultClusteringService(final ClusteringServiceConfiguration configuration) {
     this.configuration = configuration;
@@ -141,6 +146,8 @@ class DefaultClusteringService implements ClusteringService, EntityService {
 
   @Override
   public void start(final ServiceProvider<Service> serviceProvider) {
+    TimeSourceService timeSourceService = (serviceProvider == null ? null : serviceProvider.getService(TimeSourceService.class));
+    systemTimeSource = timeSourceService != null && timeSourceService.getTimeSource() == SystemTimeSource.INSTANCE;
     initClusterConnection();
     createEntityFactory();
     try {
@@ -402,7 +409,8 @@ class DefaultClusteringService implements ClusteringService, EntityService {
         storeConfig.getValueType().getName(),
         (storeConfig.getKeySerializer() == null ? null : storeConfig.getKeySerializer().getClass().getName()),
         (storeConfig.getValueSerializer() == null ? null : storeConfig.getValueSerializer().getClass().getName()),
-        configuredConsistency
+        configuredConsistency,
+        systemTimeSource
     );
 
     ClusterTierClientEntity storeClientEntity;
@@ -0,0 +1,176 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.clustered.client.internal.store;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides when a resolved chain is worth compacting with a {@code replaceAtHead}.
+ * <p>
+ * Writes compact a chain once it holds too many operations for the key, or too many bytes overall. Reads compact such
+ * chains too, but compact smaller ones only for keys read at least as often as they are written: on write heavy keys
+ * the next write grows the chain again, and the compaction would likely lose the race with it anyway.
+ * <p>
+ * Writes that append without resolving the chain cannot compact it. Once too many of them went to a key since it was
+ * last compacted, the next one is asked to resolve the chain instead, so that write heavy keys still get compacted.
+ * <p>
+ * Read and write counts are kept per key hash in a small table of slots that hashes may share, and decay over time.
+ */
+class ChainCompactionPolicy {
+
+  static final String CHAIN_COMPACTION_BYTES_THRESHOLD_PROP = "ehcache.chain.compaction.bytes.threshold";
+  static final int DEFAULT_CHAIN_COMPACTION_BYTES_THRESHOLD = 64 * 1024;
+
+  private static final int ACCESS_SLOTS = 1024;
+  private static final int ACCESS_DECAY_THRESHOLD = 1 << 14;
+
+  private final int operationThreshold;
+  private final long bytesThreshold;
+
+  private final AtomicIntegerArray reads = new AtomicIntegerArray(ACCESS_SLOTS);
+  private final AtomicIntegerArray writes = new AtomicIntegerArray(ACCESS_SLOTS);
+  private final AtomicIntegerArray blindWrites = new AtomicIntegerArray(ACCESS_SLOTS);
+
+  private final AtomicLong compactions = new AtomicLong();
+  private final AtomicLong resolutions = new AtomicLong();
+  private final AtomicLong resolvedElements = new AtomicLong();
+  private final AtomicLong maxChainLength = new AtomicLong();
+
+  ChainCompactionPolicy(int operationThreshold) {
+    this(operationThreshold, Long.getLong(CHAIN_COMPACTION_BYTES_THRESHOLD_PROP, DEFAULT_CHAIN_COMPACTION_BYTES_THRESHOLD));
+  }
+
+  ChainCompactionPolicy(int operationThreshold, long bytesThreshold) {
+    this.operationThreshold = operationThreshold;
+    this.bytesThreshold = bytesThreshold;
+  }
+
+  /**
+   * Records a read of {@code hash}, and decides whether its resolved chain should be compacted.
+   */
+  boolean compactOnRead(long hash, ResolvedChain<?, ?> resolvedChain) {
+    int slot = slot(hash);
+    int readCount = increment(reads, writes, slot);
+    record(resolvedChain);
+    if (!resolvedChain.isCompacted()) {
+      return false;
+    } else if (isOversized(resolvedChain) || readCount >= writes.get(slot)) {
+      compacted(slot);
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+  /**
+   * Records a write of {@code hash}, and decides whether its resolved chain should be compacted.
+   */
+  boolean compactOnWrite(long hash, ResolvedChain<?, ?> resolvedChain) {
+    int slot = slot(hash);
+    increment(writes, reads, slot);
+    record(resolvedChain);
+    if (isOversized(resolvedChain)) {
+      compacted(slot);
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+  /**
+   * Records a write of {@code hash} whose chain is either not resolved, or always compacted.
+   */
+  void recordWrite(long hash) {
+    increment(writes, reads, slot(hash));
+  }
+
+  /**
+   * Decides whether a write of {@code hash} that would append without resolving the chain should resolve it instead,
+   * as more such writes than the operation threshold went to {@code hash} since it was last compacted.
+   * <p>
+   * A write told to resolve the chain is to be recorded through {@link #compactOnWrite(long, ResolvedChain)}, any other
+   * through {@link #recordWrite(long)}.
+   */
+  boolean resolveOnBlindWrite(long hash) {
+    int slot = slot(hash);
+    if (blindWrites.incrementAndGet(slot) > operationThreshold) {
+      blindWrites.set(slot, 0);
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+  /**
+   * Records a compaction that did not go through this policy.
+   */
+  void recordCompaction() {
+    compactions.incrementAndGet();
+  }
+
+  long getCompactions() {
+    return compactions.get();
+  }
+
+  double getAverageChainLength() {
+    long count = resolutions.get();
+    return count == 0 ? 0 : (double) resolvedElements.get() / count;
+  }
+
+  long getMaxChainLength() {
+    return maxChainLength.get();
+  }
+
+  private void compacted(int slot) {
+    blindWrites.set(slot, 0);
+    compactions.incrementAndGet();
+  }
+
+  private boolean isOversized(ResolvedChain<?, ?> resolvedChain) {
+    return resolvedChain.getCompactionCount() > operationThreshold || resolvedChain.getChainBytes() > bytesThreshold;
+  }
+
+  private void record(ResolvedChain<?, ?> resolvedChain) {
+    int length = resolvedChain.getChainLength();
+    resolutions.incrementAndGet();
+    resolvedElements.addAndGet(length);
+    long max;
+    while (length > (max = maxChainLength.get())) {
+      if (maxChainLength.compareAndSet(max, length)) {
+        break;
+      }
+    }
+  }
+
+  private static int increment(AtomicIntegerArray counters, AtomicIntegerArray others, int slot) {
+    int count = counters.incrementAndGet(slot);
+    if (count > ACCESS_DECAY_THRESHOLD) {
+      // halving both counts keeps their ratio while letting recent accesses dominate
+      counters.set(slot, count >>> 1);
+      others.set(slot, others.get(slot) >>> 1);
+      count >>>= 1;
+    }
+    return count;
+  }
+
+  private static int slot(long hash) {
+    int h = (int) (hash ^ (hash >>> 32));
+    h ^= (h >>> 16);
+    return h & (ACCESS_SLOTS - 1);
+  }
+}
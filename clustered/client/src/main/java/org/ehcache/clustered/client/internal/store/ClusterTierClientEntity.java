@@ -24,6 +24,7 @@ import org.ehcache.clustered.common.internal.messages.EhcacheEntityResponse;
 import org.ehcache.clustered.common.internal.messages.ServerStoreOpMessage;
 import org.ehcache.clustered.common.internal.messages.StateRepositoryOpMessage;
 import org.terracotta.connection.entity.Entity;
+import org.terracotta.entity.InvokeFuture;
 import org.terracotta.entity.MessageCodecException;
 
 import java.util.UUID;
@@ -42,7 +43,9 @@ public interface ClusterTierClientEntity extends Entity {
 
   EhcacheEntityResponse invokeServerStoreOperation(ServerStoreOpMessage message, boolean track) throws ClusterException, TimeoutException;
 
-  void invokeServerStoreOperationAsync(ServerStoreOpMessage message, boolean track) throws MessageCodecException;
+  InvokeFuture<EhcacheEntityResponse> invokeServerStoreOperationAsync(ServerStoreOpMessage message, boolean track) throws MessageCodecException;
+
+  EhcacheEntityResponse awaitServerStoreOperation(ServerStoreOpMessage message, InvokeFuture<EhcacheEntityResponse> future) throws ClusterException, TimeoutException;
 
   EhcacheEntityResponse invokeStateRepositoryOperation(StateRepositoryOpMessage message, boolean track) throws ClusterException, TimeoutException;
 
@@ -41,12 +41,14 @@ import org.ehcache.core.collections.ConcurrentWeakIdentityHashMap;
 import org.ehcache.core.spi.function.BiFunction;
 import org.ehcache.core.spi.function.Function;
 import org.ehcache.core.spi.function.NullaryFunction;
+import org.ehcache.core.config.store.StoreStatisticsConfiguration;
 import org.ehcache.core.spi.store.Store;
 import org.ehcache.core.spi.store.StoreAccessTimeoutException;
 import org.ehcache.core.spi.store.events.StoreEventSource;
 import org.ehcache.core.spi.store.StoreAccessException;
 import org.ehcache.core.spi.store.tiering.AuthoritativeTier;
 import org.ehcache.core.statistics.AuthoritativeTierOperationOutcomes;
+import org.ehcache.core.statistics.StatisticsLevel;
 import org.ehcache.core.statistics.StoreOperationOutcomes;
 import org.ehcache.core.spi.time.TimeSource;
 import org.ehcache.core.spi.time.TimeSourceService;
@@ -94,7 +96,8 @@ public class ClusteredStore<K, V> implements AuthoritativeTier<K, V> {
   static final String CHAIN_COMPACTION_THRESHOLD_PROP = "ehcache.chain.compaction.threshold";
   static final int DEFAULT_CHAIN_COMPACTION_THRESHOLD = 4;
 
-  private final int chainCompactionLimit;
+  private final ChainCompactionPolicy compactionPolicy;
+  private final boolean writeOptimized;
   private final OperationsCodec<K, V> codec;
   private final ChainResolver<K, V> resolver;
 
@@ -115,21 +118,23 @@ public class ClusteredStore<K, V> implements AuthoritativeTier<K, V> {
   private final OperationObserver<AuthoritativeTierOperationOutcomes.GetAndFaultOutcome> getAndFaultObserver;
 
 
-  private ClusteredStore(final OperationsCodec<K, V> codec, final ChainResolver<K, V> resolver, TimeSource timeSource) {
-    this.chainCompactionLimit = Integer.getInteger(CHAIN_COMPACTION_THRESHOLD_PROP, DEFAULT_CHAIN_COMPACTION_THRESHOLD);
+  private ClusteredStore(final OperationsCodec<K, V> codec, final ChainResolver<K, V> resolver, TimeSource timeSource,
+                         StatisticsLevel statisticsLevel, boolean writeOptimized) {
+    this.compactionPolicy = new ChainCompactionPolicy(Integer.getInteger(CHAIN_COMPACTION_THRESHOLD_PROP, DEFAULT_CHAIN_COMPACTION_THRESHOLD));
+    this.writeOptimized = writeOptimized;
     this.codec = codec;
     this.resolver = resolver;
     this.timeSource = timeSource;
 
-    this.getObserver = operation(StoreOperationOutcomes.GetOutcome.class).of(this).named("get").tag(STATISTICS_TAG).build();
-    this.putObserver = operation(StoreOperationOutcomes.PutOutcome.class).of(this).named("put").tag(STATISTICS_TAG).build();
-    this.removeObserver = operation(StoreOperationOutcomes.RemoveOutcome.class).of(this).named("remove").tag(STATISTICS_TAG).build();
-    this.putIfAbsentObserver = operation(StoreOperationOutcomes.PutIfAbsentOutcome.class).of(this).named("putIfAbsent").tag(STATISTICS_TAG).build();
-    this.conditionalRemoveObserver = operation(StoreOperationOutcomes.ConditionalRemoveOutcome.class).of(this).named("conditionalRemove").tag(STATISTICS_TAG).build();
-    this.replaceObserver = operation(StoreOperationOutcomes.ReplaceOutcome.class).of(this).named("replace").tag(STATISTICS_TAG).build();
-    this.conditionalReplaceObserver = operation(StoreOperationOutcomes.ConditionalReplaceOutcome.class).of(this).named("conditionalReplace").tag(STATISTICS_TAG).build();
-    this.evictionObserver = operation(StoreOperationOutcomes.EvictionOutcome.class).of(this).named("eviction").tag(STATISTICS_TAG).build();
-    this.getAndFaultObserver = operation(AuthoritativeTierOperationOutcomes.GetAndFaultOutcome.class).of(this).named("getAndFault").tag(STATISTICS_TAG).build();
+    this.getObserver = statisticsLevel.observer(operation(StoreOperationOutcomes.GetOutcome.class).of(this).named("get").tag(STATISTICS_TAG));
+    this.putObserver = statisticsLevel.observer(operation(StoreOperationOutcomes.PutOutcome.class).of(this).named("put").tag(STATISTICS_TAG));
+    this.removeObserver = statisticsLevel.observer(operation(StoreOperationOutcomes.RemoveOutcome.class).of(this).named("remove").tag(STATISTICS_TAG));
+    this.putIfAbsentObserver = statisticsLevel.observer(operation(StoreOperationOutcomes.PutIfAbsentOutcome.class).of(this).named("putIfAbsent").tag(STATISTICS_TAG));
+    this.conditionalRemoveObserver = statisticsLevel.observer(operation(StoreOperationOutcomes.ConditionalRemoveOutcome.class).of(this).named("conditionalRemove").tag(STATISTICS_TAG));
+    this.replaceObserver = statisticsLevel.observer(operation(StoreOperationOutcomes.ReplaceOutcome.class).of(this).named("replace").tag(STATISTICS_TAG));
+    this.conditionalReplaceObserver = statisticsLevel.observer(operation(StoreOperationOutcomes.ConditionalReplaceOutcome.class).of(this).named("conditionalReplace").tag(STATISTICS_TAG));
+    this.evictionObserver = statisticsLevel.observer(operation(StoreOperationOutcomes.EvictionOutcome.class).of(this).named("eviction").tag(STATISTICS_TAG));
+    this.getAndFaultObserver = statisticsLevel.observer(operation(AuthoritativeTierOperationOutcomes.GetAndFaultOutcome.class).of(this).named("getAndFault").tag(STATISTICS_TAG));
 
     Set<String> tags = new HashSet<String>(Arrays.asList(STATISTICS_TAG, "tier"));
     StatisticsManager.createPassThroughStatistic(this, "mappings", tags, new Callable<Number>() {
@@ -156,6 +161,24 @@ public class ClusteredStore<K, V> implements AuthoritativeTier<K, V> {
         return -1L;
       }
     });
+    StatisticsManager.createPassThroughStatistic(this, "compactions", tags, new Callable<Number>() {
+      @Override
+      public Number call() throws Exception {
+        return compactionPolicy.getCompactions();
+      }
+    });
+    StatisticsManager.createPassThroughStatistic(this, "averageChainLength", tags, new Callable<Number>() {
+      @Override
+      public Number call() throws Exception {
+        return compactionPolicy.getAverageChainLength();
+      }
+    });
+    StatisticsManager.createPassThroughStatistic(this, "maxChainLength", tags, new Callable<Number>() {
+      @Override
+      public Number call() throws Exception {
+        return compactionPolicy.getMaxChainLength();
+      }
+    });
 
   }
 
@@ -163,7 +186,14 @@ public class ClusteredStore<K, V> implements AuthoritativeTier<K, V> {
    * For tests
    */
   ClusteredStore(OperationsCodec<K, V> codec, ChainResolver<K, V> resolver, ServerStoreProxy proxy, TimeSource timeSource) {
-    this(codec, resolver, timeSource);
+    this(codec, resolver, proxy, timeSource, false);
+  }
+
+  /**
+   * For tests
+   */
+  ClusteredStore(OperationsCodec<K, V> codec, ChainResolver<K, V> resolver, ServerStoreProxy proxy, TimeSource timeSource, boolean writeOptimized) {
+    this(codec, resolver, timeSource, StoreStatisticsConfiguration.DEFAULT_STATISTICS_LEVEL, writeOptimized);
     this.storeProxy = proxy;
   }
 
@@ -193,7 +223,7 @@ public class ClusteredStore<K, V> implements AuthoritativeTier<K, V> {
       if(!chain.isEmpty()) {
         ResolvedChain<K, V> resolvedChain = resolver.resolve(chain, key, timeSource.getTimeMillis());
 
-        if (resolvedChain.isCompacted()) {
+        if (compactionPolicy.compactOnRead(extractLongKey(key), resolvedChain)) {
           Chain compactedChain = resolvedChain.getCompactedChain();
           storeProxy.replaceAtHead(extractLongKey(key), chain, compactedChain);
         }
@@ -247,13 +277,20 @@ public class ClusteredStore<K, V> implements AuthoritativeTier<K, V> {
       PutOperation<K, V> operation = new PutOperation<K, V>(key, value, timeSource.getTimeMillis());
       ByteBuffer payload = codec.encode(operation);
       long extractedKey = extractLongKey(key);
+      if (writeOptimized && !compactionPolicy.resolveOnBlindWrite(extractedKey)) {
+        // the previous mapping is not fetched, so new and updated mappings cannot be told apart
+        storeProxy.append(extractedKey, payload);
+        compactionPolicy.recordWrite(extractedKey);
+        return PutStatus.PUT;
+      }
       Chain chain = storeProxy.getAndAppend(extractedKey, payload);
       ResolvedChain<K, V> resolvedChain = resolver.resolve(chain, key, timeSource.getTimeMillis());
       if(resolvedChain.getResolvedResult(key) == null) {
+        compactionPolicy.recordWrite(extractedKey);
         return PutStatus.PUT;
       } else {
 
-        if (resolvedChain.getCompactionCount() > chainCompactionLimit) {
+        if (compactionPolicy.compactOnWrite(extractedKey, resolvedChain)) {
           Chain compactedChain = resolvedChain.getCompactedChain();
           storeProxy.replaceAtHead(extractedKey, chain, compactedChain);
         }
@@ -278,7 +315,7 @@ public class ClusteredStore<K, V> implements AuthoritativeTier<K, V> {
       Chain chain = storeProxy.getAndAppend(extractedKey, payload);
       ResolvedChain<K, V> resolvedChain = resolver.resolve(chain, key, timeSource.getTimeMillis());
 
-      if (resolvedChain.getCompactionCount() > chainCompactionLimit) {
+      if (compactionPolicy.compactOnWrite(extractedKey, resolvedChain)) {
         Chain compactedChain = resolvedChain.getCompactedChain();
         storeProxy.replaceAtHead(extractedKey, chain, compactedChain);
       }
@@ -319,8 +356,10 @@ public class ClusteredStore<K, V> implements AuthoritativeTier<K, V> {
       Chain chain = storeProxy.getAndAppend(extractedKey, payload);
       ResolvedChain<K, V> resolvedChain = resolver.resolve(chain, key, timeSource.getTimeMillis());
 
+      compactionPolicy.recordWrite(extractedKey);
       if(resolvedChain.getResolvedResult(key) != null) {
         storeProxy.replaceAtHead(extractedKey, chain, resolvedChain.getCompactedChain());
+        compactionPolicy.recordCompaction();
         return true;
       } else {
         return false;
@@ -343,10 +382,12 @@ public class ClusteredStore<K, V> implements AuthoritativeTier<K, V> {
       Chain chain = storeProxy.getAndAppend(extractedKey, payload);
       ResolvedChain<K, V> resolvedChain = resolver.resolve(chain, key, timeSource.getTimeMillis());
 
+      compactionPolicy.recordWrite(extractedKey);
       Result<V> result = resolvedChain.getResolvedResult(key);
       if(result != null) {
         if(value.equals(result.getValue())) {
           storeProxy.replaceAtHead(extractedKey, chain, resolvedChain.getCompactedChain());
+          compactionPolicy.recordCompaction();
 
           conditionalRemoveObserver.end(StoreOperationOutcomes.ConditionalRemoveOutcome.REMOVED);
           return RemoveStatus.REMOVED;
@@ -376,7 +417,7 @@ public class ClusteredStore<K, V> implements AuthoritativeTier<K, V> {
       Chain chain = storeProxy.getAndAppend(extractedKey, payload);
       ResolvedChain<K, V> resolvedChain = resolver.resolve(chain, key, timeSource.getTimeMillis());
 
-      if (resolvedChain.getCompactionCount() > chainCompactionLimit) {
+      if (compactionPolicy.compactOnWrite(extractedKey, resolvedChain)) {
         Chain compactedChain = resolvedChain.getCompactedChain();
         storeProxy.replaceAtHead(extractedKey, chain, compactedChain);
       }
@@ -407,7 +448,7 @@ public class ClusteredStore<K, V> implements AuthoritativeTier<K, V> {
       Chain chain = storeProxy.getAndAppend(extractedKey, payload);
       ResolvedChain<K, V> resolvedChain = resolver.resolve(chain, key, timeSource.getTimeMillis());
 
-      if (resolvedChain.getCompactionCount() > chainCompactionLimit) {
+      if (compactionPolicy.compactOnWrite(extractedKey, resolvedChain)) {
         Chain compactedChain = resolvedChain.getCompactedChain();
         storeProxy.replaceAtHead(extractedKey, chain, compactedChain);
       }
@@ -609,21 +650,23 @@ public class ClusteredStore<K, V> implements AuthoritativeTier<K, V> {
     @Override
     public <K, V> ClusteredStore<K, V> createStore(final Configuration<K, V> storeConfig, final ServiceConfiguration<?>... serviceConfigs) {
       ClusteredStore<K, V> store = createStoreInternal(storeConfig, serviceConfigs);
-      Collection<MappedOperationStatistic<?, ?>> tieredOps = new ArrayList<MappedOperationStatistic<?, ?>>();
-
-      MappedOperationStatistic<StoreOperationOutcomes.GetOutcome, TierOperationOutcomes.GetOutcome> get =
-              new MappedOperationStatistic<StoreOperationOutcomes.GetOutcome, TierOperationOutcomes.GetOutcome>(
-                      store, TierOperationOutcomes.GET_TRANSLATION, "get", TIER_HEIGHT, "get", STATISTICS_TAG);
-      StatisticsManager.associate(get).withParent(store);
-      tieredOps.add(get);
-
-      MappedOperationStatistic<StoreOperationOutcomes.EvictionOutcome, TierOperationOutcomes.EvictionOutcome> evict =
-              new MappedOperationStatistic<StoreOperationOutcomes.EvictionOutcome, TierOperationOutcomes.EvictionOutcome>(
-                      store, TierOperationOutcomes.EVICTION_TRANSLATION, "eviction", TIER_HEIGHT, "eviction", STATISTICS_TAG);
-      StatisticsManager.associate(evict).withParent(store);
-      tieredOps.add(evict);
-
-      tierOperationStatistics.put(store, tieredOps);
+      if (StatisticsLevel.of((Object[]) serviceConfigs).countsOperations()) {
+        Collection<MappedOperationStatistic<?, ?>> tieredOps = new ArrayList<MappedOperationStatistic<?, ?>>();
+
+        MappedOperationStatistic<StoreOperationOutcomes.GetOutcome, TierOperationOutcomes.GetOutcome> get =
+                new MappedOperationStatistic<StoreOperationOutcomes.GetOutcome, TierOperationOutcomes.GetOutcome>(
+                        store, TierOperationOutcomes.GET_TRANSLATION, "get", TIER_HEIGHT, "get", STATISTICS_TAG);
+        StatisticsManager.associate(get).withParent(store);
+        tieredOps.add(get);
+
+        MappedOperationStatistic<StoreOperationOutcomes.EvictionOutcome, TierOperationOutcomes.EvictionOutcome> evict =
+                new MappedOperationStatistic<StoreOperationOutcomes.EvictionOutcome, TierOperationOutcomes.EvictionOutcome>(
+                        store, TierOperationOutcomes.EVICTION_TRANSLATION, "eviction", TIER_HEIGHT, "eviction", STATISTICS_TAG);
+        StatisticsManager.associate(evict).withParent(store);
+        tieredOps.add(evict);
+
+        tierOperationStatistics.put(store, tieredOps);
+      }
       return store;
     }
 
@@ -665,7 +708,8 @@ public class ClusteredStore<K, V> implements AuthoritativeTier<K, V> {
       ChainResolver<K, V> resolver = new ChainResolver<K, V>(codec, storeConfig.getExpiry());
 
 
-      ClusteredStore<K, V> store = new ClusteredStore<K, V>(codec, resolver, timeSource);
+      ClusteredStore<K, V> store = new ClusteredStore<K, V>(codec, resolver, timeSource, StatisticsLevel.of(serviceConfigs),
+          clusteredStoreConfiguration.isWriteOptimized());
 
       createdStores.put(store, new StoreConfig(cacheId, storeConfig, clusteredStoreConfiguration.getConsistency()));
       return store;
@@ -783,21 +827,23 @@ public class ClusteredStore<K, V> implements AuthoritativeTier<K, V> {
     @Override
     public <K, V> AuthoritativeTier<K, V> createAuthoritativeTier(Configuration<K, V> storeConfig, ServiceConfiguration<?>... serviceConfigs) {
       ClusteredStore<K, V> authoritativeTier = createStoreInternal(storeConfig, serviceConfigs);
-      Collection<MappedOperationStatistic<?, ?>> tieredOps = new ArrayList<MappedOperationStatistic<?, ?>>();
-
-      MappedOperationStatistic<AuthoritativeTierOperationOutcomes.GetAndFaultOutcome, TierOperationOutcomes.GetOutcome> get =
-              new MappedOperationStatistic<AuthoritativeTierOperationOutcomes.GetAndFaultOutcome, TierOperationOutcomes.GetOutcome>(
-                      authoritativeTier, TierOperationOutcomes.GET_AND_FAULT_TRANSLATION, "get", TIER_HEIGHT, "getAndFault", STATISTICS_TAG);
-      StatisticsManager.associate(get).withParent(authoritativeTier);
-      tieredOps.add(get);
-
-      MappedOperationStatistic<StoreOperationOutcomes.EvictionOutcome, TierOperationOutcomes.EvictionOutcome> evict =
-              new MappedOperationStatistic<StoreOperationOutcomes.EvictionOutcome, TierOperationOutcomes.EvictionOutcome>(
-                      authoritativeTier, TierOperationOutcomes.EVICTION_TRANSLATION, "eviction", TIER_HEIGHT, "eviction", STATISTICS_TAG);
-      StatisticsManager.associate(evict).withParent(authoritativeTier);
-      tieredOps.add(evict);
-
-      tierOperationStatistics.put(authoritativeTier, tieredOps);
+      if (StatisticsLevel.of((Object[]) serviceConfigs).countsOperations()) {
+        Collection<MappedOperationStatistic<?, ?>> tieredOps = new ArrayList<MappedOperationStatistic<?, ?>>();
+
+        MappedOperationStatistic<AuthoritativeTierOperationOutcomes.GetAndFaultOutcome, TierOperationOutcomes.GetOutcome> get =
+                new MappedOperationStatistic<AuthoritativeTierOperationOutcomes.GetAndFaultOutcome, TierOperationOutcomes.GetOutcome>(
+                        authoritativeTier, TierOperationOutcomes.GET_AND_FAULT_TRANSLATION, "get", TIER_HEIGHT, "getAndFault", STATISTICS_TAG);
+        StatisticsManager.associate(get).withParent(authoritativeTier);
+        tieredOps.add(get);
+
+        MappedOperationStatistic<StoreOperationOutcomes.EvictionOutcome, TierOperationOutcomes.EvictionOutcome> evict =
+                new MappedOperationStatistic<StoreOperationOutcomes.EvictionOutcome, TierOperationOutcomes.EvictionOutcome>(
+                        authoritativeTier, TierOperationOutcomes.EVICTION_TRANSLATION, "eviction", TIER_HEIGHT, "eviction", STATISTICS_TAG);
+        StatisticsManager.associate(evict).withParent(authoritativeTier);
+        tieredOps.add(evict);
+
+        tierOperationStatistics.put(authoritativeTier, tieredOps);
+      }
       return authoritativeTier;
     }
 
@@ -15,18 +15,58 @@
  */
 package org.ehcache.clustered.client.internal.store;
 
+import org.ehcache.clustered.common.internal.exceptions.ClusterException;
+import org.ehcache.clustered.common.internal.messages.EhcacheEntityResponse;
 import org.ehcache.clustered.common.internal.messages.ServerStoreMessageFactory;
+import org.ehcache.clustered.common.internal.messages.ServerStoreOpMessage;
 import org.ehcache.clustered.common.internal.store.Chain;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terracotta.entity.InvokeFuture;
+import org.terracotta.entity.MessageCodecException;
 
 import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * {@link ServerStoreProxy} for eventually consistent clustered tiers.
+ * <p>
+ * Appends are pipelined: they are sent without waiting for the server to process them. Appends on a given key are
+ * processed by the server in the order they were sent, and a {@link #get(long)} on a key first waits for the appends
+ * this proxy has pending on that key, so that it observes them.
+ * <p>
+ * A pipelined append that fails is reported by the next operation on its key, which fails with a
+ * {@link ServerStoreProxyException} instead of proceeding.
+ */
 public class EventualServerStoreProxy implements ServerStoreProxy {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(EventualServerStoreProxy.class);
+
+  /**
+   * Number of keys with pending appends past which appending waits for all of them, bounding the memory they hold.
+   */
+  static final int MAX_PENDING_APPENDS = 1024;
+
+  private static final int APPEND_LOCKS = 64;
+
   private final ServerStoreProxy delegate;
+  private final ServerStoreMessageFactory messageFactory;
+  private final ClusterTierClientEntity entity;
+  private final ConcurrentMap<Long, PendingAppend> pendingAppends = new ConcurrentHashMap<Long, PendingAppend>();
+  private final ConcurrentMap<Long, Exception> failedAppends = new ConcurrentHashMap<Long, Exception>();
+  private final Object[] appendLocks = new Object[APPEND_LOCKS];
 
   public EventualServerStoreProxy(String cacheId, final ServerStoreMessageFactory messageFactory, final ClusterTierClientEntity entity) {
     this.delegate = new CommonServerStoreProxy(cacheId, messageFactory, entity);
+    this.messageFactory = messageFactory;
+    this.entity = entity;
+    for (int i = 0; i < appendLocks.length; i++) {
+      appendLocks[i] = new Object();
+    }
   }
 
   @Override
@@ -46,31 +86,123 @@ public class EventualServerStoreProxy implements ServerStoreProxy {
 
   @Override
   public void close() {
-    delegate.close();
+    try {
+      awaitPendingAppends();
+    } catch (TimeoutException e) {
+      LOGGER.warn("Timed out waiting for pending appends on cache {} while closing", getCacheId(), e);
+    } finally {
+      delegate.close();
+    }
   }
 
   @Override
   public Chain get(long key) throws TimeoutException {
+    awaitPendingAppend(key);
+    checkFailedAppend(key);
     return delegate.get(key);
   }
 
   @Override
   public void append(final long key, final ByteBuffer payLoad) throws TimeoutException {
-    delegate.append(key, payLoad);
+    ServerStoreOpMessage message = messageFactory.appendOperation(key, payLoad);
+    // sending and recording under the same lock keeps the recorded append the last one sent for the key
+    synchronized (appendLocks[(int) (key & (APPEND_LOCKS - 1))]) {
+      PendingAppend previous = pendingAppends.get(key);
+      if (previous != null && previous.future.isDone()) {
+        await(key, previous);
+        previous = null;
+      }
+      checkFailedAppend(key);
+      try {
+        pendingAppends.put(key, new PendingAppend(message, entity.invokeServerStoreOperationAsync(message, true), previous));
+      } catch (MessageCodecException e) {
+        throw new ServerStoreProxyException(e);
+      }
+    }
+    if (pendingAppends.size() > MAX_PENDING_APPENDS) {
+      awaitPendingAppends();
+    }
   }
 
   @Override
   public Chain getAndAppend(final long key, final ByteBuffer payLoad) throws TimeoutException {
+    awaitPendingAppend(key);
+    checkFailedAppend(key);
     return delegate.getAndAppend(key, payLoad);
   }
 
   @Override
   public void replaceAtHead(long key, Chain expect, Chain update) {
+    checkFailedAppend(key);
     delegate.replaceAtHead(key, expect, update);
   }
 
   @Override
   public void clear() throws TimeoutException {
+    awaitPendingAppends();
+    // the failed appends no longer matter once the content is gone
+    failedAppends.clear();
     delegate.clear();
   }
+
+  private void awaitPendingAppends() throws TimeoutException {
+    for (Map.Entry<Long, PendingAppend> pending : pendingAppends.entrySet()) {
+      await(pending.getKey(), pending.getValue());
+    }
+  }
+
+  private void awaitPendingAppend(long key) throws TimeoutException {
+    PendingAppend pending = pendingAppends.get(key);
+    if (pending != null) {
+      await(key, pending);
+    }
+  }
+
+  /**
+   * Waits for {@code pending} and the appends it superseded, recording the failure of any of them against the key.
+   */
+  private void await(long key, PendingAppend pending) throws TimeoutException {
+    for (PendingAppend append = pending; append != null; append = append.previous) {
+      try {
+        entity.awaitServerStoreOperation(append.message, append.future);
+      } catch (ClusterException e) {
+        appendFailed(key, append, e);
+      } catch (RuntimeException e) {
+        appendFailed(key, append, e);
+      }
+    }
+    pendingAppends.remove(key, pending);
+  }
+
+  private void appendFailed(long key, PendingAppend append, Exception e) {
+    // an append can be awaited more than once, through the appends that superseded it
+    if (append.failureReported.compareAndSet(false, true)) {
+      LOGGER.warn("Pipelined append on hash {} of cache {} failed", key, getCacheId(), e);
+      failedAppends.put(key, e);
+    }
+  }
+
+  private void checkFailedAppend(long key) {
+    Exception failure = failedAppends.remove(key);
+    if (failure != null) {
+      throw new ServerStoreProxyException("Pipelined append on hash " + key + " of cache " + getCacheId() + " failed", failure);
+    }
+  }
+
+  private static final class PendingAppend {
+
+    private final ServerStoreOpMessage message;
+    private final InvokeFuture<EhcacheEntityResponse> future;
+    /**
+     * Append on the same key sent before this one and not known to be complete when this one was sent.
+     */
+    private final PendingAppend previous;
+    private final AtomicBoolean failureReported = new AtomicBoolean();
+
+    PendingAppend(ServerStoreOpMessage message, InvokeFuture<EhcacheEntityResponse> future, PendingAppend previous) {
+      this.message = message;
+      this.future = future;
+      this.previous = previous;
+    }
+  }
 }
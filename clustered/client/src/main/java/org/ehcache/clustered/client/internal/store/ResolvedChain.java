@@ -49,6 +49,20 @@ public interface ResolvedChain<K, V> {
    */
   int getCompactionCount();
 
+  /**
+   * Returns the number of elements of the chain this was resolved from.
+   *
+   * @return the original chain length
+   */
+  int getChainLength();
+
+  /**
+   * Returns the total size of the payloads of the chain this was resolved from.
+   *
+   * @return the original chain size in bytes
+   */
+  long getChainBytes();
+
   /**
    * Represents the {@link ResolvedChain} result of a resolver that resolves
    * all the keys in a {@link Chain}
@@ -58,17 +72,29 @@ public interface ResolvedChain<K, V> {
     private final Chain compactedChain;
     private final Map<K, Result<V>> resolvedOperations;
     private final int compactionCount;
+    private final int chainLength;
+    private final long chainBytes;
 
-    public Impl(Chain compactedChain, Map<K, Result<V>> resolvedOperations, int compactionCount) {
+    public Impl(Chain compactedChain, Map<K, Result<V>> resolvedOperations, int compactionCount, int chainLength, long chainBytes) {
       this.compactedChain = compactedChain;
       this.resolvedOperations = resolvedOperations;
       this.compactionCount = compactionCount;
+      this.chainLength = chainLength;
+      this.chainBytes = chainBytes;
+    }
+
+    public Impl(Chain compactedChain, Map<K, Result<V>> resolvedOperations, int compactionCount) {
+      this(compactedChain, resolvedOperations, compactionCount, 0, 0L);
     }
 
     public Impl(Chain compactedChain, K key, Result<V> result, int compactedSize) {
       this(compactedChain, Collections.singletonMap(key, result), compactedSize);
     }
 
+    public Impl(Chain compactedChain, K key, Result<V> result, int compactedSize, int chainLength, long chainBytes) {
+      this(compactedChain, Collections.singletonMap(key, result), compactedSize, chainLength, chainBytes);
+    }
+
     public Chain getCompactedChain() {
       return this.compactedChain;
     }
@@ -85,5 +111,15 @@ public interface ResolvedChain<K, V> {
     public int getCompactionCount() {
       return compactionCount;
     }
+
+    @Override
+    public int getChainLength() {
+      return chainLength;
+    }
+
+    @Override
+    public long getChainBytes() {
+      return chainBytes;
+    }
   }
 }
@@ -36,4 +36,14 @@ public class ServerStoreProxyException extends RuntimeException {
   public ServerStoreProxyException(String message) {
     super(message);
   }
+
+  /**
+   * Creates a {@code ServerStoreProxyException} with the provided message and {@link Throwable cause}.
+   *
+   * @param message information about the exception
+   * @param cause the cause of this exception
+   */
+  public ServerStoreProxyException(String message, Throwable cause) {
+    super(message, cause);
+  }
 }
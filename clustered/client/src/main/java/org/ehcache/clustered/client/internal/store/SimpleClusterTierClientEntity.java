@@ -213,9 +213,15 @@ public class SimpleClusterTierClientEntity implements InternalClusterTierClientE
   }
 
   @Override
-  public void invokeServerStoreOperationAsync(ServerStoreOpMessage message, boolean track)
+  public InvokeFuture<EhcacheEntityResponse> invokeServerStoreOperationAsync(ServerStoreOpMessage message, boolean track)
       throws MessageCodecException {
-    internalInvokeAsync(message, track);
+    return internalInvokeAsync(message, track);
+  }
+
+  @Override
+  public EhcacheEntityResponse awaitServerStoreOperation(ServerStoreOpMessage message, InvokeFuture<EhcacheEntityResponse> future)
+      throws ClusterException, TimeoutException {
+    return complete(timeouts.getMutativeOperationTimeout(), message, future);
   }
 
   private EhcacheEntityResponse invoke(EhcacheOperationMessage message, boolean track)
@@ -231,7 +237,16 @@ public class SimpleClusterTierClientEntity implements InternalClusterTierClientE
       throws ClusterException, TimeoutException {
 
     try {
-      EhcacheEntityResponse response = waitFor(timeLimit, internalInvokeAsync(message, track));
+      return complete(timeLimit, message, internalInvokeAsync(message, track));
+    } catch (MessageCodecException e) {
+      throw new RuntimeException(message + " error: " + e.toString(), e);
+    }
+  }
+
+  private EhcacheEntityResponse complete(TimeoutDuration timeLimit, EhcacheEntityMessage message, InvokeFuture<EhcacheEntityResponse> future)
+      throws ClusterException, TimeoutException {
+    try {
+      EhcacheEntityResponse response = waitFor(timeLimit, future);
       if (EhcacheResponseType.FAILURE.equals(response.getResponseType())) {
         throw ((Failure)response).getCause();
       } else {
@@ -239,8 +254,6 @@ public class SimpleClusterTierClientEntity implements InternalClusterTierClientE
       }
     } catch (EntityException e) {
       throw new RuntimeException(message + " error: " + e.toString(), e);
-    } catch (MessageCodecException e) {
-      throw new RuntimeException(message + " error: " + e.toString(), e);
     } catch (TimeoutException e) {
       String msg = "Timeout exceeded for " + message + " message; " + timeLimit;
       TimeoutException timeoutException = new TimeoutException(msg);
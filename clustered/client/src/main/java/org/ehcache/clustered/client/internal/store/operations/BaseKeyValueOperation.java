@@ -77,25 +77,28 @@ abstract class BaseKeyValueOperation<K, V> implements Operation<K, V> {
    *
    * While decoding, the size is read first and then reading the same number of
    * bytes will get you the key payload. Whatever that is left is the value payload.
+   *
+   * Payloads are written in place when the serializers support it, saving the
+   * intermediate buffers.
    */
   @Override
   public ByteBuffer encode(final Serializer<K> keySerializer, final Serializer<V> valueSerializer) {
-    ByteBuffer keyBuf = keySerializer.serialize(key);
-    ByteBuffer valueBuf = valueHolder.encode(valueSerializer);
+    ByteBuffer keyBuf = Payloads.serializeIfRequired(keySerializer, key);
+    int keySize = Payloads.size(keySerializer, key, keyBuf);
 
     int size = BYTE_SIZE_BYTES +   // Operation type
                INT_SIZE_BYTES +    // Size of the key payload
                LONG_SIZE_BYTES +   // Size of expiration time stamp
-               keyBuf.remaining() + // the key payload itself
-               valueBuf.remaining();  // the value payload
+               keySize +           // the key payload itself
+               valueHolder.encodedSize(valueSerializer);  // the value payload
 
     ByteBuffer buffer = ByteBuffer.allocate(size);
 
     buffer.put(getOpCode().getValue());
     buffer.putLong(this.timeStamp);
-    buffer.putInt(keyBuf.remaining());
-    buffer.put(keyBuf);
-    buffer.put(valueBuf);
+    buffer.putInt(keySize);
+    Payloads.write(keySerializer, key, keyBuf, buffer);
+    valueHolder.encodeInto(valueSerializer, buffer);
     buffer.flip();
     return buffer;
   }
@@ -65,9 +65,13 @@ public class ChainResolver<K, V> {
     ChainBuilder chainBuilder = new ChainBuilder();
     long expirationTime = Long.MIN_VALUE;
     int keyMatch = 0;
+    int chainLength = 0;
+    long chainBytes = 0;
     boolean compacted = false;
     for (Element element : chain) {
       ByteBuffer payload = element.getPayload();
+      chainLength++;
+      chainBytes += payload.remaining();
       Operation<K, V> operation = codec.decode(payload);
       final Result<V> previousResult = result;
       if(key.equals(operation.getKey())) {
@@ -134,9 +138,9 @@ public class ChainResolver<K, V> {
         ByteBuffer payload = codec.encode(resolvedOperation);
         chainBuilder = chainBuilder.add(payload);
       }
-      return new ResolvedChain.Impl<K, V>(chainBuilder.build(), key, result, keyMatch);
+      return new ResolvedChain.Impl<K, V>(chainBuilder.build(), key, result, keyMatch, chainLength, chainBytes);
     } else {
-      return new ResolvedChain.Impl<K, V>(chain, key, result, 0);
+      return new ResolvedChain.Impl<K, V>(chain, key, result, 0, chainLength, chainBytes);
     }
   }
 }
@@ -109,25 +109,25 @@ public class ConditionalReplaceOperation<K, V> implements Operation<K, V>, Resul
 
   @Override
   public ByteBuffer encode(final Serializer<K> keySerializer, final Serializer<V> valueSerializer) {
-    ByteBuffer keyBuf = keySerializer.serialize(key);
-    ByteBuffer oldValueBuf = oldValueHolder.encode(valueSerializer);
-    ByteBuffer valueBuf = newValueHolder.encode(valueSerializer);
+    ByteBuffer keyBuf = Payloads.serializeIfRequired(keySerializer, key);
+    int keySize = Payloads.size(keySerializer, key, keyBuf);
+    int oldValueSize = oldValueHolder.encodedSize(valueSerializer);
 
     ByteBuffer buffer = ByteBuffer.allocate(BYTE_SIZE_BYTES +   // Operation type
                                             INT_SIZE_BYTES +    // Size of the key payload
                                             LONG_SIZE_BYTES +   // Size of expiration time stamp
-                                            keyBuf.remaining() + // the key payload itself
+                                            keySize +           // the key payload itself
                                             INT_SIZE_BYTES +    // Size of the old value payload
-                                            oldValueBuf.remaining() +  // The old value payload itself
-                                            valueBuf.remaining());  // The value payload itself
+                                            oldValueSize +      // The old value payload itself
+                                            newValueHolder.encodedSize(valueSerializer));  // The value payload itself
 
     buffer.put(getOpCode().getValue());
     buffer.putLong(this.timeStamp);
-    buffer.putInt(keyBuf.remaining());
-    buffer.put(keyBuf);
-    buffer.putInt(oldValueBuf.remaining());
-    buffer.put(oldValueBuf);
-    buffer.put(valueBuf);
+    buffer.putInt(keySize);
+    Payloads.write(keySerializer, key, keyBuf, buffer);
+    buffer.putInt(oldValueSize);
+    oldValueHolder.encodeInto(valueSerializer, buffer);
+    newValueHolder.encodeInto(valueSerializer, buffer);
 
     buffer.flip();
     return buffer;
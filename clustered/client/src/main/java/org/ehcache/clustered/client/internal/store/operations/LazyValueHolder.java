@@ -17,6 +17,7 @@
 package org.ehcache.clustered.client.internal.store.operations;
 
 import org.ehcache.clustered.client.internal.store.operations.codecs.CodecException;
+import org.ehcache.spi.serialization.BufferWritingSerializer;
 import org.ehcache.spi.serialization.Serializer;
 
 import java.nio.ByteBuffer;
@@ -59,4 +60,20 @@ class LazyValueHolder<V> {
     }
     return encodedValue;
   }
+
+  int encodedSize(Serializer<V> valueSerializer) {
+    if (encodedValue == null && valueSerializer instanceof BufferWritingSerializer) {
+      return ((BufferWritingSerializer<V>) valueSerializer).serializedSize(value);
+    } else {
+      return encode(valueSerializer).remaining();
+    }
+  }
+
+  void encodeInto(Serializer<V> valueSerializer, ByteBuffer target) {
+    if (encodedValue == null && valueSerializer instanceof BufferWritingSerializer) {
+      ((BufferWritingSerializer<V>) valueSerializer).serialize(value, target);
+    } else {
+      target.put(encode(valueSerializer).duplicate());
+    }
+  }
 }
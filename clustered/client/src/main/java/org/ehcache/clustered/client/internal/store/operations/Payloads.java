@@ -0,0 +1,59 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.clustered.client.internal.store.operations;
+
+import org.ehcache.spi.serialization.BufferWritingSerializer;
+import org.ehcache.spi.serialization.Serializer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Writes serialized payloads into operation buffers, in place when the serializer is a {@link BufferWritingSerializer}.
+ */
+final class Payloads {
+
+  private Payloads() {
+    // static helpers only
+  }
+
+  /**
+   * Returns the serial form of the object, or {@code null} if the serializer can write it in place.
+   */
+  static <T> ByteBuffer serializeIfRequired(Serializer<T> serializer, T object) {
+    if (serializer instanceof BufferWritingSerializer) {
+      return null;
+    } else {
+      return serializer.serialize(object);
+    }
+  }
+
+  static <T> int size(Serializer<T> serializer, T object, ByteBuffer serialized) {
+    if (serialized == null) {
+      return ((BufferWritingSerializer<T>) serializer).serializedSize(object);
+    } else {
+      return serialized.remaining();
+    }
+  }
+
+  static <T> void write(Serializer<T> serializer, T object, ByteBuffer serialized, ByteBuffer target) {
+    if (serialized == null) {
+      ((BufferWritingSerializer<T>) serializer).serialize(object, target);
+    } else {
+      target.put(serialized.duplicate());
+    }
+  }
+}
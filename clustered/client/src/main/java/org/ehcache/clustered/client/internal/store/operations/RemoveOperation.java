@@ -68,16 +68,16 @@ public class RemoveOperation<K, V> implements Operation<K, V> {
 
   @Override
   public ByteBuffer encode(final Serializer<K> keySerializer, final Serializer<V> valueSerializer) {
-    ByteBuffer keyBuf = keySerializer.serialize(key);
+    ByteBuffer keyBuf = Payloads.serializeIfRequired(keySerializer, key);
 
     int size = BYTE_SIZE_BYTES +   // Operation type
                LONG_SIZE_BYTES +   // Size of expiration time stamp
-               keyBuf.remaining();   // the key payload itself
+               Payloads.size(keySerializer, key, keyBuf);   // the key payload itself
 
     ByteBuffer buffer = ByteBuffer.allocate(size);
     buffer.put(getOpCode().getValue());
     buffer.putLong(this.timeStamp);
-    buffer.put(keyBuf);
+    Payloads.write(keySerializer, key, keyBuf, buffer);
     buffer.flip();
     return buffer;
   }
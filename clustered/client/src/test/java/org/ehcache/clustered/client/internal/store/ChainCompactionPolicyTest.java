@@ -0,0 +1,111 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.clustered.client.internal.store;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ChainCompactionPolicyTest {
+
+  @Test
+  public void testWritesCompactOnlyPastTheOperationThreshold() {
+    ChainCompactionPolicy policy = new ChainCompactionPolicy(4, Long.MAX_VALUE);
+
+    assertThat(policy.compactOnWrite(1L, resolved(4, 4, 0L)), is(false));
+    assertThat(policy.compactOnWrite(1L, resolved(5, 5, 0L)), is(true));
+    assertThat(policy.getCompactions(), is(1L));
+  }
+
+  @Test
+  public void testWritesCompactPastTheBytesThreshold() {
+    ChainCompactionPolicy policy = new ChainCompactionPolicy(4, 1024L);
+
+    assertThat(policy.compactOnWrite(1L, resolved(2, 2, 1024L)), is(false));
+    assertThat(policy.compactOnWrite(1L, resolved(2, 2, 1025L)), is(true));
+  }
+
+  @Test
+  public void testReadsCompactSmallChainsOfReadMostlyKeys() {
+    ChainCompactionPolicy policy = new ChainCompactionPolicy(4, Long.MAX_VALUE);
+
+    policy.recordWrite(1L);
+    assertThat(policy.compactOnRead(1L, resolved(2, 2, 0L)), is(true));
+  }
+
+  @Test
+  public void testReadsDoNotCompactSmallChainsOfWriteMostlyKeys() {
+    ChainCompactionPolicy policy = new ChainCompactionPolicy(4, Long.MAX_VALUE);
+
+    policy.recordWrite(1L);
+    policy.recordWrite(1L);
+    policy.recordWrite(1L);
+    assertThat(policy.compactOnRead(1L, resolved(2, 2, 0L)), is(false));
+    assertThat(policy.compactOnRead(1L, resolved(5, 5, 0L)), is(true));
+  }
+
+  @Test
+  public void testReadsNeverCompactUncompactedChains() {
+    ChainCompactionPolicy policy = new ChainCompactionPolicy(0, 0L);
+
+    assertThat(policy.compactOnRead(1L, resolved(0, 1, 100L)), is(false));
+  }
+
+  @Test
+  public void testBlindWritesResolvePastTheOperationThreshold() {
+    ChainCompactionPolicy policy = new ChainCompactionPolicy(2, Long.MAX_VALUE);
+
+    assertThat(policy.resolveOnBlindWrite(1L), is(false));
+    assertThat(policy.resolveOnBlindWrite(1L), is(false));
+    assertThat(policy.resolveOnBlindWrite(1L), is(true));
+    assertThat(policy.resolveOnBlindWrite(1L), is(false));
+  }
+
+  @Test
+  public void testCompactionResetsBlindWrites() {
+    ChainCompactionPolicy policy = new ChainCompactionPolicy(2, Long.MAX_VALUE);
+
+    assertThat(policy.resolveOnBlindWrite(1L), is(false));
+    assertThat(policy.resolveOnBlindWrite(1L), is(false));
+    assertThat(policy.compactOnWrite(1L, resolved(3, 3, 0L)), is(true));
+    assertThat(policy.resolveOnBlindWrite(1L), is(false));
+  }
+
+  @Test
+  public void testChainLengthStatistics() {
+    ChainCompactionPolicy policy = new ChainCompactionPolicy(4, Long.MAX_VALUE);
+
+    policy.compactOnRead(1L, resolved(0, 2, 0L));
+    policy.compactOnWrite(2L, resolved(0, 6, 0L));
+
+    assertThat(policy.getAverageChainLength(), is(4.0));
+    assertThat(policy.getMaxChainLength(), is(6L));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ResolvedChain<Long, String> resolved(int compactionCount, int chainLength, long chainBytes) {
+    ResolvedChain<Long, String> resolvedChain = mock(ResolvedChain.class);
+    when(resolvedChain.isCompacted()).thenReturn(compactionCount > 0);
+    when(resolvedChain.getCompactionCount()).thenReturn(compactionCount);
+    when(resolvedChain.getChainLength()).thenReturn(chainLength);
+    when(resolvedChain.getChainBytes()).thenReturn(chainBytes);
+    return resolvedChain;
+  }
+}
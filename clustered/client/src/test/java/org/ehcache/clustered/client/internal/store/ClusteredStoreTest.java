@@ -71,6 +71,7 @@ import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -136,6 +137,34 @@ public class ClusteredStoreTest {
     store.put(1L, "one");
   }
 
+  @Test
+  public void testWriteOptimizedPutAppendsWithoutFetchingTheChain() throws Exception {
+    ServerStoreProxy proxy = mock(ServerStoreProxy.class);
+    OperationsCodec<Long, String> codec = new OperationsCodec<Long, String>(new LongSerializer(), new StringSerializer());
+    ChainResolver<Long, String> resolver = new ChainResolver<Long, String>(codec, Expirations.noExpiration());
+    ClusteredStore<Long, String> store = new ClusteredStore<Long, String>(codec, resolver, proxy, new TestTimeSource(), true);
+
+    assertThat(store.put(1L, "one"), is(Store.PutStatus.PUT));
+    assertThat(store.put(1L, "another one"), is(Store.PutStatus.PUT));
+    verify(proxy, times(2)).append(anyLong(), any(ByteBuffer.class));
+    verify(proxy, never()).getAndAppend(anyLong(), any(ByteBuffer.class));
+  }
+
+  @Test
+  public void testWriteOptimizedPutResolvesTheChainPastTheCompactionThreshold() throws Exception {
+    ServerStoreProxy proxy = mock(ServerStoreProxy.class);
+    when(proxy.getAndAppend(anyLong(), any(ByteBuffer.class))).thenReturn(new ChainBuilder().build());
+    OperationsCodec<Long, String> codec = new OperationsCodec<Long, String>(new LongSerializer(), new StringSerializer());
+    ChainResolver<Long, String> resolver = new ChainResolver<Long, String>(codec, Expirations.noExpiration());
+    ClusteredStore<Long, String> store = new ClusteredStore<Long, String>(codec, resolver, proxy, new TestTimeSource(), true);
+
+    for (int i = 0; i <= DEFAULT_CHAIN_COMPACTION_THRESHOLD; i++) {
+      store.put(1L, "value-" + i);
+    }
+    verify(proxy, times(DEFAULT_CHAIN_COMPACTION_THRESHOLD)).append(anyLong(), any(ByteBuffer.class));
+    verify(proxy, times(1)).getAndAppend(anyLong(), any(ByteBuffer.class));
+  }
+
   @Test
   public void testGet() throws Exception {
     assertThat(store.get(1L), nullValue());
@@ -25,8 +25,11 @@ import org.ehcache.clustered.client.internal.lock.VoltronReadWriteLockEntityClie
 import org.ehcache.clustered.common.Consistency;
 import org.ehcache.clustered.common.ServerSideConfiguration;
 import org.ehcache.clustered.common.internal.ServerStoreConfiguration;
+import org.ehcache.clustered.common.internal.messages.EhcacheEntityResponse;
 import org.ehcache.clustered.common.internal.messages.ServerStoreMessageFactory;
+import org.ehcache.clustered.common.internal.messages.ServerStoreOpMessage;
 import org.ehcache.clustered.common.internal.store.Chain;
+import org.ehcache.clustered.common.internal.store.Element;
 import org.ehcache.clustered.lock.server.VoltronReadWriteLockServerEntityService;
 import org.ehcache.clustered.server.ClusterTierManagerServerEntityService;
 import org.ehcache.clustered.server.store.ObservableClusterTierServerEntityService;
@@ -36,6 +39,7 @@ import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.terracotta.connection.Connection;
+import org.terracotta.entity.InvokeFuture;
 
 import java.net.URI;
 import java.util.Collections;
@@ -51,10 +55,17 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import static org.ehcache.clustered.common.internal.store.Util.chainsEqual;
 import static org.ehcache.clustered.common.internal.store.Util.createPayload;
+import static org.ehcache.clustered.common.internal.store.Util.readPayLoad;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class EventualServerStoreProxyTest {
 
@@ -185,6 +196,44 @@ public class EventualServerStoreProxyTest {
     serverStoreProxy2.removeInvalidationListener(listener2);
   }
 
+  @Test
+  public void testPipelinedAppendsAreVisibleToSubsequentGet() throws Exception {
+    for (long i = 0; i < 100; i++) {
+      serverStoreProxy1.append(1000L, createPayload(i));
+    }
+
+    long expected = 0;
+    for (Element element : serverStoreProxy1.get(1000L)) {
+      assertThat(readPayLoad(element.getPayload()), is(expected++));
+    }
+    assertThat(expected, is(100L));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testFailedPipelinedAppendFailsTheNextOperationOnItsKey() throws Exception {
+    ClusterTierClientEntity entity = mock(ClusterTierClientEntity.class);
+    InvokeFuture<EhcacheEntityResponse> future = mock(InvokeFuture.class);
+    when(future.isDone()).thenReturn(true);
+    when(entity.invokeServerStoreOperationAsync(any(ServerStoreOpMessage.class), anyBoolean())).thenReturn(future);
+    when(entity.awaitServerStoreOperation(any(ServerStoreOpMessage.class), any(InvokeFuture.class)))
+        .thenThrow(new IllegalStateException("append failed"));
+    EventualServerStoreProxy proxy = new EventualServerStoreProxy(CACHE_IDENTIFIER, new ServerStoreMessageFactory(UUID.randomUUID()), entity);
+
+    proxy.append(1L, createPayload(1L));
+    try {
+      proxy.append(1L, createPayload(2L));
+      fail("Expected ServerStoreProxyException");
+    } catch (ServerStoreProxyException e) {
+      assertThat(e.getCause().getMessage(), is("append failed"));
+    }
+    verify(entity, times(1)).invokeServerStoreOperationAsync(any(ServerStoreOpMessage.class), anyBoolean());
+
+    // the failure is reported once
+    proxy.append(1L, createPayload(3L));
+    verify(entity, times(2)).invokeServerStoreOperationAsync(any(ServerStoreOpMessage.class), anyBoolean());
+  }
+
   @Test
   public void testHashInvalidationListenerWithAppend() throws Exception {
     final CountDownLatch latch = new CountDownLatch(1);
@@ -82,6 +82,25 @@ public class ChainResolverTest {
     assertThat(operations, IsIterableContainingInOrder.contains(expectedOps.toArray()));
   }
 
+  @Test
+  public void testResolveReportsOriginalChainSize() throws Exception {
+    ArrayList<Operation<Long, String>> list = new ArrayList<Operation<Long, String>>();
+    list.add(new PutOperation<Long, String>(1L, "Albin", timeSource.getTimeMillis()));
+    list.add(new PutOperation<Long, String>(2L, "Suresh", timeSource.getTimeMillis()));
+    list.add(new PutOperation<Long, String>(1L, "Mathew", timeSource.getTimeMillis()));
+    Chain chain = getChainFromOperations(list);
+    long bytes = 0;
+    for (Operation<Long, String> operation : list) {
+      bytes += codec.encode(operation).remaining();
+    }
+
+    ChainResolver<Long, String> resolver = new ChainResolver<Long, String>(codec, Expirations.noExpiration());
+    ResolvedChain<Long, String> resolvedChain = resolver.resolve(chain, 1L, timeSource.getTimeMillis());
+
+    assertThat(resolvedChain.getChainLength(), is(3));
+    assertThat(resolvedChain.getChainBytes(), is(bytes));
+  }
+
   @Test
   public void testResolveEmptyChain() throws Exception {
     Chain chain = (new ChainBuilder()).build();
@@ -16,11 +16,13 @@
 
 package org.ehcache.clustered.client.internal.store.operations;
 
+import org.ehcache.clustered.common.internal.store.ElementExpiry;
 import org.ehcache.spi.serialization.Serializer;
 import org.junit.Test;
 
 import java.nio.ByteBuffer;
 
+import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.*;
 
 public class PutOperationTest extends BaseKeyValueOperationTest {
@@ -49,4 +51,19 @@ public class PutOperationTest extends BaseKeyValueOperationTest {
     result = anotherOperation.apply(putOperation);
     assertSame(anotherOperation, result);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testExpirationTimeIsVisibleToServer() throws Exception {
+    PutOperation<Long, String> resolved = new PutOperation<Long, String>(1L, "one", -42L);
+    assertThat(ElementExpiry.expirationTime(resolved.encode(keySerializer, valueSerializer)), is(42L));
+
+    PutOperation<Long, String> eternal = new PutOperation<Long, String>(1L, "one", Long.MIN_VALUE);
+    assertThat(ElementExpiry.expirationTime(eternal.encode(keySerializer, valueSerializer)), is(ElementExpiry.NO_EXPIRY));
+
+    PutOperation<Long, String> unresolved = new PutOperation<Long, String>(1L, "one", 42L);
+    assertThat(ElementExpiry.expirationTime(unresolved.encode(keySerializer, valueSerializer)), is(ElementExpiry.NO_EXPIRY));
+
+    RemoveOperation<Long, String> remove = new RemoveOperation<Long, String>(1L, -42L);
+    assertThat(ElementExpiry.expirationTime(remove.encode(keySerializer, valueSerializer)), is(ElementExpiry.NO_EXPIRY));
+  }
+}
@@ -37,6 +37,10 @@ public class ServerStoreConfiguration implements Serializable {
   private final String keySerializerType;
   private final String valueSerializerType;
   private final Consistency consistency;
+  /**
+   * Whether the client stamps expiration times from the system clock, which the server can then compare with its own.
+   */
+  private final boolean systemTimeSource;
   // TODO: Loader/Writer configuration ...
 
   public ServerStoreConfiguration(PoolAllocation poolAllocation,
@@ -45,12 +49,23 @@ public class ServerStoreConfiguration implements Serializable {
                                   String keySerializerType,
                                   String valueSerializerType,
                                   Consistency consistency) {
+    this(poolAllocation, storedKeyType, storedValueType, keySerializerType, valueSerializerType, consistency, false);
+  }
+
+  public ServerStoreConfiguration(PoolAllocation poolAllocation,
+                                  String storedKeyType,
+                                  String storedValueType,
+                                  String keySerializerType,
+                                  String valueSerializerType,
+                                  Consistency consistency,
+                                  boolean systemTimeSource) {
     this.poolAllocation = poolAllocation;
     this.storedKeyType = storedKeyType;
     this.storedValueType = storedValueType;
     this.keySerializerType = keySerializerType;
     this.valueSerializerType = valueSerializerType;
     this.consistency = consistency;
+    this.systemTimeSource = systemTimeSource;
   }
 
   public PoolAllocation getPoolAllocation() {
@@ -77,6 +92,18 @@ public class ServerStoreConfiguration implements Serializable {
     return consistency;
   }
 
+  /**
+   * Tells whether the expiration times written by clients come from the system clock.
+   * <p>
+   * The server only expires mappings on its own when this holds, as times from any other time source cannot be
+   * compared with the server clock.
+   *
+   * @return {@code true} if clients use the system time source
+   */
+  public boolean isSystemTimeSource() {
+    return systemTimeSource;
+  }
+
   public boolean isCompatible(ServerStoreConfiguration otherConfiguration, StringBuilder sb) {
     boolean isCompatible = true;
 
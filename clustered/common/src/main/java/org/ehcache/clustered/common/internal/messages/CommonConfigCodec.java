@@ -49,6 +49,7 @@ public class CommonConfigCodec implements ConfigCodec {
   private static final String STORE_CONFIG_VALUE_TYPE_FIELD = "valueType";
   private static final String STORE_CONFIG_VALUE_SERIALIZER_TYPE_FIELD = "valueSerializerType";
   private static final String STORE_CONFIG_CONSISTENCY_FIELD = "consistency";
+  private static final String STORE_CONFIG_SYSTEM_TIME_SOURCE_FIELD = "systemTimeSource";
   private static final String POOL_SIZE_FIELD = "poolSize";
   private static final String POOL_RESOURCE_NAME_FIELD = "resourceName";
   private static final String DEFAULT_RESOURCE_FIELD = "defaultResource";
@@ -72,6 +73,7 @@ public class CommonConfigCodec implements ConfigCodec {
       .string(STORE_CONFIG_VALUE_TYPE_FIELD, index + 11)
       .string(STORE_CONFIG_VALUE_SERIALIZER_TYPE_FIELD, index + 15)
       .enm(STORE_CONFIG_CONSISTENCY_FIELD, index + 16, CONSISTENCY_ENUM_MAPPING)
+      .bool(STORE_CONFIG_SYSTEM_TIME_SOURCE_FIELD, index + 17)
       .int64(POOL_SIZE_FIELD, index + 20)
       .string(POOL_RESOURCE_NAME_FIELD, index + 30);
 
@@ -115,6 +117,7 @@ public class CommonConfigCodec implements ConfigCodec {
     if (configuration.getConsistency() != null) {
       encoder.enm(STORE_CONFIG_CONSISTENCY_FIELD, configuration.getConsistency());
     }
+    encoder.bool(STORE_CONFIG_SYSTEM_TIME_SOURCE_FIELD, configuration.isSystemTimeSource());
 
     PoolAllocation poolAllocation = configuration.getPoolAllocation();
     if (poolAllocation instanceof PoolAllocation.Dedicated) {
@@ -139,6 +142,7 @@ public class CommonConfigCodec implements ConfigCodec {
     if (consistencyEnm.isValid()) {
       consistency = consistencyEnm.get();
     }
+    Boolean systemTimeSource = decoder.bool(STORE_CONFIG_SYSTEM_TIME_SOURCE_FIELD);
     Long poolSize = decoder.int64(POOL_SIZE_FIELD);
     String poolResource = decoder.string(POOL_RESOURCE_NAME_FIELD);
     PoolAllocation poolAllocation = new PoolAllocation.Unknown();
@@ -147,7 +151,8 @@ public class CommonConfigCodec implements ConfigCodec {
     } else if (poolResource != null) {
       poolAllocation = new PoolAllocation.Shared(poolResource);
     }
-    return new ServerStoreConfiguration(poolAllocation, keyType, valueType, keySerializer, valueSerializer, consistency);
+    return new ServerStoreConfiguration(poolAllocation, keyType, valueType, keySerializer, valueSerializer, consistency,
+        Boolean.TRUE.equals(systemTimeSource));
   }
 
   @Override
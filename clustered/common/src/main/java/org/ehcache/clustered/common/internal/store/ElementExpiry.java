@@ -0,0 +1,91 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.clustered.common.internal.store;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads the expiration time clients expose to the server in the header of a chain {@link Element}.
+ * <p>
+ * Element payloads are opaque to the server except for their leading bytes: a one byte operation code followed by a
+ * {@code long} time stamp. A client resolving a chain writes the result back as a put operation whose time stamp is
+ * the negated absolute expiration time of the mapping, which lets the server recognize dead chains without being able
+ * to decode keys or values.
+ * <p>
+ * Expiration times are compared against the server clock, which is assumed to be reasonably in sync with the clocks
+ * of its clients.
+ */
+public final class ElementExpiry {
+
+  /**
+   * Expiration time of elements and chains the server cannot expire on its own.
+   */
+  public static final long NO_EXPIRY = Long.MAX_VALUE;
+
+  /**
+   * Operation code of the resolved put operations carrying an expiration time.
+   */
+  public static final byte EXPIRING_OPERATION_CODE = 1;
+
+  /**
+   * Size of the operation code and time stamp header shared by all operations.
+   */
+  public static final int HEADER_SIZE = 1 + 8;
+
+  private ElementExpiry() {
+    //static helper
+  }
+
+  /**
+   * Returns the absolute expiration time carried by the given element payload.
+   *
+   * @param payload an element payload, its position is left untouched
+   * @return the expiration time, or {@link #NO_EXPIRY} if the payload carries none
+   */
+  public static long expirationTime(ByteBuffer payload) {
+    int position = payload.position();
+    if (payload.limit() - position < HEADER_SIZE || payload.get(position) != EXPIRING_OPERATION_CODE) {
+      return NO_EXPIRY;
+    }
+    long timeStamp = payload.getLong(position + 1);
+    if (timeStamp >= 0 || timeStamp == Long.MIN_VALUE) {
+      return NO_EXPIRY;
+    } else {
+      return -timeStamp;
+    }
+  }
+
+  /**
+   * Returns the time after which every element of the given chain has expired.
+   * <p>
+   * A chain can hold the operations of several colliding keys, so it is only dead once all of its elements carry an
+   * expiration time and the latest of them has passed.
+   *
+   * @param chain a chain
+   * @return the expiration time of the chain, or {@link #NO_EXPIRY} if any of its elements carries none
+   */
+  public static long expirationTime(Chain chain) {
+    long expirationTime = Long.MIN_VALUE;
+    for (Element element : chain) {
+      long elementExpiry = expirationTime(element.getPayload());
+      if (elementExpiry == NO_EXPIRY) {
+        return NO_EXPIRY;
+      }
+      expirationTime = Math.max(expirationTime, elementExpiry);
+    }
+    return expirationTime == Long.MIN_VALUE ? NO_EXPIRY : expirationTime;
+  }
+}
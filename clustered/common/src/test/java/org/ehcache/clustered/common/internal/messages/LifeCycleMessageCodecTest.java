@@ -69,7 +69,7 @@ public class LifeCycleMessageCodecTest {
     PoolAllocation.Dedicated dedicated = new PoolAllocation.Dedicated("dedicate", 420000L);
     ServerStoreConfiguration configuration = new ServerStoreConfiguration(dedicated, "java.lang.Long", "java.lang.String",
       "org.ehcache.impl.serialization.LongSerializer", "org.ehcache.impl.serialization.StringSerializer",
-      Consistency.STRONG);
+      Consistency.STRONG, true);
     LifecycleMessage message = factory.validateServerStore("store1", configuration);
     message.setId(MESSAGE_ID);
 
@@ -127,6 +127,7 @@ public class LifeCycleMessageCodecTest {
     assertThat(decodedMessage.getStoreConfiguration().getConsistency(), is(initialConfiguration.getConsistency()));
     assertThat(decodedMessage.getStoreConfiguration().getKeySerializerType(), is(initialConfiguration.getKeySerializerType()));
     assertThat(decodedMessage.getStoreConfiguration().getValueSerializerType(), is(initialConfiguration.getValueSerializerType()));
+    assertThat(decodedMessage.getStoreConfiguration().isSystemTimeSource(), is(initialConfiguration.isSystemTimeSource()));
   }
 
   private ServerSideConfiguration getServerSideConfiguration() {
@@ -360,6 +360,18 @@ public class ClusteringManagementServiceTest extends AbstractClusteringManagemen
     ONHEAP_DESCRIPTORS.add(new StatisticDescriptor("OnHeap:PutCount" , "COUNTER"));
     ONHEAP_DESCRIPTORS.add(new StatisticDescriptor("OnHeap:UpdateCount" , "COUNTER"));
     ONHEAP_DESCRIPTORS.add(new StatisticDescriptor("OnHeap:RemovalCount" , "COUNTER"));
+    ONHEAP_DESCRIPTORS.add(new StatisticDescriptor("OnHeap:HitLatencyP50", "SIZE"));
+    ONHEAP_DESCRIPTORS.add(new StatisticDescriptor("OnHeap:HitLatencyP99", "SIZE"));
+    ONHEAP_DESCRIPTORS.add(new StatisticDescriptor("OnHeap:HitLatencyP999", "SIZE"));
+    ONHEAP_DESCRIPTORS.add(new StatisticDescriptor("OnHeap:MissLatencyP50", "SIZE"));
+    ONHEAP_DESCRIPTORS.add(new StatisticDescriptor("OnHeap:MissLatencyP99", "SIZE"));
+    ONHEAP_DESCRIPTORS.add(new StatisticDescriptor("OnHeap:MissLatencyP999", "SIZE"));
+    ONHEAP_DESCRIPTORS.add(new StatisticDescriptor("OnHeap:PutLatencyP50", "SIZE"));
+    ONHEAP_DESCRIPTORS.add(new StatisticDescriptor("OnHeap:PutLatencyP99", "SIZE"));
+    ONHEAP_DESCRIPTORS.add(new StatisticDescriptor("OnHeap:PutLatencyP999", "SIZE"));
+    ONHEAP_DESCRIPTORS.add(new StatisticDescriptor("OnHeap:EvictionLatencyP50", "SIZE"));
+    ONHEAP_DESCRIPTORS.add(new StatisticDescriptor("OnHeap:EvictionLatencyP99", "SIZE"));
+    ONHEAP_DESCRIPTORS.add(new StatisticDescriptor("OnHeap:EvictionLatencyP999", "SIZE"));
 
     OFFHEAP_DESCRIPTORS.add(new StatisticDescriptor("OffHeap:MissCount", "COUNTER"));
     OFFHEAP_DESCRIPTORS.add(new StatisticDescriptor("OffHeap:OccupiedByteSize", "SIZE"));
@@ -372,6 +384,18 @@ public class ClusteringManagementServiceTest extends AbstractClusteringManagemen
     OFFHEAP_DESCRIPTORS.add(new StatisticDescriptor("OffHeap:PutCount", "COUNTER"));
     OFFHEAP_DESCRIPTORS.add(new StatisticDescriptor("OffHeap:UpdateCount", "COUNTER"));
     OFFHEAP_DESCRIPTORS.add(new StatisticDescriptor("OffHeap:RemovalCount", "COUNTER"));
+    OFFHEAP_DESCRIPTORS.add(new StatisticDescriptor("OffHeap:HitLatencyP50", "SIZE"));
+    OFFHEAP_DESCRIPTORS.add(new StatisticDescriptor("OffHeap:HitLatencyP99", "SIZE"));
+    OFFHEAP_DESCRIPTORS.add(new StatisticDescriptor("OffHeap:HitLatencyP999", "SIZE"));
+    OFFHEAP_DESCRIPTORS.add(new StatisticDescriptor("OffHeap:MissLatencyP50", "SIZE"));
+    OFFHEAP_DESCRIPTORS.add(new StatisticDescriptor("OffHeap:MissLatencyP99", "SIZE"));
+    OFFHEAP_DESCRIPTORS.add(new StatisticDescriptor("OffHeap:MissLatencyP999", "SIZE"));
+    OFFHEAP_DESCRIPTORS.add(new StatisticDescriptor("OffHeap:PutLatencyP50", "SIZE"));
+    OFFHEAP_DESCRIPTORS.add(new StatisticDescriptor("OffHeap:PutLatencyP99", "SIZE"));
+    OFFHEAP_DESCRIPTORS.add(new StatisticDescriptor("OffHeap:PutLatencyP999", "SIZE"));
+    OFFHEAP_DESCRIPTORS.add(new StatisticDescriptor("OffHeap:EvictionLatencyP50", "SIZE"));
+    OFFHEAP_DESCRIPTORS.add(new StatisticDescriptor("OffHeap:EvictionLatencyP99", "SIZE"));
+    OFFHEAP_DESCRIPTORS.add(new StatisticDescriptor("OffHeap:EvictionLatencyP999", "SIZE"));
 
     DISK_DESCRIPTORS.add(new StatisticDescriptor("Disk:MaxMappingCount", "COUNTER"));
     DISK_DESCRIPTORS.add(new StatisticDescriptor("Disk:OccupiedByteSize", "SIZE"));
@@ -384,6 +408,18 @@ public class ClusteringManagementServiceTest extends AbstractClusteringManagemen
     DISK_DESCRIPTORS.add(new StatisticDescriptor("Disk:PutCount", "COUNTER"));
     DISK_DESCRIPTORS.add(new StatisticDescriptor("Disk:UpdateCount", "COUNTER"));
     DISK_DESCRIPTORS.add(new StatisticDescriptor("Disk:RemovalCount", "COUNTER"));
+    DISK_DESCRIPTORS.add(new StatisticDescriptor("Disk:HitLatencyP50", "SIZE"));
+    DISK_DESCRIPTORS.add(new StatisticDescriptor("Disk:HitLatencyP99", "SIZE"));
+    DISK_DESCRIPTORS.add(new StatisticDescriptor("Disk:HitLatencyP999", "SIZE"));
+    DISK_DESCRIPTORS.add(new StatisticDescriptor("Disk:MissLatencyP50", "SIZE"));
+    DISK_DESCRIPTORS.add(new StatisticDescriptor("Disk:MissLatencyP99", "SIZE"));
+    DISK_DESCRIPTORS.add(new StatisticDescriptor("Disk:MissLatencyP999", "SIZE"));
+    DISK_DESCRIPTORS.add(new StatisticDescriptor("Disk:PutLatencyP50", "SIZE"));
+    DISK_DESCRIPTORS.add(new StatisticDescriptor("Disk:PutLatencyP99", "SIZE"));
+    DISK_DESCRIPTORS.add(new StatisticDescriptor("Disk:PutLatencyP999", "SIZE"));
+    DISK_DESCRIPTORS.add(new StatisticDescriptor("Disk:EvictionLatencyP50", "SIZE"));
+    DISK_DESCRIPTORS.add(new StatisticDescriptor("Disk:EvictionLatencyP99", "SIZE"));
+    DISK_DESCRIPTORS.add(new StatisticDescriptor("Disk:EvictionLatencyP999", "SIZE"));
 
     CLUSTERED_DESCRIPTORS.add(new StatisticDescriptor("Clustered:MissCount", "COUNTER"));
     CLUSTERED_DESCRIPTORS.add(new StatisticDescriptor("Clustered:HitCount", "COUNTER"));
@@ -396,6 +432,18 @@ public class ClusteringManagementServiceTest extends AbstractClusteringManagemen
     CLUSTERED_DESCRIPTORS.add(new StatisticDescriptor("Clustered:OccupiedByteSize", "SIZE"));
     CLUSTERED_DESCRIPTORS.add(new StatisticDescriptor("Clustered:AllocatedByteSize", "SIZE"));
     CLUSTERED_DESCRIPTORS.add(new StatisticDescriptor("Clustered:MappingCount", "COUNTER"));
+    CLUSTERED_DESCRIPTORS.add(new StatisticDescriptor("Clustered:HitLatencyP50", "SIZE"));
+    CLUSTERED_DESCRIPTORS.add(new StatisticDescriptor("Clustered:HitLatencyP99", "SIZE"));
+    CLUSTERED_DESCRIPTORS.add(new StatisticDescriptor("Clustered:HitLatencyP999", "SIZE"));
+    CLUSTERED_DESCRIPTORS.add(new StatisticDescriptor("Clustered:MissLatencyP50", "SIZE"));
+    CLUSTERED_DESCRIPTORS.add(new StatisticDescriptor("Clustered:MissLatencyP99", "SIZE"));
+    CLUSTERED_DESCRIPTORS.add(new StatisticDescriptor("Clustered:MissLatencyP999", "SIZE"));
+    CLUSTERED_DESCRIPTORS.add(new StatisticDescriptor("Clustered:PutLatencyP50", "SIZE"));
+    CLUSTERED_DESCRIPTORS.add(new StatisticDescriptor("Clustered:PutLatencyP99", "SIZE"));
+    CLUSTERED_DESCRIPTORS.add(new StatisticDescriptor("Clustered:PutLatencyP999", "SIZE"));
+    CLUSTERED_DESCRIPTORS.add(new StatisticDescriptor("Clustered:EvictionLatencyP50", "SIZE"));
+    CLUSTERED_DESCRIPTORS.add(new StatisticDescriptor("Clustered:EvictionLatencyP99", "SIZE"));
+    CLUSTERED_DESCRIPTORS.add(new StatisticDescriptor("Clustered:EvictionLatencyP999", "SIZE"));
 
     CACHE_DESCRIPTORS.add(new StatisticDescriptor("Cache:HitCount", "COUNTER"));
     CACHE_DESCRIPTORS.add(new StatisticDescriptor("Cache:MissCount", "COUNTER"));
@@ -404,6 +452,20 @@ public class ClusteringManagementServiceTest extends AbstractClusteringManagemen
     CACHE_DESCRIPTORS.add(new StatisticDescriptor("Cache:RemovalCount", "COUNTER"));
     CACHE_DESCRIPTORS.add(new StatisticDescriptor("Cache:EvictionCount", "COUNTER"));
     CACHE_DESCRIPTORS.add(new StatisticDescriptor("Cache:ExpirationCount", "COUNTER"));
+    CACHE_DESCRIPTORS.add(new StatisticDescriptor("Cache:RefreshHitCount", "COUNTER"));
+    CACHE_DESCRIPTORS.add(new StatisticDescriptor("Cache:RefreshMissCount", "COUNTER"));
+    CACHE_DESCRIPTORS.add(new StatisticDescriptor("Cache:HitLatencyP50", "SIZE"));
+    CACHE_DESCRIPTORS.add(new StatisticDescriptor("Cache:HitLatencyP99", "SIZE"));
+    CACHE_DESCRIPTORS.add(new StatisticDescriptor("Cache:HitLatencyP999", "SIZE"));
+    CACHE_DESCRIPTORS.add(new StatisticDescriptor("Cache:MissLatencyP50", "SIZE"));
+    CACHE_DESCRIPTORS.add(new StatisticDescriptor("Cache:MissLatencyP99", "SIZE"));
+    CACHE_DESCRIPTORS.add(new StatisticDescriptor("Cache:MissLatencyP999", "SIZE"));
+    CACHE_DESCRIPTORS.add(new StatisticDescriptor("Cache:PutLatencyP50", "SIZE"));
+    CACHE_DESCRIPTORS.add(new StatisticDescriptor("Cache:PutLatencyP99", "SIZE"));
+    CACHE_DESCRIPTORS.add(new StatisticDescriptor("Cache:PutLatencyP999", "SIZE"));
+    CACHE_DESCRIPTORS.add(new StatisticDescriptor("Cache:RemoveLatencyP50", "SIZE"));
+    CACHE_DESCRIPTORS.add(new StatisticDescriptor("Cache:RemoveLatencyP99", "SIZE"));
+    CACHE_DESCRIPTORS.add(new StatisticDescriptor("Cache:RemoveLatencyP999", "SIZE"));
 
     POOL_DESCRIPTORS.add(new StatisticDescriptor("Pool:AllocatedSize", "SIZE"));
 
@@ -418,6 +480,8 @@ public class ClusteringManagementServiceTest extends AbstractClusteringManagemen
     SERVER_STORE_DESCRIPTORS.add(new StatisticDescriptor("Store:RemovedSlotCount", "COUNTER"));
     SERVER_STORE_DESCRIPTORS.add(new StatisticDescriptor("Store:DataSize", "SIZE"));
     SERVER_STORE_DESCRIPTORS.add(new StatisticDescriptor("Store:TableCapacity", "SIZE"));
+    SERVER_STORE_DESCRIPTORS.add(new StatisticDescriptor("Store:ExpirationCount", "COUNTER"));
+    SERVER_STORE_DESCRIPTORS.add(new StatisticDescriptor("Store:ExpiredBytes", "SIZE"));
 
     OFFHEAP_RES_DESCRIPTORS.add(new StatisticDescriptor("OffHeapResource:AllocatedMemory", "SIZE"));
   }
@@ -22,6 +22,7 @@ import java.util.Set;
 import org.ehcache.clustered.common.internal.messages.ConcurrentEntityMessage;
 import org.ehcache.clustered.common.internal.messages.EhcacheEntityMessage;
 import org.ehcache.clustered.common.internal.messages.ServerStoreOpMessage;
+import org.ehcache.clustered.common.internal.messages.StateRepositoryOpMessage;
 import org.terracotta.entity.ConcurrencyStrategy;
 
 import static java.util.Collections.singleton;
@@ -64,7 +65,7 @@ public final class ConcurrencyStrategies {
 
     @Override
     public int concurrencyKey(EhcacheEntityMessage entityMessage) {
-      if (entityMessage instanceof ServerStoreOpMessage.GetMessage) {
+      if (isReadOnly(entityMessage)) {
         return UNIVERSAL_KEY;
       } else if (entityMessage instanceof ConcurrentEntityMessage) {
         ConcurrentEntityMessage concurrentEntityMessage = (ConcurrentEntityMessage) entityMessage;
@@ -74,6 +75,16 @@ public final class ConcurrencyStrategies {
       }
     }
 
+    /**
+     * Read only messages are safe to process concurrently with any other message: store reads only take the read lock of
+     * their segment, and the state repositories are concurrent maps.
+     */
+    private static boolean isReadOnly(EhcacheEntityMessage entityMessage) {
+      return entityMessage instanceof ServerStoreOpMessage.GetMessage
+             || entityMessage instanceof StateRepositoryOpMessage.GetMessage
+             || entityMessage instanceof StateRepositoryOpMessage.EntrySetMessage;
+    }
+
     @Override
     public Set<Integer> getKeysForSynchronization() {
       Set<Integer> result = new LinkedHashSet<>();
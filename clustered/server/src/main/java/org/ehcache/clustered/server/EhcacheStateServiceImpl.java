@@ -42,6 +42,10 @@ import org.terracotta.offheapresource.OffHeapResources;
 import org.terracotta.offheapstore.paging.PageSource;
 import org.terracotta.statistics.StatisticsManager;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -52,8 +56,11 @@ import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Function;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.stream.Collectors.toMap;
 import static org.terracotta.offheapresource.OffHeapResourceIdentifier.identifier;
 
@@ -67,6 +74,11 @@ public class EhcacheStateServiceImpl implements EhcacheStateService {
   private static final String PROPERTY_STORE_KEY = "storeName";
   private static final String PROPERTY_POOL_KEY = "poolName";
 
+  /**
+   * Delay between two expiry sweeps, each of them covering a single segment of every store.
+   */
+  private static final long EXPIRY_SWEEP_INTERVAL_MILLIS = 1000L;
+
   private static final Map<String, Function<ServerStoreImpl,Number>> STAT_STORE_METHOD_REFERENCES = new HashMap<>();
   private static final Map<String, Function<ResourcePageSource,Number>> STAT_POOL_METHOD_REFERENCES = new HashMap<>();
 
@@ -82,6 +94,8 @@ public class EhcacheStateServiceImpl implements EhcacheStateService {
     STAT_STORE_METHOD_REFERENCES.put("removedSlotCount", ServerStoreImpl::getRemovedSlotCount);
     STAT_STORE_METHOD_REFERENCES.put("dataSize", ServerStoreImpl::getDataSize);
     STAT_STORE_METHOD_REFERENCES.put("tableCapacity", ServerStoreImpl::getTableCapacity);
+    STAT_STORE_METHOD_REFERENCES.put("expirationCount", ServerStoreImpl::getExpirations);
+    STAT_STORE_METHOD_REFERENCES.put("expiredBytes", ServerStoreImpl::getExpiredBytes);
 
     STAT_POOL_METHOD_REFERENCES.put("allocatedSize", ResourcePageSource::getAllocatedSize);
   }
@@ -120,9 +134,23 @@ public class EhcacheStateServiceImpl implements EhcacheStateService {
   private final ServerSideConfiguration configuration;
   private final KeySegmentMapper mapper;
   private final EhcacheStateServiceProvider.DestroyCallback destroyCallback;
+  private final File restartDirectory;
+  private ScheduledExecutorService expirySweeper;
 
   public EhcacheStateServiceImpl(OffHeapResources offHeapResources, ServerSideConfiguration configuration,
                                  final KeySegmentMapper mapper, EhcacheStateServiceProvider.DestroyCallback destroyCallback) {
+    this(offHeapResources, configuration, mapper, destroyCallback, null);
+  }
+
+  /**
+   * Creates a state service whose cluster tiers persist their content under {@code restartDirectory}.
+   *
+   * @param restartDirectory the directory of the restartable cluster tiers, {@code null} for offheap only tiers
+   */
+  public EhcacheStateServiceImpl(OffHeapResources offHeapResources, ServerSideConfiguration configuration,
+                                 final KeySegmentMapper mapper, EhcacheStateServiceProvider.DestroyCallback destroyCallback,
+                                 File restartDirectory) {
+    this.restartDirectory = restartDirectory;
     this.offHeapResources = offHeapResources;
     this.configuration = configuration;
     this.mapper = mapper;
@@ -366,9 +394,13 @@ public class EhcacheStateServiceImpl implements EhcacheStateService {
   public void destroy() {
     for (Map.Entry<String, ServerStoreImpl> storeEntry: stores.entrySet()) {
       unRegisterStoreStatistics(storeEntry.getValue());
-      storeEntry.getValue().close();
+      storeEntry.getValue().destroy();
     }
     stores.clear();
+    stopExpirySweeper();
+    if (restartDirectory != null && restartDirectory.isDirectory() && !restartDirectory.delete()) {
+      LOGGER.warn("Unable to delete restart directory {}", restartDirectory);
+    }
     this.defaultServerResource = null;
     /*
      * Remove the reservation for resource pool memory of resource pools.
@@ -411,7 +443,7 @@ public class EhcacheStateServiceImpl implements EhcacheStateService {
     ServerStoreImpl serverStore;
     ResourcePageSource resourcePageSource = getPageSource(name, serverStoreConfiguration.getPoolAllocation());
     try {
-      serverStore = new ServerStoreImpl(serverStoreConfiguration, resourcePageSource, mapper);
+      serverStore = new ServerStoreImpl(serverStoreConfiguration, resourcePageSource, mapper, storeDirectory(name, forActive));
     } catch (RuntimeException rte) {
       releaseDedicatedPool(name, resourcePageSource);
       throw new ConfigurationException("Failed to create ServerStore.", rte);
@@ -426,10 +458,81 @@ public class EhcacheStateServiceImpl implements EhcacheStateService {
     }
 
     registerStoreStatistics(serverStore, name);
+    startExpirySweeper();
 
     return serverStore;
   }
 
+  /**
+   * Returns the directory persisting the content of the named cluster tier, if cluster tiers are restartable.
+   * <p>
+   * An active recovers whatever content the directory holds, while a passive discards it: its content is
+   * synchronized from the active instead.
+   */
+  private File storeDirectory(String name, boolean forActive) {
+    if (restartDirectory == null) {
+      return null;
+    }
+    File directory = new File(restartDirectory, safeFileName(name));
+    if (!forActive && directory.exists()) {
+      try {
+        deleteRecursively(directory);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to discard the persisted content of cluster tier '" + name + "'", e);
+      }
+    }
+    return directory;
+  }
+
+  /**
+   * Turns a cluster tier manager or cluster tier name into a unique, file system safe, name.
+   */
+  public static String safeFileName(String name) {
+    return name.replaceAll("[^A-Za-z0-9._-]", "_") + "_" + Integer.toHexString(name.hashCode());
+  }
+
+  private static void deleteRecursively(File file) throws IOException {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        deleteRecursively(child);
+      }
+    }
+    Files.deleteIfExists(file.toPath());
+  }
+
+  private synchronized void startExpirySweeper() {
+    if (expirySweeper == null) {
+      expirySweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ehcache-server-expiry-sweeper");
+        thread.setDaemon(true);
+        return thread;
+      });
+      expirySweeper.scheduleWithFixedDelay(this::sweepExpired, EXPIRY_SWEEP_INTERVAL_MILLIS, EXPIRY_SWEEP_INTERVAL_MILLIS, MILLISECONDS);
+    }
+  }
+
+  private synchronized void stopExpirySweeper() {
+    if (expirySweeper != null) {
+      expirySweeper.shutdownNow();
+      expirySweeper = null;
+    }
+  }
+
+  private void sweepExpired() {
+    long now = System.currentTimeMillis();
+    for (Map.Entry<String, ServerStoreImpl> storeEntry : stores.entrySet()) {
+      try {
+        long reclaimed = storeEntry.getValue().expireNextSegment(now);
+        if (reclaimed > 0) {
+          LOGGER.debug("Reclaimed {} bytes of expired mappings from cluster tier '{}'", reclaimed, storeEntry.getKey());
+        }
+      } catch (RuntimeException e) {
+        LOGGER.warn("Expiry sweep of cluster tier '{}' failed", storeEntry.getKey(), e);
+      }
+    }
+  }
+
   public void destroyServerStore(String name) throws ClusterException {
     final ServerStoreImpl store = stores.remove(name);
     unRegisterStoreStatistics(store);
@@ -437,7 +540,7 @@ public class EhcacheStateServiceImpl implements EhcacheStateService {
       throw new InvalidStoreException("cluster tier '" + name + "' does not exist");
     } else {
       releaseDedicatedPool(name, store.getPageSource());
-      store.close();
+      store.destroy();
     }
     stateRepositoryManager.destroyStateRepository(name);
     messageTrackers.remove(name);
@@ -18,20 +18,67 @@ package org.ehcache.clustered.server;
 
 import com.tc.classloader.CommonComponent;
 
+/**
+ * Maps the key hashes of cluster tier operations to the segments of the server stores, and hence to the concurrency keys
+ * under which the server processes those operations.
+ */
 @CommonComponent
 public class KeySegmentMapper {
 
+  /**
+   * Server system property overriding the number of segments of every cluster tier.
+   */
+  public static final String SEGMENTS_PROP = "ehcache.server.segments";
+
+  static final int MIN_SEGMENTS = 16;
+  static final int MAX_SEGMENTS = 256;
+
   private final int segments;
 
   public KeySegmentMapper(final int segments) {
+    if (segments <= 0) {
+      throw new IllegalArgumentException("Segment count must be positive: " + segments);
+    }
     this.segments = segments;
   }
 
+  /**
+   * Creates a mapper sized from the {@link #SEGMENTS_PROP} system property, or from the processors available to this server.
+   *
+   * @return the default mapper
+   */
+  public static KeySegmentMapper defaultMapper() {
+    Integer configured = Integer.getInteger(SEGMENTS_PROP);
+    return new KeySegmentMapper(configured == null ? segmentsFor(Runtime.getRuntime().availableProcessors()) : configured);
+  }
+
+  /**
+   * Returns enough segments for {@code processors} threads to rarely contend on the same segment: the power of two at or
+   * above four segments per processor, bounded by {@value #MIN_SEGMENTS} and {@value #MAX_SEGMENTS}.
+   */
+  static int segmentsFor(int processors) {
+    int target = Math.max(MIN_SEGMENTS, Math.min(MAX_SEGMENTS, processors * 4));
+    return Integer.highestOneBit(target - 1) << 1;
+  }
+
   public int getSegmentForKey(long key) {
-    return Math.abs((int) (key % segments));
+    return (int) ((spread(key) >>> 1) % segments);
   }
 
   public int getSegments() {
     return segments;
   }
+
+  /**
+   * Mixes all the bits of the key hash, so that hashes differing only in their high bits, as well as sequential ones, are
+   * spread evenly across segments.
+   */
+  private static long spread(long key) {
+    key ^= key >>> 33;
+    key *= 0xff51afd7ed558ccdL;
+    key ^= key >>> 33;
+    key *= 0xc4ceb9fe1a85ec53L;
+    key ^= key >>> 33;
+    return key;
+  }
 }
@@ -19,11 +19,13 @@ package org.ehcache.clustered.server;
 import org.ehcache.clustered.common.internal.ServerStoreConfiguration;
 import org.ehcache.clustered.common.internal.store.Chain;
 import org.ehcache.clustered.server.offheap.OffHeapServerStore;
+import org.ehcache.clustered.server.offheap.RestartableServerStore;
 import org.ehcache.clustered.server.state.ResourcePageSource;
 import org.terracotta.offheapstore.paging.PageSource;
 
 import com.tc.classloader.CommonComponent;
 
+import java.io.File;
 import java.nio.ByteBuffer;
 import java.util.AbstractList;
 import java.util.List;
@@ -37,9 +39,24 @@ public class ServerStoreImpl implements ServerSideServerStore {
   private final OffHeapServerStore store;
 
   public ServerStoreImpl(ServerStoreConfiguration storeConfiguration, ResourcePageSource pageSource, KeySegmentMapper mapper) {
+    this(storeConfiguration, pageSource, mapper, null);
+  }
+
+  /**
+   * Creates a {@code ServerStore}, restartable when a directory is provided.
+   *
+   * @param restartDirectory the directory persisting the store content, {@code null} for an offheap only store
+   */
+  public ServerStoreImpl(ServerStoreConfiguration storeConfiguration, ResourcePageSource pageSource, KeySegmentMapper mapper, File restartDirectory) {
     this.storeConfiguration = storeConfiguration;
     this.pageSource = pageSource;
-    this.store = new OffHeapServerStore(pageSource, mapper);
+    if (restartDirectory == null) {
+      this.store = new OffHeapServerStore(pageSource, mapper);
+    } else {
+      this.store = new RestartableServerStore(pageSource, mapper, restartDirectory);
+    }
+    // expiration times from any other time source cannot be compared with the server clock
+    this.store.setExpiryEnabled(storeConfiguration.isSystemTimeSource());
   }
 
   public void setEvictionListener(ServerStoreEvictionListener listener) {
@@ -92,6 +109,13 @@ public class ServerStoreImpl implements ServerSideServerStore {
     store.close();
   }
 
+  /**
+   * Closes this store and discards its content, including any persisted copy.
+   */
+  public void destroy() {
+    store.destroy();
+  }
+
   @Override
   public List<Set<Long>> getSegmentKeySets() {
 
@@ -107,8 +131,26 @@ public class ServerStoreImpl implements ServerSideServerStore {
     };
   }
 
+  /**
+   * Removes the expired chains of the next segment of this store.
+   *
+   * @param now the current server time
+   * @return the number of bytes reclaimed
+   */
+  public long expireNextSegment(long now) {
+    return store.expireNextSegment(now);
+  }
+
   // stats
 
+  public long getExpirations() {
+    return store.getExpirations();
+  }
+
+  public long getExpiredBytes() {
+    return store.getExpiredBytes();
+  }
+
 
   @Override
   public long getSize() {
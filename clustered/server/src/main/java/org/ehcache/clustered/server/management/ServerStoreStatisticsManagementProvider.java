@@ -59,6 +59,8 @@ class ServerStoreStatisticsManagementProvider extends AbstractStatisticsManageme
       getRegistry().registerCounter("RemovedSlotCount", descriptor("removedSlotCount", tags("tier", "Store")));
       getRegistry().registerSize("DataSize", descriptor("dataSize", tags("tier", "Store")));
       getRegistry().registerSize("TableCapacity", descriptor("tableCapacity", tags("tier", "Store")));
+      getRegistry().registerCounter("ExpirationCount", descriptor("expirationCount", tags("tier", "Store")));
+      getRegistry().registerSize("ExpiredBytes", descriptor("expiredBytes", tags("tier", "Store")));
     }
 
   }
@@ -0,0 +1,383 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.clustered.server.offheap;
+
+import org.ehcache.clustered.common.internal.store.Chain;
+import org.ehcache.clustered.common.internal.store.Element;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import static org.ehcache.clustered.server.offheap.OffHeapChainMap.chain;
+
+/**
+ * Append-only log of the mutations of a single segment, periodically folded into a snapshot.
+ * <p>
+ * The segment directory holds a {@code snapshot} file and one or more {@code log.<generation>} files. A snapshot
+ * records the generation of the first log written after it was taken, so that recovery replays exactly the mutations
+ * the snapshot does not already hold, whichever step of a snapshot rollover a crash interrupted.
+ * <p>
+ * Records are flushed to the operating system as they are written. Each record is laid out as
+ * {@code [payload length][crc32][payload]}: a torn or corrupt record marks the end of the usable data of its file, and
+ * a log is truncated there on recovery.
+ */
+class ChainLog implements Closeable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ChainLog.class);
+
+  interface Replay {
+    void append(long key, ByteBuffer element);
+
+    void set(long key, Chain chain);
+
+    void remove(long key);
+
+    void clear();
+  }
+
+  private static final String SNAPSHOT = "snapshot";
+  private static final String SNAPSHOT_TEMP = "snapshot.tmp";
+  private static final Pattern LOG_PATTERN = Pattern.compile("log\\.(\\d+)");
+
+  private static final byte APPEND = 1;
+  private static final byte SET = 2;
+  private static final byte REMOVE = 3;
+  private static final byte CLEAR = 4;
+
+  private static final int RECORD_HEADER_SIZE = 12;
+
+  private final File directory;
+  private final RecordBuffer record = new RecordBuffer();
+
+  private long generation;
+  private DataOutputStream log;
+  private long logSize;
+
+  ChainLog(File directory) throws IOException {
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Unable to create directory " + directory);
+    }
+    this.directory = directory;
+  }
+
+  /**
+   * Replays the snapshot and logs found on disk, then opens a fresh log for the mutations to come.
+   */
+  void recover(Replay replay) throws IOException {
+    long firstGeneration = 0;
+    File snapshot = new File(directory, SNAPSHOT);
+    if (snapshot.isFile()) {
+      try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshot)))) {
+        firstGeneration = in.readLong();
+        long length = snapshot.length() - 8;
+        if (readRecords(in, length, replay) < length) {
+          LOGGER.warn("Ignoring the torn or corrupt tail of {}", snapshot);
+        }
+      }
+    }
+
+    SortedMap<Long, File> logs = existingLogs();
+    for (Map.Entry<Long, File> entry : logs.entrySet()) {
+      if (entry.getKey() >= firstGeneration) {
+        File file = entry.getValue();
+        long length = file.length();
+        long valid;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+          valid = readRecords(in, length, replay);
+        }
+        if (valid < length) {
+          LOGGER.warn("Truncating the torn or corrupt tail of {} at {}", file, valid);
+          try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.truncate(valid);
+          }
+        }
+      }
+    }
+
+    generation = logs.isEmpty() ? firstGeneration : Math.max(firstGeneration, logs.lastKey() + 1);
+    log = openLog(generation);
+  }
+
+  void logAppend(long key, ByteBuffer element) throws IOException {
+    DataOutputStream out = record.begin();
+    out.writeByte(APPEND);
+    out.writeLong(key);
+    writeBuffer(out, element);
+    record.writeTo(log);
+    flush();
+  }
+
+  void logSet(long key, Chain chain) throws IOException {
+    writeSet(log, record, key, chain);
+    flush();
+  }
+
+  void logRemove(long key) throws IOException {
+    DataOutputStream out = record.begin();
+    out.writeByte(REMOVE);
+    out.writeLong(key);
+    record.writeTo(log);
+    flush();
+  }
+
+  void logClear() throws IOException {
+    record.begin().writeByte(CLEAR);
+    record.writeTo(log);
+    flush();
+  }
+
+  long getLogSize() {
+    return logSize;
+  }
+
+  /**
+   * Replaces the snapshot with the chains of the given keys and discards the logs it supersedes.
+   * <p>
+   * The caller must prevent any mutation of the segment until this returns.
+   */
+  void snapshot(Set<Long> keys, Function<Long, Chain> chains) throws IOException {
+    long nextGeneration = generation + 1;
+    DataOutputStream nextLog = openLog(nextGeneration);
+
+    try {
+      File temp = new File(directory, SNAPSHOT_TEMP);
+      try (FileOutputStream file = new FileOutputStream(temp)) {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file));
+        out.writeLong(nextGeneration);
+        RecordBuffer snapshotRecord = new RecordBuffer();
+        for (Long key : keys) {
+          writeSet(out, snapshotRecord, key, chains.apply(key));
+        }
+        out.flush();
+        file.getFD().sync();
+      }
+      Files.move(temp.toPath(), new File(directory, SNAPSHOT).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      nextLog.close();
+      Files.deleteIfExists(new File(directory, "log." + nextGeneration).toPath());
+      throw e;
+    }
+
+    log.close();
+    for (Map.Entry<Long, File> entry : existingLogs().headMap(nextGeneration).entrySet()) {
+      Files.deleteIfExists(entry.getValue().toPath());
+    }
+    log = nextLog;
+    logSize = 0;
+    generation = nextGeneration;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (log != null) {
+      log.close();
+      log = null;
+    }
+  }
+
+  boolean isOpen() {
+    return log != null;
+  }
+
+  /**
+   * Closes this log and deletes everything it persisted, so that a recovery starts from an empty segment.
+   */
+  void abandon() throws IOException {
+    try {
+      close();
+    } finally {
+      File[] files = directory.listFiles();
+      if (files != null) {
+        for (File file : files) {
+          Files.deleteIfExists(file.toPath());
+        }
+      }
+      Files.deleteIfExists(directory.toPath());
+    }
+  }
+
+  private void flush() throws IOException {
+    log.flush();
+    logSize = log.size();
+  }
+
+  private DataOutputStream openLog(long logGeneration) throws IOException {
+    return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(new File(directory, "log." + logGeneration), true)));
+  }
+
+  private SortedMap<Long, File> existingLogs() {
+    SortedMap<Long, File> logs = new TreeMap<>();
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        Matcher matcher = LOG_PATTERN.matcher(file.getName());
+        if (matcher.matches()) {
+          logs.put(Long.parseLong(matcher.group(1)), file);
+        }
+      }
+    }
+    return logs;
+  }
+
+  /**
+   * Replays the records read from the given stream, up to the first torn or corrupt one.
+   *
+   * @return the length of the records replayed
+   */
+  private static long readRecords(DataInputStream in, long length, Replay replay) throws IOException {
+    CRC32 crc = new CRC32();
+    long position = 0;
+    while (length - position >= RECORD_HEADER_SIZE) {
+      int payloadSize = in.readInt();
+      long checksum = in.readLong();
+      if (payloadSize <= 0 || payloadSize > length - position - RECORD_HEADER_SIZE) {
+        break;
+      }
+      byte[] payload = new byte[payloadSize];
+      in.readFully(payload);
+      crc.reset();
+      crc.update(payload, 0, payloadSize);
+      if (crc.getValue() != checksum || !apply(ByteBuffer.wrap(payload), replay)) {
+        break;
+      }
+      position += RECORD_HEADER_SIZE + payloadSize;
+    }
+    return position;
+  }
+
+  private static boolean apply(ByteBuffer payload, Replay replay) {
+    try {
+      switch (payload.get()) {
+        case APPEND: {
+          long key = payload.getLong();
+          replay.append(key, readBuffer(payload));
+          break;
+        }
+        case SET: {
+          long key = payload.getLong();
+          int count = payload.getInt();
+          if (count < 0) {
+            return false;
+          }
+          List<ByteBuffer> elements = new ArrayList<>();
+          for (int i = 0; i < count; i++) {
+            elements.add(readBuffer(payload));
+          }
+          replay.set(key, chain(elements.toArray(new ByteBuffer[count])));
+          break;
+        }
+        case REMOVE:
+          replay.remove(payload.getLong());
+          break;
+        case CLEAR:
+          replay.clear();
+          break;
+        default:
+          return false;
+      }
+      return true;
+    } catch (BufferUnderflowException | IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  private static void writeSet(DataOutputStream out, RecordBuffer record, long key, Chain chain) throws IOException {
+    List<ByteBuffer> elements = new ArrayList<>();
+    for (Element element : chain) {
+      elements.add(element.getPayload());
+    }
+    DataOutputStream body = record.begin();
+    body.writeByte(SET);
+    body.writeLong(key);
+    body.writeInt(elements.size());
+    for (ByteBuffer element : elements) {
+      writeBuffer(body, element);
+    }
+    record.writeTo(out);
+  }
+
+  private static void writeBuffer(DataOutputStream out, ByteBuffer buffer) throws IOException {
+    ByteBuffer duplicate = buffer.duplicate();
+    out.writeInt(duplicate.remaining());
+    if (duplicate.hasArray()) {
+      out.write(duplicate.array(), duplicate.arrayOffset() + duplicate.position(), duplicate.remaining());
+    } else {
+      byte[] bytes = new byte[duplicate.remaining()];
+      duplicate.get(bytes);
+      out.write(bytes);
+    }
+  }
+
+  private static ByteBuffer readBuffer(ByteBuffer payload) {
+    int size = payload.getInt();
+    if (size < 0 || size > payload.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    ByteBuffer buffer = payload.slice();
+    buffer.limit(size);
+    payload.position(payload.position() + size);
+    return buffer;
+  }
+
+  /**
+   * Buffer a record payload is written to, so that it can be framed with its length and checksum.
+   */
+  private static final class RecordBuffer extends ByteArrayOutputStream {
+
+    private final DataOutputStream data = new DataOutputStream(this);
+    private final CRC32 crc = new CRC32();
+
+    DataOutputStream begin() {
+      reset();
+      return data;
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+      crc.reset();
+      crc.update(buf, 0, count);
+      out.writeInt(count);
+      out.writeLong(crc.getValue());
+      out.write(buf, 0, count);
+    }
+  }
+}
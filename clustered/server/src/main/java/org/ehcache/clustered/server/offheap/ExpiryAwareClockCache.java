@@ -0,0 +1,71 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.clustered.server.offheap;
+
+import java.nio.IntBuffer;
+import java.util.function.BooleanSupplier;
+
+import org.terracotta.offheapstore.eviction.EvictionListener;
+import org.terracotta.offheapstore.eviction.EvictionListeningReadWriteLockedOffHeapClockCache;
+import org.terracotta.offheapstore.paging.PageSource;
+
+/**
+ * Clock cache of chain heads that prefers evicting expired chains.
+ * <p>
+ * Before settling on the slot chosen by the clock, a small window of the following slots is sampled and the first
+ * chain that has expired is evicted instead, so that dead data goes before live data whenever there is some nearby.
+ * Expired chains outside of the window are left to the periodic sweep of {@link OffHeapChainMap#expire(long)}.
+ * Sampling only happens while expiry is enabled, that is while expiration times are known to come from the system
+ * clock the server compares them with.
+ */
+class ExpiryAwareClockCache<K> extends EvictionListeningReadWriteLockedOffHeapClockCache<K, InternalChain> {
+
+  static final int EXPIRY_SAMPLE_SIZE = 8;
+
+  private final OffHeapChainStorageEngine<K> chainStorage;
+  private final BooleanSupplier expiryEnabled;
+
+  ExpiryAwareClockCache(EvictionListener<K, InternalChain> listener, PageSource source, OffHeapChainStorageEngine<K> chainStorage,
+                        BooleanSupplier expiryEnabled) {
+    super(listener, source, chainStorage);
+    this.chainStorage = chainStorage;
+    this.expiryEnabled = expiryEnabled;
+  }
+
+  @Override
+  public int getEvictionIndex() {
+    int clockIndex = super.getEvictionIndex();
+    if (clockIndex < 0 || !expiryEnabled.getAsBoolean()) {
+      return clockIndex;
+    }
+
+    IntBuffer table = hashtable;
+    long now = System.currentTimeMillis();
+    int index = clockIndex;
+    for (int i = 0; i < EXPIRY_SAMPLE_SIZE; i++) {
+      int status = table.get(index + STATUS);
+      if ((status & STATUS_USED) == STATUS_USED && evictable(status)
+          && chainStorage.readExpirationTime(readLong(table, index + ENCODING)) <= now) {
+        return index;
+      }
+      index += ENTRY_SIZE;
+      if (index >= table.capacity()) {
+        index = 0;
+      }
+    }
+    return clockIndex;
+  }
+}
@@ -32,7 +32,6 @@ import org.terracotta.offheapstore.MapInternals;
 
 import org.terracotta.offheapstore.ReadWriteLockedOffHeapClockCache;
 import org.terracotta.offheapstore.eviction.EvictionListener;
-import org.terracotta.offheapstore.eviction.EvictionListeningReadWriteLockedOffHeapClockCache;
 import org.terracotta.offheapstore.exceptions.OversizeMappingException;
 import org.terracotta.offheapstore.paging.PageSource;
 import org.terracotta.offheapstore.storage.portability.Portability;
@@ -46,6 +45,9 @@ public class OffHeapChainMap<K> implements MapInternals {
   private final ReadWriteLockedOffHeapClockCache<K, InternalChain> heads;
   private final OffHeapChainStorageEngine<K> chainStorage;
   private volatile ChainMapEvictionListener<K> evictionListener;
+  private volatile boolean expiryEnabled;
+  private volatile long expirations;
+  private volatile long expiredBytes;
 
   public OffHeapChainMap(PageSource source, Portability<? super K> keyPortability, int minPageSize, int maxPageSize, boolean shareByThieving) {
     this.chainStorage = new OffHeapChainStorageEngine<>(source, keyPortability, minPageSize, maxPageSize, shareByThieving, shareByThieving);
@@ -69,7 +71,7 @@ public class OffHeapChainMap<K> implements MapInternals {
 
     //TODO: EvictionListeningReadWriteLockedOffHeapClockCache lacks ctor that takes shareByThieving
     // this.heads = new ReadWriteLockedOffHeapClockCache<K, InternalChain>(source, shareByThieving, chainStorage);
-    this.heads = new EvictionListeningReadWriteLockedOffHeapClockCache<>(listener, source, chainStorage);
+    this.heads = new ExpiryAwareClockCache<>(listener, source, chainStorage, () -> expiryEnabled);
   }
 
   //For tests
@@ -223,6 +225,76 @@ public class OffHeapChainMap<K> implements MapInternals {
     }
   }
 
+  /**
+   * Enables expiry, both through {@link #expire(long)} and through eviction preferring expired chains.
+   * <p>
+   * Expiry is disabled by default: it must only be enabled once the expiration times of the chains are known to come
+   * from the system clock.
+   *
+   * @param enabled {@code true} to enable expiry
+   */
+  public void setExpiryEnabled(boolean enabled) {
+    this.expiryEnabled = enabled;
+  }
+
+  /**
+   * Removes the chains of this map that have expired as of {@code now}, unless expiry is disabled.
+   * <p>
+   * Removal goes through eviction, so the eviction listener gets to invalidate any copy clients may still hold.
+   *
+   * @param now the current server time
+   * @return the number of bytes reclaimed
+   * @see org.ehcache.clustered.common.internal.store.ElementExpiry
+   * @see #setExpiryEnabled(boolean)
+   */
+  public long expire(long now) {
+    if (!expiryEnabled) {
+      return 0L;
+    }
+    final Lock lock = heads.writeLock();
+    lock.lock();
+    try {
+      List<Long> expired = new ArrayList<>();
+      for (Long encoding : heads.encodingSet()) {
+        if (chainStorage.readExpirationTime(encoding) <= now) {
+          expired.add(encoding);
+        }
+      }
+
+      long reclaimed = 0;
+      int count = 0;
+      for (Long encoding : expired) {
+        Integer slot = heads.getSlotForHashAndEncoding(chainStorage.readKeyHash(encoding), encoding, ~0);
+        if (slot != null) {
+          long size = chainStorage.readChainSize(encoding);
+          if (heads.evict(slot, false)) {
+            reclaimed += size;
+            count++;
+          }
+        }
+      }
+      expirations += count;
+      expiredBytes += reclaimed;
+      return reclaimed;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the number of chains removed by {@link #expire(long)} so far.
+   */
+  public long getExpirations() {
+    return expirations;
+  }
+
+  /**
+   * Returns the number of bytes reclaimed by {@link #expire(long)} so far.
+   */
+  public long getExpiredBytes() {
+    return expiredBytes;
+  }
+
   private void evict() {
     int evictionIndex = heads.getEvictionIndex();
     if (evictionIndex < 0) {
@@ -26,6 +26,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import org.ehcache.clustered.common.internal.store.Chain;
 import org.ehcache.clustered.common.internal.store.Element;
+import org.ehcache.clustered.common.internal.store.ElementExpiry;
 import org.ehcache.clustered.common.internal.store.SequencedElement;
 import org.ehcache.clustered.common.internal.store.Util;
 import org.terracotta.offheapstore.paging.OffHeapStorageArea;
@@ -125,7 +126,40 @@ class OffHeapChainStorageEngine<K> implements StorageEngine<K, InternalChain> {
     return storage.readBuffer(encoding + CHAIN_HEADER_SIZE + ELEMENT_HEADER_SIZE + elemLength, keyLength);
   }
 
-  private int readKeyHash(long encoding) {
+  /**
+   * Reads the expiration time of the chain at {@code encoding} straight from the element headers.
+   *
+   * @see ElementExpiry#expirationTime(Chain)
+   */
+  long readExpirationTime(long encoding) {
+    long expirationTime = Long.MIN_VALUE;
+    long element = encoding + CHAIN_HEADER_SIZE;
+    do {
+      int elemLength = storage.readInt(element + ELEMENT_HEADER_LENGTH_OFFSET);
+      long elementExpiry = ElementExpiry.expirationTime(storage.readBuffer(element + ELEMENT_HEADER_SIZE, Math.min(elemLength, ElementExpiry.HEADER_SIZE)));
+      if (elementExpiry == ElementExpiry.NO_EXPIRY) {
+        return ElementExpiry.NO_EXPIRY;
+      }
+      expirationTime = Math.max(expirationTime, elementExpiry);
+      element = storage.readLong(element + ELEMENT_HEADER_NEXT_OFFSET);
+    } while (element != encoding);
+    return expirationTime;
+  }
+
+  /**
+   * Returns the number of bytes occupied by the chain at {@code encoding}, headers included.
+   */
+  long readChainSize(long encoding) {
+    long size = CHAIN_HEADER_SIZE + readKeySize(encoding);
+    long element = encoding + CHAIN_HEADER_SIZE;
+    do {
+      size += ELEMENT_HEADER_SIZE + storage.readInt(element + ELEMENT_HEADER_LENGTH_OFFSET);
+      element = storage.readLong(element + ELEMENT_HEADER_NEXT_OFFSET);
+    } while (element != encoding);
+    return size;
+  }
+
+  int readKeyHash(long encoding) {
     return storage.readInt(encoding + CHAIN_HEADER_KEY_HASH_OFFSET);
   }
 
@@ -18,6 +18,7 @@ package org.ehcache.clustered.server.offheap;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.ehcache.clustered.common.internal.store.Chain;
 import org.ehcache.clustered.common.internal.store.ServerStore;
@@ -38,6 +39,7 @@ public class OffHeapServerStore implements ServerStore, MapInternals {
 
   private final List<OffHeapChainMap<Long>> segments;
   private final KeySegmentMapper mapper;
+  private final AtomicInteger nextExpirySegment = new AtomicInteger();
 
   OffHeapServerStore(PageSource source, KeySegmentMapper mapper) {
     this.mapper = mapper;
@@ -47,6 +49,11 @@ public class OffHeapServerStore implements ServerStore, MapInternals {
     }
   }
 
+  OffHeapServerStore(List<OffHeapChainMap<Long>> segments, KeySegmentMapper mapper) {
+    this.mapper = mapper;
+    this.segments = segments;
+  }
+
   public OffHeapServerStore(ResourcePageSource source, KeySegmentMapper mapper) {
     this.mapper = mapper;
     segments = new ArrayList<OffHeapChainMap<Long>>(mapper.getSegments());
@@ -254,8 +261,73 @@ public class OffHeapServerStore implements ServerStore, MapInternals {
     segments.clear();
   }
 
+  /**
+   * Closes this store and discards its content.
+   */
+  public void destroy() {
+    close();
+  }
+
+  /**
+   * Enables expiry on every segment.
+   *
+   * @param enabled {@code true} to enable expiry
+   * @see OffHeapChainMap#setExpiryEnabled(boolean)
+   */
+  public void setExpiryEnabled(boolean enabled) {
+    for (OffHeapChainMap<Long> segment : segments) {
+      segment.setExpiryEnabled(enabled);
+    }
+  }
+
+  /**
+   * Removes the expired chains of every segment.
+   *
+   * @param now the current server time
+   * @return the number of bytes reclaimed
+   */
+  public long expire(long now) {
+    long reclaimed = 0L;
+    for (OffHeapChainMap<Long> segment : segments) {
+      reclaimed += segment.expire(now);
+    }
+    return reclaimed;
+  }
+
+  /**
+   * Removes the expired chains of the next segment in turn, so that a periodic caller sweeps the whole store while
+   * only ever holding a single segment lock.
+   *
+   * @param now the current server time
+   * @return the number of bytes reclaimed
+   */
+  public long expireNextSegment(long now) {
+    int size = segments.size();
+    if (size == 0) {
+      return 0L;
+    }
+    int index = (nextExpirySegment.getAndIncrement() & Integer.MAX_VALUE) % size;
+    return segments.get(index).expire(now);
+  }
+
   // stats
 
+  public long getExpirations() {
+    long total = 0L;
+    for (OffHeapChainMap<Long> segment : segments) {
+      total += segment.getExpirations();
+    }
+    return total;
+  }
+
+  public long getExpiredBytes() {
+    long total = 0L;
+    for (OffHeapChainMap<Long> segment : segments) {
+      total += segment.getExpiredBytes();
+    }
+    return total;
+  }
+
   @Override
   public long getAllocatedMemory() {
     long total = 0L;
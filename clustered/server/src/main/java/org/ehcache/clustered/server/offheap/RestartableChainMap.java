@@ -0,0 +1,246 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.clustered.server.offheap;
+
+import org.ehcache.clustered.common.internal.store.Chain;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terracotta.offheapstore.paging.PageSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+import static org.ehcache.clustered.server.offheap.OffHeapChainMap.chain;
+
+/**
+ * {@link OffHeapChainMap} writing its mutations through to a {@link ChainLog}.
+ * <p>
+ * Mutations are logged while holding the segment write lock, so the log order matches the order in which they were
+ * applied. Evictions and expirations are logged as removals once the mutation that caused them has returned, as the
+ * eviction callback runs before the mapping is actually removed. Should the log fail, it is abandoned and its files
+ * deleted: a segment restarting empty is preferable to one resurrecting mappings that were since removed.
+ */
+class RestartableChainMap extends OffHeapChainMap<Long> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RestartableChainMap.class);
+
+  private final ChainLog log;
+  private final long snapshotThreshold;
+  private final List<Long> evicted = new ArrayList<>();
+  private boolean recovering;
+
+  RestartableChainMap(PageSource source, int minPageSize, int maxPageSize, ChainLog log, long snapshotThreshold) {
+    super(source, LongPortability.INSTANCE, minPageSize, maxPageSize, false);
+    this.log = log;
+    this.snapshotThreshold = snapshotThreshold;
+    setEvictionListener(null);
+  }
+
+  /**
+   * Loads the persisted content of this segment, then folds it into a new snapshot.
+   */
+  void recover() throws IOException {
+    final Lock lock = writeLock();
+    lock.lock();
+    try {
+      recovering = true;
+      try {
+        log.recover(new ChainLog.Replay() {
+          @Override
+          public void append(long key, ByteBuffer element) {
+            RestartableChainMap.this.append(key, element);
+          }
+
+          @Override
+          public void set(long key, Chain chain) {
+            put(key, chain);
+          }
+
+          @Override
+          public void remove(long key) {
+            put(key, chain());
+          }
+
+          @Override
+          public void clear() {
+            RestartableChainMap.this.clear();
+          }
+        });
+      } finally {
+        recovering = false;
+      }
+      snapshot();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  void setEvictionListener(ChainMapEvictionListener<Long> listener) {
+    super.setEvictionListener(key -> {
+      evicted.add(key);
+      if (listener != null) {
+        listener.onEviction(key);
+      }
+    });
+  }
+
+  @Override
+  public Chain getAndAppend(Long key, ByteBuffer element) {
+    final Lock lock = writeLock();
+    lock.lock();
+    try {
+      Chain current = super.getAndAppend(key, element);
+      logged(() -> log.logAppend(key, element));
+      return current;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void append(Long key, ByteBuffer element) {
+    final Lock lock = writeLock();
+    lock.lock();
+    try {
+      super.append(key, element);
+      logged(() -> log.logAppend(key, element));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void replaceAtHead(Long key, Chain expected, Chain replacement) {
+    final Lock lock = writeLock();
+    lock.lock();
+    try {
+      super.replaceAtHead(key, expected, replacement);
+      logged(() -> log.logSet(key, get(key)));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long expire(long now) {
+    final Lock lock = writeLock();
+    lock.lock();
+    try {
+      long reclaimed = super.expire(now);
+      logged(() -> {});
+      return reclaimed;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    final Lock lock = writeLock();
+    lock.lock();
+    try {
+      super.clear();
+      logged(log::logClear);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Folds the log into a new snapshot of this segment.
+   */
+  void snapshot() throws IOException {
+    final Lock lock = writeLock();
+    lock.lock();
+    try {
+      evicted.clear();
+      if (log.isOpen()) {
+        log.snapshot(new HashSet<>(keySet()), this::get);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Closes the log, leaving the persisted content of this segment for the next recovery.
+   */
+  void closeLog() throws IOException {
+    final Lock lock = writeLock();
+    lock.lock();
+    try {
+      if (log.isOpen()) {
+        try {
+          log.snapshot(new HashSet<>(keySet()), this::get);
+        } finally {
+          log.close();
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Closes the log and deletes the persisted content of this segment.
+   */
+  void destroyLog() throws IOException {
+    final Lock lock = writeLock();
+    lock.lock();
+    try {
+      log.abandon();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Logs the removals of the mappings evicted so far, then the given mutation, and snapshots the segment should the
+   * log have outgrown its threshold. Must be called with the write lock held, after the mutation has been applied.
+   */
+  private void logged(LogWrite write) {
+    if (recovering || !log.isOpen()) {
+      evicted.clear();
+      return;
+    }
+    try {
+      for (Long key : evicted) {
+        log.logRemove(key);
+      }
+      evicted.clear();
+      write.run();
+      if (log.getLogSize() > snapshotThreshold) {
+        snapshot();
+      }
+    } catch (IOException e) {
+      LOGGER.error("Failed to persist a cluster tier segment mutation - abandoning persistence of the segment", e);
+      try {
+        log.abandon();
+      } catch (IOException f) {
+        LOGGER.error("Failed to delete the persisted content of a cluster tier segment", f);
+      }
+    }
+  }
+
+  private interface LogWrite {
+    void run() throws IOException;
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.clustered.server.offheap;
+
+import org.ehcache.clustered.server.KeySegmentMapper;
+import org.ehcache.clustered.server.state.ResourcePageSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terracotta.offheapstore.paging.PageSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.terracotta.offheapstore.util.MemoryUnit.KILOBYTES;
+import static org.terracotta.offheapstore.util.MemoryUnit.MEGABYTES;
+
+/**
+ * {@link OffHeapServerStore} whose content survives a server restart.
+ * <p>
+ * Each segment writes its mutations through to an append-only log in its own sub-directory of the store directory,
+ * and folds that log into a snapshot whenever it grows past a threshold. The persisted content is recovered when the
+ * store is created, before it serves any operation.
+ */
+public class RestartableServerStore extends OffHeapServerStore {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RestartableServerStore.class);
+
+  private static final String LAYOUT = "segments";
+  private static final String SEGMENT_PREFIX = "segment-";
+
+  /**
+   * Log size, in bytes, past which a segment takes a new snapshot.
+   */
+  public static final long DEFAULT_SNAPSHOT_THRESHOLD = MEGABYTES.toBytes(16);
+
+  private final File directory;
+  private final List<RestartableChainMap> restartableSegments;
+
+  RestartableServerStore(PageSource source, KeySegmentMapper mapper, File directory, long snapshotThreshold) {
+    this(segments(source, mapper, KILOBYTES.toBytes(4), MEGABYTES.toBytes(8), directory, snapshotThreshold), mapper, directory);
+  }
+
+  public RestartableServerStore(ResourcePageSource source, KeySegmentMapper mapper, File directory) {
+    this(segments(source, mapper, KILOBYTES.toBytes(4), (int) KILOBYTES.toBytes(getMaxSize(source.getPool().getSize())), directory, DEFAULT_SNAPSHOT_THRESHOLD), mapper, directory);
+  }
+
+  private RestartableServerStore(List<RestartableChainMap> segments, KeySegmentMapper mapper, File directory) {
+    super(new ArrayList<>(segments), mapper);
+    this.directory = directory;
+    this.restartableSegments = segments;
+    try {
+      for (RestartableChainMap segment : segments) {
+        segment.recover();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to recover cluster tier content", e);
+    }
+  }
+
+  private static List<RestartableChainMap> segments(PageSource source, KeySegmentMapper mapper, int minPageSize, int maxPageSize,
+                                                    File directory, long snapshotThreshold) {
+    List<RestartableChainMap> segments = new ArrayList<>(mapper.getSegments());
+    try {
+      checkLayout(directory, mapper.getSegments());
+      for (int i = 0; i < mapper.getSegments(); i++) {
+        ChainLog log = new ChainLog(new File(directory, SEGMENT_PREFIX + i));
+        segments.add(new RestartableChainMap(source, minPageSize, maxPageSize, log, snapshotThreshold));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to create cluster tier directory " + directory, e);
+    }
+    return segments;
+  }
+
+  /**
+   * Discards persisted content laid out for another segment count, as its keys no longer map to the same segments.
+   */
+  private static void checkLayout(File directory, int segments) throws IOException {
+    File layout = new File(directory, LAYOUT);
+    if (layout.isFile()) {
+      int persisted = Integer.parseInt(new String(Files.readAllBytes(layout.toPath()), UTF_8).trim());
+      if (persisted == segments) {
+        return;
+      }
+      LOGGER.warn("Discarding the persisted content of cluster tier in {}: it has {} segments, not {}", directory, persisted, segments);
+    } else if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Unable to create directory " + directory);
+    }
+    File[] existing = directory.listFiles(file -> file.isDirectory() && file.getName().startsWith(SEGMENT_PREFIX));
+    if (existing != null) {
+      for (File segment : existing) {
+        new ChainLog(segment).abandon();
+      }
+    }
+    Files.write(layout.toPath(), Integer.toString(segments).getBytes(UTF_8));
+  }
+
+  /**
+   * Closes this store, leaving its persisted content for the next recovery.
+   */
+  @Override
+  public void close() {
+    IOException failure = null;
+    for (RestartableChainMap segment : restartableSegments) {
+      try {
+        segment.closeLog();
+      } catch (IOException e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    super.close();
+    if (failure != null) {
+      throw new UncheckedIOException("Failed to snapshot cluster tier content", failure);
+    }
+  }
+
+  /**
+   * Closes this store and deletes its persisted content.
+   */
+  @Override
+  public void destroy() {
+    IOException failure = null;
+    for (RestartableChainMap segment : restartableSegments) {
+      try {
+        segment.destroyLog();
+      } catch (IOException e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    super.close();
+    if (failure == null) {
+      try {
+        Files.deleteIfExists(new File(directory, LAYOUT).toPath());
+        Files.deleteIfExists(directory.toPath());
+      } catch (IOException e) {
+        failure = e;
+      }
+    }
+    if (failure != null) {
+      throw new UncheckedIOException("Failed to delete cluster tier content", failure);
+    }
+  }
+}
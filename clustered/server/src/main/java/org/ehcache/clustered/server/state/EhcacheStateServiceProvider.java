@@ -30,6 +30,7 @@ import org.terracotta.offheapresource.OffHeapResources;
 
 import com.tc.classloader.BuiltinService;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
@@ -45,8 +46,15 @@ public class EhcacheStateServiceProvider implements ServiceProvider {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(EhcacheStateServiceProvider.class);
 
+  /**
+   * System property naming the directory under which cluster tiers persist their content. Cluster tiers are only held
+   * in offheap memory when it is not set.
+   */
+  public static final String RESTART_DIRECTORY_PROP = "ehcache.restart.directory";
+
   private ConcurrentMap<String, EhcacheStateService> serviceMap = new ConcurrentHashMap<>();
   private OffHeapResources offHeapResourcesProvider;
+  private File restartDirectory;
 
   @Override
   public boolean initialize(ServiceProviderConfiguration configuration, PlatformConfiguration platformConfiguration) {
@@ -64,6 +72,11 @@ public class EhcacheStateServiceProvider implements ServiceProvider {
     } else {
       LOGGER.warn("No offheap-resource defined - this will prevent provider from offering any EhcacheStateService.");
     }
+    String directory = System.getProperty(RESTART_DIRECTORY_PROP);
+    if (directory != null) {
+      restartDirectory = new File(directory);
+      LOGGER.info("Cluster tiers persist their content under {}", restartDirectory.getAbsolutePath());
+    }
     return true;
   }
 
@@ -74,9 +87,11 @@ public class EhcacheStateServiceProvider implements ServiceProvider {
       EhcacheStateService result;
       if (configuration instanceof EhcacheStateServiceConfig) {
         EhcacheStateServiceConfig stateServiceConfig = (EhcacheStateServiceConfig) configuration;
+        String identifier = stateServiceConfig.getConfig().getIdentifier();
         EhcacheStateServiceImpl storeManagerService = new EhcacheStateServiceImpl(
           offHeapResourcesProvider, stateServiceConfig.getConfig().getConfiguration(), stateServiceConfig.getMapper(),
-          service -> serviceMap.remove(stateServiceConfig.getConfig().getIdentifier(), service));
+          service -> serviceMap.remove(identifier, service),
+          restartDirectory == null ? null : new File(restartDirectory, EhcacheStateServiceImpl.safeFileName(identifier)));
         result = serviceMap.putIfAbsent(stateServiceConfig.getConfig().getIdentifier(), storeManagerService);
         if (result == null) {
           result = storeManagerService;
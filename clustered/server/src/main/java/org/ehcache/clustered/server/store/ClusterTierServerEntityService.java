@@ -49,8 +49,7 @@ import static org.ehcache.clustered.server.ConcurrencyStrategies.clusterTierConc
 public class ClusterTierServerEntityService implements EntityServerService<EhcacheEntityMessage, EhcacheEntityResponse> {
 
   private static final long ENTITY_VERSION = 10L;
-  private static final int DEFAULT_CONCURRENCY = 16;
-  private static final KeySegmentMapper DEFAULT_MAPPER = new KeySegmentMapper(DEFAULT_CONCURRENCY);
+  private static final KeySegmentMapper DEFAULT_MAPPER = KeySegmentMapper.defaultMapper();
   private static final ConfigCodec CONFIG_CODEC = new CommonConfigCodec();
 
   private final EntityConfigurationCodec configCodec = new EntityConfigurationCodec(CONFIG_CODEC);
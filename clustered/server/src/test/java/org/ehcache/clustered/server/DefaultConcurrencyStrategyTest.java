@@ -18,6 +18,7 @@ package org.ehcache.clustered.server;
 import org.ehcache.clustered.common.internal.messages.ConcurrentEntityMessage;
 import org.ehcache.clustered.common.internal.messages.EhcacheEntityMessage;
 import org.ehcache.clustered.common.internal.messages.ServerStoreOpMessage;
+import org.ehcache.clustered.common.internal.messages.StateRepositoryOpMessage;
 import org.hamcrest.Matcher;
 import org.junit.Test;
 import org.terracotta.entity.ConcurrencyStrategy;
@@ -61,6 +62,14 @@ public class DefaultConcurrencyStrategyTest {
     assertThat(strategy.concurrencyKey(getMessage), is(UNIVERSAL_KEY));
   }
 
+  @Test
+  public void testConcurrencyKeyForStateRepositoryReads() throws Exception {
+    ConcurrencyStrategy<EhcacheEntityMessage> strategy = ConcurrencyStrategies.clusterTierConcurrency(DEFAULT_MAPPER);
+    assertThat(strategy.concurrencyKey(mock(StateRepositoryOpMessage.GetMessage.class)), is(UNIVERSAL_KEY));
+    assertThat(strategy.concurrencyKey(mock(StateRepositoryOpMessage.EntrySetMessage.class)), is(UNIVERSAL_KEY));
+    assertThat(strategy.concurrencyKey(mock(StateRepositoryOpMessage.PutIfAbsentMessage.class)), is(DEFAULT_KEY));
+  }
+
   @Test
   public void testKeysForSynchronization() throws Exception {
     final int concurrency = 111;
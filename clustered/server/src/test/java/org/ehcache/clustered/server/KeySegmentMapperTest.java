@@ -0,0 +1,57 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.clustered.server;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+public class KeySegmentMapperTest {
+
+  @Test
+  public void testSegmentsForProcessors() {
+    assertThat(KeySegmentMapper.segmentsFor(1), is(KeySegmentMapper.MIN_SEGMENTS));
+    assertThat(KeySegmentMapper.segmentsFor(4), is(16));
+    assertThat(KeySegmentMapper.segmentsFor(6), is(32));
+    assertThat(KeySegmentMapper.segmentsFor(16), is(64));
+    assertThat(KeySegmentMapper.segmentsFor(1024), is(KeySegmentMapper.MAX_SEGMENTS));
+  }
+
+  @Test
+  public void testSegmentsAreWithinRange() {
+    KeySegmentMapper mapper = new KeySegmentMapper(24);
+    long[] keys = {Long.MIN_VALUE, Long.MAX_VALUE, Integer.MIN_VALUE, -1L, 0L, 1L};
+    for (long key : keys) {
+      assertThat(mapper.getSegmentForKey(key), both(greaterThan(-1)).and(lessThan(24)));
+    }
+  }
+
+  @Test
+  public void testKeysDifferingInHighBitsAreSpread() {
+    KeySegmentMapper mapper = new KeySegmentMapper(16);
+    int[] counts = new int[16];
+    for (long i = 0; i < 16 * 1024; i++) {
+      counts[mapper.getSegmentForKey(i << 16)]++;
+    }
+    for (int count : counts) {
+      assertThat(count, both(greaterThan(768)).and(lessThan(1280)));
+    }
+  }
+}
@@ -24,6 +24,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import org.ehcache.clustered.common.internal.store.Element;
+import org.ehcache.clustered.common.internal.store.ElementExpiry;
 
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
@@ -392,6 +393,79 @@ public class ChainMapTest {
 
   }
 
+  @Test
+  public void testExpireRemovesExpiredChains() {
+    OffHeapChainMap<String> map = new OffHeapChainMap<String>(new UnlimitedPageSource(new OffHeapBufferSource()), StringPortability.INSTANCE, minPageSize, maxPageSize, steal);
+    map.setExpiryEnabled(true);
+    map.append("expired", expiring(10L));
+    map.append("expired", expiring(20L));
+    map.append("live", expiring(200L));
+    map.append("mixed", expiring(10L));
+    map.append("mixed", buffer(12));
+    map.append("eternal", buffer(12));
+
+    assertThat(map.expire(100L), greaterThan(0L));
+
+    assertThat(map.get("expired").isEmpty(), is(true));
+    assertThat(map.get("live"), contains(element(expiring(200L))));
+    assertThat(map.get("mixed").isEmpty(), is(false));
+    assertThat(map.get("eternal"), contains(element(12)));
+    assertThat(map.getExpirations(), is(1L));
+    assertThat(map.getExpiredBytes(), greaterThan(0L));
+  }
+
+  @Test
+  public void testExpireNotifiesEvictionListener() {
+    OffHeapChainMap<String> map = new OffHeapChainMap<String>(new UnlimitedPageSource(new OffHeapBufferSource()), StringPortability.INSTANCE, minPageSize, maxPageSize, steal);
+    map.setExpiryEnabled(true);
+    List<String> evicted = new ArrayList<>();
+    map.setEvictionListener(evicted::add);
+    map.append("expired", expiring(10L));
+    map.append("live", expiring(200L));
+
+    map.expire(100L);
+
+    assertThat(evicted, contains("expired"));
+  }
+
+  @Test
+  public void testExpireIsSkippedWhileExpiryIsDisabled() {
+    // as for chains written by clients not using the system time source, e.g. a clock running far behind the server
+    OffHeapChainMap<String> map = new OffHeapChainMap<String>(new UnlimitedPageSource(new OffHeapBufferSource()), StringPortability.INSTANCE, minPageSize, maxPageSize, steal);
+    List<String> evicted = new ArrayList<>();
+    map.setEvictionListener(evicted::add);
+    map.append("stamped", expiring(10L));
+
+    assertThat(map.expire(100L), is(0L));
+
+    assertThat(map.get("stamped"), contains(element(expiring(10L))));
+    assertThat(evicted, emptyIterable());
+    assertThat(map.getExpirations(), is(0L));
+  }
+
+  private static ByteBuffer expiring(long expirationTime) {
+    ByteBuffer buffer = ByteBuffer.allocate(16);
+    buffer.put(ElementExpiry.EXPIRING_OPERATION_CODE).putLong(-expirationTime);
+    while (buffer.hasRemaining()) {
+      buffer.put((byte) 0);
+    }
+    return (ByteBuffer) buffer.flip();
+  }
+
+  private static Matcher<Element> element(final ByteBuffer buffer) {
+    return new TypeSafeMatcher<Element>() {
+      @Override
+      protected boolean matchesSafely(Element item) {
+        return item.getPayload().equals(buffer);
+      }
+
+      @Override
+      public void describeTo(Description description) {
+        description.appendText("element containing " + buffer);
+      }
+    };
+  }
+
   private static ByteBuffer buffer(int i) {
     ByteBuffer buffer = ByteBuffer.allocate(i);
     while (buffer.hasRemaining()) {
@@ -0,0 +1,290 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.clustered.server.offheap;
+
+import org.ehcache.clustered.common.internal.store.Chain;
+import org.ehcache.clustered.common.internal.store.Element;
+import org.ehcache.clustered.common.internal.store.ServerStore;
+import org.ehcache.clustered.server.KeySegmentMapper;
+import org.ehcache.clustered.server.store.ChainBuilder;
+import org.ehcache.clustered.server.store.ElementBuilder;
+import org.ehcache.clustered.server.store.ServerStoreTest;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.terracotta.offheapstore.buffersource.OffHeapBufferSource;
+import org.terracotta.offheapstore.paging.UnlimitedPageSource;
+import org.terracotta.offheapstore.paging.UpfrontAllocatingPageSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+
+import static org.ehcache.clustered.server.offheap.OffHeapChainMap.chain;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.is;
+import static org.terracotta.offheapstore.util.MemoryUnit.KILOBYTES;
+import static org.terracotta.offheapstore.util.MemoryUnit.MEGABYTES;
+
+public class RestartableServerStoreTest extends ServerStoreTest {
+
+  private static final KeySegmentMapper DEFAULT_MAPPER = new KeySegmentMapper(16);
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  @Override
+  public ServerStore newStore() {
+    try {
+      return new RestartableServerStore(new UnlimitedPageSource(new OffHeapBufferSource()), DEFAULT_MAPPER, folder.newFolder(), RestartableServerStore.DEFAULT_SNAPSHOT_THRESHOLD);
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  @Override
+  public ChainBuilder newChainBuilder() {
+    return new ChainBuilder() {
+      @Override
+      public Chain build(Element... elements) {
+        ByteBuffer[] buffers = new ByteBuffer[elements.length];
+        for (int i = 0; i < buffers.length; i++) {
+          buffers[i] = elements[i].getPayload();
+        }
+        return chain(buffers);
+      }
+    };
+  }
+
+  @Override
+  public ElementBuilder newElementBuilder() {
+    return new ElementBuilder() {
+      @Override
+      public Element build(final ByteBuffer payLoad) {
+        return new Element() {
+          @Override
+          public ByteBuffer getPayload() {
+            return payLoad;
+          }
+        };
+      }
+    };
+  }
+
+  @Test
+  public void testContentSurvivesRestart() throws Exception {
+    File directory = folder.newFolder();
+    RestartableServerStore store = newStore(directory, RestartableServerStore.DEFAULT_SNAPSHOT_THRESHOLD);
+    store.append(1L, buffer(1));
+    store.append(1L, buffer(2));
+    store.getAndAppend(2L, buffer(3));
+    store.append(3L, buffer(4));
+    store.replaceAtHead(1L, chain(buffer(1), buffer(2)), chain(buffer(5)));
+    store.replaceAtHead(3L, chain(buffer(4)), chain());
+    store.close();
+
+    RestartableServerStore recovered = newStore(directory, RestartableServerStore.DEFAULT_SNAPSHOT_THRESHOLD);
+    try {
+      assertChain(recovered.get(1L), 5);
+      assertChain(recovered.get(2L), 3);
+      assertThat(recovered.get(3L).isEmpty(), is(true));
+    } finally {
+      recovered.close();
+    }
+  }
+
+  @Test
+  public void testContentSurvivesCrash() throws Exception {
+    File directory = folder.newFolder();
+    RestartableServerStore store = newStore(directory, 64);
+    for (long key = 0; key < 100; key++) {
+      store.append(key, buffer((int) key));
+    }
+    store.clear();
+    store.append(42L, buffer(1));
+    store.append(42L, buffer(2));
+    //no close, the logs are all there is
+
+    RestartableServerStore recovered = newStore(directory, 64);
+    try {
+      assertThat(recovered.getSize(), is(1L));
+      assertChain(recovered.get(42L), 1, 2);
+    } finally {
+      recovered.close();
+    }
+  }
+
+  @Test
+  public void testEvictionsSurviveCrash() throws Exception {
+    File directory = folder.newFolder();
+    RestartableServerStore store = new RestartableServerStore(new UpfrontAllocatingPageSource(new OffHeapBufferSource(), MEGABYTES.toBytes(1L), MEGABYTES.toBytes(1)),
+        DEFAULT_MAPPER, directory, KILOBYTES.toBytes(4));
+    int keys = 65536;
+    for (long key = 0; key < keys; key++) {
+      store.append(key, buffer((int) key));
+    }
+    assertThat(store.getSize() < keys, is(true));
+    //no close, the logs are all there is
+
+    RestartableServerStore recovered = newStore(directory, RestartableServerStore.DEFAULT_SNAPSHOT_THRESHOLD);
+    try {
+      assertThat(recovered.getSize(), is(store.getSize()));
+      for (long key = 0; key < keys; key++) {
+        assertThat(recovered.get(key).isEmpty(), is(store.get(key).isEmpty()));
+      }
+    } finally {
+      recovered.close();
+    }
+  }
+
+  @Test
+  public void testTornRecordIsIgnoredOnRecovery() throws Exception {
+    File directory = folder.newFolder();
+    RestartableServerStore store = newStore(directory, RestartableServerStore.DEFAULT_SNAPSHOT_THRESHOLD);
+    long key = 7L;
+    store.append(key, buffer(1));
+    store.append(key, buffer(2));
+
+    File segment = new File(directory, "segment-" + DEFAULT_MAPPER.getSegmentForKey(key));
+    File[] logs = segment.listFiles((dir, name) -> name.startsWith("log."));
+    assertThat(logs, arrayWithSize(1));
+    try (RandomAccessFile raf = new RandomAccessFile(logs[0], "rw")) {
+      raf.setLength(raf.length() - 1);
+    }
+
+    RestartableServerStore recovered = newStore(directory, RestartableServerStore.DEFAULT_SNAPSHOT_THRESHOLD);
+    try {
+      assertChain(recovered.get(key), 1);
+    } finally {
+      recovered.close();
+    }
+  }
+
+  @Test
+  public void testCorruptTailIsTruncatedOnRecovery() throws Exception {
+    File directory = folder.newFolder();
+    RestartableServerStore store = newStore(directory, RestartableServerStore.DEFAULT_SNAPSHOT_THRESHOLD);
+    long key = 7L;
+    store.append(key, buffer(1));
+    store.append(key, buffer(2));
+
+    File segment = new File(directory, "segment-" + DEFAULT_MAPPER.getSegmentForKey(key));
+    File[] logs = segment.listFiles((dir, name) -> name.startsWith("log."));
+    assertThat(logs, arrayWithSize(1));
+    try (RandomAccessFile raf = new RandomAccessFile(logs[0], "rw")) {
+      raf.seek(raf.length());
+      raf.writeInt(Integer.MAX_VALUE);
+      raf.writeLong(0L);
+      raf.writeByte(42);
+    }
+
+    RestartableServerStore recovered = newStore(directory, RestartableServerStore.DEFAULT_SNAPSHOT_THRESHOLD);
+    try {
+      assertChain(recovered.get(key), 1, 2);
+      recovered.append(key, buffer(3));
+    } finally {
+      recovered.close();
+    }
+
+    RestartableServerStore reopened = newStore(directory, RestartableServerStore.DEFAULT_SNAPSHOT_THRESHOLD);
+    try {
+      assertChain(reopened.get(key), 1, 2, 3);
+    } finally {
+      reopened.close();
+    }
+  }
+
+  @Test
+  public void testRecordWithBadChecksumEndsTheLog() throws Exception {
+    File directory = folder.newFolder();
+    RestartableServerStore store = newStore(directory, RestartableServerStore.DEFAULT_SNAPSHOT_THRESHOLD);
+    long key = 7L;
+    store.append(key, buffer(1));
+    File segment = new File(directory, "segment-" + DEFAULT_MAPPER.getSegmentForKey(key));
+    File[] logs = segment.listFiles((dir, name) -> name.startsWith("log."));
+    assertThat(logs, arrayWithSize(1));
+    store.append(key, buffer(2));
+
+    try (RandomAccessFile raf = new RandomAccessFile(logs[0], "rw")) {
+      raf.seek(raf.length() - 1);
+      byte last = raf.readByte();
+      raf.seek(raf.length() - 1);
+      raf.writeByte(last ^ 0xff);
+    }
+
+    RestartableServerStore recovered = newStore(directory, RestartableServerStore.DEFAULT_SNAPSHOT_THRESHOLD);
+    try {
+      assertChain(recovered.get(key), 1);
+      recovered.append(key, buffer(3));
+    } finally {
+      recovered.close();
+    }
+
+    RestartableServerStore reopened = newStore(directory, RestartableServerStore.DEFAULT_SNAPSHOT_THRESHOLD);
+    try {
+      assertChain(reopened.get(key), 1, 3);
+    } finally {
+      reopened.close();
+    }
+  }
+
+  @Test
+  public void testContentIsDiscardedWhenSegmentCountChanges() throws Exception {
+    File directory = folder.newFolder();
+    RestartableServerStore store = newStore(directory, RestartableServerStore.DEFAULT_SNAPSHOT_THRESHOLD);
+    store.append(1L, buffer(1));
+    store.close();
+
+    RestartableServerStore resized = new RestartableServerStore(new UnlimitedPageSource(new OffHeapBufferSource()), new KeySegmentMapper(32),
+        directory, RestartableServerStore.DEFAULT_SNAPSHOT_THRESHOLD);
+    try {
+      assertThat(resized.get(1L).isEmpty(), is(true));
+      assertThat(directory.listFiles((dir, name) -> name.startsWith("segment-")), arrayWithSize(32));
+    } finally {
+      resized.close();
+    }
+  }
+
+  @Test
+  public void testDestroyDeletesContent() throws Exception {
+    File directory = folder.newFolder();
+    RestartableServerStore store = newStore(directory, RestartableServerStore.DEFAULT_SNAPSHOT_THRESHOLD);
+    store.append(1L, buffer(1));
+    store.destroy();
+
+    assertThat(directory.exists(), is(false));
+  }
+
+  private static RestartableServerStore newStore(File directory, long snapshotThreshold) {
+    return new RestartableServerStore(new UnlimitedPageSource(new OffHeapBufferSource()), DEFAULT_MAPPER, directory, snapshotThreshold);
+  }
+
+  private static void assertChain(Chain chain, int... elements) {
+    int i = 0;
+    for (Element element : chain) {
+      assertThat(element.getPayload(), is(buffer(elements[i++])));
+    }
+    assertThat(i, is(elements.length));
+  }
+
+  private static ByteBuffer buffer(int i) {
+    ByteBuffer buffer = ByteBuffer.allocate(8);
+    buffer.putLong(i);
+    return (ByteBuffer) buffer.flip();
+  }
+}
@@ -50,6 +50,7 @@ import org.ehcache.core.spi.store.Store.ReplaceStatus;
 import org.ehcache.core.spi.store.Store.ValueHolder;
 import org.ehcache.core.spi.store.StoreAccessException;
 import org.ehcache.core.statistics.BulkOps;
+import org.ehcache.core.statistics.StatisticsLevel;
 import org.ehcache.core.statistics.CacheOperationOutcomes.ClearOutcome;
 import org.ehcache.core.statistics.CacheOperationOutcomes.ConditionalRemoveOutcome;
 import org.ehcache.core.statistics.CacheOperationOutcomes.GetAllOutcome;
@@ -92,17 +93,17 @@ public class Ehcache<K, V> implements InternalCache<K, V> {
   private final Jsr107CacheImpl jsr107Cache;
   protected final Logger logger;
 
-  private final OperationObserver<GetOutcome> getObserver = operation(GetOutcome.class).named("get").of(this).tag("cache").build();
-  private final OperationObserver<GetAllOutcome> getAllObserver = operation(GetAllOutcome.class).named("getAll").of(this).tag("cache").build();
-  private final OperationObserver<PutOutcome> putObserver = operation(PutOutcome.class).named("put").of(this).tag("cache").build();
-  private final OperationObserver<PutAllOutcome> putAllObserver = operation(PutAllOutcome.class).named("putAll").of(this).tag("cache").build();
-  private final OperationObserver<RemoveOutcome> removeObserver = operation(RemoveOutcome.class).named("remove").of(this).tag("cache").build();
-  private final OperationObserver<RemoveAllOutcome> removeAllObserver = operation(RemoveAllOutcome.class).named("removeAll").of(this).tag("cache").build();
-  private final OperationObserver<ConditionalRemoveOutcome> conditionalRemoveObserver = operation(ConditionalRemoveOutcome.class).named("conditionalRemove").of(this).tag("cache").build();
-  private final OperationObserver<PutIfAbsentOutcome> putIfAbsentObserver = operation(PutIfAbsentOutcome.class).named("putIfAbsent").of(this).tag("cache").build();
-  private final OperationObserver<ReplaceOutcome> replaceObserver = operation(ReplaceOutcome.class).named("replace").of(this).tag("cache").build();
+  private final OperationObserver<GetOutcome> getObserver;
+  private final OperationObserver<GetAllOutcome> getAllObserver;
+  private final OperationObserver<PutOutcome> putObserver;
+  private final OperationObserver<PutAllOutcome> putAllObserver;
+  private final OperationObserver<RemoveOutcome> removeObserver;
+  private final OperationObserver<RemoveAllOutcome> removeAllObserver;
+  private final OperationObserver<ConditionalRemoveOutcome> conditionalRemoveObserver;
+  private final OperationObserver<PutIfAbsentOutcome> putIfAbsentObserver;
+  private final OperationObserver<ReplaceOutcome> replaceObserver;
   private final Map<BulkOps, LongAdder> bulkMethodEntries = new EnumMap<BulkOps, LongAdder>(BulkOps.class);
-  private final OperationObserver<ClearOutcome> clearObserver = operation(ClearOutcome.class).named("clear").of(this).tag("cache").build();
+  private final OperationObserver<ClearOutcome> clearObserver;
 
   /**
    * Creates a new {@code Ehcache} based on the provided parameters.
@@ -122,6 +123,18 @@ public class Ehcache<K, V> implements InternalCache<K, V> {
     runtimeConfiguration.addCacheConfigurationListener(store.getConfigurationChangeListeners());
     StatisticsManager.associate(store).withParent(this);
 
+    StatisticsLevel statisticsLevel = StatisticsLevel.of(runtimeConfiguration.getServiceConfigurations());
+    getObserver = statisticsLevel.observer(operation(GetOutcome.class).named("get").of(this).tag("cache"));
+    getAllObserver = statisticsLevel.observer(operation(GetAllOutcome.class).named("getAll").of(this).tag("cache"));
+    putObserver = statisticsLevel.observer(operation(PutOutcome.class).named("put").of(this).tag("cache"));
+    putAllObserver = statisticsLevel.observer(operation(PutAllOutcome.class).named("putAll").of(this).tag("cache"));
+    removeObserver = statisticsLevel.observer(operation(RemoveOutcome.class).named("remove").of(this).tag("cache"));
+    removeAllObserver = statisticsLevel.observer(operation(RemoveAllOutcome.class).named("removeAll").of(this).tag("cache"));
+    conditionalRemoveObserver = statisticsLevel.observer(operation(ConditionalRemoveOutcome.class).named("conditionalRemove").of(this).tag("cache"));
+    putIfAbsentObserver = statisticsLevel.observer(operation(PutIfAbsentOutcome.class).named("putIfAbsent").of(this).tag("cache"));
+    replaceObserver = statisticsLevel.observer(operation(ReplaceOutcome.class).named("replace").of(this).tag("cache"));
+    clearObserver = statisticsLevel.observer(operation(ClearOutcome.class).named("clear").of(this).tag("cache"));
+
     if (store instanceof RecoveryCache) {
       this.resilienceStrategy = new LoggingRobustResilienceStrategy<K, V>(castToRecoveryCache(store));
     } else {
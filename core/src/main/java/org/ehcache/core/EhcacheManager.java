@@ -27,6 +27,7 @@ import org.ehcache.config.ResourcePool;
 import org.ehcache.config.ResourceType;
 import org.ehcache.core.config.BaseCacheConfiguration;
 import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.core.config.store.StaleServingConfiguration;
 import org.ehcache.core.config.store.StoreEventSourceConfiguration;
 import org.ehcache.core.events.CacheEventDispatcher;
 import org.ehcache.core.events.CacheEventDispatcherFactory;
@@ -34,16 +35,24 @@ import org.ehcache.core.events.CacheEventListenerConfiguration;
 import org.ehcache.core.events.CacheEventListenerProvider;
 import org.ehcache.core.events.CacheManagerListener;
 import org.ehcache.core.internal.service.ServiceLocator;
+import org.ehcache.core.internal.store.StaleRetainingExpiry;
 import org.ehcache.core.internal.store.StoreConfigurationImpl;
 import org.ehcache.core.internal.store.StoreSupport;
 import org.ehcache.core.internal.util.ClassLoading;
 import org.ehcache.core.spi.LifeCycled;
 import org.ehcache.core.spi.LifeCycledAdapter;
 import org.ehcache.core.spi.service.CacheManagerProviderService;
+import org.ehcache.core.spi.service.HotKeySnapshotService;
+import org.ehcache.core.spi.service.RefreshAheadProvider;
+import org.ehcache.core.spi.service.RefreshAheadProvider.RefreshAhead;
 import org.ehcache.core.spi.service.ServiceUtils;
 import org.ehcache.core.spi.store.InternalCacheManager;
 import org.ehcache.core.spi.store.Store;
+import org.ehcache.core.spi.time.SystemTimeSource;
+import org.ehcache.core.spi.time.TimeSource;
+import org.ehcache.core.spi.time.TimeSourceService;
 import org.ehcache.event.CacheEventListener;
+import org.ehcache.expiry.Expiry;
 import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
 import org.ehcache.spi.loaderwriter.CacheLoaderWriterProvider;
 import org.ehcache.spi.loaderwriter.WriteBehindConfiguration;
@@ -59,6 +68,7 @@ import org.ehcache.spi.service.ServiceCreationConfiguration;
 import org.ehcache.spi.service.ServiceProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terracotta.statistics.StatisticsManager;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -69,10 +79,19 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
-
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.ehcache.core.internal.service.ServiceLocator.dependencySet;
 
 /**
@@ -85,6 +104,12 @@ public class EhcacheManager implements PersistentCacheManager, InternalCacheMana
 
   private static final Logger LOGGER = LoggerFactory.getLogger(EhcacheManager.class);
 
+  /**
+   * System property holding the number of threads used to create the configured caches in {@link #init()}.
+   * Defaults to {@code 1}, meaning caches are created one after the other on the calling thread.
+   */
+  static final String INIT_THREADS_PROPERTY = "ehcache.init.threads";
+
   private final DefaultConfiguration configuration;
   private final ClassLoader cacheManagerClassLoader;
 
@@ -239,7 +264,14 @@ public class EhcacheManager implements PersistentCacheManager, InternalCacheMana
 
   private <K, V> Cache<K, V> createCache(final String alias, CacheConfiguration<K, V> originalConfig, boolean addToConfig) throws IllegalArgumentException {
     statusTransitioner.checkAvailable();
+    return doCreateCache(alias, originalConfig, addToConfig);
+  }
 
+  /**
+   * Creates the cache without checking availability, as threads other than the one owning the {@link #init()}
+   * transition would otherwise block until it completes.
+   */
+  private <K, V> Cache<K, V> doCreateCache(final String alias, CacheConfiguration<K, V> originalConfig, boolean addToConfig) throws IllegalArgumentException {
     LOGGER.debug("Creating Cache '{}' in {}.", alias, simpleName);
 
     CacheConfiguration<K, V> config = adjustConfigurationWithCacheManagerDefaults(originalConfig);
@@ -307,10 +339,9 @@ public class EhcacheManager implements PersistentCacheManager, InternalCacheMana
 
     List<LifeCycled> lifeCycledList = new ArrayList<LifeCycled>();
 
-    final Store<K, V> store = getStore(alias, config, keyType, valueType, adjustedServiceConfigs, lifeCycledList);
-
     final CacheLoaderWriterProvider cacheLoaderWriterProvider = serviceLocator.getService(CacheLoaderWriterProvider.class);
     final CacheLoaderWriter<? super K, V> decorator ;
+    boolean writeBehind = false;
     if(cacheLoaderWriterProvider != null) {
       final CacheLoaderWriter<? super K, V> loaderWriter;
       loaderWriter = cacheLoaderWriterProvider.createCacheLoaderWriter(alias, config);
@@ -322,6 +353,7 @@ public class EhcacheManager implements PersistentCacheManager, InternalCacheMana
         final WriteBehindProvider factory = serviceLocator.getService(WriteBehindProvider.class);
         decorator = factory.createWriteBehindLoaderWriter(loaderWriter, writeBehindConfiguration);
         if(decorator != null) {
+          writeBehind = true;
           lifeCycledList.add(new LifeCycledAdapter() {
             @Override
             public void close() {
@@ -343,6 +375,12 @@ public class EhcacheManager implements PersistentCacheManager, InternalCacheMana
       decorator = null;
     }
 
+    if (decorator == null && ServiceUtils.findSingletonAmongst(StaleServingConfiguration.class, adjustedServiceConfigs.toArray()) != null) {
+      throw new IllegalStateException("Cache '" + alias + "' is configured to serve stale values but has no loader-writer");
+    }
+
+    final Store<K, V> store = getStore(alias, config, keyType, valueType, adjustedServiceConfigs, lifeCycledList);
+
     final CacheEventDispatcherFactory cenlProvider = serviceLocator.getService(CacheEventDispatcherFactory.class);
     final CacheEventDispatcher<K, V> evtService =
         cenlProvider.createCacheEventDispatcher(store, adjustedServiceConfigs.toArray(new ServiceConfiguration[adjustedServiceConfigs.size()]));
@@ -358,8 +396,33 @@ public class EhcacheManager implements PersistentCacheManager, InternalCacheMana
     if (decorator == null) {
       cache = new Ehcache<K, V>(config, store, evtService, LoggerFactory.getLogger(Ehcache.class + "-" + alias));
     } else {
-      cache = new EhcacheWithLoaderWriter<K, V>(config, store, decorator, evtService,
+      final EhcacheWithLoaderWriter<K, V> cacheWithLoaderWriter = new EhcacheWithLoaderWriter<K, V>(config, store, decorator, evtService,
                     useLoaderInAtomics, LoggerFactory.getLogger(EhcacheWithLoaderWriter.class + "-" + alias));
+      final RefreshAheadProvider refreshAheadProvider = serviceLocator.getService(RefreshAheadProvider.class);
+      if (refreshAheadProvider != null) {
+        final RefreshAhead<K, V> refreshAhead = refreshAheadProvider.createRefreshAhead(alias, config,
+            cacheWithLoaderWriter.getRefresher(), adjustedServiceConfigs.toArray(new ServiceConfiguration[adjustedServiceConfigs.size()]));
+        if (refreshAhead != null) {
+          cacheWithLoaderWriter.setRefreshAhead(refreshAhead);
+          lifeCycledList.add(new LifeCycledAdapter() {
+            @Override
+            public void close() {
+              refreshAheadProvider.releaseRefreshAhead(refreshAhead);
+            }
+          });
+        }
+      }
+      if (writeBehind) {
+        // the write-behind statistics are discovered from the cache, the user supplied loader-writer is left alone
+        StatisticsManager.associate(decorator).withParent(cacheWithLoaderWriter);
+        lifeCycledList.add(new LifeCycledAdapter() {
+          @Override
+          public void close() {
+            StatisticsManager.dissociate(decorator).fromParent(cacheWithLoaderWriter);
+          }
+        });
+      }
+      cache = cacheWithLoaderWriter;
     }
 
     final CacheEventListenerProvider evntLsnrFactory = serviceLocator.getService(CacheEventListenerProvider.class);
@@ -387,6 +450,16 @@ public class EhcacheManager implements PersistentCacheManager, InternalCacheMana
       evtService.setListenerSource(cache);
     }
 
+    final HotKeySnapshotService snapshotService = serviceLocator.getService(HotKeySnapshotService.class);
+    if (snapshotService != null) {
+      LifeCycled snapshotHook = snapshotService.createSnapshotHook(alias, cache, store,
+          adjustedServiceConfigs.toArray(new ServiceConfiguration[adjustedServiceConfigs.size()]));
+      if (snapshotHook != null) {
+        // added last so that it is closed first, while the store can still be iterated
+        lifeCycledList.add(snapshotHook);
+      }
+    }
+
     for (LifeCycled lifeCycled : lifeCycledList) {
       cache.addHook(lifeCycled);
     }
@@ -489,7 +562,22 @@ public class EhcacheManager implements PersistentCacheManager, InternalCacheMana
       dispatcherConcurrency = StoreEventSourceConfiguration.DEFAULT_DISPATCHER_CONCURRENCY;
     }
 
-    Store.Configuration<K, V> storeConfiguration = new StoreConfigurationImpl<K, V>(config, dispatcherConcurrency, keySerializer, valueSerializer);
+    Expiry<? super K, ? super V> expiry = config.getExpiry();
+    StaleServingConfiguration staleServingConfiguration = ServiceUtils.findSingletonAmongst(StaleServingConfiguration.class, config
+        .getServiceConfigurations()
+        .toArray());
+    if (staleServingConfiguration != null) {
+      TimeSourceService timeSourceService = serviceLocator.getService(TimeSourceService.class);
+      TimeSource timeSource = timeSourceService == null ? SystemTimeSource.INSTANCE : timeSourceService.getTimeSource();
+      expiry = new StaleRetainingExpiry<K, V>(expiry, staleServingConfiguration.getGracePeriod(), timeSource);
+    }
+    HotKeySnapshotService snapshotService = serviceLocator.getService(HotKeySnapshotService.class);
+    if (snapshotService != null) {
+      expiry = snapshotService.<K, V>adjustExpiry(expiry, serviceConfigArray);
+    }
+
+    Store.Configuration<K, V> storeConfiguration = new StoreConfigurationImpl<K, V>(config.getKeyType(), config.getValueType(), config.getEvictionAdvisor(),
+        config.getClassLoader(), expiry, config.getResourcePools(), dispatcherConcurrency, keySerializer, valueSerializer);
     final Store<K, V> store = storeProvider.createStore(storeConfiguration, serviceConfigArray);
 
     lifeCycledList.add(new LifeCycled() {
@@ -558,13 +646,20 @@ public class EhcacheManager implements PersistentCacheManager, InternalCacheMana
     try {
       serviceLocator.startAllServices();
 
+      List<Map.Entry<String, CacheConfiguration<?, ?>>> cacheConfigurations =
+          new ArrayList<Map.Entry<String, CacheConfiguration<?, ?>>>(configuration.getCacheConfigurations().entrySet());
       Deque<String> initiatedCaches = new ArrayDeque<String>();
+      long start = System.nanoTime();
       try {
-        for (Map.Entry<String, CacheConfiguration<?, ?>> cacheConfigurationEntry : configuration.getCacheConfigurations()
-            .entrySet()) {
-          final String alias = cacheConfigurationEntry.getKey();
-          createCache(alias, cacheConfigurationEntry.getValue(), false);
-          initiatedCaches.push(alias);
+        int threads = Math.min(Integer.getInteger(INIT_THREADS_PROPERTY, 1), cacheConfigurations.size());
+        if (threads > 1) {
+          initCachesInParallel(cacheConfigurations, initiatedCaches, threads);
+        } else {
+          for (Map.Entry<String, CacheConfiguration<?, ?>> cacheConfigurationEntry : cacheConfigurations) {
+            final String alias = cacheConfigurationEntry.getKey();
+            initCache(alias, cacheConfigurationEntry.getValue());
+            initiatedCaches.push(alias);
+          }
         }
       } catch (RuntimeException e) {
         while (!initiatedCaches.isEmpty()) {
@@ -582,6 +677,10 @@ public class EhcacheManager implements PersistentCacheManager, InternalCacheMana
         }
         throw e;
       }
+      if (!cacheConfigurations.isEmpty()) {
+        LOGGER.info("{} cache(s) initialized in {} in {} ms.", cacheConfigurations.size(), simpleName,
+            NANOSECONDS.toMillis(System.nanoTime() - start));
+      }
       st.succeeded();
     } catch (Exception e) {
       throw st.failed(e);
@@ -590,6 +689,108 @@ public class EhcacheManager implements PersistentCacheManager, InternalCacheMana
     }
   }
 
+  private void initCache(String alias, CacheConfiguration<?, ?> config) {
+    long start = System.nanoTime();
+    doCreateCache(alias, config, false);
+    LOGGER.debug("Cache '{}' initialized in {} in {} ms.", alias, simpleName, NANOSECONDS.toMillis(System.nanoTime() - start));
+  }
+
+  /**
+   * Creates the configured caches on a bounded pool of {@code threads} threads.
+   * <p>
+   * Caches are independent of one another once the services are started, so only their creation order differs from
+   * the sequential path. Once a creation fails no further creation is started, and the failure of the first cache in
+   * configuration order is the one rethrown. Every successfully created cache is pushed onto {@code initiatedCaches}
+   * in configuration order so that the caller rolls them back exactly as it does for sequential initialization.
+   */
+  private void initCachesInParallel(List<Map.Entry<String, CacheConfiguration<?, ?>>> cacheConfigurations,
+                                    Deque<String> initiatedCaches, int threads) {
+    final AtomicBoolean failed = new AtomicBoolean();
+    ExecutorService executor = Executors.newFixedThreadPool(threads, new InitThreadFactory(simpleName));
+    try {
+      List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>(cacheConfigurations.size());
+      for (Map.Entry<String, CacheConfiguration<?, ?>> cacheConfigurationEntry : cacheConfigurations) {
+        final String alias = cacheConfigurationEntry.getKey();
+        final CacheConfiguration<?, ?> config = cacheConfigurationEntry.getValue();
+        futures.add(executor.submit(new Callable<Boolean>() {
+          @Override
+          public Boolean call() {
+            if (failed.get()) {
+              return false;
+            }
+            try {
+              initCache(alias, config);
+              return true;
+            } catch (RuntimeException e) {
+              failed.set(true);
+              throw e;
+            } catch (Error e) {
+              failed.set(true);
+              throw e;
+            }
+          }
+        }));
+      }
+
+      Throwable failure = null;
+      for (int i = 0; i < futures.size(); i++) {
+        String alias = cacheConfigurations.get(i).getKey();
+        try {
+          if (awaitUninterruptibly(futures.get(i))) {
+            initiatedCaches.push(alias);
+          }
+        } catch (ExecutionException e) {
+          if (failure == null) {
+            failure = e.getCause();
+          } else {
+            LOGGER.error("Cache '{}' initialization in {} also failed due to ", alias, simpleName, e.getCause());
+          }
+        }
+      }
+      if (failure instanceof RuntimeException) {
+        throw (RuntimeException) failure;
+      } else if (failure instanceof Error) {
+        throw (Error) failure;
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static <T> T awaitUninterruptibly(Future<T> future) throws ExecutionException {
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          return future.get();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private static final class InitThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger count = new AtomicInteger();
+    private final String name;
+
+    InitThreadFactory(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread thread = new Thread(r, name + "-init-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+
   @Override
   public Status getStatus() {
     return statusTransitioner.currentStatus();
@@ -20,6 +20,7 @@ import org.ehcache.Cache;
 import org.ehcache.Status;
 import org.ehcache.config.CacheConfiguration;
 import org.ehcache.config.CacheRuntimeConfiguration;
+import org.ehcache.core.config.store.StaleServingConfiguration;
 import org.ehcache.core.events.CacheEventDispatcher;
 import org.ehcache.core.exceptions.StorePassThroughException;
 import org.ehcache.spi.loaderwriter.BulkCacheLoadingException;
@@ -35,10 +36,13 @@ import org.ehcache.core.internal.resilience.LoggingRobustResilienceStrategy;
 import org.ehcache.core.internal.resilience.RecoveryCache;
 import org.ehcache.core.internal.resilience.ResilienceStrategy;
 import org.ehcache.core.spi.LifeCycled;
+import org.ehcache.core.spi.service.RefreshAheadProvider.RefreshAhead;
+import org.ehcache.core.spi.service.RefreshAheadProvider.Refresher;
 import org.ehcache.core.spi.store.Store;
 import org.ehcache.core.spi.store.Store.ValueHolder;
 import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
 import org.ehcache.core.statistics.BulkOps;
+import org.ehcache.core.statistics.StatisticsLevel;
 import org.ehcache.core.statistics.CacheOperationOutcomes.CacheLoadingOutcome;
 import org.ehcache.core.statistics.CacheOperationOutcomes.ConditionalRemoveOutcome;
 import org.ehcache.core.statistics.CacheOperationOutcomes.GetAllOutcome;
@@ -46,6 +50,7 @@ import org.ehcache.core.statistics.CacheOperationOutcomes.GetOutcome;
 import org.ehcache.core.statistics.CacheOperationOutcomes.PutIfAbsentOutcome;
 import org.ehcache.core.statistics.CacheOperationOutcomes.PutAllOutcome;
 import org.ehcache.core.statistics.CacheOperationOutcomes.PutOutcome;
+import org.ehcache.core.statistics.CacheOperationOutcomes.RefreshAheadOutcome;
 import org.ehcache.core.statistics.CacheOperationOutcomes.RemoveAllOutcome;
 import org.ehcache.core.statistics.CacheOperationOutcomes.RemoveOutcome;
 import org.ehcache.core.statistics.CacheOperationOutcomes.ReplaceOutcome;
@@ -67,11 +72,14 @@ import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.ehcache.core.internal.util.Functions.memoize;
+import static org.ehcache.core.spi.service.ServiceUtils.findSingletonAmongst;
 import static org.ehcache.core.exceptions.ExceptionFactory.newCacheLoadingException;
 import static org.ehcache.core.exceptions.ExceptionFactory.newCacheWritingException;
 import static org.ehcache.core.internal.util.ValueSuppliers.supplierOf;
@@ -95,18 +103,22 @@ public class EhcacheWithLoaderWriter<K, V> implements InternalCache<K, V> {
   private final EhcacheRuntimeConfiguration<K, V> runtimeConfiguration;
   private final Jsr107CacheImpl jsr107Cache;
   private final boolean useLoaderInAtomics;
+  private final long staleGracePeriodMillis;
+  private final boolean revalidateStaleInBackground;
+  private volatile RefreshAhead<K, V> refreshAhead;
   protected final Logger logger;
 
-  private final OperationObserver<GetOutcome> getObserver = operation(GetOutcome.class).named("get").of(this).tag("cache").build();
-  private final OperationObserver<GetAllOutcome> getAllObserver = operation(GetAllOutcome.class).named("getAll").of(this).tag("cache").build();
-  private final OperationObserver<PutOutcome> putObserver = operation(PutOutcome.class).named("put").of(this).tag("cache").build();
-  private final OperationObserver<PutAllOutcome> putAllObserver = operation(PutAllOutcome.class).named("putAll").of(this).tag("cache").build();
-  private final OperationObserver<RemoveOutcome> removeObserver = operation(RemoveOutcome.class).named("remove").of(this).tag("cache").build();
-  private final OperationObserver<RemoveAllOutcome> removeAllObserver = operation(RemoveAllOutcome.class).named("removeAll").of(this).tag("cache").build();
-  private final OperationObserver<ConditionalRemoveOutcome> conditionalRemoveObserver = operation(ConditionalRemoveOutcome.class).named("conditionalRemove").of(this).tag("cache").build();
-  private final OperationObserver<CacheLoadingOutcome> cacheLoadingObserver = operation(CacheLoadingOutcome.class).named("cacheLoading").of(this).tag("cache").build();
-  private final OperationObserver<PutIfAbsentOutcome> putIfAbsentObserver = operation(PutIfAbsentOutcome.class).named("putIfAbsent").of(this).tag("cache").build();
-  private final OperationObserver<ReplaceOutcome> replaceObserver = operation(ReplaceOutcome.class).named("replace").of(this).tag("cache").build();
+  private final OperationObserver<GetOutcome> getObserver;
+  private final OperationObserver<GetAllOutcome> getAllObserver;
+  private final OperationObserver<PutOutcome> putObserver;
+  private final OperationObserver<PutAllOutcome> putAllObserver;
+  private final OperationObserver<RemoveOutcome> removeObserver;
+  private final OperationObserver<RemoveAllOutcome> removeAllObserver;
+  private final OperationObserver<ConditionalRemoveOutcome> conditionalRemoveObserver;
+  private final OperationObserver<CacheLoadingOutcome> cacheLoadingObserver;
+  private final OperationObserver<PutIfAbsentOutcome> putIfAbsentObserver;
+  private final OperationObserver<ReplaceOutcome> replaceObserver;
+  private final OperationObserver<RefreshAheadOutcome> refreshAheadObserver;
   private final Map<BulkOps, LongAdder> bulkMethodEntries = new EnumMap<BulkOps, LongAdder>(BulkOps.class);
 
   private static final NullaryFunction<Boolean> REPLACE_FALSE = new NullaryFunction<Boolean>() {
@@ -148,6 +160,19 @@ public class EhcacheWithLoaderWriter<K, V> implements InternalCache<K, V> {
       throw new NullPointerException("CacheLoaderWriter cannot be null.");
     }
     this.cacheLoaderWriter = cacheLoaderWriter;
+
+    StatisticsLevel statisticsLevel = StatisticsLevel.of(runtimeConfiguration.getServiceConfigurations());
+    getObserver = statisticsLevel.observer(operation(GetOutcome.class).named("get").of(this).tag("cache"));
+    getAllObserver = statisticsLevel.observer(operation(GetAllOutcome.class).named("getAll").of(this).tag("cache"));
+    putObserver = statisticsLevel.observer(operation(PutOutcome.class).named("put").of(this).tag("cache"));
+    putAllObserver = statisticsLevel.observer(operation(PutAllOutcome.class).named("putAll").of(this).tag("cache"));
+    removeObserver = statisticsLevel.observer(operation(RemoveOutcome.class).named("remove").of(this).tag("cache"));
+    removeAllObserver = statisticsLevel.observer(operation(RemoveAllOutcome.class).named("removeAll").of(this).tag("cache"));
+    conditionalRemoveObserver = statisticsLevel.observer(operation(ConditionalRemoveOutcome.class).named("conditionalRemove").of(this).tag("cache"));
+    cacheLoadingObserver = statisticsLevel.observer(operation(CacheLoadingOutcome.class).named("cacheLoading").of(this).tag("cache"));
+    putIfAbsentObserver = statisticsLevel.observer(operation(PutIfAbsentOutcome.class).named("putIfAbsent").of(this).tag("cache"));
+    replaceObserver = statisticsLevel.observer(operation(ReplaceOutcome.class).named("replace").of(this).tag("cache"));
+    refreshAheadObserver = statisticsLevel.observer(operation(RefreshAheadOutcome.class).named("refreshAhead").of(this).tag("cache"));
     if (store instanceof RecoveryCache) {
       this.resilienceStrategy = new LoggingRobustResilienceStrategy<K, V>(castToRecoveryCache(store));
     } else {
@@ -159,6 +184,16 @@ public class EhcacheWithLoaderWriter<K, V> implements InternalCache<K, V> {
     this.jsr107Cache = new Jsr107CacheImpl();
 
     this.useLoaderInAtomics = useLoaderInAtomics;
+    StaleServingConfiguration staleServingConfiguration =
+        findSingletonAmongst(StaleServingConfiguration.class, runtimeConfiguration.getServiceConfigurations().toArray());
+    if (staleServingConfiguration == null) {
+      this.staleGracePeriodMillis = 0;
+      this.revalidateStaleInBackground = false;
+    } else {
+      Duration gracePeriod = staleServingConfiguration.getGracePeriod();
+      this.staleGracePeriodMillis = MILLISECONDS.convert(gracePeriod.getLength(), gracePeriod.getTimeUnit());
+      this.revalidateStaleInBackground = staleServingConfiguration.isRevalidatingInBackground();
+    }
     this.logger=logger;
     this.statusTransitioner = statusTransitioner;
     for (BulkOps bulkOp : BulkOps.values()) {
@@ -174,6 +209,148 @@ public class EhcacheWithLoaderWriter<K, V> implements InternalCache<K, V> {
     return bulkMethodEntries;
   }
 
+  void setRefreshAhead(RefreshAhead<K, V> refreshAhead) {
+    this.refreshAhead = refreshAhead;
+  }
+
+  Refresher<K, V> getRefresher() {
+    return new Refresher<K, V>() {
+      @Override
+      public void refresh(Map<K, V> due) {
+        EhcacheWithLoaderWriter.this.refresh(due);
+      }
+    };
+  }
+
+  /**
+   * Reloads the keys with a single {@link CacheLoaderWriter#loadAll(Iterable)} and replaces the mappings still holding
+   * the value that was due, so that a refresh never resurrects a mapping that expired, was evicted or was removed in the
+   * meantime, nor overwrites a value written in the meantime.
+   */
+  private void refresh(Map<K, V> due) {
+    Set<K> keys = due.keySet();
+    if (statusTransitioner.currentStatus() != Status.AVAILABLE) {
+      return;
+    }
+    Map<? super K, ? extends V> loaded;
+    Set<?> failures = Collections.emptySet();
+    try {
+      loaded = cacheLoaderWriter.loadAll(keys);
+    } catch (BulkCacheLoadingException e) {
+      @SuppressWarnings("unchecked")
+      Map<? super K, ? extends V> successes = (Map<? super K, ? extends V>) e.getSuccesses();
+      loaded = successes;
+      failures = e.getFailures().keySet();
+      logger.debug("Refresh-ahead failed to load {} keys", failures.size(), e);
+    } catch (Exception e) {
+      logger.debug("Refresh-ahead failed to load {} keys", keys.size(), e);
+      for (int i = 0; i < keys.size(); i++) {
+        refreshAheadObserver.begin();
+        refreshAheadObserver.end(RefreshAheadOutcome.FAILURE);
+      }
+      return;
+    }
+
+    for (Map.Entry<K, V> entry : due.entrySet()) {
+      K key = entry.getKey();
+      refreshAheadObserver.begin();
+      if (failures.contains(key)) {
+        refreshAheadObserver.end(RefreshAheadOutcome.FAILURE);
+        continue;
+      }
+      final V dueValue = entry.getValue();
+      final V value = loaded == null ? null : loaded.get(key);
+      final AtomicBoolean replaced = new AtomicBoolean();
+      try {
+        store.compute(key, new BiFunction<K, V, V>() {
+          @Override
+          public V apply(K mappedKey, V mappedValue) {
+            if (mappedValue == null || !mappedValue.equals(dueValue)) {
+              return mappedValue;
+            }
+            replaced.set(true);
+            return value;
+          }
+        }, new NullaryFunction<Boolean>() {
+          @Override
+          public Boolean apply() {
+            // a mapping left as is keeps its expiry, a reloaded equal value is installed afresh
+            return replaced.get();
+          }
+        });
+        refreshAheadObserver.end(replaced.get() ? RefreshAheadOutcome.HIT : RefreshAheadOutcome.MISS);
+      } catch (StoreAccessException e) {
+        logger.debug("Refresh-ahead failed to install the value of {}", key, e);
+        refreshAheadObserver.end(RefreshAheadOutcome.FAILURE);
+      }
+    }
+  }
+
+  /**
+   * Returns the value of a mapping retained past its expiry, revalidating it first if it is stale and cannot be
+   * revalidated in the background.
+   */
+  private V getRetained(K key, Store.ValueHolder<V> valueHolder) {
+    Store.ValueHolder<V> expiring = new RetainedValueHolder<V>(valueHolder, staleGracePeriodMillis);
+    RefreshAhead<K, V> policy = refreshAhead;
+    if (!isStale(valueHolder) || (revalidateStaleInBackground && policy != null)) {
+      if (policy != null) {
+        // a stale mapping is always due, so this schedules its revalidation
+        policy.accessed(key, expiring);
+      }
+      return valueHolder.value();
+    }
+    return revalidate(key, valueHolder.value());
+  }
+
+  /**
+   * Checks whether a mapping just read from the store is past the cache expiry and only retained for the grace period.
+   */
+  private boolean isStale(Store.ValueHolder<V> valueHolder) {
+    return staleGracePeriodMillis > 0 && new RetainedValueHolder<V>(valueHolder, staleGracePeriodMillis)
+        .isExpired(valueHolder.lastAccessTime(MILLISECONDS), MILLISECONDS);
+  }
+
+  /**
+   * Removes a stale mapping ahead of a conditional or atomic operation, so that the operation sees it as absent like
+   * the store would have without the grace period.
+   */
+  private void expireStale(K key) throws StoreAccessException {
+    if (staleGracePeriodMillis > 0) {
+      Store.ValueHolder<V> valueHolder = store.get(key);
+      if (valueHolder != null && isStale(valueHolder)) {
+        store.remove(key, valueHolder.value());
+      }
+    }
+  }
+
+  /**
+   * Reloads a stale mapping, falling back to the stale value through the resilience strategy if the load fails.
+   */
+  private V revalidate(K key, V stale) {
+    final V loaded;
+    try {
+      cacheLoadingObserver.begin();
+      loaded = cacheLoaderWriter.load(key);
+      cacheLoadingObserver.end(CacheLoadingOutcome.SUCCESS);
+    } catch (Exception e) {
+      cacheLoadingObserver.end(CacheLoadingOutcome.FAILURE);
+      return resilienceStrategy.getStaleFailure(key, stale, newCacheLoadingException(e));
+    }
+
+    try {
+      store.compute(key, new BiFunction<K, V, V>() {
+        @Override
+        public V apply(K mappedKey, V mappedValue) {
+          return loaded;
+        }
+      });
+    } catch (StoreAccessException e) {
+      return resilienceStrategy.getFailure(key, loaded, e);
+    }
+    return loaded;
+  }
+
   @SuppressWarnings("unchecked")
   private RecoveryCache<K> castToRecoveryCache(Store<K, V> store) {
     return (RecoveryCache<K>) store;
@@ -187,8 +364,8 @@ public class EhcacheWithLoaderWriter<K, V> implements InternalCache<K, V> {
     try {
       final Store.ValueHolder<V> valueHolder = store.get(key);
 
-      // Check for expiry first
-      if (valueHolder == null) {
+      // Check for expiry first, a stale mapping is only served by a loading get
+      if (valueHolder == null || isStale(valueHolder)) {
         getObserver.end(GetOutcome.MISS);
         return null;
       } else {
@@ -238,6 +415,13 @@ public class EhcacheWithLoaderWriter<K, V> implements InternalCache<K, V> {
         return null;
       } else {
         getObserver.end(GetOutcome.HIT);
+        if (staleGracePeriodMillis > 0) {
+          return getRetained(key, valueHolder);
+        }
+        RefreshAhead<K, V> policy = refreshAhead;
+        if (policy != null) {
+          policy.accessed(key, valueHolder);
+        }
         return valueHolder.value();
       }
     } catch (StoreAccessException e) {
@@ -333,6 +517,10 @@ public class EhcacheWithLoaderWriter<K, V> implements InternalCache<K, V> {
     statusTransitioner.checkAvailable();
     checkNonNull(key);
     try {
+      if (staleGracePeriodMillis > 0) {
+        Store.ValueHolder<V> valueHolder = store.get(key);
+        return valueHolder != null && !isStale(valueHolder);
+      }
       return store.containsKey(key);
     } catch (StoreAccessException e) {
       return resilienceStrategy.containsKeyFailure(key, e);
@@ -370,6 +558,7 @@ public class EhcacheWithLoaderWriter<K, V> implements InternalCache<K, V> {
     });
 
     try {
+      expireStale(key);
       store.compute(key, remappingFunction);
       if (modified.get()) {
         removeObserver.end(RemoveOutcome.SUCCESS);
@@ -476,8 +665,12 @@ public class EhcacheWithLoaderWriter<K, V> implements InternalCache<K, V> {
       int keyCount = 0;
       for (Map.Entry<K, Store.ValueHolder<V>> entry : computedMap.entrySet()) {
         keyCount++;
+        V value = null;
         if (entry.getValue() != null) {
-          result.put(entry.getKey(), entry.getValue().value());
+          value = staleGracePeriodMillis > 0 ? getRetained(entry.getKey(), entry.getValue()) : entry.getValue().value();
+        }
+        if (value != null) {
+          result.put(entry.getKey(), value);
           hits++;
         } else if (includeNulls && failures.isEmpty()) {
           result.put(entry.getKey(), null);
@@ -805,6 +998,7 @@ public class EhcacheWithLoaderWriter<K, V> implements InternalCache<K, V> {
     });
 
     try {
+      expireStale(key);
       ValueHolder<V> inCache = store.computeIfAbsent(key, mappingFunction);
       if (installed.get()) {
         putIfAbsentObserver.end(PutIfAbsentOutcome.PUT);
@@ -880,6 +1074,7 @@ public class EhcacheWithLoaderWriter<K, V> implements InternalCache<K, V> {
       }
     });
     try {
+      expireStale(key);
       store.compute(key, remappingFunction, REPLACE_FALSE);
       if (removed.get()) {
         conditionalRemoveObserver.end(ConditionalRemoveOutcome.SUCCESS);
@@ -955,6 +1150,7 @@ public class EhcacheWithLoaderWriter<K, V> implements InternalCache<K, V> {
     });
 
     try {
+      expireStale(key);
       store.compute(key, remappingFunction);
       if (old.get() != null) {
         replaceObserver.end(ReplaceOutcome.HIT);
@@ -1032,6 +1228,7 @@ public class EhcacheWithLoaderWriter<K, V> implements InternalCache<K, V> {
       }
     });
     try {
+      expireStale(key);
       store.compute(key, remappingFunction, REPLACE_FALSE);
       if (success.get()) {
         replaceObserver.end(ReplaceOutcome.HIT);
@@ -1177,6 +1374,9 @@ public class EhcacheWithLoaderWriter<K, V> implements InternalCache<K, V> {
 
     private void loadAllAbsent(Set<? extends K> keys, final Function<Iterable<? extends K>, Map<K, V>> loadFunction) {
       try {
+        for (K key : keys) {
+          expireStale(key);
+        }
         store.bulkComputeIfAbsent(keys, new Function<Iterable<? extends K>, Iterable<? extends Map.Entry<? extends K, ? extends V>>>() {
           @Override
           public Iterable<? extends java.util.Map.Entry<? extends K, ? extends V>> apply(Iterable<? extends K> absentKeys) {
@@ -1274,6 +1474,7 @@ public class EhcacheWithLoaderWriter<K, V> implements InternalCache<K, V> {
           }
         };
 
+        expireStale(key);
         store.compute(key, fn, replaceEqual);
       } catch (StoreAccessException e) {
         throw new RuntimeException(e);
@@ -1287,6 +1488,7 @@ public class EhcacheWithLoaderWriter<K, V> implements InternalCache<K, V> {
 
       final AtomicReference<V> existingValue = new AtomicReference<V>();
       try {
+        expireStale(key);
         store.compute(key, new BiFunction<K, V, V>() {
           @Override
           public V apply(K mappedKey, V mappedValue) {
@@ -1323,6 +1525,7 @@ public class EhcacheWithLoaderWriter<K, V> implements InternalCache<K, V> {
 
       final AtomicReference<V> existingValue = new AtomicReference<V>();
       try {
+        expireStale(key);
         store.compute(key, new BiFunction<K, V, V>() {
           @Override
           public V apply(K mappedKey, V mappedValue) {
@@ -1469,6 +1672,66 @@ public class EhcacheWithLoaderWriter<K, V> implements InternalCache<K, V> {
     };
   }
 
+  /**
+   * View of a mapping retained past its expiry, exposing the expiration time of the cache expiry rather than the one
+   * extended by the grace period.
+   */
+  private static final class RetainedValueHolder<V> implements Store.ValueHolder<V> {
+
+    private final Store.ValueHolder<V> valueHolder;
+    private final long gracePeriodMillis;
+
+    RetainedValueHolder(Store.ValueHolder<V> valueHolder, long gracePeriodMillis) {
+      this.valueHolder = valueHolder;
+      this.gracePeriodMillis = gracePeriodMillis;
+    }
+
+    @Override
+    public V value() {
+      return valueHolder.value();
+    }
+
+    @Override
+    public long creationTime(TimeUnit unit) {
+      return valueHolder.creationTime(unit);
+    }
+
+    @Override
+    public long expirationTime(TimeUnit unit) {
+      long expirationTime = valueHolder.expirationTime(MILLISECONDS);
+      if (expirationTime == NO_EXPIRE) {
+        return NO_EXPIRE;
+      }
+      return unit.convert(expirationTime - gracePeriodMillis, MILLISECONDS);
+    }
+
+    @Override
+    public boolean isExpired(long expirationTime, TimeUnit unit) {
+      long expiresAt = expirationTime(MILLISECONDS);
+      return expiresAt != NO_EXPIRE && MILLISECONDS.convert(expirationTime, unit) >= expiresAt;
+    }
+
+    @Override
+    public long lastAccessTime(TimeUnit unit) {
+      return valueHolder.lastAccessTime(unit);
+    }
+
+    @Override
+    public float hitRate(long now, TimeUnit unit) {
+      return valueHolder.hitRate(now, unit);
+    }
+
+    @Override
+    public long hits() {
+      return valueHolder.hits();
+    }
+
+    @Override
+    public long getId() {
+      return valueHolder.getId();
+    }
+  }
+
   private static class ValueHolderBasedEntry<K, V> implements Cache.Entry<K, V> {
     private final Cache.Entry<K, ValueHolder<V>> storeEntry;
 
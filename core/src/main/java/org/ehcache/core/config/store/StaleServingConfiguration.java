@@ -0,0 +1,44 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.core.config.store;
+
+import org.ehcache.core.spi.store.Store;
+import org.ehcache.expiry.Duration;
+import org.ehcache.spi.service.ServiceConfiguration;
+
+/**
+ * {@link ServiceConfiguration} retaining the mappings of a loader backed cache for a grace period past their expiry.
+ * <p>
+ * A mapping read during its grace period is stale: it is either returned while it is reloaded in the background, or
+ * reloaded before being returned and only returned if that load fails.
+ */
+public interface StaleServingConfiguration extends ServiceConfiguration<Store.Provider> {
+
+  /**
+   * Returns how long mappings are retained once expired.
+   *
+   * @return the grace period
+   */
+  Duration getGracePeriod();
+
+  /**
+   * Indicates whether stale mappings are returned right away and reloaded in the background, rather than reloaded
+   * before being returned.
+   *
+   * @return {@code true} if stale mappings are revalidated in the background
+   */
+  boolean isRevalidatingInBackground();
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.core.config.store;
+
+import org.ehcache.core.spi.store.Store;
+import org.ehcache.core.statistics.StatisticsLevel;
+import org.ehcache.spi.service.ServiceConfiguration;
+
+/**
+ * {@link ServiceConfiguration} selecting the {@link StatisticsLevel} a cache and its {@link Store} run with.
+ */
+public interface StoreStatisticsConfiguration extends ServiceConfiguration<Store.Provider> {
+
+  /**
+   * Default statistics level
+   */
+  StatisticsLevel DEFAULT_STATISTICS_LEVEL = StatisticsLevel.FULL;
+
+  /**
+   * Indicates which statistics are collected by the cache and its tiers.
+   *
+   * @return the statistics level
+   */
+  StatisticsLevel getStatisticsLevel();
+}
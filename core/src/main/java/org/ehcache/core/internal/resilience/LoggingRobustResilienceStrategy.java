@@ -19,6 +19,7 @@ package org.ehcache.core.internal.resilience;
 import org.ehcache.Cache;
 import org.ehcache.core.spi.store.StoreAccessException;
 import org.ehcache.CacheIterationException;
+import org.ehcache.spi.loaderwriter.CacheLoadingException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -69,4 +70,9 @@ public class LoggingRobustResilienceStrategy<K, V> extends RobustResilienceStrat
   protected void inconsistent(StoreAccessException because, StoreAccessException... cleanup) {
     LOGGER.error("Ehcache in possible inconsistent state due to ", because);
   }
+
+  @Override
+  protected void staleServed(K key, CacheLoadingException because) {
+    LOGGER.warn("Ehcache key {} served stale due to ", key, because);
+  }
 }
@@ -38,8 +38,9 @@ import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
  * Resilience in this context refers only to resilience against cache failures
  * and not to resilience against failures of any underlying
  * {@link CacheLoaderWriter}.  To this end writer or loader failures will only be
- * reported to the strategy in the context of a coincident cache failure.
- * Isolated writer and loader exceptions will be thrown directly.
+ * reported to the strategy in the context of a coincident cache failure,
+ * or when a stale mapping could be returned instead.  Other isolated writer
+ * and loader exceptions will be thrown directly.
  *
  * @param <K> the type of the keys used to access data within the cache
  * @param <V> the type of the values held within the cache
@@ -80,6 +81,18 @@ public interface ResilienceStrategy<K, V> {
    */
   V getFailure(K key, StoreAccessException e, CacheLoadingException f);
 
+  /**
+   * Called when a {@link Cache#get(java.lang.Object)} on a cache with a
+   * cache loader finds a stale mapping, retained past its expiry, and the
+   * cache loader fails to reload it.
+   *
+   * @param key the key being retrieved
+   * @param stale the stale value
+   * @param f the loader failure
+   * @return the value to return from the operation
+   */
+  V getStaleFailure(K key, V stale, CacheLoadingException f);
+
   /**
    * Called when a {@link Cache#containsKey(java.lang.Object)} fails due to an
    * underlying store failure, and the resultant cache load operation also fails.
@@ -57,6 +57,12 @@ public abstract class RobustResilienceStrategy<K, V> implements ResilienceStrate
     throw f;
   }
 
+  @Override
+  public V getStaleFailure(K key, V stale, CacheLoadingException f) {
+    staleServed(key, f);
+    return stale;
+  }
+
   @Override
   public boolean containsKeyFailure(K key, StoreAccessException e) {
     cleanup(key, e);
@@ -262,4 +268,6 @@ public abstract class RobustResilienceStrategy<K, V> implements ResilienceStrate
   protected abstract void inconsistent(Iterable<? extends K> keys, StoreAccessException because, StoreAccessException... cleanup);
 
   protected abstract void inconsistent(StoreAccessException because, StoreAccessException... cleanup);
+
+  protected abstract void staleServed(K key, CacheLoadingException because);
 }
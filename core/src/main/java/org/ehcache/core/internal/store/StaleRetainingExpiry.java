@@ -0,0 +1,82 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.core.internal.store;
+
+import org.ehcache.ValueSupplier;
+import org.ehcache.core.spi.store.Store;
+import org.ehcache.core.spi.time.TimeSource;
+import org.ehcache.expiry.Duration;
+import org.ehcache.expiry.Expiry;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * {@link Expiry} extending the durations of another one by a grace period, so that a store retains mappings past
+ * their expiry.
+ * <p>
+ * Infinite and zero durations are kept as is: a mapping that never expires has no grace period, and one that expires
+ * right away is never stored.
+ * <p>
+ * An access to a mapping already past the delegate expiry leaves its expiration time unchanged, so that a stale mapping
+ * is not renewed by being read during its grace period.
+ */
+public class StaleRetainingExpiry<K, V> implements Expiry<K, V> {
+
+  private final Expiry<? super K, ? super V> delegate;
+  private final long gracePeriodMillis;
+  private final TimeSource timeSource;
+
+  public StaleRetainingExpiry(Expiry<? super K, ? super V> delegate, Duration gracePeriod, TimeSource timeSource) {
+    this.delegate = delegate;
+    this.gracePeriodMillis = MILLISECONDS.convert(gracePeriod.getLength(), gracePeriod.getTimeUnit());
+    this.timeSource = timeSource;
+  }
+
+  @Override
+  public Duration getExpiryForCreation(K key, V value) {
+    return retain(delegate.getExpiryForCreation(key, value));
+  }
+
+  @Override
+  public Duration getExpiryForAccess(K key, ValueSupplier<? extends V> value) {
+    // stores hand over the value holder as it was before the access
+    if (value instanceof Store.ValueHolder<?> && isStale((Store.ValueHolder<?>) value)) {
+      return null;
+    }
+    return retain(delegate.getExpiryForAccess(key, value));
+  }
+
+  @Override
+  public Duration getExpiryForUpdate(K key, ValueSupplier<? extends V> oldValue, V newValue) {
+    return retain(delegate.getExpiryForUpdate(key, oldValue, newValue));
+  }
+
+  private boolean isStale(Store.ValueHolder<?> valueHolder) {
+    long expirationTime = valueHolder.expirationTime(MILLISECONDS);
+    return expirationTime != Store.ValueHolder.NO_EXPIRE && timeSource.getTimeMillis() >= expirationTime - gracePeriodMillis;
+  }
+
+  private Duration retain(Duration duration) {
+    if (duration == null || duration.isInfinite() || duration.getLength() == 0) {
+      return duration;
+    }
+    long millis = MILLISECONDS.convert(duration.getLength(), duration.getTimeUnit());
+    if (millis > Long.MAX_VALUE - gracePeriodMillis) {
+      return Duration.INFINITE;
+    }
+    return new Duration(millis + gracePeriodMillis, MILLISECONDS);
+  }
+}
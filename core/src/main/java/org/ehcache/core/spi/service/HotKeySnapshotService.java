@@ -0,0 +1,58 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.core.spi.service;
+
+import org.ehcache.core.InternalCache;
+import org.ehcache.core.spi.LifeCycled;
+import org.ehcache.core.spi.store.Store;
+import org.ehcache.expiry.Expiry;
+import org.ehcache.spi.service.Service;
+import org.ehcache.spi.service.ServiceConfiguration;
+
+/**
+ * Service snapshotting the hottest keys of a cache when it is closed, and restoring them when the cache is next
+ * initialized.
+ */
+public interface HotKeySnapshotService extends Service {
+
+  /**
+   * Creates the hook taking and restoring the snapshot of the given cache.
+   * <p>
+   * The hook is initialized after the {@link Store} and closed before it is released.
+   *
+   * @param alias the cache alias
+   * @param cache the cache
+   * @param store the store backing {@code cache}
+   * @param serviceConfigs the cache service configurations
+   * @param <K> the key type
+   * @param <V> the value type
+   * @return the snapshot hook, or {@code null} if the cache is not configured for snapshots
+   */
+  <K, V> LifeCycled createSnapshotHook(String alias, InternalCache<K, V> cache, Store<K, V> store,
+                                       ServiceConfiguration<?>... serviceConfigs);
+
+  /**
+   * Adjusts the expiry of the {@link Store} backing a cache, so that the mappings restored from its snapshot keep the
+   * expiration time they were snapshot with.
+   *
+   * @param expiry the expiry the store would otherwise use
+   * @param serviceConfigs the cache service configurations
+   * @param <K> the key type
+   * @param <V> the value type
+   * @return the expiry the store is to use
+   */
+  <K, V> Expiry<? super K, ? super V> adjustExpiry(Expiry<? super K, ? super V> expiry, ServiceConfiguration<?>... serviceConfigs);
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.core.spi.service;
+
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.core.spi.store.Store;
+import org.ehcache.spi.service.Service;
+import org.ehcache.spi.service.ServiceConfiguration;
+
+import java.util.Map;
+
+/**
+ * Service refreshing the mappings of loader backed caches in the background, before they expire.
+ */
+public interface RefreshAheadProvider extends Service {
+
+  /**
+   * Creates the refresh-ahead policy of the given cache.
+   *
+   * @param alias the cache alias
+   * @param cacheConfiguration the cache configuration
+   * @param refresher the cache callback reloading keys
+   * @param serviceConfigs the cache service configurations
+   * @param <K> the key type
+   * @param <V> the value type
+   * @return the refresh-ahead policy, or {@code null} if the cache is not configured for refresh-ahead
+   */
+  <K, V> RefreshAhead<K, V> createRefreshAhead(String alias, CacheConfiguration<K, V> cacheConfiguration,
+                                               Refresher<K, V> refresher, ServiceConfiguration<?>... serviceConfigs);
+
+  /**
+   * Releases a refresh-ahead policy, discarding its pending refreshes.
+   *
+   * @param refreshAhead the refresh-ahead policy to release
+   */
+  void releaseRefreshAhead(RefreshAhead<?, ?> refreshAhead);
+
+  /**
+   * Refresh-ahead policy of a single cache, told about every mapping read from the cache.
+   *
+   * @param <K> the key type
+   * @param <V> the value type
+   */
+  interface RefreshAhead<K, V> {
+
+    /**
+     * Notifies the policy that a mapping was read, so that it can schedule its refresh.
+     * <p>
+     * This is invoked on the reading thread and must not block.
+     *
+     * @param key the key read
+     * @param valueHolder the value holder read, with its access time and expiration time up to date
+     */
+    void accessed(K key, Store.ValueHolder<V> valueHolder);
+  }
+
+  /**
+   * Callback through which a refresh-ahead policy reloads keys.
+   *
+   * @param <K> the key type
+   * @param <V> the value type
+   */
+  interface Refresher<K, V> {
+
+    /**
+     * Reloads the given keys, replacing the mappings still holding the value they had when they became due with the
+     * loaded values.
+     *
+     * @param due the keys to reload, mapped to the values read when they became due
+     */
+    void refresh(Map<K, V> due);
+  }
+}
@@ -186,4 +186,22 @@ public interface CacheOperationOutcomes {
      */
     FAILURE
   };
+
+  /**
+   * The refresh-ahead outcomes.
+   */
+  enum RefreshAheadOutcome implements CacheOperationOutcomes {
+    /**
+     * mapping refreshed before it expired
+     */
+    HIT,
+    /**
+     * mapping gone before the refreshed value was loaded
+     */
+    MISS,
+    /**
+     * loading the refreshed value failed
+     */
+    FAILURE
+  };
 }
@@ -115,6 +115,22 @@ public interface CacheStatistics {
    */
   long getCacheExpirations();
 
+  /**
+   * How many refresh-ahead reloads replaced a mapping before it expired since the cache creation or the latest
+   * {@link #clear()}
+   *
+   * @return refresh hit count
+   */
+  long getCacheRefreshHits();
+
+  /**
+   * How many refresh-ahead reloads did not replace a mapping, because it was gone or because loading failed, since the
+   * cache creation or the latest {@link #clear()}
+   *
+   * @return refresh miss count
+   */
+  long getCacheRefreshMisses();
+
   /**
    * The average response time of a get on the cache since its creation or the latest {@link #clear()}
    *
@@ -135,4 +151,32 @@ public interface CacheStatistics {
    * @return average remove response time
    */
   float getCacheAverageRemoveTime();
+
+  /**
+   * Latencies of gets hitting the cache since its creation or the latest {@link #clear()}
+   *
+   * @return get hit latency histogram
+   */
+  LatencyHistogram getCacheGetHitLatency();
+
+  /**
+   * Latencies of gets missing the cache since its creation or the latest {@link #clear()}
+   *
+   * @return get miss latency histogram
+   */
+  LatencyHistogram getCacheGetMissLatency();
+
+  /**
+   * Latencies of puts on the cache since its creation or the latest {@link #clear()}
+   *
+   * @return put latency histogram
+   */
+  LatencyHistogram getCachePutLatency();
+
+  /**
+   * Latencies of removes on the cache since its creation or the latest {@link #clear()}
+   *
+   * @return remove latency histogram
+   */
+  LatencyHistogram getCacheRemoveLatency();
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.core.statistics;
+
+/**
+ * Distribution of the sampled latencies of an operation, in nanoseconds.
+ */
+public interface LatencyHistogram {
+
+  /**
+   * How many latencies were recorded since the creation of the histogram or the latest clear of its statistics
+   *
+   * @return sample count
+   */
+  long getCount();
+
+  /**
+   * The highest latency recorded, {@code 0} if none was recorded
+   *
+   * @return maximum latency in nanoseconds
+   */
+  long getMaximum();
+
+  /**
+   * The latency at or below which the given percentage of the recorded latencies fall, {@code 0} if none was recorded
+   * <p>
+   * The returned value is the upper bound of the histogram bucket holding that latency, which is at most a few percent above
+   * the actual latency.
+   *
+   * @param percentile the percentage, between {@code 0} and {@code 100}
+   * @return latency in nanoseconds
+   */
+  long getValueAtPercentile(double percentile);
+}
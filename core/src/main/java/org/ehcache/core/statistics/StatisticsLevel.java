@@ -0,0 +1,126 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.core.statistics;
+
+import org.ehcache.core.config.store.StoreStatisticsConfiguration;
+import org.terracotta.statistics.StatisticBuilder;
+import org.terracotta.statistics.observer.OperationObserver;
+
+import java.util.Collection;
+
+import static org.ehcache.core.spi.service.ServiceUtils.findSingletonAmongst;
+
+/**
+ * Enumeration of the statistics levels a cache and its tiers can run with.
+ * <p>
+ * The level is fixed when the cache is created: operation observers are either registered or replaced by no-op ones
+ * at construction, so that a cache running with {@link #OFF} pays no instrumentation cost at all.
+ */
+public enum StatisticsLevel {
+
+  /**
+   * No operation statistics are collected, neither by the cache nor by its tiers.
+   */
+  OFF,
+
+  /**
+   * Operation outcomes are counted, but no latency is measured.
+   */
+  COUNTERS,
+
+  /**
+   * Operation outcomes are counted and latencies are measured.
+   */
+  FULL;
+
+  @SuppressWarnings("rawtypes")
+  private static final OperationObserver<?> NO_OP_OBSERVER = new OperationObserver() {
+    @Override
+    public void begin() {
+    }
+
+    @Override
+    public void end(Enum result) {
+    }
+
+    @Override
+    public void end(Enum result, long... parameters) {
+    }
+  };
+
+  /**
+   * Indicates whether operation outcomes are counted at this level.
+   *
+   * @return {@code true} if operation statistics are registered
+   */
+  public boolean countsOperations() {
+    return this != OFF;
+  }
+
+  /**
+   * Indicates whether operation latencies are measured at this level.
+   *
+   * @return {@code true} if latency statistics are derived from the operation statistics
+   */
+  public boolean measuresLatency() {
+    return this == FULL;
+  }
+
+  /**
+   * Builds the operation observer described by {@code builder}, or returns a no-op observer when this level does not
+   * count operations.
+   *
+   * @param builder the operation statistic builder
+   * @param <T> the operation outcome type
+   * @return the operation observer to use
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends Enum<T>> OperationObserver<T> observer(StatisticBuilder.OperationStatisticBuilder<T> builder) {
+    if (countsOperations()) {
+      return builder.build();
+    } else {
+      return (OperationObserver<T>) NO_OP_OBSERVER;
+    }
+  }
+
+  /**
+   * Finds the statistics level configured amongst the given service configurations.
+   *
+   * @param serviceConfigs the service configurations to look into
+   * @return the configured level, {@link #FULL} if none is configured
+   */
+  public static StatisticsLevel of(Object... serviceConfigs) {
+    return levelOf(findSingletonAmongst(StoreStatisticsConfiguration.class, serviceConfigs));
+  }
+
+  /**
+   * Finds the statistics level configured amongst the given service configurations.
+   *
+   * @param serviceConfigs the service configurations to look into
+   * @return the configured level, {@link #FULL} if none is configured
+   */
+  public static StatisticsLevel of(Collection<?> serviceConfigs) {
+    return levelOf(findSingletonAmongst(StoreStatisticsConfiguration.class, serviceConfigs));
+  }
+
+  private static StatisticsLevel levelOf(StoreStatisticsConfiguration configuration) {
+    if (configuration == null || configuration.getStatisticsLevel() == null) {
+      return StoreStatisticsConfiguration.DEFAULT_STATISTICS_LEVEL;
+    }
+    return configuration.getStatisticsLevel();
+  }
+}
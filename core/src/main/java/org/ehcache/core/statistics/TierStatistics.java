@@ -115,4 +115,32 @@ public interface TierStatistics {
    * @return number of bytes occupied
    */
   long getOccupiedByteSize();
+
+  /**
+   * Latencies of gets hitting the tier since its creation or the latest {@link #clear()}
+   *
+   * @return hit latency histogram
+   */
+  LatencyHistogram getHitLatency();
+
+  /**
+   * Latencies of gets missing the tier since its creation or the latest {@link #clear()}
+   *
+   * @return miss latency histogram
+   */
+  LatencyHistogram getMissLatency();
+
+  /**
+   * Latencies of puts on the tier since its creation or the latest {@link #clear()}
+   *
+   * @return put latency histogram
+   */
+  LatencyHistogram getPutLatency();
+
+  /**
+   * Latencies of evictions from the tier since its creation or the latest {@link #clear()}
+   *
+   * @return eviction latency histogram
+   */
+  LatencyHistogram getEvictionLatency();
 }
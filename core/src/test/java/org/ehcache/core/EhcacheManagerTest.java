@@ -55,6 +55,7 @@ import org.mockito.Mockito;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -528,6 +529,92 @@ public class EhcacheManagerTest {
     assertThat(caches.isEmpty(), is(true));
   }
 
+  @Test
+  public void testInitCreatesCachesInParallel() {
+    final Set<String> threads = Collections.synchronizedSet(new HashSet<String>());
+    final CacheConfiguration<Object, Object> cacheConfiguration = new BaseCacheConfiguration<Object, Object>(Object.class, Object.class, null, null, null, ResourcePoolsHelper.createHeapOnlyPools());
+    final Store.Provider storeProvider = mock(Store.Provider.class);
+    when(storeProvider.rank(anySet(), anyCollection())).thenReturn(1);
+    when(storeProvider.createStore(Matchers.<Store.Configuration>anyObject())).thenReturn(mock(Store.class));
+    final CacheEventDispatcherFactory cenlProvider = mock(CacheEventDispatcherFactory.class);
+    when(cenlProvider.createCacheEventDispatcher(any(Store.class))).thenReturn(mock(CacheEventDispatcher.class));
+    Map<String, CacheConfiguration<?, ?>> cacheMap = newCacheMap();
+    cacheMap.put("foo", cacheConfiguration);
+    cacheMap.put("bar", cacheConfiguration);
+    cacheMap.put("foobar", cacheConfiguration);
+    DefaultConfiguration config = new DefaultConfiguration(cacheMap, null);
+    EhcacheManager cacheManager = new EhcacheManager(config, getServices(storeProvider, cenlProvider)) {
+
+      @Override
+      <K, V> InternalCache<K, V> createNewEhcache(final String alias, final CacheConfiguration<K, V> config,
+                                            final Class<K> keyType, final Class<V> valueType) {
+        threads.add(Thread.currentThread().getName());
+        return super.createNewEhcache(alias, config, keyType, valueType);
+      }
+    };
+
+    System.setProperty(EhcacheManager.INIT_THREADS_PROPERTY, "4");
+    try {
+      cacheManager.init();
+    } finally {
+      System.clearProperty(EhcacheManager.INIT_THREADS_PROPERTY);
+    }
+    assertThat(cacheManager.getStatus(), is(Status.AVAILABLE));
+    assertThat(cacheManager.getCache("foo", Object.class, Object.class), notNullValue());
+    assertThat(cacheManager.getCache("bar", Object.class, Object.class), notNullValue());
+    assertThat(cacheManager.getCache("foobar", Object.class, Object.class), notNullValue());
+    assertThat(threads.contains(Thread.currentThread().getName()), is(false));
+    cacheManager.close();
+  }
+
+  @Test
+  public void testClosesStartedCachesDownWhenParallelInitThrows() {
+    final Set<Cache<?,?>> caches = Collections.synchronizedSet(new HashSet<Cache<?, ?>>());
+    final CacheConfiguration<Object, Object> cacheConfiguration = new BaseCacheConfiguration<Object, Object>(Object.class, Object.class, null, null, null, ResourcePoolsHelper.createHeapOnlyPools());
+    final Store.Provider storeProvider = mock(Store.Provider.class);
+    when(storeProvider.rank(anySet(), anyCollection())).thenReturn(1);
+    when(storeProvider.createStore(Matchers.<Store.Configuration>anyObject())).thenReturn(mock(Store.class));
+    final CacheEventDispatcherFactory cenlProvider = mock(CacheEventDispatcherFactory.class);
+    when(cenlProvider.createCacheEventDispatcher(any(Store.class))).thenReturn(mock(CacheEventDispatcher.class));
+    Map<String, CacheConfiguration<?, ?>> cacheMap = newCacheMap();
+    cacheMap.put("foo", cacheConfiguration);
+    cacheMap.put("bar", cacheConfiguration);
+    cacheMap.put("foobar", cacheConfiguration);
+    cacheMap.put("baz", cacheConfiguration);
+    DefaultConfiguration config = new DefaultConfiguration(cacheMap, null);
+    EhcacheManager cacheManager = new EhcacheManager(config, getServices(storeProvider, cenlProvider)) {
+
+      @Override
+      <K, V> InternalCache<K, V> createNewEhcache(final String alias, final CacheConfiguration<K, V> config,
+                                            final Class<K> keyType, final Class<V> valueType) {
+        if (alias.equals("bar")) {
+          throw new RuntimeException();
+        }
+        final InternalCache<K, V> ehcache = super.createNewEhcache(alias, config, keyType, valueType);
+        caches.add(ehcache);
+        return ehcache;
+      }
+
+      @Override
+      protected void closeEhcache(final String alias, final InternalCache<?, ?> ehcache) {
+        super.closeEhcache(alias, ehcache);
+        caches.remove(ehcache);
+      }
+    };
+
+    System.setProperty(EhcacheManager.INIT_THREADS_PROPERTY, "4");
+    try {
+      cacheManager.init();
+      fail();
+    } catch (StateTransitionException e) {
+      assertThat(cacheManager.getStatus(), is(Status.UNINITIALIZED));
+      assertThat(e.getCause().getMessage(), CoreMatchers.startsWith("Cache 'bar' creation in "));
+    } finally {
+      System.clearProperty(EhcacheManager.INIT_THREADS_PROPERTY);
+    }
+    assertThat(caches.isEmpty(), is(true));
+  }
+
   @Test
   public void testClosesAllCachesDownWhenCloseThrows() {
     final Set<String> caches = new HashSet<String>();
@@ -23,7 +23,9 @@ import org.ehcache.config.ResourcePools;
 import org.ehcache.config.units.MemoryUnit;
 import org.ehcache.core.config.BaseCacheConfiguration;
 import org.ehcache.core.config.store.StoreEventSourceConfiguration;
+import org.ehcache.core.config.store.StoreStatisticsConfiguration;
 import org.ehcache.core.spi.store.heap.SizeOfEngine;
+import org.ehcache.core.statistics.StatisticsLevel;
 import org.ehcache.expiry.Expiry;
 import org.ehcache.impl.config.copy.DefaultCopierConfiguration;
 import org.ehcache.impl.config.event.DefaultCacheEventDispatcherConfiguration;
@@ -31,6 +33,7 @@ import org.ehcache.impl.config.event.DefaultCacheEventListenerConfiguration;
 import org.ehcache.impl.config.event.DefaultEventSourceConfiguration;
 import org.ehcache.impl.config.loaderwriter.DefaultCacheLoaderWriterConfiguration;
 import org.ehcache.impl.config.serializer.DefaultSerializerConfiguration;
+import org.ehcache.impl.config.statistics.DefaultStatisticsConfiguration;
 import org.ehcache.impl.config.store.disk.OffHeapDiskStoreConfiguration;
 import org.ehcache.impl.copy.SerializingCopier;
 import org.ehcache.impl.config.store.heap.DefaultSizeOfEngineConfiguration;
@@ -549,16 +552,60 @@ public class CacheConfigurationBuilder<K, V> implements Builder<CacheConfigurati
    * @return a new builder with the added configuration
    */
   public CacheConfigurationBuilder<K, V> withDispatcherConcurrency(int dispatcherConcurrency) {
-    DefaultEventSourceConfiguration configuration = new DefaultEventSourceConfiguration(dispatcherConcurrency);
     CacheConfigurationBuilder<K, V> otherBuilder = new CacheConfigurationBuilder<K, V>(this);
     DefaultEventSourceConfiguration existingServiceConfiguration = otherBuilder.getExistingServiceConfiguration(DefaultEventSourceConfiguration.class);
+    DefaultEventSourceConfiguration configuration;
     if (existingServiceConfiguration != null) {
       otherBuilder.serviceConfigurations.remove(existingServiceConfiguration);
+      configuration = new DefaultEventSourceConfiguration(dispatcherConcurrency,
+          existingServiceConfiguration.getOrderedQueueCapacity(), existingServiceConfiguration.getOverflowPolicy());
+    } else {
+      configuration = new DefaultEventSourceConfiguration(dispatcherConcurrency);
     }
     otherBuilder.serviceConfigurations.add(configuration);
     return otherBuilder;
   }
 
+  /**
+   * Adds {@link StoreEventSourceConfiguration} with the specified ordered event queue capacity and overflow policy
+   * to the configured builder.
+   *
+   * @param orderedQueueCapacity the maximum number of pending events in each ordered event queue
+   * @param overflowPolicy what to do with ordered events when their queue is full
+   * @return a new builder with the added configuration
+   */
+  public CacheConfigurationBuilder<K, V> withOrderedEventQueue(int orderedQueueCapacity, DefaultEventSourceConfiguration.OverflowPolicy overflowPolicy) {
+    CacheConfigurationBuilder<K, V> otherBuilder = new CacheConfigurationBuilder<K, V>(this);
+    DefaultEventSourceConfiguration existingServiceConfiguration = otherBuilder.getExistingServiceConfiguration(DefaultEventSourceConfiguration.class);
+    int dispatcherConcurrency = StoreEventSourceConfiguration.DEFAULT_DISPATCHER_CONCURRENCY;
+    if (existingServiceConfiguration != null) {
+      otherBuilder.serviceConfigurations.remove(existingServiceConfiguration);
+      dispatcherConcurrency = existingServiceConfiguration.getDispatcherConcurrency();
+    }
+    otherBuilder.serviceConfigurations.add(new DefaultEventSourceConfiguration(dispatcherConcurrency, orderedQueueCapacity, overflowPolicy));
+    return otherBuilder;
+  }
+
+  /**
+   * Adds {@link StoreStatisticsConfiguration} with the specified statistics level
+   * to the configured builder.
+   *
+   * @param statisticsLevel the statistics collected by the cache and its tiers
+   * @return a new builder with the added configuration
+   */
+  public CacheConfigurationBuilder<K, V> withStatisticsLevel(StatisticsLevel statisticsLevel) {
+    if (statisticsLevel == null) {
+      throw new NullPointerException("Null statistics level");
+    }
+    CacheConfigurationBuilder<K, V> otherBuilder = new CacheConfigurationBuilder<K, V>(this);
+    DefaultStatisticsConfiguration existingServiceConfiguration = otherBuilder.getExistingServiceConfiguration(DefaultStatisticsConfiguration.class);
+    if (existingServiceConfiguration != null) {
+      otherBuilder.serviceConfigurations.remove(existingServiceConfiguration);
+    }
+    otherBuilder.serviceConfigurations.add(new DefaultStatisticsConfiguration(statisticsLevel));
+    return otherBuilder;
+  }
+
   /**
    * Adds a {@link ServiceConfiguration} for the {@link org.ehcache.core.events.CacheEventDispatcherFactory} specifying
    * the thread pool alias to use.
@@ -20,9 +20,11 @@ import java.util.concurrent.TimeUnit;
 
 import org.ehcache.config.Builder;
 import org.ehcache.impl.config.loaderwriter.writebehind.DefaultBatchingConfiguration;
+import org.ehcache.impl.config.loaderwriter.writebehind.DefaultRetryConfiguration;
 import org.ehcache.impl.config.loaderwriter.writebehind.DefaultWriteBehindConfiguration;
 import org.ehcache.spi.loaderwriter.WriteBehindConfiguration;
 import org.ehcache.spi.loaderwriter.WriteBehindConfiguration.BatchingConfiguration;
+import org.ehcache.spi.loaderwriter.WriteBehindDeadLetterHandler;
 
 /**
  * The {@code WriteBehindConfigurationBuilder} enables building {@link WriteBehindConfiguration}s using a fluent style.
@@ -36,6 +38,9 @@ public abstract class WriteBehindConfigurationBuilder implements Builder<WriteBe
   protected int concurrency = 1;
   protected int queueSize = Integer.MAX_VALUE;
   protected String threadPoolAlias = null;
+  protected String persistentQueueName = null;
+  protected DefaultRetryConfiguration retryConfiguration = null;
+  protected WriteBehindDeadLetterHandler<?, ?> deadLetterHandler = null;
 
   private WriteBehindConfigurationBuilder() {
   }
@@ -44,6 +49,9 @@ public abstract class WriteBehindConfigurationBuilder implements Builder<WriteBe
     concurrency = other.concurrency;
     queueSize = other.queueSize;
     threadPoolAlias = other.threadPoolAlias;
+    persistentQueueName = other.persistentQueueName;
+    retryConfiguration = other.retryConfiguration;
+    deadLetterHandler = other.deadLetterHandler;
   }
 
   /**
@@ -75,6 +83,7 @@ public abstract class WriteBehindConfigurationBuilder implements Builder<WriteBe
     private long maxDelay;
     private int batchSize;
     private boolean coalescing = false;
+    private int maxBatchSize = 0;
 
     private BatchedWriteBehindConfigurationBuilder(long maxDelay, TimeUnit maxDelayUnit, int batchSize) {
       setMaxWriteDelay(maxDelay, maxDelayUnit);
@@ -87,6 +96,7 @@ public abstract class WriteBehindConfigurationBuilder implements Builder<WriteBe
       maxDelayUnit = other.maxDelayUnit;
       coalescing = other.coalescing;
       batchSize = other.batchSize;
+      maxBatchSize = other.maxBatchSize;
     }
 
     /**
@@ -127,6 +137,25 @@ public abstract class WriteBehindConfigurationBuilder implements Builder<WriteBe
       return otherBuilder;
     }
 
+    /**
+     * Enables adaptive batching on the returned builder.
+     * <p>
+     * With adaptive batching the batch size starts at the configured batch size and is then tuned between {@code 1}
+     * and {@code maxBatchSize} based on the observed latency of the {@code CacheLoaderWriter}, to maximize the number
+     * of operations written per unit of time.
+     *
+     * @param maxBatchSize the maximum batch size, not less than the batch size
+     * @return a new builder with adaptive batching enabled
+     */
+    public BatchedWriteBehindConfigurationBuilder adaptiveBatchSize(int maxBatchSize) {
+      if (maxBatchSize < 1) {
+        throw new IllegalArgumentException("Maximum batch size must be a positive integer, was: " + maxBatchSize);
+      }
+      BatchedWriteBehindConfigurationBuilder otherBuilder = new BatchedWriteBehindConfigurationBuilder(this);
+      otherBuilder.maxBatchSize = maxBatchSize;
+      return otherBuilder;
+    }
+
     private void setBatchSize(int batchSize) throws IllegalArgumentException {
       if (batchSize < 1) {
         throw new IllegalArgumentException("Batch size must be a positive integer, was: " + batchSize);
@@ -191,6 +220,42 @@ public abstract class WriteBehindConfigurationBuilder implements Builder<WriteBe
       return otherBuilder;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BatchedWriteBehindConfigurationBuilder persistentQueue(String name) {
+      if (name == null) {
+        throw new NullPointerException("Persistent queue name cannot be null");
+      }
+      BatchedWriteBehindConfigurationBuilder otherBuilder = new BatchedWriteBehindConfigurationBuilder(this);
+      otherBuilder.persistentQueueName = name;
+      return otherBuilder;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BatchedWriteBehindConfigurationBuilder retry(int maxRetries, long initialDelay, long maxDelay, TimeUnit delayUnit) {
+      BatchedWriteBehindConfigurationBuilder otherBuilder = new BatchedWriteBehindConfigurationBuilder(this);
+      otherBuilder.retryConfiguration = new DefaultRetryConfiguration(maxRetries, initialDelay, maxDelay, delayUnit);
+      return otherBuilder;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BatchedWriteBehindConfigurationBuilder deadLetterHandler(WriteBehindDeadLetterHandler<?, ?> handler) {
+      if (handler == null) {
+        throw new NullPointerException("Dead letter handler cannot be null");
+      }
+      BatchedWriteBehindConfigurationBuilder otherBuilder = new BatchedWriteBehindConfigurationBuilder(this);
+      otherBuilder.deadLetterHandler = handler;
+      return otherBuilder;
+    }
+
     /**
      * Builds the {@link WriteBehindConfiguration}
      *
@@ -198,7 +263,7 @@ public abstract class WriteBehindConfigurationBuilder implements Builder<WriteBe
      */
     @Override
     public WriteBehindConfiguration build() {
-      return buildWith(new DefaultBatchingConfiguration(maxDelay, maxDelayUnit, batchSize, coalescing));
+      return buildWith(new DefaultBatchingConfiguration(maxDelay, maxDelayUnit, batchSize, coalescing, maxBatchSize == 0 ? batchSize : maxBatchSize));
     }
   }
 
@@ -259,10 +324,46 @@ public abstract class WriteBehindConfigurationBuilder implements Builder<WriteBe
       otherBuilder.threadPoolAlias = alias;
       return otherBuilder;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public UnBatchedWriteBehindConfigurationBuilder persistentQueue(String name) {
+      if (name == null) {
+        throw new NullPointerException("Persistent queue name cannot be null");
+      }
+      UnBatchedWriteBehindConfigurationBuilder otherBuilder = new UnBatchedWriteBehindConfigurationBuilder(this);
+      otherBuilder.persistentQueueName = name;
+      return otherBuilder;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public UnBatchedWriteBehindConfigurationBuilder retry(int maxRetries, long initialDelay, long maxDelay, TimeUnit delayUnit) {
+      UnBatchedWriteBehindConfigurationBuilder otherBuilder = new UnBatchedWriteBehindConfigurationBuilder(this);
+      otherBuilder.retryConfiguration = new DefaultRetryConfiguration(maxRetries, initialDelay, maxDelay, delayUnit);
+      return otherBuilder;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public UnBatchedWriteBehindConfigurationBuilder deadLetterHandler(WriteBehindDeadLetterHandler<?, ?> handler) {
+      if (handler == null) {
+        throw new NullPointerException("Dead letter handler cannot be null");
+      }
+      UnBatchedWriteBehindConfigurationBuilder otherBuilder = new UnBatchedWriteBehindConfigurationBuilder(this);
+      otherBuilder.deadLetterHandler = handler;
+      return otherBuilder;
+    }
   }
 
   WriteBehindConfiguration buildWith(BatchingConfiguration batching) {
-    return new DefaultWriteBehindConfiguration(threadPoolAlias, concurrency, queueSize, batching);
+    return new DefaultWriteBehindConfiguration(threadPoolAlias, concurrency, queueSize, batching, persistentQueueName, retryConfiguration, deadLetterHandler);
   }
 
   /**
@@ -294,4 +395,44 @@ public abstract class WriteBehindConfigurationBuilder implements Builder<WriteBe
    * @see PooledExecutionServiceConfigurationBuilder
    */
   public abstract WriteBehindConfigurationBuilder useThreadPool(String alias);
+
+  /**
+   * Makes the write behind queue persistent on the returned builder.
+   * <p>
+   * Every operation accepted by a persistent queue is journaled to disk before the cache operation returns, and
+   * journaled operations are removed once written by the {@link org.ehcache.spi.loaderwriter.CacheLoaderWriter}.
+   * Operations left over by a crash are replayed when a queue with the same name is next created. This requires a
+   * persistence directory to be configured on the cache manager and keys and values to be {@link java.io.Serializable}.
+   *
+   * @param name the persistent queue name, unique within the cache manager
+   * @return a new builder with a persistent queue
+   *
+   * @see CacheManagerBuilder#persistence(String)
+   */
+  public abstract WriteBehindConfigurationBuilder persistentQueue(String name);
+
+  /**
+   * Enables retrying of failed write behind operations on the returned builder.
+   * <p>
+   * A failed operation is retried up to {@code maxRetries} times, the delay between attempts starts at
+   * {@code initialDelay} and doubles on every retry up to {@code maxDelay}.
+   *
+   * @param maxRetries the maximum number of retries
+   * @param initialDelay the delay before the first retry
+   * @param maxDelay the maximum delay between retries
+   * @param delayUnit the unit of both delays
+   * @return a new builder with retries enabled
+   */
+  public abstract WriteBehindConfigurationBuilder retry(int maxRetries, long initialDelay, long maxDelay, TimeUnit delayUnit);
+
+  /**
+   * Sets the handler receiving operations that could not be written on the returned builder.
+   * <p>
+   * When a handler is configured, a failed batch is split until the failing operations are isolated, and only those
+   * are handed to the handler once their retries are exhausted.
+   *
+   * @param handler the dead letter handler
+   * @return a new builder with the dead letter handler configured
+   */
+  public abstract WriteBehindConfigurationBuilder deadLetterHandler(WriteBehindDeadLetterHandler<?, ?> handler);
 }
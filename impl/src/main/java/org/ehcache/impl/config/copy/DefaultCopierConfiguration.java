@@ -31,6 +31,7 @@ import org.ehcache.spi.service.ServiceConfiguration;
 public class DefaultCopierConfiguration<T> extends ClassInstanceConfiguration<Copier<T>> implements ServiceConfiguration<CopyProvider> {
 
   private final Type type;
+  private final boolean skipImmutables;
 
   /**
    * Creates a new configuration with the given {@link Copier} class of the provided {@link Type}.
@@ -39,8 +40,24 @@ public class DefaultCopierConfiguration<T> extends ClassInstanceConfiguration<Co
    * @param type the copier type - key or value
    */
   public DefaultCopierConfiguration(Class<? extends Copier<T>> clazz, Type type) {
+    this(clazz, type, false);
+  }
+
+  /**
+   * Creates a new configuration with the given {@link Copier} class of the provided {@link Type}, optionally skipping
+   * the copy of immutable instances.
+   * <p>
+   * When {@code skipImmutables} is {@code true}, no copy is made of {@link String}s, boxed primitives,
+   * {@code java.time} types, enums and classes annotated with {@link org.ehcache.impl.copy.Immutable}.
+   *
+   * @param clazz the copier class
+   * @param type the copier type - key or value
+   * @param skipImmutables whether immutable instances are left uncopied
+   */
+  public DefaultCopierConfiguration(Class<? extends Copier<T>> clazz, Type type, boolean skipImmutables) {
     super(clazz);
     this.type = type;
+    this.skipImmutables = skipImmutables;
   }
 
   /**
@@ -52,11 +69,13 @@ public class DefaultCopierConfiguration<T> extends ClassInstanceConfiguration<Co
   public DefaultCopierConfiguration(Copier<T> instance, Type type) {
     super(instance);
     this.type = type;
+    this.skipImmutables = false;
   }
 
   DefaultCopierConfiguration(Class<? extends Copier<T>> copierClass) {
     super(copierClass);
     this.type = null;
+    this.skipImmutables = false;
   }
 
   /**
@@ -76,6 +95,15 @@ public class DefaultCopierConfiguration<T> extends ClassInstanceConfiguration<Co
     return type;
   }
 
+  /**
+   * Indicates whether immutable instances are left uncopied.
+   *
+   * @return {@code true} if immutable instances are not copied
+   */
+  public boolean isSkippingImmutables() {
+    return skipImmutables;
+  }
+
   /**
    * Copy provider types
    */
@@ -25,7 +25,19 @@ import org.ehcache.core.spi.store.Store;
  */
 public class DefaultEventSourceConfiguration implements StoreEventSourceConfiguration {
 
+  /**
+   * Default number of events each ordered event queue can hold.
+   */
+  public static final int DEFAULT_ORDERED_QUEUE_CAPACITY = 10000;
+
+  /**
+   * Default policy applied when an ordered event queue is full.
+   */
+  public static final OverflowPolicy DEFAULT_OVERFLOW_POLICY = OverflowPolicy.BLOCK;
+
   private final int dispatcherConcurrency;
+  private final int orderedQueueCapacity;
+  private final OverflowPolicy overflowPolicy;
 
   /**
    * Creates a new configuration with the provided dispatcher concurrency for ordered events.
@@ -33,10 +45,29 @@ public class DefaultEventSourceConfiguration implements StoreEventSourceConfigur
    * @param dispatcherConcurrency  the dispatcher concurrency for ordered events
    */
   public DefaultEventSourceConfiguration(int dispatcherConcurrency) {
+    this(dispatcherConcurrency, DEFAULT_ORDERED_QUEUE_CAPACITY, DEFAULT_OVERFLOW_POLICY);
+  }
+
+  /**
+   * Creates a new configuration with the provided dispatcher concurrency, ordered queue capacity and overflow policy.
+   *
+   * @param dispatcherConcurrency  the dispatcher concurrency for ordered events
+   * @param orderedQueueCapacity the maximum number of pending events in each ordered queue
+   * @param overflowPolicy what to do with ordered events when a queue is full
+   */
+  public DefaultEventSourceConfiguration(int dispatcherConcurrency, int orderedQueueCapacity, OverflowPolicy overflowPolicy) {
     if (dispatcherConcurrency <= 0) {
       throw new IllegalArgumentException("Dispatcher concurrency must be a value bigger than 0");
     }
+    if (orderedQueueCapacity <= 0) {
+      throw new IllegalArgumentException("Ordered queue capacity must be a value bigger than 0");
+    }
+    if (overflowPolicy == null) {
+      throw new NullPointerException("Overflow policy cannot be null");
+    }
     this.dispatcherConcurrency = dispatcherConcurrency;
+    this.orderedQueueCapacity = orderedQueueCapacity;
+    this.overflowPolicy = overflowPolicy;
   }
 
   /**
@@ -46,6 +77,24 @@ public class DefaultEventSourceConfiguration implements StoreEventSourceConfigur
     return dispatcherConcurrency;
   }
 
+  /**
+   * Returns the maximum number of pending events in each ordered event queue.
+   *
+   * @return the ordered queue capacity
+   */
+  public int getOrderedQueueCapacity() {
+    return orderedQueueCapacity;
+  }
+
+  /**
+   * Returns the policy applied when an ordered event queue is full.
+   *
+   * @return the overflow policy
+   */
+  public OverflowPolicy getOverflowPolicy() {
+    return overflowPolicy;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -53,4 +102,22 @@ public class DefaultEventSourceConfiguration implements StoreEventSourceConfigur
   public Class<Store.Provider> getServiceType() {
     return Store.Provider.class;
   }
+
+  /**
+   * Policies applied to ordered events when their queue is full.
+   */
+  public enum OverflowPolicy {
+    /**
+     * The mutating thread waits until the queue has room, preserving ordering and delivery.
+     */
+    BLOCK,
+    /**
+     * The event is discarded and counted, the mutating thread never waits.
+     */
+    DROP,
+    /**
+     * The event is delivered without ordering guarantees, the mutating thread never waits.
+     */
+    UNORDERED
+  }
 }
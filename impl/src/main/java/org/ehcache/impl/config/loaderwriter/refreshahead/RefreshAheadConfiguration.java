@@ -0,0 +1,90 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.impl.config.loaderwriter.refreshahead;
+
+import org.ehcache.core.spi.service.RefreshAheadProvider;
+import org.ehcache.spi.service.ServiceConfiguration;
+
+/**
+ * {@link ServiceConfiguration} refreshing the mappings of a loader backed cache before they expire.
+ * <p>
+ * When a mapping is read while less than {@link #getRefreshFraction()} of its time-to-live is left, its key is queued
+ * for refresh and the current value is returned. Queued keys are reloaded in the background, up to
+ * {@link #getMaxBatchSize()} keys at a time with a single
+ * {@link org.ehcache.spi.loaderwriter.CacheLoaderWriter#loadAll(Iterable)}, and replace the mappings still present.
+ * <p>
+ * The time-to-live of a mapping is the duration {@link org.ehcache.expiry.Expiry#getExpiryForCreation(Object, Object)}
+ * gives it. Mappings that never expire, or whose expiration is pushed back on access, are never refreshed.
+ */
+public class RefreshAheadConfiguration implements ServiceConfiguration<RefreshAheadProvider> {
+
+  public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+  private final double refreshFraction;
+  private final int maxBatchSize;
+
+  /**
+   * Creates a new configuration using the default maximum batch size.
+   *
+   * @param refreshFraction the fraction of the time-to-live left below which a read mapping is refreshed
+   */
+  public RefreshAheadConfiguration(double refreshFraction) {
+    this(refreshFraction, DEFAULT_MAX_BATCH_SIZE);
+  }
+
+  /**
+   * Creates a new configuration.
+   *
+   * @param refreshFraction the fraction of the time-to-live left below which a read mapping is refreshed
+   * @param maxBatchSize the maximum number of keys reloaded at once
+   */
+  public RefreshAheadConfiguration(double refreshFraction, int maxBatchSize) {
+    if (!(refreshFraction > 0.0 && refreshFraction < 1.0)) {
+      throw new IllegalArgumentException("Refresh fraction must be between 0 and 1 exclusive, was " + refreshFraction);
+    }
+    if (maxBatchSize <= 0) {
+      throw new IllegalArgumentException("Max batch size must be positive, was " + maxBatchSize);
+    }
+    this.refreshFraction = refreshFraction;
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  /**
+   * Returns the fraction of the time-to-live left below which a read mapping is refreshed.
+   *
+   * @return the refresh fraction
+   */
+  public double getRefreshFraction() {
+    return refreshFraction;
+  }
+
+  /**
+   * Returns the maximum number of keys reloaded at once.
+   *
+   * @return the maximum batch size
+   */
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Class<RefreshAheadProvider> getServiceType() {
+    return RefreshAheadProvider.class;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.impl.config.loaderwriter.stale;
+
+import org.ehcache.core.config.store.StaleServingConfiguration;
+import org.ehcache.core.spi.store.Store;
+import org.ehcache.expiry.Duration;
+
+/**
+ * {@link org.ehcache.spi.service.ServiceConfiguration} retaining the mappings of a loader backed cache for a grace
+ * period past their expiry, and serving them stale.
+ * <p>
+ * When revalidating in the background, a stale mapping read through {@link org.ehcache.Cache#get(Object)} is returned
+ * and its key queued for reload. This requires the {@code CacheManager} to be configured with a
+ * {@link org.ehcache.impl.config.loaderwriter.refreshahead.RefreshAheadProviderConfiguration}, otherwise stale mappings
+ * are revalidated synchronously.
+ * <p>
+ * When revalidating synchronously, a stale mapping is reloaded before being returned. If that load fails, the stale
+ * value is returned instead of the {@link org.ehcache.spi.loaderwriter.CacheLoadingException}.
+ * <p>
+ * Staleness is assessed as of the expiration time of the cache expiry. Mappings whose expiration is pushed back on
+ * access are renewed by a read during their grace period, like by any other read.
+ */
+public class DefaultStaleServingConfiguration implements StaleServingConfiguration {
+
+  private final Duration gracePeriod;
+  private final boolean revalidatingInBackground;
+
+  /**
+   * Creates a new configuration.
+   *
+   * @param gracePeriod how long mappings are retained once expired
+   * @param revalidatingInBackground whether stale mappings are returned right away and reloaded in the background
+   */
+  public DefaultStaleServingConfiguration(Duration gracePeriod, boolean revalidatingInBackground) {
+    if (gracePeriod == null) {
+      throw new NullPointerException("Grace period cannot be null");
+    }
+    if (gracePeriod.isInfinite() || gracePeriod.getLength() <= 0) {
+      throw new IllegalArgumentException("Grace period must be positive and finite, was " + gracePeriod);
+    }
+    this.gracePeriod = gracePeriod;
+    this.revalidatingInBackground = revalidatingInBackground;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Duration getGracePeriod() {
+    return gracePeriod;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean isRevalidatingInBackground() {
+    return revalidatingInBackground;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Class<Store.Provider> getServiceType() {
+    return Store.Provider.class;
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.config.loaderwriter.warming;
+
+import org.ehcache.impl.internal.classes.ClassInstanceConfiguration;
+import org.ehcache.impl.internal.loaderwriter.warming.CacheWarmingProvider;
+import org.ehcache.spi.service.ServiceConfiguration;
+
+/**
+ * {@link ServiceConfiguration} warming a cache with the keys of a {@link CacheWarmingKeySource}.
+ * <p>
+ * Keys are split in chunks of {@link #getChunkSize()} keys, loaded by {@link #getConcurrency()} parallel tasks, so
+ * that each chunk is loaded with a single {@link org.ehcache.spi.loaderwriter.CacheLoaderWriter#loadAll(Iterable)} and
+ * installed in the store in bulk. Mappings already present are kept. When {@link #getMaxKeysPerSecond()} is positive,
+ * loads are paced to not exceed that rate.
+ * <p>
+ * A blocking warming completes before the cache is handed out by the {@code CacheManager}, or before
+ * {@code CacheManager.init()} returns for caches configured on the manager. A non blocking warming happens in the
+ * background once the cache is available.
+ */
+public class CacheWarmingConfiguration extends ClassInstanceConfiguration<CacheWarmingKeySource<?>> implements ServiceConfiguration<CacheWarmingProvider> {
+
+  public static final int DEFAULT_CHUNK_SIZE = 100;
+  public static final int DEFAULT_CONCURRENCY = 1;
+
+  private final int chunkSize;
+  private final int concurrency;
+  private final long maxKeysPerSecond;
+  private final boolean blocking;
+
+  /**
+   * Creates a new blocking configuration using the default chunk size and concurrency, without rate limit.
+   *
+   * @param clazz the key source class
+   */
+  public CacheWarmingConfiguration(Class<? extends CacheWarmingKeySource<?>> clazz) {
+    this(clazz, DEFAULT_CHUNK_SIZE, DEFAULT_CONCURRENCY, 0, true);
+  }
+
+  /**
+   * Creates a new configuration.
+   *
+   * @param clazz the key source class
+   * @param chunkSize the number of keys loaded at once
+   * @param concurrency the number of chunks loaded in parallel
+   * @param maxKeysPerSecond the maximum number of keys loaded per second, {@code 0} for no limit
+   * @param blocking whether the warming completes before the cache is available
+   */
+  public CacheWarmingConfiguration(Class<? extends CacheWarmingKeySource<?>> clazz, int chunkSize, int concurrency, long maxKeysPerSecond, boolean blocking) {
+    super(clazz);
+    this.chunkSize = checkPositive(chunkSize, "Chunk size");
+    this.concurrency = checkPositive(concurrency, "Concurrency");
+    this.maxKeysPerSecond = checkNotNegative(maxKeysPerSecond);
+    this.blocking = blocking;
+  }
+
+  /**
+   * Creates a new blocking configuration using the default chunk size and concurrency, without rate limit.
+   *
+   * @param keySource the key source
+   */
+  public CacheWarmingConfiguration(CacheWarmingKeySource<?> keySource) {
+    this(keySource, DEFAULT_CHUNK_SIZE, DEFAULT_CONCURRENCY, 0, true);
+  }
+
+  /**
+   * Creates a new configuration.
+   *
+   * @param keySource the key source
+   * @param chunkSize the number of keys loaded at once
+   * @param concurrency the number of chunks loaded in parallel
+   * @param maxKeysPerSecond the maximum number of keys loaded per second, {@code 0} for no limit
+   * @param blocking whether the warming completes before the cache is available
+   */
+  public CacheWarmingConfiguration(CacheWarmingKeySource<?> keySource, int chunkSize, int concurrency, long maxKeysPerSecond, boolean blocking) {
+    super(keySource);
+    this.chunkSize = checkPositive(chunkSize, "Chunk size");
+    this.concurrency = checkPositive(concurrency, "Concurrency");
+    this.maxKeysPerSecond = checkNotNegative(maxKeysPerSecond);
+    this.blocking = blocking;
+  }
+
+  private static int checkPositive(int value, String name) {
+    if (value <= 0) {
+      throw new IllegalArgumentException(name + " must be positive, was " + value);
+    }
+    return value;
+  }
+
+  private static long checkNotNegative(long maxKeysPerSecond) {
+    if (maxKeysPerSecond < 0) {
+      throw new IllegalArgumentException("Max keys per second cannot be negative, was " + maxKeysPerSecond);
+    }
+    return maxKeysPerSecond;
+  }
+
+  /**
+   * Returns the number of keys loaded at once.
+   *
+   * @return the chunk size
+   */
+  public int getChunkSize() {
+    return chunkSize;
+  }
+
+  /**
+   * Returns the number of chunks loaded in parallel.
+   *
+   * @return the concurrency
+   */
+  public int getConcurrency() {
+    return concurrency;
+  }
+
+  /**
+   * Returns the maximum number of keys loaded per second.
+   *
+   * @return the rate limit, {@code 0} if unlimited
+   */
+  public long getMaxKeysPerSecond() {
+    return maxKeysPerSecond;
+  }
+
+  /**
+   * Indicates whether the warming completes before the cache is available.
+   *
+   * @return {@code true} if blocking
+   */
+  public boolean isBlocking() {
+    return blocking;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Class<CacheWarmingProvider> getServiceType() {
+    return CacheWarmingProvider.class;
+  }
+}
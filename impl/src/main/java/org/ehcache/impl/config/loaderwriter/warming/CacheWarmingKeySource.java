@@ -0,0 +1,38 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.config.loaderwriter.warming;
+
+/**
+ * Provides the keys a cache is warmed with.
+ * <p>
+ * Keys are iterated lazily, so implementations can stream them from a system of record, a file or any other source
+ * without holding them all in memory. Implementations configured by class must have a public no argument constructor.
+ *
+ * @param <K> the key type
+ */
+public interface CacheWarmingKeySource<K> {
+
+  /**
+   * Returns the keys to warm the cache {@code alias} with.
+   *
+   * @param alias the alias of the cache being warmed
+   * @return the keys to load
+   *
+   * @throws Exception if the keys cannot be obtained, the cache is then not warmed
+   */
+  Iterable<? extends K> keys(String alias) throws Exception;
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.config.loaderwriter.warming;
+
+import org.ehcache.impl.internal.loaderwriter.warming.CacheWarmingProvider;
+import org.ehcache.spi.service.ServiceCreationConfiguration;
+
+/**
+ * {@link ServiceCreationConfiguration} for the default {@link CacheWarmingProvider}.
+ * <p>
+ * A {@code CacheManager} must be configured with this to warm caches configured with a
+ * {@link CacheWarmingConfiguration}.
+ */
+public class CacheWarmingProviderConfiguration implements ServiceCreationConfiguration<CacheWarmingProvider> {
+
+  private final String threadPoolAlias;
+
+  /**
+   * Creates a new configuration warming caches on the default thread pool.
+   */
+  public CacheWarmingProviderConfiguration() {
+    this(null);
+  }
+
+  /**
+   * Creates a new configuration warming caches on the given thread pool.
+   *
+   * @param threadPoolAlias the thread pool alias, {@code null} for the default pool
+   */
+  public CacheWarmingProviderConfiguration(String threadPoolAlias) {
+    this.threadPoolAlias = threadPoolAlias;
+  }
+
+  /**
+   * Returns the alias of the thread pool warming loads run on.
+   *
+   * @return the thread pool alias, {@code null} for the default pool
+   */
+  public String getThreadPoolAlias() {
+    return threadPoolAlias;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Class<CacheWarmingProvider> getServiceType() {
+    return CacheWarmingProvider.class;
+  }
+}
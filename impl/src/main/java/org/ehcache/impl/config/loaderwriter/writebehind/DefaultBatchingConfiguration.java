@@ -33,6 +33,7 @@ public class DefaultBatchingConfiguration implements BatchingConfiguration {
   private final TimeUnit maxDelayUnit;
   private final int batchSize;
   private final boolean coalescing;
+  private final int maxBatchSize;
 
   /**
    * Creates a new configuration with the provided parameters.
@@ -43,10 +44,31 @@ public class DefaultBatchingConfiguration implements BatchingConfiguration {
    * @param coalescing whether the batch is to be coalesced
    */
   public DefaultBatchingConfiguration(long maxDelay, TimeUnit maxDelayUnit, int batchSize, boolean coalescing) {
+    this(maxDelay, maxDelayUnit, batchSize, coalescing, batchSize);
+  }
+
+  /**
+   * Creates a new configuration with the provided parameters.
+   * <p>
+   * A maximum batch size larger than the batch size enables adaptive batching: the batch size then starts at
+   * {@code batchSize} and is continuously tuned between {@code 1} and {@code maxBatchSize} to maximize the number of
+   * operations written per unit of time.
+   *
+   * @param maxDelay the maximum write delay quantity
+   * @param maxDelayUnit the maximu write delay unit
+   * @param batchSize the batch size
+   * @param coalescing whether the batch is to be coalesced
+   * @param maxBatchSize the maximum adaptive batch size
+   */
+  public DefaultBatchingConfiguration(long maxDelay, TimeUnit maxDelayUnit, int batchSize, boolean coalescing, int maxBatchSize) {
+    if (maxBatchSize < batchSize) {
+      throw new IllegalArgumentException("Maximum batch size must not be less than the batch size, was: " + maxBatchSize);
+    }
     this.maxDelay = maxDelay;
     this.maxDelayUnit = maxDelayUnit;
     this.batchSize = batchSize;
     this.coalescing = coalescing;
+    this.maxBatchSize = maxBatchSize;
   }
 
   /**
@@ -80,4 +102,13 @@ public class DefaultBatchingConfiguration implements BatchingConfiguration {
   public int getBatchSize() {
     return batchSize;
   }
+
+  /**
+   * Returns the maximum batch size, adaptive batching is enabled when this is larger than {@link #getBatchSize()}.
+   *
+   * @return the maximum batch size
+   */
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
 }
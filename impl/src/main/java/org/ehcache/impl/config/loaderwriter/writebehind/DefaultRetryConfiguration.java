@@ -0,0 +1,94 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.config.loaderwriter.writebehind;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class for write-behind retries.
+ * <p>
+ * A failed write-behind operation is retried up to the configured number of times. The delay before the first retry
+ * is the initial delay, and it doubles on every subsequent retry up to the maximum delay. Retries happen on the
+ * write-behind thread, so later operations on the same queue wait for them, which preserves ordering.
+ */
+public class DefaultRetryConfiguration {
+
+  private final int maxRetries;
+  private final long initialDelay;
+  private final long maxDelay;
+  private final TimeUnit delayUnit;
+
+  /**
+   * Creates a new configuration with the provided parameters.
+   *
+   * @param maxRetries the maximum number of retries of a failed operation
+   * @param initialDelay the delay before the first retry
+   * @param maxDelay the maximum delay between retries
+   * @param delayUnit the unit of both delays
+   */
+  public DefaultRetryConfiguration(int maxRetries, long initialDelay, long maxDelay, TimeUnit delayUnit) {
+    if (maxRetries < 0) {
+      throw new IllegalArgumentException("Retry count must be positive or zero, was: " + maxRetries);
+    }
+    if (initialDelay < 0 || maxDelay < initialDelay) {
+      throw new IllegalArgumentException("Retry delays must satisfy 0 <= initial <= max, were: " + initialDelay + " and " + maxDelay);
+    }
+    if (delayUnit == null) {
+      throw new NullPointerException("Retry delay unit cannot be null");
+    }
+    this.maxRetries = maxRetries;
+    this.initialDelay = initialDelay;
+    this.maxDelay = maxDelay;
+    this.delayUnit = delayUnit;
+  }
+
+  /**
+   * Returns the maximum number of retries of a failed operation.
+   *
+   * @return the maximum retry count
+   */
+  public int getMaxRetries() {
+    return maxRetries;
+  }
+
+  /**
+   * Returns the delay before the first retry.
+   *
+   * @return the initial retry delay
+   */
+  public long getInitialDelay() {
+    return initialDelay;
+  }
+
+  /**
+   * Returns the maximum delay between two retries.
+   *
+   * @return the maximum retry delay
+   */
+  public long getMaxDelay() {
+    return maxDelay;
+  }
+
+  /**
+   * Returns the unit of the retry delays.
+   *
+   * @return the retry delay unit
+   */
+  public TimeUnit getDelayUnit() {
+    return delayUnit;
+  }
+}
@@ -17,6 +17,7 @@
 package org.ehcache.impl.config.loaderwriter.writebehind;
 
 import org.ehcache.spi.loaderwriter.WriteBehindConfiguration;
+import org.ehcache.spi.loaderwriter.WriteBehindDeadLetterHandler;
 import org.ehcache.spi.loaderwriter.WriteBehindProvider;
 
 /**
@@ -28,6 +29,9 @@ public class DefaultWriteBehindConfiguration implements WriteBehindConfiguration
   private final int concurrency;
   private final int queueSize;
   private final String executorAlias;
+  private final String persistentQueueName;
+  private final DefaultRetryConfiguration retryConfig;
+  private final WriteBehindDeadLetterHandler<?, ?> deadLetterHandler;
 
   /**
    * Creates a new configuration with the provided parameters.
@@ -38,10 +42,42 @@ public class DefaultWriteBehindConfiguration implements WriteBehindConfiguration
    * @param batchingConfig optional batching configuration
    */
   public DefaultWriteBehindConfiguration(String executorAlias, int concurrency, int queueSize, BatchingConfiguration batchingConfig) {
+    this(executorAlias, concurrency, queueSize, batchingConfig, null);
+  }
+
+  /**
+   * Creates a new configuration with the provided parameters.
+   *
+   * @param executorAlias the thread pool alias
+   * @param concurrency the write-behind concurrency
+   * @param queueSize the maximum queue size
+   * @param batchingConfig optional batching configuration
+   * @param persistentQueueName optional name of the persistent queue journal
+   */
+  public DefaultWriteBehindConfiguration(String executorAlias, int concurrency, int queueSize, BatchingConfiguration batchingConfig, String persistentQueueName) {
+    this(executorAlias, concurrency, queueSize, batchingConfig, persistentQueueName, null, null);
+  }
+
+  /**
+   * Creates a new configuration with the provided parameters.
+   *
+   * @param executorAlias the thread pool alias
+   * @param concurrency the write-behind concurrency
+   * @param queueSize the maximum queue size
+   * @param batchingConfig optional batching configuration
+   * @param persistentQueueName optional name of the persistent queue journal
+   * @param retryConfig optional retry configuration
+   * @param deadLetterHandler optional handler for operations that could not be written
+   */
+  public DefaultWriteBehindConfiguration(String executorAlias, int concurrency, int queueSize, BatchingConfiguration batchingConfig,
+                                         String persistentQueueName, DefaultRetryConfiguration retryConfig, WriteBehindDeadLetterHandler<?, ?> deadLetterHandler) {
     this.concurrency = concurrency;
     this.queueSize = queueSize;
     this.executorAlias = executorAlias;
     this.batchingConfig = batchingConfig;
+    this.persistentQueueName = persistentQueueName;
+    this.retryConfig = retryConfig;
+    this.deadLetterHandler = deadLetterHandler;
   }
 
   /**
@@ -76,6 +112,37 @@ public class DefaultWriteBehindConfiguration implements WriteBehindConfiguration
     return batchingConfig;
   }
 
+  /**
+   * Returns the name of the persistent queue journal or {@code null} if the queue is held on heap only.
+   * <p>
+   * A persistent queue journals every accepted operation to disk under the
+   * {@link org.ehcache.core.spi.service.LocalPersistenceService} root, and operations not yet written when the
+   * cache manager went down are replayed when the queue is next created under the same name.
+   *
+   * @return the persistent queue name
+   */
+  public String getPersistentQueueName() {
+    return persistentQueueName;
+  }
+
+  /**
+   * Returns the retry configuration or {@code null} if failed operations are not retried.
+   *
+   * @return the retry configuration
+   */
+  public DefaultRetryConfiguration getRetryConfiguration() {
+    return retryConfig;
+  }
+
+  /**
+   * Returns the dead letter handler or {@code null} if operations that could not be written are only logged.
+   *
+   * @return the dead letter handler
+   */
+  public WriteBehindDeadLetterHandler<?, ?> getDeadLetterHandler() {
+    return deadLetterHandler;
+  }
+
   /**
    * {@inheritDoc}
    */
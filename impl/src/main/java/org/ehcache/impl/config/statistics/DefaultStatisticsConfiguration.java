@@ -0,0 +1,57 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.config.statistics;
+
+import org.ehcache.core.config.store.StoreStatisticsConfiguration;
+import org.ehcache.core.spi.store.Store;
+import org.ehcache.core.statistics.StatisticsLevel;
+
+/**
+ * {@link org.ehcache.spi.service.ServiceConfiguration} selecting the {@link StatisticsLevel} of a cache.
+ */
+public class DefaultStatisticsConfiguration implements StoreStatisticsConfiguration {
+
+  private final StatisticsLevel statisticsLevel;
+
+  /**
+   * Creates a new configuration with the provided statistics level.
+   *
+   * @param statisticsLevel the statistics level
+   */
+  public DefaultStatisticsConfiguration(StatisticsLevel statisticsLevel) {
+    if (statisticsLevel == null) {
+      throw new NullPointerException("Statistics level cannot be null");
+    }
+    this.statisticsLevel = statisticsLevel;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public StatisticsLevel getStatisticsLevel() {
+    return statisticsLevel;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Class<Store.Provider> getServiceType() {
+    return Store.Provider.class;
+  }
+}
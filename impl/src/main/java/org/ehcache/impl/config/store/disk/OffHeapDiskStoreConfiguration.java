@@ -26,10 +26,30 @@ public class OffHeapDiskStoreConfiguration implements ServiceConfiguration<OffHe
 
   public static final int DEFAULT_WRITER_CONCURRENCY = 1;
   public static final int DEFAULT_DISK_SEGMENTS = 16;
+  public static final StorageEngineType DEFAULT_STORAGE_ENGINE = StorageEngineType.MAPPED;
+  public static final float DEFAULT_COMPACTION_THRESHOLD = 0.5f;
+  public static final int DEFAULT_WRITE_BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * The layouts the disk tier can use to store its mappings.
+   */
+  public enum StorageEngineType {
+    /**
+     * Mappings are allocated and updated in place in a memory mapped file.
+     */
+    MAPPED,
+    /**
+     * Mappings are appended to one log file per disk segment, space being reclaimed by compacting the logs.
+     */
+    LOG_STRUCTURED
+  }
 
   private final String threadPoolAlias;
   private final int writerConcurrency;
   private final int diskSegments;
+  private final StorageEngineType storageEngineType;
+  private final float compactionThreshold;
+  private final int writeBufferSize;
 
   /**
    * Creates a new configuration instance using the provided {@code diskSegments}. Other attributes are set to their default
@@ -65,9 +85,40 @@ public class OffHeapDiskStoreConfiguration implements ServiceConfiguration<OffHe
    * @see org.ehcache.impl.config.executor.PooledExecutionServiceConfiguration
    */
   public OffHeapDiskStoreConfiguration(String threadPoolAlias, int writerConcurrency, int diskSegments) {
+    this(threadPoolAlias, writerConcurrency, diskSegments, DEFAULT_STORAGE_ENGINE, DEFAULT_COMPACTION_THRESHOLD, DEFAULT_WRITE_BUFFER_SIZE);
+  }
+
+  /**
+   * Creates a new configuration instance using the provided parameters.
+   *
+   * @param threadPoolAlias the thread pool alias
+   * @param writerConcurrency the writer concurrency
+   * @param diskSegments number of disk segments allocated
+   * @param storageEngineType the layout used to store mappings on disk
+   * @param compactionThreshold the ratio of garbage in a segment log above which the log gets compacted, only used by
+   *                            {@link StorageEngineType#LOG_STRUCTURED}
+   * @param writeBufferSize the size in bytes of the buffer batching appends to a segment log, only used by
+   *                        {@link StorageEngineType#LOG_STRUCTURED}
+   *
+   * @see org.ehcache.impl.config.executor.PooledExecutionServiceConfiguration
+   */
+  public OffHeapDiskStoreConfiguration(String threadPoolAlias, int writerConcurrency, int diskSegments,
+                                       StorageEngineType storageEngineType, float compactionThreshold, int writeBufferSize) {
+    if (storageEngineType == null) {
+      throw new NullPointerException("Storage engine type cannot be null");
+    }
+    if (compactionThreshold <= 0f || compactionThreshold >= 1f) {
+      throw new IllegalArgumentException("Compaction threshold must be strictly between 0 and 1 : " + compactionThreshold);
+    }
+    if (writeBufferSize <= 0) {
+      throw new IllegalArgumentException("Write buffer size must be positive : " + writeBufferSize);
+    }
     this.threadPoolAlias = threadPoolAlias;
     this.writerConcurrency = writerConcurrency;
     this.diskSegments = diskSegments;
+    this.storageEngineType = storageEngineType;
+    this.compactionThreshold = compactionThreshold;
+    this.writeBufferSize = writeBufferSize;
   }
 
   /**
@@ -99,6 +150,33 @@ public class OffHeapDiskStoreConfiguration implements ServiceConfiguration<OffHe
     return diskSegments;
   }
 
+  /**
+   * Returns the layout used to store mappings on disk
+   *
+   * @return the storage engine type
+   */
+  public StorageEngineType getStorageEngineType() {
+    return storageEngineType;
+  }
+
+  /**
+   * Returns the garbage ratio above which a segment log gets compacted
+   *
+   * @return the compaction threshold
+   */
+  public float getCompactionThreshold() {
+    return compactionThreshold;
+  }
+
+  /**
+   * Returns the size in bytes of the buffer batching appends to a segment log
+   *
+   * @return the write buffer size
+   */
+  public int getWriteBufferSize() {
+    return writeBufferSize;
+  }
+
   /**
    * {@inheritDoc}
    */
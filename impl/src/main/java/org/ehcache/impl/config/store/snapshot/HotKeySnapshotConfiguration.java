@@ -0,0 +1,85 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.impl.config.store.snapshot;
+
+import org.ehcache.core.spi.service.HotKeySnapshotService;
+import org.ehcache.spi.service.ServiceConfiguration;
+
+/**
+ * {@link ServiceConfiguration} snapshotting the hottest keys of a cache when it is closed.
+ * <p>
+ * Up to {@link #getMaxKeys()} keys, ranked by hit count and then by last access time, are written under the
+ * {@link org.ehcache.core.spi.service.LocalPersistenceService} root. When the cache is next initialized they are
+ * restored in the background: their values are put back directly if {@link #isIncludeValues()}, otherwise they are
+ * loaded again through the cache {@link org.ehcache.spi.loaderwriter.CacheLoaderWriter}. Keys, and values when
+ * included, must be {@link java.io.Serializable}.
+ * <p>
+ * Caches with a persistent resource already survive restarts and are not snapshot.
+ */
+public class HotKeySnapshotConfiguration implements ServiceConfiguration<HotKeySnapshotService> {
+
+  private final int maxKeys;
+  private final boolean includeValues;
+
+  /**
+   * Creates a new configuration snapshotting keys only, to be reloaded through the cache loader-writer.
+   *
+   * @param maxKeys the maximum number of keys in the snapshot
+   */
+  public HotKeySnapshotConfiguration(int maxKeys) {
+    this(maxKeys, false);
+  }
+
+  /**
+   * Creates a new configuration.
+   *
+   * @param maxKeys the maximum number of keys in the snapshot
+   * @param includeValues whether values are snapshot along with their keys
+   */
+  public HotKeySnapshotConfiguration(int maxKeys, boolean includeValues) {
+    if (maxKeys <= 0) {
+      throw new IllegalArgumentException("Max keys must be positive, was " + maxKeys);
+    }
+    this.maxKeys = maxKeys;
+    this.includeValues = includeValues;
+  }
+
+  /**
+   * Returns the maximum number of keys in the snapshot.
+   *
+   * @return the maximum number of keys
+   */
+  public int getMaxKeys() {
+    return maxKeys;
+  }
+
+  /**
+   * Indicates whether values are snapshot along with their keys.
+   *
+   * @return {@code true} if values are included
+   */
+  public boolean isIncludeValues() {
+    return includeValues;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Class<HotKeySnapshotService> getServiceType() {
+    return HotKeySnapshotService.class;
+  }
+}
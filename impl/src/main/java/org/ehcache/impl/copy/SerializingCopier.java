@@ -16,16 +16,22 @@
 
 package org.ehcache.impl.copy;
 
+import org.ehcache.impl.internal.copy.ImmutableTypes;
 import org.ehcache.spi.copy.Copier;
 import org.ehcache.spi.serialization.SerializerException;
 import org.ehcache.spi.serialization.Serializer;
 
 /**
  * A helper copier implementation that performs the "copying" using {@link Serializer serialization}.
+ * <p>
+ * When created to skip immutable types, instances of {@link String}, boxed primitives, {@code java.time} types, enums
+ * and classes annotated with {@link Immutable} are handed out as-is.
  */
 public final class SerializingCopier<T> extends ReadWriteCopier<T> {
 
   private final Serializer<T> serializer;
+  private final boolean skipImmutables;
+  private volatile ImmutableCheck lastCheck;
 
   /**
    * Convenience method allowing to represent this copier's class as the expected type in configuration.
@@ -44,18 +50,33 @@ public final class SerializingCopier<T> extends ReadWriteCopier<T> {
    * @param serializer the serializer to use
    */
   public SerializingCopier(Serializer<T> serializer) {
+    this(serializer, false);
+  }
+
+  /**
+   * Creates a new copier that will use the provided {@link Serializer}, optionally skipping immutable instances.
+   *
+   * @param serializer the serializer to use
+   * @param skipImmutables {@code true} to return immutable instances without copying them
+   */
+  public SerializingCopier(Serializer<T> serializer, boolean skipImmutables) {
     if (serializer == null) {
       throw new NullPointerException("A " + SerializingCopier.class.getName() + " instance requires a "
                                      + Serializer.class.getName() + " instance to copy!");
     }
     this.serializer = serializer;
+    this.skipImmutables = skipImmutables;
   }
 
   /**
-   * Returns a copy of the passed in instance by serializing and deserializing it.
+   * Returns a copy of the passed in instance by serializing and deserializing it, or the instance itself if it is
+   * immutable and this copier skips immutable instances.
    */
   @Override
   public T copy(final T obj) {
+    if (skipsCopyOf(obj)) {
+      return obj;
+    }
     try {
       return serializer.read(serializer.serialize(obj));
     } catch (ClassNotFoundException e) {
@@ -71,4 +92,36 @@ public final class SerializingCopier<T> extends ReadWriteCopier<T> {
   public Serializer<T> getSerializer() {
     return serializer;
   }
+
+  /**
+   * Indicates whether the given instance is handed out as-is by this copier.
+   *
+   * @param obj the instance to check
+   * @return {@code true} if {@code obj} is never copied
+   */
+  public boolean skipsCopyOf(T obj) {
+    if (!skipImmutables) {
+      return false;
+    }
+    Class<?> clazz = obj.getClass();
+    ImmutableCheck check = lastCheck;
+    if (check == null || check.clazz != clazz) {
+      check = new ImmutableCheck(clazz, ImmutableTypes.isImmutable(clazz));
+      lastCheck = check;
+    }
+    return check.immutable;
+  }
+
+  /**
+   * Caches the outcome of the last immutability check, as caches usually hold a single value class.
+   */
+  private static final class ImmutableCheck {
+    private final Class<?> clazz;
+    private final boolean immutable;
+
+    private ImmutableCheck(Class<?> clazz, boolean immutable) {
+      this.clazz = clazz;
+      this.immutable = immutable;
+    }
+  }
 }
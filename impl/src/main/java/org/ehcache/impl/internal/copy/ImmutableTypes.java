@@ -0,0 +1,70 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.impl.internal.copy;
+
+import org.ehcache.impl.copy.Immutable;
+
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Detects the types whose instances never need to be copied.
+ */
+public final class ImmutableTypes {
+
+  private static final Set<Class<?>> IMMUTABLE_CLASSES = Collections.unmodifiableSet(new HashSet<Class<?>>(Arrays.<Class<?>>asList(
+      String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class,
+      Double.class, BigInteger.class, BigDecimal.class, UUID.class)));
+
+  private static final String JAVA_TIME_PACKAGE = "java.time.";
+
+  private ImmutableTypes() {
+    // no instances
+  }
+
+  /**
+   * Checks whether instances of exactly the given class are immutable.
+   *
+   * @param clazz the runtime class of an instance
+   * @return {@code true} if instances of that class never change
+   */
+  public static boolean isImmutable(Class<?> clazz) {
+    if (IMMUTABLE_CLASSES.contains(clazz) || Enum.class.isAssignableFrom(clazz)) {
+      return true;
+    }
+    String name = clazz.getName();
+    if (name.startsWith(JAVA_TIME_PACKAGE) && name.indexOf('.', JAVA_TIME_PACKAGE.length()) < 0) {
+      return true;
+    }
+    return clazz.isAnnotationPresent(Immutable.class);
+  }
+
+  /**
+   * Checks whether all instances assignable to the given declared type are immutable.
+   *
+   * @param clazz a declared type
+   * @return {@code true} if no instance of that type can ever change
+   */
+  public static boolean isImmutableType(Class<?> clazz) {
+    return (Modifier.isFinal(clazz.getModifiers()) || clazz.isEnum()) && isImmutable(clazz);
+  }
+}
@@ -21,11 +21,14 @@ import org.ehcache.core.events.StoreEventDispatcher;
 import org.ehcache.core.events.StoreEventSink;
 import org.ehcache.core.spi.store.events.StoreEventFilter;
 import org.ehcache.core.spi.store.events.StoreEventListener;
+import org.ehcache.impl.config.event.DefaultEventSourceConfiguration;
+import org.ehcache.impl.config.event.DefaultEventSourceConfiguration.OverflowPolicy;
+import org.terracotta.statistics.StatisticsManager;
 
+import java.util.Collections;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.LinkedBlockingQueue;
 
 /**
  * AbstractStoreEventDispatcher
@@ -76,19 +79,43 @@ abstract class AbstractStoreEventDispatcher<K, V> implements StoreEventDispatche
 
   private final Set<StoreEventFilter<K, V>> filters = new CopyOnWriteArraySet<StoreEventFilter<K, V>>();
   private final Set<StoreEventListener<K, V>> listeners = new CopyOnWriteArraySet<StoreEventListener<K, V>>();
-  private final BlockingQueue<FireableStoreEventHolder<K, V>>[] orderedQueues;
+  private final OrderedEventQueue<K, V>[] orderedQueues;
   private volatile boolean ordered = false;
 
   protected AbstractStoreEventDispatcher(int dispatcherConcurrency) {
+    this(dispatcherConcurrency, DefaultEventSourceConfiguration.DEFAULT_ORDERED_QUEUE_CAPACITY, DefaultEventSourceConfiguration.DEFAULT_OVERFLOW_POLICY);
+  }
+
+  protected AbstractStoreEventDispatcher(int dispatcherConcurrency, int orderedQueueCapacity, OverflowPolicy overflowPolicy) {
     if (dispatcherConcurrency <= 0) {
       throw new IllegalArgumentException("Dispatcher concurrency must be an integer greater than 0");
     }
     @SuppressWarnings("unchecked")
-    LinkedBlockingQueue<FireableStoreEventHolder<K, V>>[] queues = new LinkedBlockingQueue[dispatcherConcurrency];
+    OrderedEventQueue<K, V>[] queues = new OrderedEventQueue[dispatcherConcurrency];
     orderedQueues = queues;
     for (int i = 0; i < orderedQueues.length; i++) {
-      orderedQueues[i] = new LinkedBlockingQueue<FireableStoreEventHolder<K, V>>(10000);
+      orderedQueues[i] = new OrderedEventQueue<K, V>(orderedQueueCapacity, overflowPolicy);
     }
+
+    Set<String> tags = Collections.singleton("StoreEventDispatcher");
+    StatisticsManager.createPassThroughStatistic(this, "orderedQueueDepth", tags, new Callable<Number>() {
+      @Override
+      public Number call() throws Exception {
+        return getOrderedQueueDepth();
+      }
+    });
+    StatisticsManager.createPassThroughStatistic(this, "droppedOrderedEvents", tags, new Callable<Number>() {
+      @Override
+      public Number call() throws Exception {
+        return getDroppedOrderedEventCount();
+      }
+    });
+    StatisticsManager.createPassThroughStatistic(this, "unorderedOverflowEvents", tags, new Callable<Number>() {
+      @Override
+      public Number call() throws Exception {
+        return getUnorderedOverflowEventCount();
+      }
+    });
   }
 
   protected Set<StoreEventListener<K, V>> getListeners() {
@@ -99,10 +126,49 @@ abstract class AbstractStoreEventDispatcher<K, V> implements StoreEventDispatche
     return filters;
   }
 
-  protected BlockingQueue<FireableStoreEventHolder<K, V>>[] getOrderedQueues() {
+  protected OrderedEventQueue<K, V>[] getOrderedQueues() {
     return orderedQueues;
   }
 
+  /**
+   * Returns the number of events currently awaiting ordered delivery, across all queues.
+   *
+   * @return the ordered queue depth
+   */
+  public int getOrderedQueueDepth() {
+    int depth = 0;
+    for (OrderedEventQueue<K, V> queue : orderedQueues) {
+      depth += queue.size();
+    }
+    return depth;
+  }
+
+  /**
+   * Returns the number of ordered events dropped because their queue was full.
+   *
+   * @return the dropped event count
+   */
+  public long getDroppedOrderedEventCount() {
+    long dropped = 0;
+    for (OrderedEventQueue<K, V> queue : orderedQueues) {
+      dropped += queue.getDroppedCount();
+    }
+    return dropped;
+  }
+
+  /**
+   * Returns the number of ordered events delivered without ordering because their queue was full.
+   *
+   * @return the unordered overflow event count
+   */
+  public long getUnorderedOverflowEventCount() {
+    long unordered = 0;
+    for (OrderedEventQueue<K, V> queue : orderedQueues) {
+      unordered += queue.getUnorderedCount();
+    }
+    return unordered;
+  }
+
   @Override
   public void addEventListener(StoreEventListener<K, V> eventListener) {
     listeners.add(eventListener);
@@ -36,6 +36,7 @@ class FireableStoreEventHolder<K, V> {
   private final Lock lock = new ReentrantLock();
   private final AtomicReference<Status> status = new AtomicReference<Status>(Status.CREATED);
   private volatile boolean failed = false;
+  private boolean unordered = false;
 
   private final StoreEvent<K, V> event;
   private final Condition condition;
@@ -87,6 +88,14 @@ class FireableStoreEventHolder<K, V> {
     failed = true;
   }
 
+  void markUnordered() {
+    unordered = true;
+  }
+
+  boolean isUnordered() {
+    return unordered;
+  }
+
   void fireOn(StoreEventListener<K, V> listener) {
     if (!failed) {
       listener.onEvent(event);
@@ -23,7 +23,6 @@ import org.ehcache.core.spi.store.events.StoreEventListener;
 
 import java.util.Iterator;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
 
 /**
  * This class is responsible for handling the event fudging that needs to happen
@@ -39,7 +38,7 @@ import java.util.concurrent.BlockingQueue;
 class FudgingInvocationScopedEventSink<K, V> extends InvocationScopedEventSink<K, V> {
 
   FudgingInvocationScopedEventSink(Set<StoreEventFilter<K, V>> filters, boolean ordered,
-                                   BlockingQueue<FireableStoreEventHolder<K, V>>[] orderedQueues,
+                                   OrderedEventQueue<K, V>[] orderedQueues,
                                    Set<StoreEventListener<K, V>> listeners) {
     super(filters, ordered, orderedQueues, listeners);
   }
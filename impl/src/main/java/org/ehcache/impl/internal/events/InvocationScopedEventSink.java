@@ -25,7 +25,6 @@ import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.Iterator;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
 
 import static org.ehcache.impl.internal.events.StoreEvents.createEvent;
 import static org.ehcache.impl.internal.events.StoreEvents.evictEvent;
@@ -40,12 +39,12 @@ class InvocationScopedEventSink<K, V> implements CloseableStoreEventSink<K, V> {
 
   private final Set<StoreEventFilter<K, V>> filters;
   private final boolean ordered;
-  private final BlockingQueue<FireableStoreEventHolder<K, V>>[] orderedQueues;
+  private final OrderedEventQueue<K, V>[] orderedQueues;
   private final Set<StoreEventListener<K, V>> listeners;
   private final Deque<FireableStoreEventHolder<K, V>> events = new ArrayDeque<FireableStoreEventHolder<K, V>>(4);
 
   InvocationScopedEventSink(Set<StoreEventFilter<K, V>> filters, boolean ordered,
-                            BlockingQueue<FireableStoreEventHolder<K, V>>[] orderedQueues,
+                            OrderedEventQueue<K, V>[] orderedQueues,
                             Set<StoreEventListener<K, V>> listeners) {
     this.filters = filters;
     this.ordered = ordered;
@@ -128,8 +127,8 @@ class InvocationScopedEventSink<K, V> implements CloseableStoreEventSink<K, V> {
     Iterator<FireableStoreEventHolder<K, V>> iterator = events.iterator();
     while (iterator.hasNext()) {
       FireableStoreEventHolder<K, V> next = iterator.next();
-      if (ordered) {
-        BlockingQueue<FireableStoreEventHolder<K, V>> orderedQueue = getOrderedQueue(next);
+      if (ordered && !next.isUnordered()) {
+        OrderedEventQueue<K, V> orderedQueue = getOrderedQueue(next);
         orderedQueue.remove(next);
         fireWaiters(listeners, orderedQueue);
       }
@@ -145,7 +144,17 @@ class InvocationScopedEventSink<K, V> implements CloseableStoreEventSink<K, V> {
     events.add(event);
     if (ordered) {
       try {
-        getOrderedQueue(event).put(event);
+        OrderedEventQueue<K, V> orderedQueue = getOrderedQueue(event);
+        if (!orderedQueue.offer(event)) {
+          switch (orderedQueue.getOverflowPolicy()) {
+            case UNORDERED:
+              event.markUnordered();
+              break;
+            default:
+              events.removeLast();
+              break;
+          }
+        }
       } catch (InterruptedException e) {
         events.removeLast();
         Thread.currentThread().interrupt();
@@ -153,16 +162,23 @@ class InvocationScopedEventSink<K, V> implements CloseableStoreEventSink<K, V> {
     }
   }
 
-  private BlockingQueue<FireableStoreEventHolder<K, V>> getOrderedQueue(FireableStoreEventHolder<K, V> event) {
+  private OrderedEventQueue<K, V> getOrderedQueue(FireableStoreEventHolder<K, V> event) {
     int i = Math.abs(event.eventKeyHash() % orderedQueues.length);
     return orderedQueues[i];
   }
 
   private void fireOrdered(Set<StoreEventListener<K, V>> listeners, Deque<FireableStoreEventHolder<K, V>> events) {
     for (FireableStoreEventHolder<K, V> fireableEvent : events) {
+      if (fireableEvent.isUnordered()) {
+        // Overflowed its ordered queue - delivered as soon as the operation completes
+        for (StoreEventListener<K, V> listener : listeners) {
+          fireableEvent.fireOn(listener);
+        }
+        continue;
+      }
       fireableEvent.markFireable();
 
-      BlockingQueue<FireableStoreEventHolder<K, V>> orderedQueue = getOrderedQueue(fireableEvent);
+      OrderedEventQueue<K, V> orderedQueue = getOrderedQueue(fireableEvent);
       FireableStoreEventHolder<K, V> head = orderedQueue.peek();
       if (head == fireableEvent) {
         // Need to fire my event, plus any it was blocking
@@ -186,7 +202,7 @@ class InvocationScopedEventSink<K, V> implements CloseableStoreEventSink<K, V> {
     }
   }
 
-  private void fireWaiters(Set<StoreEventListener<K, V>> listeners, BlockingQueue<FireableStoreEventHolder<K, V>> orderedQueue) {
+  private void fireWaiters(Set<StoreEventListener<K, V>> listeners, OrderedEventQueue<K, V> orderedQueue) {
     FireableStoreEventHolder<K, V> head;
     while ((head = orderedQueue.peek()) != null && head.isFireable()) {
       if (head.markFired()) {
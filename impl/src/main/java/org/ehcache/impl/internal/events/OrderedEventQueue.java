@@ -0,0 +1,133 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.events;
+
+import org.ehcache.impl.config.event.DefaultEventSourceConfiguration.OverflowPolicy;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded, lock-free queue of the events awaiting ordered delivery for one dispatcher stripe.
+ * <P>
+ *   Producers enqueue while holding the store lock on the event's key, so the queue order is the mutation order.
+ *   Any thread releasing its event sink may then fire the events found at the head of the queue.
+ *   When the queue is full, the {@link OverflowPolicy} decides whether the producer waits, the event is dropped or
+ *   the event is delivered without ordering guarantees.
+ * </P>
+ */
+class OrderedEventQueue<K, V> {
+
+  private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final Queue<FireableStoreEventHolder<K, V>> queue = new ConcurrentLinkedQueue<FireableStoreEventHolder<K, V>>();
+  private final AtomicInteger size = new AtomicInteger();
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicLong unordered = new AtomicLong();
+  private final int capacity;
+  private final OverflowPolicy overflowPolicy;
+
+  OrderedEventQueue(int capacity, OverflowPolicy overflowPolicy) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Ordered event queue capacity must be an integer greater than 0");
+    }
+    if (overflowPolicy == null) {
+      throw new NullPointerException("Overflow policy cannot be null");
+    }
+    this.capacity = capacity;
+    this.overflowPolicy = overflowPolicy;
+  }
+
+  /**
+   * Enqueues the event for ordered delivery, applying the overflow policy if the queue is full.
+   *
+   * @param event the event to enqueue
+   * @return {@code true} if the event was enqueued, {@code false} if it was dropped or must be delivered unordered
+   * @throws InterruptedException if interrupted while waiting for space under the {@link OverflowPolicy#BLOCK} policy
+   */
+  boolean offer(FireableStoreEventHolder<K, V> event) throws InterruptedException {
+    long parkNanos = 1;
+    while (true) {
+      int current = size.get();
+      if (current < capacity) {
+        if (size.compareAndSet(current, current + 1)) {
+          queue.offer(event);
+          return true;
+        }
+      } else {
+        switch (overflowPolicy) {
+          case DROP:
+            dropped.incrementAndGet();
+            return false;
+          case UNORDERED:
+            unordered.incrementAndGet();
+            return false;
+          case BLOCK:
+            if (Thread.interrupted()) {
+              throw new InterruptedException();
+            }
+            LockSupport.parkNanos(this, parkNanos);
+            parkNanos = Math.min(parkNanos << 1, MAX_PARK_NANOS);
+            break;
+          default:
+            throw new AssertionError("Unsupported overflow policy " + overflowPolicy);
+        }
+      }
+    }
+  }
+
+  FireableStoreEventHolder<K, V> peek() {
+    return queue.peek();
+  }
+
+  FireableStoreEventHolder<K, V> poll() {
+    FireableStoreEventHolder<K, V> head = queue.poll();
+    if (head != null) {
+      size.decrementAndGet();
+    }
+    return head;
+  }
+
+  boolean remove(FireableStoreEventHolder<K, V> event) {
+    if (queue.remove(event)) {
+      size.decrementAndGet();
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+  int size() {
+    return size.get();
+  }
+
+  long getDroppedCount() {
+    return dropped.get();
+  }
+
+  long getUnorderedCount() {
+    return unordered.get();
+  }
+
+  OverflowPolicy getOverflowPolicy() {
+    return overflowPolicy;
+  }
+}
@@ -17,6 +17,12 @@
 package org.ehcache.impl.internal.events;
 
 import org.ehcache.core.events.StoreEventSink;
+import org.ehcache.core.spi.store.Store;
+import org.ehcache.impl.config.event.DefaultEventSourceConfiguration;
+import org.ehcache.impl.config.event.DefaultEventSourceConfiguration.OverflowPolicy;
+import org.ehcache.spi.service.ServiceConfiguration;
+
+import static org.ehcache.core.spi.service.ServiceUtils.findSingletonAmongst;
 
 /**
  * ThreadLocalStoreEventDispatcher
@@ -30,6 +36,30 @@ public class ThreadLocalStoreEventDispatcher<K, V> extends AbstractStoreEventDis
     super(dispatcherConcurrency);
   }
 
+  public ThreadLocalStoreEventDispatcher(int dispatcherConcurrency, int orderedQueueCapacity, OverflowPolicy overflowPolicy) {
+    super(dispatcherConcurrency, orderedQueueCapacity, overflowPolicy);
+  }
+
+  /**
+   * Creates a dispatcher for a store, honoring any {@link DefaultEventSourceConfiguration} found in the service
+   * configurations.
+   *
+   * @param storeConfig the store configuration
+   * @param serviceConfigs the store service configurations
+   * @param <K> the key type
+   * @param <V> the value type
+   * @return a new dispatcher
+   */
+  public static <K, V> ThreadLocalStoreEventDispatcher<K, V> forStore(Store.Configuration<K, V> storeConfig, ServiceConfiguration<?>... serviceConfigs) {
+    DefaultEventSourceConfiguration eventSourceConfiguration = findSingletonAmongst(DefaultEventSourceConfiguration.class, (Object[]) serviceConfigs);
+    if (eventSourceConfiguration == null) {
+      return new ThreadLocalStoreEventDispatcher<K, V>(storeConfig.getDispatcherConcurrency());
+    } else {
+      return new ThreadLocalStoreEventDispatcher<K, V>(storeConfig.getDispatcherConcurrency(),
+          eventSourceConfiguration.getOrderedQueueCapacity(), eventSourceConfiguration.getOverflowPolicy());
+    }
+  }
+
   @Override
   public StoreEventSink<K, V> eventSink() {
     if (getListeners().isEmpty()) {
@@ -0,0 +1,151 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.impl.internal.loaderwriter.refreshahead;
+
+import org.ehcache.core.spi.service.RefreshAheadProvider.RefreshAhead;
+import org.ehcache.core.spi.service.RefreshAheadProvider.Refresher;
+import org.ehcache.core.spi.store.Store;
+import org.ehcache.expiry.Duration;
+import org.ehcache.expiry.Expiry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Refresh-ahead policy queuing the keys due for refresh and reloading them in batches.
+ * <p>
+ * A single batch is in flight at any time, keys becoming due meanwhile are gathered for the next one. A key is queued
+ * at most once until its refresh completes, along with the value it held when it became due so that a value written
+ * meanwhile is not overwritten by the refresh.
+ */
+class BatchingRefreshAhead<K, V> implements RefreshAhead<K, V> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BatchingRefreshAhead.class);
+
+  private final String alias;
+  private final Expiry<? super K, ? super V> expiry;
+  private final Refresher<K, V> refresher;
+  private final double refreshFraction;
+  private final int maxBatchSize;
+  private final Executor executor;
+
+  private final ConcurrentMap<K, V> pending = new ConcurrentHashMap<K, V>();
+  private final Queue<K> queue = new ConcurrentLinkedQueue<K>();
+  private final AtomicBoolean flushScheduled = new AtomicBoolean();
+  private final Runnable flusher = new Runnable() {
+    @Override
+    public void run() {
+      flush();
+    }
+  };
+  private volatile boolean closed;
+
+  BatchingRefreshAhead(String alias, Expiry<? super K, ? super V> expiry, Refresher<K, V> refresher, double refreshFraction,
+                       int maxBatchSize, Executor executor) {
+    this.alias = alias;
+    this.expiry = expiry;
+    this.refresher = refresher;
+    this.refreshFraction = refreshFraction;
+    this.maxBatchSize = maxBatchSize;
+    this.executor = executor;
+  }
+
+  @Override
+  public void accessed(K key, Store.ValueHolder<V> valueHolder) {
+    if (!closed && isDue(key, valueHolder) && pending.putIfAbsent(key, valueHolder.value()) == null) {
+      queue.add(key);
+      scheduleFlush();
+    }
+  }
+
+  /**
+   * Checks whether less than the refresh fraction of the mapping time-to-live is left, as of its last access.
+   */
+  boolean isDue(K key, Store.ValueHolder<V> valueHolder) {
+    long expirationTime = valueHolder.expirationTime(MILLISECONDS);
+    if (expirationTime == Store.ValueHolder.NO_EXPIRE) {
+      return false;
+    }
+    Duration timeToLive;
+    try {
+      timeToLive = expiry.getExpiryForCreation(key, valueHolder.value());
+    } catch (RuntimeException e) {
+      LOGGER.debug("Expiry of cache '{}' failed, {} is not refreshed", alias, key, e);
+      return false;
+    }
+    if (timeToLive == null || timeToLive.isInfinite()) {
+      return false;
+    }
+    long timeToLiveMillis = MILLISECONDS.convert(timeToLive.getLength(), timeToLive.getTimeUnit());
+    long timeLeft = expirationTime - valueHolder.lastAccessTime(MILLISECONDS);
+    return timeLeft <= timeToLiveMillis * refreshFraction;
+  }
+
+  private void scheduleFlush() {
+    if (flushScheduled.compareAndSet(false, true)) {
+      try {
+        executor.execute(flusher);
+      } catch (RejectedExecutionException e) {
+        LOGGER.debug("Refresh-ahead of cache '{}' rejected by its executor", alias, e);
+        queue.clear();
+        pending.clear();
+        flushScheduled.set(false);
+      }
+    }
+  }
+
+  private void flush() {
+    Map<K, V> batch = new LinkedHashMap<K, V>();
+    try {
+      K key;
+      while (batch.size() < maxBatchSize && (key = queue.poll()) != null) {
+        V due = pending.get(key);
+        if (due != null) {
+          batch.put(key, due);
+        }
+      }
+      if (!batch.isEmpty() && !closed) {
+        refresher.refresh(batch);
+      }
+    } catch (RuntimeException e) {
+      LOGGER.warn("Refresh-ahead of cache '{}' failed", alias, e);
+    } finally {
+      pending.keySet().removeAll(batch.keySet());
+      flushScheduled.set(false);
+      // keys queued after the batch was taken but before the flag was cleared would otherwise wait for the next read
+      if (!queue.isEmpty() && !closed) {
+        scheduleFlush();
+      }
+    }
+  }
+
+  void close() {
+    closed = true;
+    queue.clear();
+    pending.clear();
+  }
+}
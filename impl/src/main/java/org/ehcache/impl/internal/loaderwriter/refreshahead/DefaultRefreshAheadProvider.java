@@ -0,0 +1,83 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.impl.internal.loaderwriter.refreshahead;
+
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.core.config.store.StaleServingConfiguration;
+import org.ehcache.core.spi.service.ExecutionService;
+import org.ehcache.core.spi.service.RefreshAheadProvider;
+import org.ehcache.impl.config.loaderwriter.refreshahead.RefreshAheadConfiguration;
+import org.ehcache.spi.service.Service;
+import org.ehcache.spi.service.ServiceConfiguration;
+import org.ehcache.spi.service.ServiceDependencies;
+import org.ehcache.spi.service.ServiceProvider;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static org.ehcache.core.spi.service.ServiceUtils.findSingletonAmongst;
+
+/**
+ * Default {@link RefreshAheadProvider}, reloading keys due for refresh on an {@link ExecutionService} pool.
+ * <p>
+ * Caches serving stale mappings while revalidating them in the background get a policy too, reloading only their
+ * stale mappings when they are not configured for refresh-ahead.
+ */
+@ServiceDependencies(ExecutionService.class)
+public class DefaultRefreshAheadProvider implements RefreshAheadProvider {
+
+  private final String threadPoolAlias;
+
+  private volatile ExecutorService executor;
+
+  public DefaultRefreshAheadProvider(String threadPoolAlias) {
+    this.threadPoolAlias = threadPoolAlias;
+  }
+
+  @Override
+  public void start(ServiceProvider<Service> serviceProvider) {
+    executor = serviceProvider.getService(ExecutionService.class).getUnorderedExecutor(threadPoolAlias, new LinkedBlockingQueue<Runnable>());
+  }
+
+  @Override
+  public void stop() {
+    executor.shutdownNow();
+  }
+
+  @Override
+  public <K, V> RefreshAhead<K, V> createRefreshAhead(String alias, CacheConfiguration<K, V> cacheConfiguration,
+                                                      Refresher<K, V> refresher, ServiceConfiguration<?>... serviceConfigs) {
+    RefreshAheadConfiguration configuration = findSingletonAmongst(RefreshAheadConfiguration.class, (Object[]) serviceConfigs);
+    if (configuration == null) {
+      StaleServingConfiguration staleServingConfiguration = findSingletonAmongst(StaleServingConfiguration.class, (Object[]) serviceConfigs);
+      if (staleServingConfiguration == null || !staleServingConfiguration.isRevalidatingInBackground()) {
+        return null;
+      }
+      // with no refresh fraction only stale mappings are due
+      return new BatchingRefreshAhead<K, V>(alias, cacheConfiguration.getExpiry(), refresher,
+          0, RefreshAheadConfiguration.DEFAULT_MAX_BATCH_SIZE, executor);
+    }
+    return new BatchingRefreshAhead<K, V>(alias, cacheConfiguration.getExpiry(), refresher,
+        configuration.getRefreshFraction(), configuration.getMaxBatchSize(), executor);
+  }
+
+  @Override
+  public void releaseRefreshAhead(RefreshAhead<?, ?> refreshAhead) {
+    if (refreshAhead instanceof BatchingRefreshAhead<?, ?>) {
+      ((BatchingRefreshAhead<?, ?>) refreshAhead).close();
+    }
+  }
+}
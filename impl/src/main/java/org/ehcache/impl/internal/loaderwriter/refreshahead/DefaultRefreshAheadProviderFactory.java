@@ -0,0 +1,45 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.impl.internal.loaderwriter.refreshahead;
+
+import org.ehcache.core.spi.service.RefreshAheadProvider;
+import org.ehcache.core.spi.service.ServiceFactory;
+import org.ehcache.impl.config.loaderwriter.refreshahead.RefreshAheadProviderConfiguration;
+import org.ehcache.spi.service.ServiceCreationConfiguration;
+
+/**
+ * {@link ServiceFactory} for the {@link DefaultRefreshAheadProvider}.
+ */
+@ServiceFactory.RequiresConfiguration
+public class DefaultRefreshAheadProviderFactory implements ServiceFactory<RefreshAheadProvider> {
+
+  @Override
+  public RefreshAheadProvider create(ServiceCreationConfiguration<RefreshAheadProvider> configuration) {
+    if (configuration == null) {
+      return new DefaultRefreshAheadProvider(null);
+    } else if (configuration instanceof RefreshAheadProviderConfiguration) {
+      return new DefaultRefreshAheadProvider(((RefreshAheadProviderConfiguration) configuration).getThreadPoolAlias());
+    } else {
+      throw new IllegalArgumentException("Expected a configuration of type RefreshAheadProviderConfiguration but got "
+                                         + configuration.getClass().getSimpleName());
+    }
+  }
+
+  @Override
+  public Class<RefreshAheadProvider> getServiceType() {
+    return RefreshAheadProvider.class;
+  }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.loaderwriter.warming;
+
+import org.ehcache.core.InternalCache;
+import org.ehcache.core.spi.function.Function;
+import org.ehcache.spi.loaderwriter.BulkCacheLoadingException;
+import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * A single cache warming, loading chunks of keys in parallel.
+ * <p>
+ * Each of the {@code concurrency} loaders takes the next chunk of keys, loads it and then resubmits itself, so that no
+ * pool thread ever waits on another warming task and a single threaded pool cannot dead-lock.
+ */
+public class CacheWarming<K, V> implements Future<Long> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CacheWarming.class);
+
+  private final String alias;
+  private final InternalCache<K, V> cache;
+  private final CacheLoaderWriter<? super K, V> loaderWriter;
+  private final Iterator<? extends K> keys;
+  private final int chunkSize;
+  private final long nanosPerKey;
+  private final Executor executor;
+
+  private final AtomicInteger activeLoaders;
+  private final CountDownLatch done = new CountDownLatch(1);
+  private final AtomicLong loaded = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final long start = System.nanoTime();
+  private volatile boolean cancelled;
+
+  /* guarded by this */
+  private long nextPermit = start;
+
+  public CacheWarming(String alias, InternalCache<K, V> cache, Iterable<? extends K> keys, int chunkSize, int concurrency,
+                      long maxKeysPerSecond, Executor executor) {
+    this.alias = alias;
+    this.cache = cache;
+    this.loaderWriter = cache.getCacheLoaderWriter();
+    this.keys = keys.iterator();
+    this.chunkSize = chunkSize;
+    this.nanosPerKey = maxKeysPerSecond > 0 ? SECONDS.toNanos(1) / maxKeysPerSecond : 0;
+    this.executor = executor;
+    this.activeLoaders = new AtomicInteger(concurrency);
+  }
+
+  public void start() {
+    for (int i = activeLoaders.get(); i > 0; i--) {
+      submit(new Loader());
+    }
+  }
+
+  private void submit(Runnable loader) {
+    try {
+      executor.execute(loader);
+    } catch (RejectedExecutionException e) {
+      LOGGER.debug("Warming of cache '{}' stopped as its executor rejected a load", alias, e);
+      loaderDone();
+    }
+  }
+
+  private synchronized List<K> nextChunk() {
+    List<K> chunk = new ArrayList<K>(chunkSize);
+    while (!cancelled && chunk.size() < chunkSize && keys.hasNext()) {
+      K key = keys.next();
+      if (!cache.containsKey(key)) {
+        chunk.add(key);
+      }
+    }
+    return chunk;
+  }
+
+  /**
+   * Reserves the right to load {@code count} keys and returns how long the caller must wait before doing so.
+   */
+  private synchronized long reserve(int count) {
+    if (nanosPerKey == 0) {
+      return 0;
+    }
+    long now = System.nanoTime();
+    long permit = Math.max(now, nextPermit);
+    nextPermit = permit + count * nanosPerKey;
+    return permit - now;
+  }
+
+  /**
+   * Loads the chunk with a single {@link CacheLoaderWriter#loadAll(Iterable)} and installs the loaded values for the
+   * keys still absent, without writing them back to the loader-writer.
+   */
+  private void load(List<K> chunk) {
+    Map<? super K, ? extends V> values;
+    try {
+      values = loaderWriter.loadAll(chunk);
+    } catch (BulkCacheLoadingException e) {
+      @SuppressWarnings("unchecked")
+      Map<? super K, ? extends V> successes = (Map<? super K, ? extends V>) e.getSuccesses();
+      values = successes;
+      failed.addAndGet(e.getFailures().size());
+      LOGGER.debug("Warming of cache '{}' failed to load {} keys", alias, e.getFailures().size(), e);
+    } catch (Exception e) {
+      failed.addAndGet(chunk.size());
+      LOGGER.debug("Warming of cache '{}' failed to load {} keys", alias, chunk.size(), e);
+      return;
+    }
+
+    final Map<K, V> loadedValues = new HashMap<K, V>();
+    if (values != null) {
+      for (K key : chunk) {
+        V value = values.get(key);
+        if (value != null) {
+          loadedValues.put(key, value);
+        }
+      }
+    }
+    cache.getJsr107Cache().loadAll(loadedValues.keySet(), false, new Function<Iterable<? extends K>, Map<K, V>>() {
+      @Override
+      public Map<K, V> apply(Iterable<? extends K> absentKeys) {
+        return loadedValues;
+      }
+    });
+    loaded.addAndGet(loadedValues.size());
+  }
+
+  private void loaderDone() {
+    if (activeLoaders.decrementAndGet() == 0) {
+      long millis = NANOSECONDS.toMillis(System.nanoTime() - start);
+      if (failed.get() == 0) {
+        LOGGER.info("Cache '{}' warmed with {} keys in {} ms.", alias, loaded.get(), millis);
+      } else {
+        LOGGER.warn("Cache '{}' warmed with {} keys in {} ms, {} keys failed to load.", alias, loaded.get(), millis, failed.get());
+      }
+      done.countDown();
+    }
+  }
+
+  @Override
+  public boolean cancel(boolean mayInterruptIfRunning) {
+    if (isDone()) {
+      return false;
+    }
+    cancelled = true;
+    return true;
+  }
+
+  @Override
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  @Override
+  public boolean isDone() {
+    return done.getCount() == 0;
+  }
+
+  @Override
+  public Long get() throws InterruptedException {
+    done.await();
+    return loaded.get();
+  }
+
+  @Override
+  public Long get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+    if (done.await(timeout, unit)) {
+      return loaded.get();
+    } else {
+      throw new TimeoutException();
+    }
+  }
+
+  private class Loader implements Runnable {
+
+    @Override
+    public void run() {
+      try {
+        List<K> chunk = nextChunk();
+        if (chunk.isEmpty()) {
+          loaderDone();
+          return;
+        }
+        long wait = reserve(chunk.size());
+        if (wait > 0) {
+          NANOSECONDS.sleep(wait);
+        }
+        load(chunk);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        loaderDone();
+        return;
+      } catch (RuntimeException e) {
+        cancelled = true;
+        LOGGER.warn("Warming of cache '{}' aborted", alias, e);
+        loaderDone();
+        return;
+      }
+      submit(this);
+    }
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.loaderwriter.warming;
+
+import org.ehcache.Cache;
+import org.ehcache.impl.config.loaderwriter.warming.CacheWarmingConfiguration;
+import org.ehcache.spi.service.Service;
+
+import java.util.concurrent.Future;
+
+/**
+ * {@link Service} warming caches by loading keys through their {@link org.ehcache.spi.loaderwriter.CacheLoaderWriter}.
+ * <p>
+ * Caches configured with a {@link CacheWarmingConfiguration} are warmed with the keys of its key source as they are
+ * created.
+ */
+public interface CacheWarmingProvider extends Service {
+
+  /**
+   * Starts warming {@code cache} with the given keys, using the chunk size, concurrency and rate limit of
+   * {@code configuration}.
+   *
+   * @param alias the cache alias
+   * @param cache the cache to warm
+   * @param keys the keys to load
+   * @param configuration the warming configuration, its key source is not used
+   * @param <K> the key type
+   * @param <V> the value type
+   * @return a future completing with the number of keys successfully loaded
+   *
+   * @throws IllegalArgumentException if the cache has no loader-writer
+   */
+  <K, V> Future<Long> warm(String alias, Cache<K, V> cache, Iterable<? extends K> keys, CacheWarmingConfiguration configuration);
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.loaderwriter.warming;
+
+import org.ehcache.Cache;
+import org.ehcache.Status;
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.core.InternalCache;
+import org.ehcache.core.events.CacheManagerListener;
+import org.ehcache.core.spi.service.CacheManagerProviderService;
+import org.ehcache.core.spi.service.ExecutionService;
+import org.ehcache.core.spi.store.InternalCacheManager;
+import org.ehcache.impl.config.loaderwriter.warming.CacheWarmingConfiguration;
+import org.ehcache.impl.config.loaderwriter.warming.CacheWarmingKeySource;
+import org.ehcache.spi.service.Service;
+import org.ehcache.spi.service.ServiceDependencies;
+import org.ehcache.spi.service.ServiceProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static org.ehcache.core.spi.service.ServiceUtils.findSingletonAmongst;
+import static org.ehcache.impl.internal.classes.commonslang.reflect.ConstructorUtils.invokeConstructor;
+
+/**
+ * Default {@link CacheWarmingProvider}, warming caches on an {@link ExecutionService} pool.
+ * <p>
+ * Caches created while the {@code CacheManager} initializes are warmed once it becomes available, caches created
+ * later are warmed as they are added. Warming of a cache stops when it is removed or when the manager closes.
+ */
+@ServiceDependencies({ExecutionService.class, CacheManagerProviderService.class})
+public class DefaultCacheWarmingProvider implements CacheWarmingProvider, CacheManagerListener {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DefaultCacheWarmingProvider.class);
+
+  private final String threadPoolAlias;
+  private final ConcurrentMap<Cache<?, ?>, Future<Long>> warmings = new ConcurrentHashMap<Cache<?, ?>, Future<Long>>();
+
+  private volatile ExecutorService executor;
+  private volatile InternalCacheManager cacheManager;
+
+  public DefaultCacheWarmingProvider(String threadPoolAlias) {
+    this.threadPoolAlias = threadPoolAlias;
+  }
+
+  @Override
+  public void start(ServiceProvider<Service> serviceProvider) {
+    executor = serviceProvider.getService(ExecutionService.class).getUnorderedExecutor(threadPoolAlias, new LinkedBlockingQueue<Runnable>());
+    cacheManager = serviceProvider.getService(CacheManagerProviderService.class).getCacheManager();
+    cacheManager.registerListener(this);
+  }
+
+  @Override
+  public void stop() {
+    cacheManager.deregisterListener(this);
+    for (Future<Long> warming : warmings.values()) {
+      warming.cancel(true);
+    }
+    warmings.clear();
+    executor.shutdownNow();
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <K, V> Future<Long> warm(String alias, Cache<K, V> cache, Iterable<? extends K> keys, CacheWarmingConfiguration configuration) {
+    if (!(cache instanceof InternalCache<?, ?>) || ((InternalCache<K, V>) cache).getCacheLoaderWriter() == null) {
+      throw new IllegalArgumentException("Cache '" + alias + "' cannot be warmed as it has no loader-writer");
+    }
+    CacheWarming<K, V> warming = new CacheWarming<K, V>(alias, (InternalCache<K, V>) cache, keys, configuration.getChunkSize(),
+        configuration.getConcurrency(), configuration.getMaxKeysPerSecond(), executor);
+    warming.start();
+    return warming;
+  }
+
+  @Override
+  public void cacheAdded(String alias, Cache<?, ?> cache) {
+    warmIfConfigured(alias, cache);
+  }
+
+  @Override
+  public void cacheRemoved(String alias, Cache<?, ?> cache) {
+    Future<Long> warming = warmings.remove(cache);
+    if (warming != null) {
+      warming.cancel(true);
+    }
+  }
+
+  @Override
+  public void stateTransition(Status from, Status to) {
+    if (to == Status.AVAILABLE) {
+      // caches created while initializing are not reported through cacheAdded
+      for (Map.Entry<String, CacheConfiguration<?, ?>> entry : cacheManager.getRuntimeConfiguration().getCacheConfigurations().entrySet()) {
+        CacheConfiguration<?, ?> configuration = entry.getValue();
+        warmIfConfigured(entry.getKey(), cacheManager.getCache(entry.getKey(), configuration.getKeyType(), configuration.getValueType()));
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private <K, V> void warmIfConfigured(String alias, Cache<K, V> cache) {
+    CacheWarmingConfiguration configuration = findSingletonAmongst(CacheWarmingConfiguration.class,
+        cache.getRuntimeConfiguration().getServiceConfigurations());
+    if (configuration == null) {
+      return;
+    }
+
+    Iterable<? extends K> keys;
+    try {
+      keys = ((CacheWarmingKeySource<K>) keySource(configuration)).keys(alias);
+    } catch (Exception e) {
+      LOGGER.warn("Cache '{}' could not be warmed as its keys could not be obtained", alias, e);
+      return;
+    }
+
+    Future<Long> warming;
+    try {
+      warming = warm(alias, cache, keys, configuration);
+    } catch (IllegalArgumentException e) {
+      LOGGER.warn(e.getMessage());
+      return;
+    }
+    warmings.put(cache, warming);
+    if (configuration.isBlocking()) {
+      boolean interrupted = false;
+      try {
+        while (true) {
+          try {
+            warming.get();
+            break;
+          } catch (InterruptedException e) {
+            interrupted = true;
+          } catch (Exception e) {
+            break;
+          }
+        }
+      } finally {
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      warmings.remove(cache, warming);
+    }
+  }
+
+  private static CacheWarmingKeySource<?> keySource(CacheWarmingConfiguration configuration) throws Exception {
+    if (configuration.getInstance() != null) {
+      return configuration.getInstance();
+    } else {
+      return invokeConstructor(configuration.getClazz());
+    }
+  }
+}
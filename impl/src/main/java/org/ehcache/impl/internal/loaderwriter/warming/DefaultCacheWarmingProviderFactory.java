@@ -0,0 +1,45 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.loaderwriter.warming;
+
+import org.ehcache.impl.config.loaderwriter.warming.CacheWarmingProviderConfiguration;
+import org.ehcache.spi.service.ServiceCreationConfiguration;
+import org.ehcache.core.spi.service.ServiceFactory;
+
+/**
+ * {@link ServiceFactory} for the {@link DefaultCacheWarmingProvider}.
+ */
+@ServiceFactory.RequiresConfiguration
+public class DefaultCacheWarmingProviderFactory implements ServiceFactory<CacheWarmingProvider> {
+
+  @Override
+  public CacheWarmingProvider create(ServiceCreationConfiguration<CacheWarmingProvider> configuration) {
+    if (configuration == null) {
+      return new DefaultCacheWarmingProvider(null);
+    } else if (configuration instanceof CacheWarmingProviderConfiguration) {
+      return new DefaultCacheWarmingProvider(((CacheWarmingProviderConfiguration) configuration).getThreadPoolAlias());
+    } else {
+      throw new IllegalArgumentException("Expected a configuration of type CacheWarmingProviderConfiguration but got "
+                                         + configuration.getClass().getSimpleName());
+    }
+  }
+
+  @Override
+  public Class<CacheWarmingProvider> getServiceType() {
+    return CacheWarmingProvider.class;
+  }
+}
@@ -15,12 +15,14 @@
  */
 package org.ehcache.impl.internal.loaderwriter.writebehind;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
 import org.ehcache.spi.loaderwriter.BulkCacheWritingException;
 
 import org.ehcache.spi.loaderwriter.CacheWritingException;
+import org.ehcache.impl.internal.loaderwriter.writebehind.WriteBehindJournal.Segment;
 import org.ehcache.impl.internal.loaderwriter.writebehind.operations.DeleteOperation;
 import org.ehcache.impl.internal.loaderwriter.writebehind.operations.SingleOperation;
 import org.ehcache.impl.internal.loaderwriter.writebehind.operations.WriteOperation;
@@ -77,6 +79,23 @@ abstract class AbstractWriteBehind<K, V> implements WriteBehind<K, V> {
 
   protected abstract void addOperation(final SingleOperation<K, V> operation);
 
+  /**
+   * Durably records the operation in the given journal, if there is one.
+   *
+   * @return the journal segment holding the operation, or {@code null} if there is no journal
+   * @throws CacheWritingException if the operation cannot be recorded
+   */
+  protected static <K, V> Segment journal(WriteBehindJournal<K, V> journal, SingleOperation<K, V> operation) throws CacheWritingException {
+    if (journal == null) {
+      return null;
+    }
+    try {
+      return journal.append(operation);
+    } catch (IOException e) {
+      throw new CacheWritingException("Failed to journal write-behind operation for key " + operation.getKey(), e);
+    }
+  }
+
   protected static <T> void putUninterruptibly(BlockingQueue<T> queue, T r) {
     boolean interrupted = false;
     try {
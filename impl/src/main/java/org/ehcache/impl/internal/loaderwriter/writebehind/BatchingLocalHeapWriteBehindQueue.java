@@ -16,6 +16,7 @@
 package org.ehcache.impl.internal.loaderwriter.writebehind;
 
 import org.ehcache.impl.internal.concurrent.ConcurrentHashMap;
+import org.ehcache.impl.internal.loaderwriter.writebehind.WriteBehindJournal.Segment;
 import org.ehcache.impl.internal.loaderwriter.writebehind.operations.BatchOperation;
 import org.ehcache.impl.internal.loaderwriter.writebehind.operations.DeleteOperation;
 import org.ehcache.impl.internal.loaderwriter.writebehind.operations.DeleteAllOperation;
@@ -30,6 +31,7 @@ import org.ehcache.core.spi.service.ExecutionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -45,6 +47,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.ehcache.impl.internal.executor.ExecutorUtil.shutdown;
@@ -59,28 +62,36 @@ public class BatchingLocalHeapWriteBehindQueue<K, V> extends AbstractWriteBehind
 
   private static final Logger LOGGER = LoggerFactory.getLogger(BatchingLocalHeapWriteBehindQueue.class);
 
-  private final CacheLoaderWriter<K, V> cacheLoaderWriter;
-
   private final ConcurrentMap<K, SingleOperation<K, V>> latest = new ConcurrentHashMap<K, SingleOperation<K, V>>();
 
-  private final BlockingQueue<Runnable> executorQueue;
+  private final int maxQueueSize;
+  private final Semaphore queueSpace;
   private final ExecutorService executor;
   private final ScheduledExecutorService scheduledExecutor;
 
   private final long maxWriteDelayMs;
-  private final int batchSize;
   private final boolean coalescing;
+  private final WriteBehindJournal<K, V> journal;
+  private final WriteBehindOperationWriter<K, V> writer;
 
   private volatile Batch openBatch;
 
   public BatchingLocalHeapWriteBehindQueue(ExecutionService executionService, String defaultThreadPool, WriteBehindConfiguration config, CacheLoaderWriter<K, V> cacheLoaderWriter) {
+    this(executionService, defaultThreadPool, config, cacheLoaderWriter, null, new WriteBehindOperationWriter<K, V>(cacheLoaderWriter, config));
+  }
+
+  public BatchingLocalHeapWriteBehindQueue(ExecutionService executionService, String defaultThreadPool, WriteBehindConfiguration config, CacheLoaderWriter<K, V> cacheLoaderWriter,
+                                           WriteBehindJournal<K, V> journal, WriteBehindOperationWriter<K, V> writer) {
     super(cacheLoaderWriter);
-    this.cacheLoaderWriter = cacheLoaderWriter;
+    this.journal = journal;
+    this.writer = writer;
     BatchingConfiguration batchingConfig = config.getBatchingConfiguration();
     this.maxWriteDelayMs = batchingConfig.getMaxDelayUnit().toMillis(batchingConfig.getMaxDelay());
-    this.batchSize = batchingConfig.getBatchSize();
     this.coalescing = batchingConfig.isCoalescing();
-    this.executorQueue = new LinkedBlockingQueue<Runnable>(config.getMaxQueueSize() / batchSize);
+    // batches are sized adaptively, so pending operations rather than batches are bounded
+    this.maxQueueSize = config.getMaxQueueSize();
+    this.queueSpace = new Semaphore(maxQueueSize);
+    BlockingQueue<Runnable> executorQueue = new LinkedBlockingQueue<Runnable>();
     if (config.getThreadPoolAlias() == null) {
       this.executor = executionService.getOrderedExecutor(defaultThreadPool, executorQueue);
     } else {
@@ -100,13 +111,15 @@ public class BatchingLocalHeapWriteBehindQueue<K, V> extends AbstractWriteBehind
 
   @Override
   protected void addOperation(SingleOperation<K, V> operation) {
+    Segment segment = journal(journal, operation);
+    queueSpace.acquireUninterruptibly();
     latest.put(operation.getKey(), operation);
 
     synchronized (this) {
       if (openBatch == null) {
         openBatch = newBatch();
       }
-      if (openBatch.add(operation)) {
+      if (openBatch.add(operation, segment)) {
         submit(openBatch);
         openBatch = null;
       }
@@ -137,10 +150,19 @@ public class BatchingLocalHeapWriteBehindQueue<K, V> extends AbstractWriteBehind
        */
       shutdownNow(scheduledExecutor);
       shutdown(executor);
+      if (journal != null) {
+        try {
+          journal.close();
+        } catch (IOException e) {
+          LOGGER.warn("Failed to close write-behind journal", e);
+        }
+      }
     }
   }
 
   private Batch newBatch() {
+    // a batch larger than the queue would never fill up
+    int batchSize = Math.min(writer.getBatchSize(), maxQueueSize);
     if (coalescing) {
       return new CoalescingBatch(batchSize);
     } else {
@@ -161,14 +183,15 @@ public class BatchingLocalHeapWriteBehindQueue<K, V> extends AbstractWriteBehind
    */
   @Override
   public long getQueueSize() {
-    Batch snapshot = openBatch;
-    return executorQueue.size() * batchSize + (snapshot == null ? 0 : snapshot.size());
+    return maxQueueSize - queueSpace.availablePermits();
   }
 
   abstract class Batch implements Runnable {
 
     private final int batchSize;
     private final ScheduledFuture<?> expireTask;
+    private final List<Segment> journalSegments = new ArrayList<Segment>();
+    private int added;
 
     Batch(int size) {
       this.batchSize = size;
@@ -185,25 +208,30 @@ public class BatchingLocalHeapWriteBehindQueue<K, V> extends AbstractWriteBehind
       }, maxWriteDelayMs, MILLISECONDS);
     }
 
-    public boolean add(SingleOperation<K, V> operation) {
+    public boolean add(SingleOperation<K, V> operation, Segment segment) {
+      if (segment != null) {
+        journalSegments.add(segment);
+      }
       internalAdd(operation);
+      added++;
       return size() >= batchSize;
     }
 
     @Override
     public void run() {
+      // the batch left the queue, coalesced operations held queue space too
+      queueSpace.release(added);
       try {
         List<BatchOperation<K, V>> batches = createMonomorphicBatches(operations());
         // execute the batch operations
-        for (BatchOperation<K, V> batch : batches) {
-          try {
-            batch.performOperation(cacheLoaderWriter);
-          } catch (Exception e) {
-            LOGGER.warn("Exception while bulk processing in write behind queue", e);
-          }
-        }
+        writer.write(batches, size());
       } finally {
         try {
+          // every operation is now written, dead lettered or dropped : keeping a dropped one journaled would let its
+          // replay overwrite the later operations on the same key
+          for (Segment segment : journalSegments) {
+            journal.complete(segment);
+          }
           for (SingleOperation<K, V> op : operations()) {
             latest.remove(op.getKey(), op);
           }
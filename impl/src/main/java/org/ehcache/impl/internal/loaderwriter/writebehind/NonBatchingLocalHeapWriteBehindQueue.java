@@ -17,6 +17,7 @@ package org.ehcache.impl.internal.loaderwriter.writebehind;
 
 import java.util.concurrent.BlockingQueue;
 import org.ehcache.impl.internal.concurrent.ConcurrentHashMap;
+import org.ehcache.impl.internal.loaderwriter.writebehind.WriteBehindJournal.Segment;
 import org.ehcache.impl.internal.loaderwriter.writebehind.operations.SingleOperation;
 import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
 import org.ehcache.spi.loaderwriter.WriteBehindConfiguration;
@@ -25,6 +26,7 @@ import org.ehcache.core.spi.service.ExecutionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -39,14 +41,21 @@ public class NonBatchingLocalHeapWriteBehindQueue<K, V> extends AbstractWriteBeh
 
   private static final Logger LOGGER = LoggerFactory.getLogger(NonBatchingLocalHeapWriteBehindQueue.class);
 
-  private final CacheLoaderWriter<K, V> cacheLoaderWriter;
   private final ConcurrentMap<K, SingleOperation<K, V>> latest = new ConcurrentHashMap<K, SingleOperation<K, V>>();
   private final BlockingQueue<Runnable> executorQueue;
   private final ExecutorService executor;
+  private final WriteBehindJournal<K, V> journal;
+  private final WriteBehindOperationWriter<K, V> writer;
 
   public NonBatchingLocalHeapWriteBehindQueue(ExecutionService executionService, String defaultThreadPool, WriteBehindConfiguration config, CacheLoaderWriter<K, V> cacheLoaderWriter) {
+    this(executionService, defaultThreadPool, config, cacheLoaderWriter, null, new WriteBehindOperationWriter<K, V>(cacheLoaderWriter, config));
+  }
+
+  public NonBatchingLocalHeapWriteBehindQueue(ExecutionService executionService, String defaultThreadPool, WriteBehindConfiguration config, CacheLoaderWriter<K, V> cacheLoaderWriter,
+                                              WriteBehindJournal<K, V> journal, WriteBehindOperationWriter<K, V> writer) {
     super(cacheLoaderWriter);
-    this.cacheLoaderWriter = cacheLoaderWriter;
+    this.journal = journal;
+    this.writer = writer;
     this.executorQueue = new LinkedBlockingQueue<Runnable>(config.getMaxQueueSize());
     if (config.getThreadPoolAlias() == null) {
       this.executor = executionService.getOrderedExecutor(defaultThreadPool, executorQueue);
@@ -62,6 +71,7 @@ public class NonBatchingLocalHeapWriteBehindQueue<K, V> extends AbstractWriteBeh
 
   @Override
   protected void addOperation(final SingleOperation<K, V> operation) {
+    final Segment segment = journal(journal, operation);
     latest.put(operation.getKey(), operation);
 
     submit(new Runnable() {
@@ -69,10 +79,12 @@ public class NonBatchingLocalHeapWriteBehindQueue<K, V> extends AbstractWriteBeh
       @Override
       public void run() {
         try {
-          operation.performOperation(cacheLoaderWriter);
-        } catch (Exception e) {
-          LOGGER.warn("Exception while processing key '{}' write behind queue : {}", operation.getKey(), e);
+          writer.write(operation);
         } finally {
+          // written, dead lettered or dropped, see the batching queue
+          if (segment != null) {
+            journal.complete(segment);
+          }
           latest.remove(operation.getKey(), operation);
         }
       }
@@ -86,7 +98,17 @@ public class NonBatchingLocalHeapWriteBehindQueue<K, V> extends AbstractWriteBeh
 
   @Override
   public void stop() {
-    shutdown(executor);
+    try {
+      shutdown(executor);
+    } finally {
+      if (journal != null) {
+        try {
+          journal.close();
+        } catch (IOException e) {
+          LOGGER.warn("Failed to close write-behind journal", e);
+        }
+      }
+    }
   }
 
   private void submit(Runnable operation) {
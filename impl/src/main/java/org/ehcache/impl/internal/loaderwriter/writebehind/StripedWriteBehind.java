@@ -15,17 +15,29 @@
  */
 package org.ehcache.impl.internal.loaderwriter.writebehind;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.ehcache.impl.internal.loaderwriter.writebehind.operations.SingleOperation;
+import org.ehcache.impl.internal.loaderwriter.writebehind.operations.WriteOperation;
+import org.ehcache.impl.serialization.PlainJavaSerializer;
 import org.ehcache.spi.loaderwriter.BulkCacheWritingException;
 
 import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
 import org.ehcache.spi.loaderwriter.WriteBehindConfiguration;
 import org.ehcache.core.spi.service.ExecutionService;
+import org.ehcache.spi.serialization.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terracotta.statistics.StatisticsManager;
 
 /**
  * @author Alex Snaps
@@ -33,21 +45,102 @@ import org.ehcache.core.spi.service.ExecutionService;
  */
 public class StripedWriteBehind<K, V> implements WriteBehind<K, V> {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(StripedWriteBehind.class);
+
   private final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
   private final ReentrantReadWriteLock.ReadLock readLock = rwLock.readLock();
   private final ReentrantReadWriteLock.WriteLock writeLock = rwLock.writeLock();
 
   private final List<WriteBehind<K, V>> stripes = new ArrayList<WriteBehind<K, V>>();
+  private final List<File> recoveredSegments;
+  private final Serializer<Object> journalSerializer;
+  private final WriteBehindOperationWriter<K, V> writer;
 
   public StripedWriteBehind(ExecutionService executionService, String defaultThreadPool, WriteBehindConfiguration config, CacheLoaderWriter<K, V> cacheLoaderWriter) {
+    this.writer = new WriteBehindOperationWriter<K, V>(cacheLoaderWriter, config);
+    int writeBehindConcurrency = config.getConcurrency();
+    for (int i = 0; i < writeBehindConcurrency; i++) {
+      if (config.getBatchingConfiguration() == null) {
+        this.stripes.add(new NonBatchingLocalHeapWriteBehindQueue<K, V>(executionService, defaultThreadPool, config, cacheLoaderWriter, null, writer));
+      } else {
+        this.stripes.add(new BatchingLocalHeapWriteBehindQueue<K, V>(executionService, defaultThreadPool, config, cacheLoaderWriter, null, writer));
+      }
+    }
+    this.recoveredSegments = Collections.emptyList();
+    this.journalSerializer = null;
+    registerStatistics();
+  }
+
+  /**
+   * Creates a write-behind whose queues are journaled in the given directory.
+   * <p>
+   * Operations found in the directory are replayed when the write-behind is {@link #start() started}, irrespective
+   * of the concurrency they were journaled with.
+   *
+   * @param journalDirectory directory holding the queue journals
+   * @param classLoader class loader used when replaying journaled keys and values
+   * @throws IOException if the journals cannot be opened
+   */
+  public StripedWriteBehind(ExecutionService executionService, String defaultThreadPool, WriteBehindConfiguration config,
+                            CacheLoaderWriter<K, V> cacheLoaderWriter, File journalDirectory, ClassLoader classLoader) throws IOException {
+    this.writer = new WriteBehindOperationWriter<K, V>(cacheLoaderWriter, config);
+    this.recoveredSegments = WriteBehindJournal.existingSegments(journalDirectory);
+    this.journalSerializer = new PlainJavaSerializer<Object>(classLoader);
+    long firstSegmentId = WriteBehindJournal.nextSegmentId(recoveredSegments);
     int writeBehindConcurrency = config.getConcurrency();
     for (int i = 0; i < writeBehindConcurrency; i++) {
+      WriteBehindJournal<K, V> journal = new WriteBehindJournal<K, V>(journalDirectory, i, firstSegmentId, WriteBehindJournal.DEFAULT_SEGMENT_SIZE, journalSerializer);
       if (config.getBatchingConfiguration() == null) {
-        this.stripes.add(new NonBatchingLocalHeapWriteBehindQueue<K, V>(executionService, defaultThreadPool, config, cacheLoaderWriter));
+        this.stripes.add(new NonBatchingLocalHeapWriteBehindQueue<K, V>(executionService, defaultThreadPool, config, cacheLoaderWriter, journal, writer));
       } else {
-        this.stripes.add(new BatchingLocalHeapWriteBehindQueue<K, V>(executionService, defaultThreadPool, config, cacheLoaderWriter));
+        this.stripes.add(new BatchingLocalHeapWriteBehindQueue<K, V>(executionService, defaultThreadPool, config, cacheLoaderWriter, journal, writer));
       }
     }
+    registerStatistics();
+  }
+
+  private void registerStatistics() {
+    Set<String> tags = Collections.singleton("WriteBehind");
+    StatisticsManager.createPassThroughStatistic(this, "queueSize", tags, new Callable<Number>() {
+      @Override
+      public Number call() throws Exception {
+        return getQueueSize();
+      }
+    });
+    StatisticsManager.createPassThroughStatistic(this, "retries", tags, new Callable<Number>() {
+      @Override
+      public Number call() throws Exception {
+        return writer.getRetries();
+      }
+    });
+    StatisticsManager.createPassThroughStatistic(this, "deadLetters", tags, new Callable<Number>() {
+      @Override
+      public Number call() throws Exception {
+        return writer.getDeadLetters();
+      }
+    });
+    StatisticsManager.createPassThroughStatistic(this, "batches", tags, new Callable<Number>() {
+      @Override
+      public Number call() throws Exception {
+        return writer.getBatches();
+      }
+    });
+    StatisticsManager.createPassThroughStatistic(this, "batchLatency", tags, new Callable<Number>() {
+      @Override
+      public Number call() throws Exception {
+        return writer.getAverageBatchLatency();
+      }
+    });
+    StatisticsManager.createPassThroughStatistic(this, "batchSize", tags, new Callable<Number>() {
+      @Override
+      public Number call() throws Exception {
+        return writer.getBatchSize();
+      }
+    });
+  }
+
+  WriteBehindOperationWriter<K, V> getWriter() {
+    return writer;
   }
 
   private WriteBehind<K, V> getStripe(final Object key) {
@@ -64,6 +157,40 @@ public class StripedWriteBehind<K, V> implements WriteBehind<K, V> {
     } finally {
       writeLock.unlock();
     }
+    replay();
+  }
+
+  private void replay() {
+    if (recoveredSegments.isEmpty()) {
+      return;
+    }
+    List<SingleOperation<K, V>> operations;
+    try {
+      operations = WriteBehindJournal.recover(recoveredSegments, journalSerializer);
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to recover write-behind journal", e);
+    } catch (ClassNotFoundException e) {
+      throw new IllegalStateException("Failed to recover write-behind journal", e);
+    }
+    LOGGER.info("Replaying {} journaled write-behind operations", operations.size());
+    for (SingleOperation<K, V> operation : operations) {
+      try {
+        if (operation instanceof WriteOperation) {
+          write(operation.getKey(), ((WriteOperation<K, V>) operation).getValue());
+        } else {
+          delete(operation.getKey());
+        }
+      } catch (Exception e) {
+        throw new IllegalStateException("Failed to replay write-behind journal", e);
+      }
+    }
+    // replayed operations are now held by the new journals
+    for (File segment : recoveredSegments) {
+      if (!segment.delete()) {
+        LOGGER.warn("Could not delete replayed write-behind journal segment {}", segment);
+      }
+    }
+    recoveredSegments.clear();
   }
 
   @Override
@@ -130,6 +257,7 @@ public class StripedWriteBehind<K, V> implements WriteBehind<K, V> {
       }
     } finally {
       writeLock.unlock();
+      StatisticsManager.removePassThroughStatistics(this);
     }
   }
 
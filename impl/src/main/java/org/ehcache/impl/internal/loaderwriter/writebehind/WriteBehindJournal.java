@@ -0,0 +1,431 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.loaderwriter.writebehind;
+
+import org.ehcache.impl.internal.loaderwriter.writebehind.operations.DeleteOperation;
+import org.ehcache.impl.internal.loaderwriter.writebehind.operations.SingleOperation;
+import org.ehcache.impl.internal.loaderwriter.writebehind.operations.WriteOperation;
+import org.ehcache.spi.serialization.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Append only journal of the operations accepted by a single write-behind queue.
+ * <p>
+ * Operations are appended to the active segment file and forced to disk before {@link #append(SingleOperation)}
+ * returns. Concurrent appenders share a single {@code fsync} (group commit): the first thread to reach the sync lock
+ * forces everything appended so far, and threads whose records were covered by that force return without syncing
+ * again.
+ * <p>
+ * Once every operation recorded in a segment has reached a final outcome (written to the {@code CacheLoaderWriter},
+ * dead lettered, or dropped once its retries are exhausted) the segment is deleted, or truncated if it is the active
+ * one. Any records still present when the journal is next opened are replayed through
+ * {@link #recover(List, Serializer)}, so replay never resurrects an operation superseded by a later completed one.
+ * <p>
+ * A segment channel closed by an interrupt is reopened on its next use, the records written so far are still in the
+ * file.
+ * <p>
+ * Each record is laid out as {@code [payload length][crc32][type][key length][key][value]}, a torn or corrupt record
+ * at the tail of a segment marks the end of the usable data in that segment.
+ */
+public class WriteBehindJournal<K, V> implements Closeable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(WriteBehindJournal.class);
+
+  static final long DEFAULT_SEGMENT_SIZE = 4L * 1024 * 1024;
+
+  private static final Pattern SEGMENT_NAME = Pattern.compile("journal-(\\d+)-(\\d+)\\.log");
+  private static final int RECORD_HEADER_SIZE = 12;
+  private static final byte WRITE = 1;
+  private static final byte DELETE = 2;
+
+  private final File directory;
+  private final int stripe;
+  private final long segmentSize;
+  private final Serializer<Object> serializer;
+
+  private final List<Segment> segments = new LinkedList<Segment>();
+  private final Object syncLock = new Object();
+
+  private Segment active;
+  private long nextSegmentId;
+  private long appended;
+  private long synced;
+
+  /**
+   * Opens a new journal for the given write-behind stripe.
+   *
+   * @param directory the journal directory
+   * @param stripe the stripe index this journal belongs to
+   * @param firstSegmentId the first segment id to use, must not clash with any existing segment
+   * @param segmentSize the size at which the active segment is rolled over
+   * @param serializer the serializer used for keys and values
+   * @throws IOException if the first segment cannot be created
+   */
+  public WriteBehindJournal(File directory, int stripe, long firstSegmentId, long segmentSize, Serializer<Object> serializer) throws IOException {
+    this.directory = directory;
+    this.stripe = stripe;
+    this.segmentSize = segmentSize;
+    this.serializer = serializer;
+    this.nextSegmentId = firstSegmentId;
+    this.active = openSegment();
+  }
+
+  /**
+   * Durably records the given operation.
+   *
+   * @param operation the operation to record
+   * @return the segment holding the record, to be passed to {@link #complete(Segment)} once the operation is processed
+   * @throws IOException if the record cannot be written or forced to disk
+   */
+  public Segment append(SingleOperation<K, V> operation) throws IOException {
+    ByteBuffer record = encode(operation);
+    Segment segment;
+    long sequence;
+    synchronized (this) {
+      if (active.length >= segmentSize) {
+        roll();
+      }
+      segment = active;
+      segment.pending.incrementAndGet();
+      try {
+        segment.write(record);
+      } catch (IOException e) {
+        segment.pending.decrementAndGet();
+        throw e;
+      }
+      sequence = ++appended;
+    }
+    sync(sequence);
+    return segment;
+  }
+
+  /**
+   * Marks one operation recorded in the given segment as processed, whether written, dead lettered or dropped.
+   *
+   * @param segment the segment returned from {@link #append(SingleOperation)}
+   */
+  public void complete(Segment segment) {
+    if (segment.pending.decrementAndGet() == 0) {
+      synchronized (this) {
+        if (segment.pending.get() == 0) {
+          try {
+            if (segment == active) {
+              segment.truncate();
+            } else {
+              segment.delete();
+              segments.remove(segment);
+            }
+          } catch (IOException e) {
+            LOGGER.warn("Failed to reclaim write-behind journal segment {}", segment.file, e);
+          }
+        }
+      }
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    for (Segment segment : segments) {
+      if (segment.length == 0) {
+        segment.delete();
+      } else {
+        segment.close();
+      }
+    }
+  }
+
+  private void sync(long sequence) throws IOException {
+    synchronized (syncLock) {
+      if (synced >= sequence) {
+        return;
+      }
+      Segment segment;
+      long target;
+      synchronized (this) {
+        segment = active;
+        target = appended;
+      }
+      try {
+        segment.force();
+      } catch (ClosedChannelException e) {
+        synchronized (this) {
+          if (segment == active) {
+            // closed by an interrupt, nothing is known to be durable
+            throw e;
+          }
+        }
+        //segment was rolled and reclaimed, rolling forces it first
+      }
+      synced = target;
+    }
+  }
+
+  private void roll() throws IOException {
+    Segment old = active;
+    old.force();
+    active = openSegment();
+    if (old.pending.get() == 0) {
+      old.delete();
+      segments.remove(old);
+    }
+  }
+
+  private Segment openSegment() throws IOException {
+    Segment segment = new Segment(new File(directory, segmentName(stripe, nextSegmentId++)));
+    segments.add(segment);
+    return segment;
+  }
+
+  private ByteBuffer encode(SingleOperation<K, V> operation) {
+    ByteBuffer key = serializer.serialize(operation.getKey());
+    ByteBuffer value;
+    byte type;
+    if (operation instanceof WriteOperation) {
+      type = WRITE;
+      value = serializer.serialize(((WriteOperation<K, V>) operation).getValue());
+    } else if (operation instanceof DeleteOperation) {
+      type = DELETE;
+      value = ByteBuffer.allocate(0);
+    } else {
+      throw new AssertionError("Unexpected operation type " + operation.getClass());
+    }
+    int payloadSize = 1 + 4 + key.remaining() + value.remaining();
+    ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payloadSize);
+    record.putInt(payloadSize).putLong(0L).put(type).putInt(key.remaining()).put(key).put(value);
+    CRC32 crc = new CRC32();
+    crc.update(record.array(), RECORD_HEADER_SIZE, payloadSize);
+    record.putLong(4, crc.getValue());
+    record.flip();
+    return record;
+  }
+
+  /**
+   * Lists the journal segments present in the given directory, ordered by stripe and then by segment id.
+   *
+   * @param directory the journal directory
+   * @return the existing segments
+   */
+  static List<File> existingSegments(File directory) {
+    File[] files = directory.listFiles(new FileFilter() {
+      @Override
+      public boolean accept(File file) {
+        return SEGMENT_NAME.matcher(file.getName()).matches();
+      }
+    });
+    if (files == null) {
+      return new ArrayList<File>();
+    }
+    Arrays.sort(files, new Comparator<File>() {
+      @Override
+      public int compare(File a, File b) {
+        long[] ida = segmentId(a);
+        long[] idb = segmentId(b);
+        if (ida[0] != idb[0]) {
+          return ida[0] < idb[0] ? -1 : 1;
+        } else if (ida[1] != idb[1]) {
+          return ida[1] < idb[1] ? -1 : 1;
+        } else {
+          return 0;
+        }
+      }
+    });
+    return new ArrayList<File>(Arrays.asList(files));
+  }
+
+  /**
+   * Returns a segment id greater than that of any of the given segments.
+   *
+   * @param segments existing segment files
+   * @return the next free segment id
+   */
+  static long nextSegmentId(List<File> segments) {
+    long next = 0;
+    for (File segment : segments) {
+      next = Math.max(next, segmentId(segment)[1] + 1);
+    }
+    return next;
+  }
+
+  /**
+   * Reads back all operations recorded in the given segment files.
+   *
+   * @param segments the segments to read, in replay order
+   * @param serializer the serializer used for keys and values
+   * @param <K> the key type
+   * @param <V> the value type
+   * @return the recorded operations in replay order
+   * @throws IOException if a segment cannot be read
+   * @throws ClassNotFoundException if a key or value class cannot be loaded
+   */
+  @SuppressWarnings("unchecked")
+  static <K, V> List<SingleOperation<K, V>> recover(List<File> segments, Serializer<Object> serializer) throws IOException, ClassNotFoundException {
+    List<SingleOperation<K, V>> operations = new ArrayList<SingleOperation<K, V>>();
+    for (File file : segments) {
+      RandomAccessFile raf = new RandomAccessFile(file, "r");
+      try {
+        FileChannel channel = raf.getChannel();
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        long position = 0;
+        while (readFully(channel, header, position)) {
+          header.flip();
+          int payloadSize = header.getInt();
+          long checksum = header.getLong();
+          header.clear();
+          if (payloadSize < 5 || position + RECORD_HEADER_SIZE + payloadSize > channel.size()) {
+            LOGGER.warn("Ignoring truncated write-behind journal record at {} in {}", position, file);
+            break;
+          }
+          ByteBuffer payload = ByteBuffer.allocate(payloadSize);
+          readFully(channel, payload, position + RECORD_HEADER_SIZE);
+          CRC32 crc = new CRC32();
+          crc.update(payload.array(), 0, payloadSize);
+          if (crc.getValue() != checksum) {
+            LOGGER.warn("Ignoring corrupt write-behind journal record at {} in {}", position, file);
+            break;
+          }
+          payload.flip();
+          byte type = payload.get();
+          int keySize = payload.getInt();
+          ByteBuffer keyBuffer = payload.slice();
+          keyBuffer.limit(keySize);
+          payload.position(payload.position() + keySize);
+          K key = (K) serializer.read(keyBuffer);
+          if (type == WRITE) {
+            operations.add(new WriteOperation<K, V>(key, (V) serializer.read(payload.slice())));
+          } else if (type == DELETE) {
+            operations.add(new DeleteOperation<K, V>(key));
+          } else {
+            LOGGER.warn("Ignoring unknown write-behind journal record type {} in {}", type, file);
+            break;
+          }
+          position += RECORD_HEADER_SIZE + payloadSize;
+        }
+      } finally {
+        raf.close();
+      }
+    }
+    return operations;
+  }
+
+  private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      int read = channel.read(buffer, position);
+      if (read < 0) {
+        return false;
+      }
+      position += read;
+    }
+    return true;
+  }
+
+  private static String segmentName(int stripe, long id) {
+    return "journal-" + stripe + "-" + id + ".log";
+  }
+
+  private static long[] segmentId(File file) {
+    Matcher matcher = SEGMENT_NAME.matcher(file.getName());
+    if (matcher.matches()) {
+      return new long[] {Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2))};
+    } else {
+      throw new IllegalArgumentException("Not a journal segment: " + file);
+    }
+  }
+
+  /**
+   * A single file of the journal.
+   */
+  public static final class Segment {
+
+    private final File file;
+    private final AtomicInteger pending = new AtomicInteger();
+    private RandomAccessFile raf;
+    private FileChannel channel;
+    private boolean closed;
+    private long length;
+
+    private Segment(File file) throws IOException {
+      this.file = file;
+      this.raf = new RandomAccessFile(file, "rw");
+      this.channel = raf.getChannel();
+      this.channel.truncate(0);
+    }
+
+    private synchronized FileChannel channel() throws IOException {
+      if (!channel.isOpen()) {
+        if (closed) {
+          throw new ClosedChannelException();
+        }
+        raf = new RandomAccessFile(file, "rw");
+        channel = raf.getChannel();
+      }
+      return channel;
+    }
+
+    private void write(ByteBuffer record) throws IOException {
+      long start = length;
+      try {
+        while (record.hasRemaining()) {
+          length += channel().write(record, length);
+        }
+      } catch (IOException e) {
+        // the next record overwrites whatever was torn
+        length = start;
+        throw e;
+      }
+    }
+
+    private void force() throws IOException {
+      channel().force(false);
+    }
+
+    private void truncate() throws IOException {
+      channel().truncate(0);
+      length = 0;
+    }
+
+    private synchronized void close() throws IOException {
+      closed = true;
+      raf.close();
+    }
+
+    private void delete() throws IOException {
+      close();
+      if (!file.delete()) {
+        throw new IOException("Could not delete " + file);
+      }
+    }
+  }
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.loaderwriter.writebehind;
+
+import org.ehcache.impl.config.loaderwriter.writebehind.DefaultBatchingConfiguration;
+import org.ehcache.impl.config.loaderwriter.writebehind.DefaultRetryConfiguration;
+import org.ehcache.impl.config.loaderwriter.writebehind.DefaultWriteBehindConfiguration;
+import org.ehcache.impl.internal.loaderwriter.writebehind.operations.BatchOperation;
+import org.ehcache.impl.internal.loaderwriter.writebehind.operations.SingleOperation;
+import org.ehcache.impl.internal.loaderwriter.writebehind.operations.WriteOperation;
+import org.ehcache.spi.loaderwriter.BulkCacheWritingException;
+import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
+import org.ehcache.spi.loaderwriter.WriteBehindConfiguration;
+import org.ehcache.spi.loaderwriter.WriteBehindConfiguration.BatchingConfiguration;
+import org.ehcache.spi.loaderwriter.WriteBehindDeadLetterHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Performs write-behind operations against the {@link CacheLoaderWriter}, applying the configured retry and dead
+ * letter policies and recording the write-behind statistics.
+ * <p>
+ * A single instance is shared by all the queues of a {@link StripedWriteBehind}.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class WriteBehindOperationWriter<K, V> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(WriteBehindOperationWriter.class);
+
+  private final CacheLoaderWriter<K, V> cacheLoaderWriter;
+  private final int maxRetries;
+  private final long initialRetryDelayNanos;
+  private final long maxRetryDelayNanos;
+  private final WriteBehindDeadLetterHandler<K, V> deadLetterHandler;
+  private final AdaptiveBatchSize batchSize;
+
+  private final AtomicLong retries = new AtomicLong();
+  private final AtomicLong deadLetters = new AtomicLong();
+  private final AtomicLong batches = new AtomicLong();
+  private final AtomicLong batchLatencyNanos = new AtomicLong();
+
+  @SuppressWarnings("unchecked")
+  public WriteBehindOperationWriter(CacheLoaderWriter<K, V> cacheLoaderWriter, WriteBehindConfiguration config) {
+    this.cacheLoaderWriter = cacheLoaderWriter;
+    DefaultRetryConfiguration retryConfig = null;
+    WriteBehindDeadLetterHandler<?, ?> handler = null;
+    if (config instanceof DefaultWriteBehindConfiguration) {
+      retryConfig = ((DefaultWriteBehindConfiguration) config).getRetryConfiguration();
+      handler = ((DefaultWriteBehindConfiguration) config).getDeadLetterHandler();
+    }
+    if (retryConfig == null) {
+      this.maxRetries = 0;
+      this.initialRetryDelayNanos = 0;
+      this.maxRetryDelayNanos = 0;
+    } else {
+      this.maxRetries = retryConfig.getMaxRetries();
+      this.initialRetryDelayNanos = retryConfig.getDelayUnit().toNanos(retryConfig.getInitialDelay());
+      this.maxRetryDelayNanos = retryConfig.getDelayUnit().toNanos(retryConfig.getMaxDelay());
+    }
+    this.deadLetterHandler = (WriteBehindDeadLetterHandler<K, V>) handler;
+
+    BatchingConfiguration batchingConfig = config.getBatchingConfiguration();
+    if (batchingConfig == null) {
+      this.batchSize = new AdaptiveBatchSize(1, 1);
+    } else if (batchingConfig instanceof DefaultBatchingConfiguration) {
+      this.batchSize = new AdaptiveBatchSize(batchingConfig.getBatchSize(), ((DefaultBatchingConfiguration) batchingConfig).getMaxBatchSize());
+    } else {
+      this.batchSize = new AdaptiveBatchSize(batchingConfig.getBatchSize(), batchingConfig.getBatchSize());
+    }
+  }
+
+  /**
+   * Writes a single operation.
+   *
+   * @param operation the operation to write
+   * @return {@code true} if the operation was written or handed to the dead letter handler
+   */
+  public boolean write(SingleOperation<K, V> operation) {
+    Exception failure = attempt(operation);
+    if (failure == null) {
+      return true;
+    } else {
+      LOGGER.warn("Exception while processing key '{}' write behind queue : {}", operation.getKey(), failure);
+      deadLetters.incrementAndGet();
+      if (deadLetterHandler == null) {
+        return false;
+      }
+      try {
+        V value = operation instanceof WriteOperation ? ((WriteOperation<K, V>) operation).getValue() : null;
+        deadLetterHandler.deadLetter(operation.getKey(), value, failure);
+        return true;
+      } catch (Exception e) {
+        LOGGER.warn("Exception while dead lettering key '{}'", operation.getKey(), e);
+        return false;
+      }
+    }
+  }
+
+  /**
+   * Writes a batch made of the given batch operations, and feeds its latency to the adaptive batch sizing.
+   *
+   * @param operations the batch operations to write, in order
+   * @param size the number of single operations in the batch
+   * @return {@code true} if every operation was written or handed to the dead letter handler
+   */
+  public boolean write(List<BatchOperation<K, V>> operations, int size) {
+    long start = System.nanoTime();
+    boolean written = true;
+    for (BatchOperation<K, V> operation : operations) {
+      written &= write(operation);
+    }
+    long latency = System.nanoTime() - start;
+    batches.incrementAndGet();
+    batchLatencyNanos.addAndGet(latency);
+    batchSize.record(size, latency);
+    return written;
+  }
+
+  private boolean write(BatchOperation<K, V> operation) {
+    Exception failure = attempt(operation);
+    if (failure == null) {
+      return true;
+    } else if (operation.size() > 1) {
+      // isolate the failing writes so that they do not take the rest of the batch down with them
+      boolean written = true;
+      if (failure instanceof BulkCacheWritingException) {
+        BatchOperation<K, V> failed = operation.retain(((BulkCacheWritingException) failure).getFailures().keySet());
+        if (failed.size() < operation.size()) {
+          return write(failed);
+        }
+      }
+      for (BatchOperation<K, V> half : operation.split()) {
+        written &= write(half);
+      }
+      return written;
+    } else {
+      LOGGER.warn("Exception while bulk processing in write behind queue", failure);
+      deadLetters.addAndGet(operation.size());
+      if (deadLetterHandler == null) {
+        return false;
+      }
+      try {
+        operation.deadLetter(deadLetterHandler, failure);
+        return true;
+      } catch (Exception e) {
+        LOGGER.warn("Exception while dead lettering write behind operation", e);
+        return false;
+      }
+    }
+  }
+
+  private Exception attempt(SingleOperation<K, V> operation) {
+    Exception failure = null;
+    for (int attempt = 0; attempt <= maxRetries; attempt++) {
+      if (attempt > 0 && !backoff(attempt)) {
+        break;
+      }
+      try {
+        operation.performOperation(cacheLoaderWriter);
+        return null;
+      } catch (Exception e) {
+        failure = e;
+      }
+    }
+    return failure;
+  }
+
+  private Exception attempt(BatchOperation<K, V> operation) {
+    Exception failure = null;
+    for (int attempt = 0; attempt <= maxRetries; attempt++) {
+      if (attempt > 0 && !backoff(attempt)) {
+        break;
+      }
+      try {
+        operation.performOperation(cacheLoaderWriter);
+        return null;
+      } catch (Exception e) {
+        failure = e;
+      }
+    }
+    return failure;
+  }
+
+  private boolean backoff(int attempt) {
+    retries.incrementAndGet();
+    long delay = initialRetryDelayNanos;
+    for (int i = 1; i < attempt && delay < maxRetryDelayNanos; i++) {
+      delay <<= 1;
+    }
+    delay = Math.min(delay, maxRetryDelayNanos);
+    if (delay > 0) {
+      try {
+        TimeUnit.NANOSECONDS.sleep(delay);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the size to use for the next batch.
+   *
+   * @return the current batch size
+   */
+  public int getBatchSize() {
+    return batchSize.current();
+  }
+
+  /**
+   * Returns the number of retried attempts so far.
+   *
+   * @return the retry count
+   */
+  public long getRetries() {
+    return retries.get();
+  }
+
+  /**
+   * Returns the number of operations that still failed once retries were exhausted, whether handed to the dead letter
+   * handler or dropped.
+   *
+   * @return the dead letter count
+   */
+  public long getDeadLetters() {
+    return deadLetters.get();
+  }
+
+  /**
+   * Returns the number of batches written so far.
+   *
+   * @return the batch count
+   */
+  public long getBatches() {
+    return batches.get();
+  }
+
+  /**
+   * Returns the average latency of writing a batch, in nanoseconds.
+   *
+   * @return the average batch latency
+   */
+  public long getAverageBatchLatency() {
+    long count = batches.get();
+    return count == 0 ? 0 : batchLatencyNanos.get() / count;
+  }
+
+  /**
+   * Hill climbing batch size controller.
+   * <p>
+   * Batch throughput (operations per nanosecond) is averaged over a window of batches. The batch size keeps moving
+   * in the same direction for as long as throughput improves, and the direction is reversed when it degrades.
+   */
+  static class AdaptiveBatchSize {
+
+    static final int WINDOW = 8;
+
+    private final boolean adaptive;
+    private final int max;
+    private volatile int current;
+
+    private int direction = 1;
+    private double lastThroughput = 0;
+    private long windowOperations;
+    private long windowNanos;
+    private int windowBatches;
+
+    AdaptiveBatchSize(int initial, int max) {
+      this.adaptive = max > initial;
+      this.max = max;
+      this.current = initial;
+    }
+
+    int current() {
+      return current;
+    }
+
+    synchronized void record(int operations, long nanos) {
+      if (!adaptive) {
+        return;
+      }
+      windowOperations += operations;
+      windowNanos += Math.max(1, nanos);
+      if (++windowBatches < WINDOW) {
+        return;
+      }
+      double throughput = (double) windowOperations / windowNanos;
+      if (throughput < lastThroughput) {
+        direction = -direction;
+      }
+      lastThroughput = throughput;
+      int step = Math.max(1, current / 4);
+      current = Math.max(1, Math.min(max, current + direction * step));
+      windowOperations = 0;
+      windowNanos = 0;
+      windowBatches = 0;
+    }
+  }
+}
@@ -15,6 +15,10 @@
  */
 package org.ehcache.impl.internal.loaderwriter.writebehind;
 
+import org.ehcache.CachePersistenceException;
+import org.ehcache.core.spi.service.LocalPersistenceService;
+import org.ehcache.core.spi.service.LocalPersistenceService.SafeSpaceIdentifier;
+import org.ehcache.impl.config.loaderwriter.writebehind.DefaultWriteBehindConfiguration;
 import org.ehcache.impl.config.loaderwriter.writebehind.WriteBehindProviderConfiguration;
 import org.ehcache.spi.service.ServiceProvider;
 import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
@@ -26,6 +30,8 @@ import org.ehcache.spi.service.ServiceCreationConfiguration;
 import org.ehcache.spi.service.ServiceDependencies;
 import org.ehcache.core.spi.service.ServiceFactory;
 
+import java.io.IOException;
+
 /**
  * @author Abhilash
  *
@@ -46,8 +52,11 @@ public class WriteBehindProviderFactory implements ServiceFactory<WriteBehindPro
   @ServiceDependencies(ExecutionService.class)
   public static class Provider implements WriteBehindProvider {
 
+    private static final String PERSISTENT_QUEUE_OWNER = "write-behind";
+
     private final String threadPoolAlias;
     private volatile ExecutionService executionService;
+    private volatile LocalPersistenceService persistenceService;
 
     protected Provider() {
       this(null);
@@ -66,6 +75,8 @@ public class WriteBehindProviderFactory implements ServiceFactory<WriteBehindPro
     @Override
     public void start(ServiceProvider<Service> serviceProvider) {
       executionService = serviceProvider.getService(ExecutionService.class);
+      // not a declared dependency: persistence is only needed, and so only required, by persistent queues
+      persistenceService = serviceProvider.getService(LocalPersistenceService.class);
     }
 
     @Override
@@ -73,7 +84,28 @@ public class WriteBehindProviderFactory implements ServiceFactory<WriteBehindPro
       if (cacheLoaderWriter == null) {
         throw new NullPointerException("WriteBehind requires a non null CacheLoaderWriter.");
       }
-      return new StripedWriteBehind<K, V>(executionService, threadPoolAlias, configuration, cacheLoaderWriter);
+      String persistentQueueName = null;
+      if (configuration instanceof DefaultWriteBehindConfiguration) {
+        persistentQueueName = ((DefaultWriteBehindConfiguration) configuration).getPersistentQueueName();
+      }
+      if (persistentQueueName == null) {
+        return new StripedWriteBehind<K, V>(executionService, threadPoolAlias, configuration, cacheLoaderWriter);
+      }
+      if (persistenceService == null) {
+        throw new IllegalStateException("Persistent write-behind queue '" + persistentQueueName + "' requires a persistence directory to be configured");
+      }
+      SafeSpaceIdentifier space = persistenceService.createSafeSpaceIdentifier(PERSISTENT_QUEUE_OWNER, persistentQueueName);
+      try {
+        persistenceService.createSafeSpace(space);
+        StripedWriteBehind<K, V> writeBehind = new StripedWriteBehind<K, V>(executionService, threadPoolAlias, configuration,
+            cacheLoaderWriter, space.getRoot(), cacheLoaderWriter.getClass().getClassLoader());
+        writeBehind.start();
+        return writeBehind;
+      } catch (CachePersistenceException e) {
+        throw new IllegalStateException("Could not create persistent write-behind queue '" + persistentQueueName + "'", e);
+      } catch (IOException e) {
+        throw new IllegalStateException("Could not create persistent write-behind queue '" + persistentQueueName + "'", e);
+      }
     }
 
     @Override
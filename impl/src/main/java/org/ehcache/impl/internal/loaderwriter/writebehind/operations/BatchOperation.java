@@ -17,6 +17,10 @@ package org.ehcache.impl.internal.loaderwriter.writebehind.operations;
 
 import org.ehcache.spi.loaderwriter.BulkCacheWritingException;
 import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
+import org.ehcache.spi.loaderwriter.WriteBehindDeadLetterHandler;
+
+import java.util.List;
+import java.util.Set;
 
 /**
  *  Interface to implement batch operations that are executed on a cache writer
@@ -33,4 +37,35 @@ public interface BatchOperation<K, V> {
    */
   void performOperation(CacheLoaderWriter<K, V> cacheLoaderWriter) throws BulkCacheWritingException, Exception;
 
+  /**
+   * Returns the number of keys covered by this batch operation.
+   *
+   * @return the batch size
+   */
+  int size();
+
+  /**
+   * Splits this batch operation in two halves, preserving order.
+   *
+   * @return the two halves
+   */
+  List<BatchOperation<K, V>> split();
+
+  /**
+   * Returns a batch operation restricted to the given keys, preserving order.
+   *
+   * @param keys the keys to retain
+   * @return the restricted batch operation
+   */
+  BatchOperation<K, V> retain(Set<?> keys);
+
+  /**
+   * Hands every key covered by this batch operation to the given dead letter handler.
+   *
+   * @param handler the dead letter handler
+   * @param failure the failure that caused this operation to be dead lettered
+   * @throws Exception if the handler fails
+   */
+  void deadLetter(WriteBehindDeadLetterHandler<K, V> handler, Exception failure) throws Exception;
+
 }
@@ -17,6 +17,11 @@ package org.ehcache.impl.internal.loaderwriter.writebehind.operations;
 
 import org.ehcache.spi.loaderwriter.BulkCacheWritingException;
 import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
+import org.ehcache.spi.loaderwriter.WriteBehindDeadLetterHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Implements the delete all operation for write behind
@@ -27,7 +32,7 @@ import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
  */
 public class DeleteAllOperation<K, V> implements BatchOperation<K, V> {
 
-  private final Iterable<? extends K> entries;
+  private final List<K> entries;
 
   /**
    * Create a new delete all operation for the provided list of cache entries
@@ -35,7 +40,10 @@ public class DeleteAllOperation<K, V> implements BatchOperation<K, V> {
    * @param entries the list of entries that are part of this operation
    */
   public DeleteAllOperation(Iterable<? extends K> entries) {
-    this.entries = entries;
+    this.entries = new ArrayList<K>();
+    for (K key : entries) {
+      this.entries.add(key);
+    }
   }
 
   /**
@@ -45,4 +53,36 @@ public class DeleteAllOperation<K, V> implements BatchOperation<K, V> {
     cacheLoaderWriter.deleteAll(entries);
   }
 
+  @Override
+  public int size() {
+    return entries.size();
+  }
+
+  @Override
+  public List<BatchOperation<K, V>> split() {
+    int half = entries.size() / 2;
+    List<BatchOperation<K, V>> halves = new ArrayList<BatchOperation<K, V>>(2);
+    halves.add(new DeleteAllOperation<K, V>(entries.subList(0, half)));
+    halves.add(new DeleteAllOperation<K, V>(entries.subList(half, entries.size())));
+    return halves;
+  }
+
+  @Override
+  public BatchOperation<K, V> retain(Set<?> keys) {
+    List<K> retained = new ArrayList<K>();
+    for (K key : entries) {
+      if (keys.contains(key)) {
+        retained.add(key);
+      }
+    }
+    return new DeleteAllOperation<K, V>(retained);
+  }
+
+  @Override
+  public void deadLetter(WriteBehindDeadLetterHandler<K, V> handler, Exception failure) throws Exception {
+    for (K key : entries) {
+      handler.deadLetter(key, null, failure);
+    }
+  }
+
 }
@@ -15,10 +15,14 @@
  */
 package org.ehcache.impl.internal.loaderwriter.writebehind.operations;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.ehcache.spi.loaderwriter.BulkCacheWritingException;
 import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
+import org.ehcache.spi.loaderwriter.WriteBehindDeadLetterHandler;
 
 /**
  * Implements the write all operation for write behind
@@ -29,18 +33,53 @@ import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
  */
 public class WriteAllOperation<K, V> implements BatchOperation<K, V> {
 
-  private final Iterable<? extends Map.Entry<? extends K, ? extends V>> entries;
+  private final List<Map.Entry<? extends K, ? extends V>> entries;
 
   /**
    * Create a new write all operation for the provided list of element
    *
    */
   public WriteAllOperation(Iterable<? extends Map.Entry<? extends K, ? extends V>> entries) {
-    this.entries = entries;
+    this.entries = new ArrayList<Map.Entry<? extends K, ? extends V>>();
+    for (Map.Entry<? extends K, ? extends V> entry : entries) {
+      this.entries.add(entry);
+    }
   }
 
   public void performOperation(CacheLoaderWriter<K, V> cacheLoaderWriter) throws BulkCacheWritingException, Exception {
     cacheLoaderWriter.writeAll(entries);
   }
 
+  @Override
+  public int size() {
+    return entries.size();
+  }
+
+  @Override
+  public List<BatchOperation<K, V>> split() {
+    int half = entries.size() / 2;
+    List<BatchOperation<K, V>> halves = new ArrayList<BatchOperation<K, V>>(2);
+    halves.add(new WriteAllOperation<K, V>(entries.subList(0, half)));
+    halves.add(new WriteAllOperation<K, V>(entries.subList(half, entries.size())));
+    return halves;
+  }
+
+  @Override
+  public BatchOperation<K, V> retain(Set<?> keys) {
+    List<Map.Entry<? extends K, ? extends V>> retained = new ArrayList<Map.Entry<? extends K, ? extends V>>();
+    for (Map.Entry<? extends K, ? extends V> entry : entries) {
+      if (keys.contains(entry.getKey())) {
+        retained.add(entry);
+      }
+    }
+    return new WriteAllOperation<K, V>(retained);
+  }
+
+  @Override
+  public void deadLetter(WriteBehindDeadLetterHandler<K, V> handler, Exception failure) throws Exception {
+    for (Map.Entry<? extends K, ? extends V> entry : entries) {
+      handler.deadLetter(entry.getKey(), entry.getValue(), failure);
+    }
+  }
+
 }
@@ -22,6 +22,7 @@ import org.ehcache.impl.config.copy.DefaultCopierConfiguration.Type;
 import org.ehcache.impl.config.copy.DefaultCopyProviderConfiguration;
 import org.ehcache.impl.internal.classes.ClassInstanceConfiguration;
 import org.ehcache.impl.internal.classes.ClassInstanceProvider;
+import org.ehcache.impl.internal.copy.ImmutableTypes;
 import org.ehcache.impl.copy.IdentityCopier;
 import org.ehcache.impl.copy.SerializingCopier;
 import org.ehcache.spi.copy.Copier;
@@ -63,17 +64,20 @@ public class DefaultCopyProvider extends ClassInstanceProvider<Class<?>, Copier<
     }
   }
 
+  @SuppressWarnings("unchecked")
   private <T> Copier<T> createCopier(Type type, Class<T> clazz,
                                      Serializer<T> serializer, ServiceConfiguration<?>... configs) {
     DefaultCopierConfiguration<T> conf = find(type, configs);
     Copier<T> copier;
     final ClassInstanceConfiguration<Copier<?>> preConfigured = preconfigured.get(clazz);
-    if (conf != null && conf.getClazz().isAssignableFrom(SerializingCopier.class)) {
+    if (conf != null && conf.isSkippingImmutables() && ImmutableTypes.isImmutableType(clazz)) {
+      copier = createCopier(clazz, new DefaultCopierConfiguration<T>((Class) IdentityCopier.class, type), type);
+    } else if (conf != null && conf.getClazz().isAssignableFrom(SerializingCopier.class)) {
       if (serializer == null) {
         throw new IllegalStateException("No Serializer configured for type '" + clazz.getName()
                                         + "' which doesn't implement java.io.Serializable");
       }
-      copier = new SerializingCopier<T>(serializer);
+      copier = new SerializingCopier<T>(serializer, conf.isSkippingImmutables());
     } else if (conf == null &&  preConfigured != null && preConfigured.getClazz().isAssignableFrom(SerializingCopier.class)) {
       if (serializer == null) {
         throw new IllegalStateException("No Serializer configured for type '" + clazz.getName()
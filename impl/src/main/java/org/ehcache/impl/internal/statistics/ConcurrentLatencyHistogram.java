@@ -0,0 +1,180 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.statistics;
+
+import org.ehcache.core.statistics.LatencyHistogram;
+import org.ehcache.core.statistics.StatisticsLevel;
+import org.ehcache.core.statistics.TypedValueStatistic;
+import org.terracotta.statistics.OperationStatistic;
+import org.terracotta.statistics.derived.LatencySampling;
+import org.terracotta.statistics.extended.StatisticType;
+import org.terracotta.statistics.observer.ChainedEventObserver;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear latency histogram, in the spirit of HdrHistogram.
+ * <p>
+ * Latencies are counted in buckets whose width doubles with each power of two, each power of two being split in
+ * {@value #SUB_BUCKET_COUNT} buckets. Reported values are thus at most about 6% above the actual latencies. Recording is a
+ * single atomic increment, latencies above {@code 2^40} nanoseconds (about 18 minutes) are counted in the last bucket.
+ */
+class ConcurrentLatencyHistogram implements LatencyHistogram, ChainedEventObserver {
+
+  /**
+   * Ratio of the operations whose latency gets recorded, bounding the overhead of timing every operation.
+   */
+  static final double SAMPLING_RATIO = 0.1;
+
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+  private static final long HIGHEST_TRACKABLE_VALUE = (1L << 40) - 1;
+
+  private final AtomicLongArray counts = new AtomicLongArray(bucketIndex(HIGHEST_TRACKABLE_VALUE) + 1);
+  private final AtomicLong maximum = new AtomicLong();
+
+  /**
+   * Creates a histogram recording a sample of the latencies of the given operation outcomes.
+   *
+   * @param statistic the operation statistic to observe
+   * @param outcomes the outcomes to record
+   * @param <T> the outcome type
+   * @return the histogram
+   */
+  static <T extends Enum<T>> ConcurrentLatencyHistogram observe(OperationStatistic<T> statistic, Set<T> outcomes) {
+    ConcurrentLatencyHistogram histogram = new ConcurrentLatencyHistogram();
+    LatencySampling<T> sampling = new LatencySampling<T>(outcomes, SAMPLING_RATIO);
+    sampling.addDerivedStatistic(histogram);
+    statistic.addDerivedStatistic(sampling);
+    return histogram;
+  }
+
+  /**
+   * Creates a histogram recording a sample of the latencies of the given operation outcomes, or an empty histogram when
+   * the statistics level does not measure latencies.
+   *
+   * @param statistic the operation statistic to observe
+   * @param outcomes the outcomes to record
+   * @param statisticsLevel the statistics level of the cache
+   * @param <T> the outcome type
+   * @return the histogram
+   */
+  static <T extends Enum<T>> ConcurrentLatencyHistogram observe(OperationStatistic<T> statistic, Set<T> outcomes, StatisticsLevel statisticsLevel) {
+    if (statisticsLevel.measuresLatency()) {
+      return observe(statistic, outcomes);
+    } else {
+      return new ConcurrentLatencyHistogram();
+    }
+  }
+
+  /**
+   * Adds the 50th, 99th and 99.9th percentiles of the given histogram, named {@code <prefix>P50}, {@code <prefix>P99}
+   * and {@code <prefix>P999}, to the known statistics.
+   */
+  static void addPercentileStatistics(Map<String, TypedValueStatistic> knownStatistics, String prefix, LatencyHistogram histogram) {
+    addPercentileStatistic(knownStatistics, prefix + "P50", histogram, 50.0);
+    addPercentileStatistic(knownStatistics, prefix + "P99", histogram, 99.0);
+    addPercentileStatistic(knownStatistics, prefix + "P999", histogram, 99.9);
+  }
+
+  private static void addPercentileStatistic(Map<String, TypedValueStatistic> knownStatistics, String name, final LatencyHistogram histogram, final double percentile) {
+    knownStatistics.put(name, new TypedValueStatistic(StatisticType.SIZE) {
+      @Override
+      public Number value() {
+        return histogram.getValueAtPercentile(percentile);
+      }
+    });
+  }
+
+  @Override
+  public void event(long latency, long... parameters) {
+    record(latency);
+  }
+
+  void record(long latency) {
+    long value = Math.min(Math.max(latency, 0), HIGHEST_TRACKABLE_VALUE);
+    counts.incrementAndGet(bucketIndex(value));
+    long max = maximum.get();
+    while (value > max && !maximum.compareAndSet(max, value)) {
+      max = maximum.get();
+    }
+  }
+
+  void clear() {
+    for (int i = 0; i < counts.length(); i++) {
+      counts.set(i, 0);
+    }
+    maximum.set(0);
+  }
+
+  @Override
+  public long getCount() {
+    long count = 0;
+    for (int i = 0; i < counts.length(); i++) {
+      count += counts.get(i);
+    }
+    return count;
+  }
+
+  @Override
+  public long getMaximum() {
+    return maximum.get();
+  }
+
+  @Override
+  public long getValueAtPercentile(double percentile) {
+    long[] snapshot = new long[counts.length()];
+    long count = 0;
+    for (int i = 0; i < snapshot.length; i++) {
+      snapshot[i] = counts.get(i);
+      count += snapshot[i];
+    }
+    if (count == 0) {
+      return 0;
+    }
+    double ratio = Math.min(Math.max(percentile, 0.0), 100.0) / 100.0;
+    long target = Math.max(1, (long) Math.ceil(ratio * count));
+    long seen = 0;
+    for (int i = 0; i < snapshot.length; i++) {
+      seen += snapshot[i];
+      if (seen >= target) {
+        return Math.min(highestEquivalentValue(i), getMaximum());
+      }
+    }
+    return getMaximum();
+  }
+
+  static int bucketIndex(long value) {
+    int magnitude = 63 - Long.numberOfLeadingZeros(value | (SUB_BUCKET_COUNT - 1));
+    int shift = magnitude - (SUB_BUCKET_BITS - 1);
+    return shift * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift);
+  }
+
+  static long highestEquivalentValue(int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    } else {
+      int shift = index / SUB_BUCKET_HALF_COUNT - 1;
+      long subBucket = index - shift * SUB_BUCKET_HALF_COUNT;
+      return ((subBucket + 1) << shift) - 1;
+    }
+  }
+}
@@ -26,6 +26,8 @@ import org.ehcache.core.InternalCache;
 import org.ehcache.core.statistics.BulkOps;
 import org.ehcache.core.statistics.CacheOperationOutcomes;
 import org.ehcache.core.statistics.CacheStatistics;
+import org.ehcache.core.statistics.LatencyHistogram;
+import org.ehcache.core.statistics.StatisticsLevel;
 import org.ehcache.core.statistics.TierStatistics;
 import org.ehcache.core.statistics.TypedValueStatistic;
 import org.terracotta.statistics.OperationStatistic;
@@ -38,6 +40,7 @@ import org.terracotta.statistics.observer.ChainedOperationObserver;
 import static java.util.EnumSet.allOf;
 import static org.ehcache.impl.internal.statistics.StatsUtils.findLowestTier;
 import static org.ehcache.impl.internal.statistics.StatsUtils.findOperationStatisticOnChildren;
+import static org.ehcache.impl.internal.statistics.StatsUtils.findOptionalOperationStatisticOnChildren;
 import static org.ehcache.impl.internal.statistics.StatsUtils.findTiers;
 
 /**
@@ -47,12 +50,15 @@ class DefaultCacheStatistics implements CacheStatistics {
 
   private volatile CompensatingCounters compensatingCounters = CompensatingCounters.empty();
 
+  private final StatisticsLevel statisticsLevel;
+
   private final OperationStatistic<CacheOperationOutcomes.GetOutcome> get;
   private final OperationStatistic<CacheOperationOutcomes.PutOutcome> put;
   private final OperationStatistic<CacheOperationOutcomes.RemoveOutcome> remove;
   private final OperationStatistic<CacheOperationOutcomes.PutIfAbsentOutcome> putIfAbsent;
   private final OperationStatistic<CacheOperationOutcomes.ReplaceOutcome> replace;
   private final OperationStatistic<CacheOperationOutcomes.ConditionalRemoveOutcome> conditionalRemove;
+  private final OperationStatistic<CacheOperationOutcomes.RefreshAheadOutcome> refreshAhead;
 
   private final Map<BulkOps, LongAdder> bulkMethodEntries;
 
@@ -60,6 +66,11 @@ class DefaultCacheStatistics implements CacheStatistics {
   private final LatencyMonitor<CacheOperationOutcomes.PutOutcome> averagePutTime;
   private final LatencyMonitor<CacheOperationOutcomes.RemoveOutcome> averageRemoveTime;
 
+  private final ConcurrentLatencyHistogram getHitLatency;
+  private final ConcurrentLatencyHistogram getMissLatency;
+  private final ConcurrentLatencyHistogram putLatency;
+  private final ConcurrentLatencyHistogram removeLatency;
+
   private final Map<String, TierStatistics> tierStatistics;
   private final TierStatistics lowestTier;
 
@@ -67,41 +78,78 @@ class DefaultCacheStatistics implements CacheStatistics {
 
   public DefaultCacheStatistics(InternalCache<?, ?> cache) {
     bulkMethodEntries = cache.getBulkMethodEntries();
+    statisticsLevel = StatisticsLevel.of(cache.getRuntimeConfiguration().getServiceConfigurations());
 
-    get = findOperationStatisticOnChildren(cache, CacheOperationOutcomes.GetOutcome.class, "get");
-    put = findOperationStatisticOnChildren(cache, CacheOperationOutcomes.PutOutcome.class, "put");
-    remove = findOperationStatisticOnChildren(cache, CacheOperationOutcomes.RemoveOutcome.class, "remove");
-    putIfAbsent = findOperationStatisticOnChildren(cache, CacheOperationOutcomes.PutIfAbsentOutcome.class, "putIfAbsent");
-    replace = findOperationStatisticOnChildren(cache, CacheOperationOutcomes.ReplaceOutcome.class, "replace");
-    conditionalRemove = findOperationStatisticOnChildren(cache, CacheOperationOutcomes.ConditionalRemoveOutcome.class, "conditionalRemove");
+    get = findOperationStatistic(cache, CacheOperationOutcomes.GetOutcome.class, "get");
+    put = findOperationStatistic(cache, CacheOperationOutcomes.PutOutcome.class, "put");
+    remove = findOperationStatistic(cache, CacheOperationOutcomes.RemoveOutcome.class, "remove");
+    putIfAbsent = findOperationStatistic(cache, CacheOperationOutcomes.PutIfAbsentOutcome.class, "putIfAbsent");
+    replace = findOperationStatistic(cache, CacheOperationOutcomes.ReplaceOutcome.class, "replace");
+    conditionalRemove = findOperationStatistic(cache, CacheOperationOutcomes.ConditionalRemoveOutcome.class, "conditionalRemove");
+    refreshAhead = findOptionalOperationStatistic(cache, CacheOperationOutcomes.RefreshAheadOutcome.class, "refreshAhead");
 
     averageGetTime = new LatencyMonitor<CacheOperationOutcomes.GetOutcome>(allOf(CacheOperationOutcomes.GetOutcome.class));
-    get.addDerivedStatistic(averageGetTime);
     averagePutTime = new LatencyMonitor<CacheOperationOutcomes.PutOutcome>(allOf(CacheOperationOutcomes.PutOutcome.class));
-    put.addDerivedStatistic(averagePutTime);
     averageRemoveTime = new LatencyMonitor<CacheOperationOutcomes.RemoveOutcome>(allOf(CacheOperationOutcomes.RemoveOutcome.class));
-    remove.addDerivedStatistic(averageRemoveTime);
-
-    String[] tierNames = findTiers(cache);
-
-    String lowestTierName = findLowestTier(tierNames);
-    TierStatistics lowestTier = null;
+    if (statisticsLevel.measuresLatency()) {
+      get.addDerivedStatistic(averageGetTime);
+      put.addDerivedStatistic(averagePutTime);
+      remove.addDerivedStatistic(averageRemoveTime);
+    }
 
-    tierStatistics = new HashMap<String, TierStatistics>(tierNames.length);
-    for (String tierName : tierNames) {
-      TierStatistics tierStatistics = new DefaultTierStatistics(cache, tierName);
-      this.tierStatistics.put(tierName, tierStatistics);
-      if (lowestTierName.equals(tierName)) {
-        lowestTier = tierStatistics;
+    getHitLatency = ConcurrentLatencyHistogram.observe(get, EnumSet.of(CacheOperationOutcomes.GetOutcome.HIT), statisticsLevel);
+    getMissLatency = ConcurrentLatencyHistogram.observe(get, EnumSet.of(CacheOperationOutcomes.GetOutcome.MISS), statisticsLevel);
+    putLatency = ConcurrentLatencyHistogram.observe(put, allOf(CacheOperationOutcomes.PutOutcome.class), statisticsLevel);
+    removeLatency = ConcurrentLatencyHistogram.observe(remove, allOf(CacheOperationOutcomes.RemoveOutcome.class), statisticsLevel);
+
+    tierStatistics = new HashMap<String, TierStatistics>();
+    if (statisticsLevel.countsOperations()) {
+      String[] tierNames = findTiers(cache);
+      String lowestTierName = findLowestTier(tierNames);
+      TierStatistics lowestTier = null;
+
+      for (String tierName : tierNames) {
+        TierStatistics tierStatistics = new DefaultTierStatistics(cache, tierName, statisticsLevel);
+        this.tierStatistics.put(tierName, tierStatistics);
+        if (lowestTierName.equals(tierName)) {
+          lowestTier = tierStatistics;
+        }
       }
+      this.lowestTier = lowestTier;
+    } else {
+      this.lowestTier = null;
     }
-    this.lowestTier = lowestTier;
 
     knownStatistics = createKnownStatistics();
   }
 
+  private <T extends Enum<T>> OperationStatistic<T> findOperationStatistic(InternalCache<?, ?> cache, Class<T> type, String statName) {
+    if (statisticsLevel.countsOperations()) {
+      return findOperationStatisticOnChildren(cache, type, statName);
+    } else {
+      return ZeroOperationStatistic.get();
+    }
+  }
+
+  /**
+   * Finds a statistic only some caches have, only caches with a loader-writer refresh ahead for instance.
+   */
+  private <T extends Enum<T>> OperationStatistic<T> findOptionalOperationStatistic(InternalCache<?, ?> cache, Class<T> type, String statName) {
+    OperationStatistic<T> statistic = null;
+    if (statisticsLevel.countsOperations()) {
+      statistic = findOptionalOperationStatisticOnChildren(cache, type, statName);
+    }
+    if (statistic == null) {
+      return ZeroOperationStatistic.get();
+    }
+    return statistic;
+  }
+
   private Map<String, TypedValueStatistic> createKnownStatistics() {
-    Map<String, TypedValueStatistic> knownStatistics = new HashMap<String, TypedValueStatistic>(30);
+    if (!statisticsLevel.countsOperations()) {
+      return Collections.emptyMap();
+    }
+    Map<String, TypedValueStatistic> knownStatistics = new HashMap<String, TypedValueStatistic>(64);
     knownStatistics.put("Cache:HitCount", new TypedValueStatistic(StatisticType.COUNTER) {
       @Override
       public Number value() {
@@ -144,6 +192,25 @@ class DefaultCacheStatistics implements CacheStatistics {
         return getCacheExpirations();
       }
     });
+    knownStatistics.put("Cache:RefreshHitCount", new TypedValueStatistic(StatisticType.COUNTER) {
+      @Override
+      public Number value() {
+        return getCacheRefreshHits();
+      }
+    });
+    knownStatistics.put("Cache:RefreshMissCount", new TypedValueStatistic(StatisticType.COUNTER) {
+      @Override
+      public Number value() {
+        return getCacheRefreshMisses();
+      }
+    });
+
+    if (statisticsLevel.measuresLatency()) {
+      ConcurrentLatencyHistogram.addPercentileStatistics(knownStatistics, "Cache:HitLatency", getHitLatency);
+      ConcurrentLatencyHistogram.addPercentileStatistics(knownStatistics, "Cache:MissLatency", getMissLatency);
+      ConcurrentLatencyHistogram.addPercentileStatistics(knownStatistics, "Cache:PutLatency", putLatency);
+      ConcurrentLatencyHistogram.addPercentileStatistics(knownStatistics, "Cache:RemoveLatency", removeLatency);
+    }
 
     for (TierStatistics tier : tierStatistics.values()) {
       knownStatistics.putAll(tier.getKnownStatistics());
@@ -165,6 +232,10 @@ class DefaultCacheStatistics implements CacheStatistics {
     averageGetTime.clear();
     averagePutTime.clear();
     averageRemoveTime.clear();
+    getHitLatency.clear();
+    getMissLatency.clear();
+    putLatency.clear();
+    removeLatency.clear();
     for (TierStatistics t : tierStatistics.values()) {
       t.clear();
     }
@@ -217,11 +288,19 @@ class DefaultCacheStatistics implements CacheStatistics {
   }
 
   public long getCacheEvictions() {
-    return normalize(lowestTier.getEvictions());
+    return lowestTier == null ? 0L : normalize(lowestTier.getEvictions());
   }
 
   public long getCacheExpirations() {
-    return normalize(lowestTier.getExpirations());
+    return lowestTier == null ? 0L : normalize(lowestTier.getExpirations());
+  }
+
+  public long getCacheRefreshHits() {
+    return normalize(getRefreshHits() - compensatingCounters.cacheRefreshHits);
+  }
+
+  public long getCacheRefreshMisses() {
+    return normalize(getRefreshMisses() - compensatingCounters.cacheRefreshMisses);
   }
 
   public float getCacheAverageGetTime() {
@@ -236,6 +315,22 @@ class DefaultCacheStatistics implements CacheStatistics {
     return (float) averageRemoveTime.value();
   }
 
+  public LatencyHistogram getCacheGetHitLatency() {
+    return getHitLatency;
+  }
+
+  public LatencyHistogram getCacheGetMissLatency() {
+    return getMissLatency;
+  }
+
+  public LatencyHistogram getCachePutLatency() {
+    return putLatency;
+  }
+
+  public LatencyHistogram getCacheRemoveLatency() {
+    return removeLatency;
+  }
+
   private long getMisses() {
     return getBulkCount(BulkOps.GET_ALL_MISS) +
            get.sum(EnumSet.of(CacheOperationOutcomes.GetOutcome.MISS)) +
@@ -252,6 +347,14 @@ class DefaultCacheStatistics implements CacheStatistics {
            conditionalRemove.sum(EnumSet.of(CacheOperationOutcomes.ConditionalRemoveOutcome.SUCCESS, CacheOperationOutcomes.ConditionalRemoveOutcome.FAILURE_KEY_PRESENT));
   }
 
+  private long getRefreshHits() {
+    return refreshAhead.sum(EnumSet.of(CacheOperationOutcomes.RefreshAheadOutcome.HIT));
+  }
+
+  private long getRefreshMisses() {
+    return refreshAhead.sum(EnumSet.of(CacheOperationOutcomes.RefreshAheadOutcome.MISS, CacheOperationOutcomes.RefreshAheadOutcome.FAILURE));
+  }
+
   private long getBulkCount(BulkOps bulkOps) {
     return bulkMethodEntries.get(bulkOps).longValue();
   }
@@ -274,18 +377,23 @@ class DefaultCacheStatistics implements CacheStatistics {
     final long cachePuts;
     final long cacheRemovals;
     final long cacheUpdates;
+    final long cacheRefreshHits;
+    final long cacheRefreshMisses;
 
-    private CompensatingCounters(long cacheHits, long cacheMisses, long cacheGets, long cachePuts, long cacheRemovals, long cacheUpdates) {
+    private CompensatingCounters(long cacheHits, long cacheMisses, long cacheGets, long cachePuts, long cacheRemovals, long cacheUpdates,
+                                 long cacheRefreshHits, long cacheRefreshMisses) {
       this.cacheHits = cacheHits;
       this.cacheMisses = cacheMisses;
       this.cacheGets = cacheGets;
       this.cachePuts = cachePuts;
       this.cacheRemovals = cacheRemovals;
       this.cacheUpdates = cacheUpdates;
+      this.cacheRefreshHits = cacheRefreshHits;
+      this.cacheRefreshMisses = cacheRefreshMisses;
     }
 
     static CompensatingCounters empty() {
-      return new CompensatingCounters(0, 0, 0, 0, 0, 0);
+      return new CompensatingCounters(0, 0, 0, 0, 0, 0, 0, 0);
     }
 
     CompensatingCounters snapshot(DefaultCacheStatistics statistics) {
@@ -295,7 +403,9 @@ class DefaultCacheStatistics implements CacheStatistics {
         cacheGets + statistics.getCacheGets(),
         cachePuts + statistics.getCachePuts(),
         cacheRemovals + statistics.getCacheRemovals(),
-        cacheUpdates + statistics.getCacheUpdates());
+        cacheUpdates + statistics.getCacheUpdates(),
+        cacheRefreshHits + statistics.getCacheRefreshHits(),
+        cacheRefreshMisses + statistics.getCacheRefreshMisses());
     }
   }
 
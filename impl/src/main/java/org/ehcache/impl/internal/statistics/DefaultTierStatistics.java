@@ -22,6 +22,8 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.ehcache.Cache;
+import org.ehcache.core.statistics.LatencyHistogram;
+import org.ehcache.core.statistics.StatisticsLevel;
 import org.ehcache.core.statistics.StoreOperationOutcomes;
 import org.ehcache.core.statistics.TierOperationOutcomes;
 import org.ehcache.core.statistics.TierStatistics;
@@ -43,6 +45,7 @@ class DefaultTierStatistics implements TierStatistics {
   private volatile CompensatingCounters compensatingCounters = CompensatingCounters.empty();
 
   private final String tierName;
+  private final StatisticsLevel statisticsLevel;
 
   private final Map<String, TypedValueStatistic> knownStatistics;
 
@@ -57,13 +60,23 @@ class DefaultTierStatistics implements TierStatistics {
   private final OperationStatistic<StoreOperationOutcomes.ExpirationOutcome> expiration;
   private final OperationStatistic<StoreOperationOutcomes.ComputeOutcome> compute;
   private final OperationStatistic<StoreOperationOutcomes.ComputeIfAbsentOutcome> computeIfAbsent;
+  private final ConcurrentLatencyHistogram hitLatency;
+  private final ConcurrentLatencyHistogram missLatency;
+  private final ConcurrentLatencyHistogram putLatency;
+  private final ConcurrentLatencyHistogram evictionLatency;
+
   private final ValueStatistic<Long> mapping;
   private final ValueStatistic<Long> maxMapping;
   private final ValueStatistic<Long> allocatedMemory;
   private final ValueStatistic<Long> occupiedMemory;
 
   public DefaultTierStatistics(Cache<?, ?> cache, String tierName) {
+    this(cache, tierName, StatisticsLevel.FULL);
+  }
+
+  public DefaultTierStatistics(Cache<?, ?> cache, String tierName, StatisticsLevel statisticsLevel) {
     this.tierName = tierName;
+    this.statisticsLevel = statisticsLevel;
 
     get = findOperationStatistic(cache, tierName, "tier", "get");
     put = findOperationStatistic(cache, tierName, "put");
@@ -77,6 +90,11 @@ class DefaultTierStatistics implements TierStatistics {
     compute = findOperationStatistic(cache, tierName, "compute");
     computeIfAbsent = findOperationStatistic(cache, tierName, "computeIfAbsent");
 
+    hitLatency = ConcurrentLatencyHistogram.observe(get, EnumSet.of(TierOperationOutcomes.GetOutcome.HIT), statisticsLevel);
+    missLatency = ConcurrentLatencyHistogram.observe(get, EnumSet.of(TierOperationOutcomes.GetOutcome.MISS), statisticsLevel);
+    putLatency = ConcurrentLatencyHistogram.observe(put, EnumSet.allOf(StoreOperationOutcomes.PutOutcome.class), statisticsLevel);
+    evictionLatency = ConcurrentLatencyHistogram.observe(eviction, EnumSet.allOf(TierOperationOutcomes.EvictionOutcome.class), statisticsLevel);
+
     mapping = findValueStatistics(cache, tierName, "mappings");
     maxMapping = findValueStatistics(cache, tierName, "maxMappings");
     allocatedMemory = findValueStatistics(cache, tierName, "allocatedMemory");
@@ -87,7 +105,7 @@ class DefaultTierStatistics implements TierStatistics {
   }
 
   private Map<String, TypedValueStatistic> createKnownStatistics(String tierName) {
-    Map<String, TypedValueStatistic> knownStatistics = new HashMap<String, TypedValueStatistic>(7);
+    Map<String, TypedValueStatistic> knownStatistics = new HashMap<String, TypedValueStatistic>(32);
     addKnownStatistic(knownStatistics, tierName, "HitCount", get, new TypedValueStatistic(StatisticType.COUNTER) {
       @Override
       public Number value() {
@@ -154,6 +172,12 @@ class DefaultTierStatistics implements TierStatistics {
         return getOccupiedByteSize();
       }
     });
+    if (statisticsLevel.measuresLatency()) {
+      ConcurrentLatencyHistogram.addPercentileStatistics(knownStatistics, tierName + ":HitLatency", hitLatency);
+      ConcurrentLatencyHistogram.addPercentileStatistics(knownStatistics, tierName + ":MissLatency", missLatency);
+      ConcurrentLatencyHistogram.addPercentileStatistics(knownStatistics, tierName + ":PutLatency", putLatency);
+      ConcurrentLatencyHistogram.addPercentileStatistics(knownStatistics, tierName + ":EvictionLatency", evictionLatency);
+    }
     return knownStatistics;
   }
 
@@ -197,6 +221,10 @@ class DefaultTierStatistics implements TierStatistics {
    */
   public void clear() {
     compensatingCounters = compensatingCounters.snapshot(this);
+    hitLatency.clear();
+    missLatency.clear();
+    putLatency.clear();
+    evictionLatency.clear();
   }
 
   public long getHits() {
@@ -270,6 +298,22 @@ class DefaultTierStatistics implements TierStatistics {
     return occupiedMemory.value();
   }
 
+  public LatencyHistogram getHitLatency() {
+    return hitLatency;
+  }
+
+  public LatencyHistogram getMissLatency() {
+    return missLatency;
+  }
+
+  public LatencyHistogram getPutLatency() {
+    return putLatency;
+  }
+
+  public LatencyHistogram getEvictionLatency() {
+    return evictionLatency;
+  }
+
   private static class CompensatingCounters {
     final long hits;
     final long misses;
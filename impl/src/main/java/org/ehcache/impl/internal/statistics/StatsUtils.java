@@ -141,6 +141,25 @@ final class StatsUtils {
    * @throws RuntimeException if 0 or more than 1 result is found
    */
   static <T extends Enum<T>> OperationStatistic<T> findOperationStatisticOnChildren(Object context, Class<T> type, String statName) {
+    OperationStatistic<T> statistic = findOptionalOperationStatisticOnChildren(context, type, statName);
+    if (statistic == null) {
+      throw new RuntimeException("result must not be null");
+    }
+    return statistic;
+  }
+
+  /**
+   * Same as {@link #findOperationStatisticOnChildren(Object, Class, String)} but returns {@code null} when the
+   * statistic does not exist.
+   *
+   * @param context the context of the query
+   * @param type type of the operation statistic
+   * @param statName statistic name
+   * @param <T> type of the operation statistic
+   * @return the operation statistic searched for, or {@code null}
+   * @throws RuntimeException if more than one statistic is found
+   */
+  static <T extends Enum<T>> OperationStatistic<T> findOptionalOperationStatisticOnChildren(Object context, Class<T> type, String statName) {
     @SuppressWarnings("unchecked")
     Query query = queryBuilder()
       .children()
@@ -152,7 +171,7 @@ final class StatsUtils {
       throw new RuntimeException("result must be unique");
     }
     if (result.isEmpty()) {
-      throw new RuntimeException("result must not be null");
+      return null;
     }
     @SuppressWarnings("unchecked")
     OperationStatistic<T> statistic = (OperationStatistic<T>) result.iterator().next().getContext().attributes().get("this");
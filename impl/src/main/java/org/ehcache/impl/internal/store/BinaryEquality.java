@@ -0,0 +1,53 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.store;
+
+import org.ehcache.spi.serialization.Serializer;
+import org.ehcache.spi.serialization.SerializerException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Compares instances against serial forms through {@link Serializer#equals(Object, ByteBuffer)}, which the bundled
+ * serializers implement without deserializing the serial form.
+ */
+public final class BinaryEquality {
+
+  private BinaryEquality() {
+    // static helpers only
+  }
+
+  /**
+   * Checks if the given instance and serial form represent equal instances.
+   * <p>
+   * The position of the given buffer is left untouched.
+   *
+   * @param serializer the serializer of the instance type
+   * @param object the instance to check
+   * @param binary the serial form to check
+   * @param <T> the instance type
+   * @return {@code true} if both represent equal instances
+   * @throws SerializerException if the serial form cannot be read
+   */
+  public static <T> boolean equals(Serializer<T> serializer, T object, ByteBuffer binary) throws SerializerException {
+    try {
+      return serializer.equals(object, binary.duplicate());
+    } catch (ClassNotFoundException e) {
+      throw new SerializerException(e);
+    }
+  }
+}
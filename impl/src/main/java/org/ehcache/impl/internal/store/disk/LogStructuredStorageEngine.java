@@ -0,0 +1,661 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.store.disk;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terracotta.offheapstore.disk.persistent.Persistent;
+import org.terracotta.offheapstore.disk.persistent.PersistentStorageEngine;
+import org.terracotta.offheapstore.storage.PortabilityBasedStorageEngine;
+import org.terracotta.offheapstore.storage.portability.Portability;
+import org.terracotta.offheapstore.storage.portability.WriteContext;
+import org.terracotta.offheapstore.util.Factory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * A {@link PersistentStorageEngine} that stores mappings in an append-only log file.
+ * <p>
+ * Mappings are staged in a heap write buffer and written to the end of the log in large sequential chunks. Removed
+ * and replaced mappings are only accounted as garbage; once the garbage ratio of the log crosses the configured
+ * threshold the live mappings are copied into a fresh log and their encodings updated in the owning segment. The
+ * owning segment's hash table acts as the index of the log.
+ * <p>
+ * Encodings are logical log addresses that only ever grow, so an address is never reused across compactions.
+ * All mutative methods must be called while holding the owner's write lock, reads while holding at least its
+ * read lock.
+ * <p>
+ * All the engines created by a single factory share their space budget : live mappings are bounded by the configured
+ * capacity, and the total size of the logs by the capacity scaled by the compaction threshold.
+ */
+public class LogStructuredStorageEngine<K, V> extends PortabilityBasedStorageEngine<K, V> implements PersistentStorageEngine<K, V> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LogStructuredStorageEngine.class);
+
+  private static final int MAGIC = 0x4c4f4753;
+
+  private static final int KEY_HASH_OFFSET = 0;
+  private static final int KEY_LENGTH_OFFSET = 4;
+  private static final int VALUE_LENGTH_OFFSET = 8;
+  private static final int HEADER_SIZE = 12;
+
+  public static <K, V> Factory<LogStructuredStorageEngine<K, V>> createFactory(final File directory, final String prefix,
+                                                                              final long capacity, final float compactionThreshold, final int writeBufferSize,
+                                                                              final Portability<? super K> keyPortability, final Portability<? super V> valuePortability,
+                                                                              final Factory<ExecutorService> compactorFactory, final boolean bootstrap) {
+    final AtomicInteger index = new AtomicInteger();
+    final LogSpace space = new LogSpace(capacity, compactionThreshold);
+    return new Factory<LogStructuredStorageEngine<K, V>>() {
+      @Override
+      public LogStructuredStorageEngine<K, V> newInstance() {
+        File file = new File(directory, prefix + "-" + index.getAndIncrement() + ".log");
+        try {
+          return new LogStructuredStorageEngine<K, V>(file, space, compactionThreshold, writeBufferSize,
+              keyPortability, valuePortability, compactorFactory.newInstance(), bootstrap);
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    };
+  }
+
+  private final File file;
+  private final LogSpace space;
+  private final float compactionThreshold;
+  private final ExecutorService compactor;
+  private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+  private final ByteBuffer writeBuffer;
+
+  private volatile FileChannel channel;
+  private volatile Owner owner;
+
+  /*
+   * Logical address of file position zero, and of the first byte held in the write buffer.
+   */
+  private long baseAddress;
+  private long bufferAddress;
+
+  private long liveBytes;
+  private long garbageBytes;
+
+  LogStructuredStorageEngine(File file, LogSpace space, float compactionThreshold, int writeBufferSize,
+                             Portability<? super K> keyPortability, Portability<? super V> valuePortability,
+                             ExecutorService compactor, boolean bootstrap) throws IOException {
+    super(keyPortability, valuePortability);
+    this.file = file;
+    this.space = space;
+    this.compactionThreshold = compactionThreshold;
+    this.compactor = compactor;
+    this.writeBuffer = ByteBuffer.allocate(writeBufferSize);
+    recoverInterruptedCompaction(file);
+    this.channel = open(file, bootstrap);
+  }
+
+  private static File compactedFile(File file) {
+    return new File(file.getParentFile(), file.getName() + ".compact");
+  }
+
+  private static File previousFile(File file) {
+    return new File(file.getParentFile(), file.getName() + ".previous");
+  }
+
+  /**
+   * Cleans up the files left behind by a compaction interrupted by a crash.
+   * <p>
+   * The compaction is abandoned : a leftover compacted log is discarded, and the previous log is moved back in place
+   * if the crash happened while it was moved aside.
+   */
+  private static void recoverInterruptedCompaction(File file) throws IOException {
+    File compactedFile = compactedFile(file);
+    File previousFile = previousFile(file);
+    if (!file.exists() && previousFile.exists() && !previousFile.renameTo(file)) {
+      throw new IOException("Could not restore log " + previousFile.getAbsolutePath() + " after an interrupted compaction");
+    }
+    if (compactedFile.exists()) {
+      LOGGER.debug("Discarding log {} of an interrupted compaction", compactedFile.getAbsolutePath());
+      if (!compactedFile.delete()) {
+        throw new IOException("Could not delete log " + compactedFile.getAbsolutePath() + " of an interrupted compaction");
+      }
+    }
+    if (previousFile.exists() && !previousFile.delete()) {
+      LOGGER.debug("Could not delete replaced log {}", previousFile.getAbsolutePath());
+    }
+  }
+
+  /**
+   * Moves the compacted log in place of the current one, so that a complete log is always present on disk.
+   * <p>
+   * Renaming over an existing file atomically replaces it on POSIX file systems. Where it does not, the current log
+   * is first moved aside, and moved back if the compacted log cannot take its place.
+   */
+  private static void replace(File file, File compactedFile) throws IOException {
+    if (compactedFile.renameTo(file)) {
+      return;
+    }
+    File previousFile = previousFile(file);
+    if (previousFile.exists() && !previousFile.delete()) {
+      throw new IOException("Could not delete replaced log " + previousFile.getAbsolutePath());
+    }
+    if (!file.renameTo(previousFile)) {
+      throw new IOException("Could not swap compacted log " + compactedFile.getAbsolutePath() + " into place");
+    }
+    if (!compactedFile.renameTo(file)) {
+      if (!previousFile.renameTo(file)) {
+        throw new IOException("Could not restore log " + previousFile.getAbsolutePath() + " after a failed compaction");
+      }
+      throw new IOException("Could not swap compacted log " + compactedFile.getAbsolutePath() + " into place");
+    }
+    if (!previousFile.delete()) {
+      LOGGER.debug("Could not delete replaced log {}", previousFile.getAbsolutePath());
+    }
+  }
+
+  private static FileChannel open(File file, boolean truncate) throws IOException {
+    RandomAccessFile raf = new RandomAccessFile(file, "rw");
+    if (truncate) {
+      raf.setLength(0L);
+    }
+    return raf.getChannel();
+  }
+
+  @Override
+  public void bind(Owner owner) {
+    this.owner = owner;
+  }
+
+  @Override
+  protected Long writeMappingBuffers(ByteBuffer keyBuffer, ByteBuffer valueBuffer, int hash) {
+    int keyLength = keyBuffer.remaining();
+    int valueLength = valueBuffer.remaining();
+    long recordSize = HEADER_SIZE + keyLength + valueLength;
+
+    if (!space.reserve(recordSize)) {
+      return null;
+    }
+    boolean written = false;
+    try {
+      if (!space.canAppend(recordSize)) {
+        if (garbageBytes > 0L) {
+          compact();
+        }
+        if (!space.canAppend(recordSize)) {
+          return null;
+        }
+      }
+
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      header.putInt(KEY_HASH_OFFSET, hash).putInt(KEY_LENGTH_OFFSET, keyLength).putInt(VALUE_LENGTH_OFFSET, valueLength);
+      long address = append(header, keyBuffer, valueBuffer);
+      liveBytes += recordSize;
+      written = true;
+      return address;
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    } finally {
+      if (!written) {
+        space.release(recordSize);
+      }
+    }
+  }
+
+  private long append(ByteBuffer header, ByteBuffer keyBuffer, ByteBuffer valueBuffer) throws IOException {
+    long recordSize = header.remaining() + keyBuffer.remaining() + valueBuffer.remaining();
+    if (recordSize > writeBuffer.remaining()) {
+      flushWriteBuffer();
+    }
+    long address = logEnd();
+    if (recordSize > writeBuffer.capacity()) {
+      long position = address - baseAddress;
+      for (ByteBuffer buffer : new ByteBuffer[] {header, keyBuffer, valueBuffer}) {
+        position = writeFully(channel, buffer, position);
+      }
+      bufferAddress = baseAddress + position;
+    } else {
+      writeBuffer.put(header).put(keyBuffer).put(valueBuffer);
+    }
+    space.resize(recordSize);
+    return address;
+  }
+
+  private void flushWriteBuffer() throws IOException {
+    if (writeBuffer.position() > 0) {
+      writeBuffer.flip();
+      long position = writeFully(channel, writeBuffer, bufferAddress - baseAddress);
+      writeBuffer.clear();
+      bufferAddress = baseAddress + position;
+    }
+  }
+
+  private static long writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      position += channel.write(buffer, position);
+    }
+    return position;
+  }
+
+  private long logEnd() {
+    return bufferAddress + writeBuffer.position();
+  }
+
+  private long logSize() {
+    return logEnd() - baseAddress;
+  }
+
+  @Override
+  protected void free(long address) {
+    long recordSize = HEADER_SIZE + readInt(address + KEY_LENGTH_OFFSET) + readInt(address + VALUE_LENGTH_OFFSET);
+    liveBytes -= recordSize;
+    garbageBytes += recordSize;
+    space.release(recordSize);
+    if (shouldCompact()) {
+      scheduleCompaction();
+    }
+  }
+
+  private boolean shouldCompact() {
+    long size = logSize();
+    return size > writeBuffer.capacity() && garbageBytes > compactionThreshold * size;
+  }
+
+  private void scheduleCompaction() {
+    if (compactor != null && compactionScheduled.compareAndSet(false, true)) {
+      try {
+        compactor.execute(new Runnable() {
+          @Override
+          public void run() {
+            Lock lock = owner.writeLock();
+            lock.lock();
+            try {
+              compactionScheduled.set(false);
+              if (channel != null && shouldCompact()) {
+                compact();
+              }
+            } catch (IOException e) {
+              LOGGER.warn("Compaction of {} failed", file.getName(), e);
+            } finally {
+              lock.unlock();
+            }
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        compactionScheduled.set(false);
+        LOGGER.debug("Background compaction of {} rejected", file.getName(), e);
+      }
+    }
+  }
+
+  /**
+   * Copies all live mappings to a fresh log and swaps it in place of the current one.
+   * <p>
+   * Must be called while holding the owner's write lock.
+   */
+  void compact() throws IOException {
+    flushWriteBuffer();
+    long start = System.nanoTime();
+    long reclaimed = garbageBytes;
+    long oldSize = logSize();
+    long newBaseAddress = logEnd();
+
+    File compactedFile = compactedFile(file);
+    FileChannel compacted = open(compactedFile, true);
+    long position = 0L;
+    try {
+      ByteBuffer output = ByteBuffer.allocate(writeBuffer.capacity());
+      for (Iterator<Long> it = owner.encodingSet().iterator(); it.hasNext(); ) {
+        long address = it.next();
+        int hash = readKeyHash(address);
+        ByteBuffer record = read(address, HEADER_SIZE + readInt(address + KEY_LENGTH_OFFSET) + readInt(address + VALUE_LENGTH_OFFSET));
+        long newAddress = newBaseAddress + position + output.position();
+        if (record.remaining() > output.remaining()) {
+          output.flip();
+          position = writeFully(compacted, output, position);
+          output.clear();
+          newAddress = newBaseAddress + position;
+        }
+        if (record.remaining() > output.remaining()) {
+          position = writeFully(compacted, record, position);
+        } else {
+          output.put(record);
+        }
+        if (!owner.updateEncoding(hash, address, newAddress, ~0L)) {
+          throw new AssertionError("Encoding " + address + " vanished during compaction of " + file.getName());
+        }
+      }
+      output.flip();
+      position = writeFully(compacted, output, position);
+      compacted.force(false);
+    } catch (IOException e) {
+      compacted.close();
+      if (!compactedFile.delete()) {
+        LOGGER.debug("Could not delete partially compacted file {}", compactedFile.getAbsolutePath());
+      }
+      throw e;
+    } catch (RuntimeException e) {
+      compacted.close();
+      throw e;
+    }
+
+    channel.close();
+    compacted.close();
+    replace(file, compactedFile);
+    channel = open(file, false);
+
+    baseAddress = newBaseAddress;
+    bufferAddress = newBaseAddress + position;
+    garbageBytes = 0L;
+    space.resize(position - oldSize);
+    invalidateCache();
+    LOGGER.debug("Compacted {} : reclaimed {} bytes in {}ms", file.getName(), reclaimed, (System.nanoTime() - start) / 1000000L);
+  }
+
+  private int readInt(long address) {
+    return read(address, 4).getInt();
+  }
+
+  private ByteBuffer read(long address, int length) {
+    ByteBuffer target = ByteBuffer.allocate(length);
+    if (address >= bufferAddress) {
+      int start = (int) (address - bufferAddress);
+      ByteBuffer source = writeBuffer.duplicate();
+      source.clear();
+      source.limit(start + length).position(start);
+      target.put(source);
+    } else {
+      try {
+        long position = address - baseAddress;
+        while (target.hasRemaining()) {
+          int read = channel.read(target, position + target.position());
+          if (read < 0) {
+            throw new IOException("Unexpected end of log " + file.getName() + " reading " + length + " bytes at " + position);
+          }
+        }
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
+    target.flip();
+    return target;
+  }
+
+  @Override
+  public int readKeyHash(long address) {
+    return readInt(address + KEY_HASH_OFFSET);
+  }
+
+  @Override
+  protected ByteBuffer readKeyBuffer(long address) {
+    return read(address + HEADER_SIZE, readInt(address + KEY_LENGTH_OFFSET));
+  }
+
+  @Override
+  protected ByteBuffer readValueBuffer(long address) {
+    ByteBuffer header = read(address, HEADER_SIZE);
+    return read(address + HEADER_SIZE + header.getInt(KEY_LENGTH_OFFSET), header.getInt(VALUE_LENGTH_OFFSET));
+  }
+
+  @Override
+  protected WriteContext getKeyWriteContext(long address) {
+    return new LogWriteContext(address, address + HEADER_SIZE);
+  }
+
+  @Override
+  protected WriteContext getValueWriteContext(long address) {
+    return new LogWriteContext(address, address + HEADER_SIZE + readInt(address + KEY_LENGTH_OFFSET));
+  }
+
+  @Override
+  protected void clearInternal() {
+    try {
+      long end = logEnd();
+      space.release(liveBytes);
+      space.resize(-logSize());
+      writeBuffer.clear();
+      channel.truncate(0L);
+      baseAddress = bufferAddress = end;
+      liveBytes = 0L;
+      garbageBytes = 0L;
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Override
+  public long getAllocatedMemory() {
+    return logSize();
+  }
+
+  @Override
+  public long getOccupiedMemory() {
+    return liveBytes;
+  }
+
+  @Override
+  public long getVitalMemory() {
+    return getAllocatedMemory();
+  }
+
+  @Override
+  public long getDataSize() {
+    return liveBytes;
+  }
+
+  /**
+   * Releases space on behalf of another segment of the same store: garbage is reclaimed first, the mappings in the
+   * oldest half of the log are evicted when there is none.
+   */
+  @Override
+  public boolean shrink() {
+    Lock lock = owner.writeLock();
+    lock.lock();
+    try {
+      if (garbageBytes > 0L) {
+        compact();
+        return true;
+      } else {
+        return evictOldest();
+      }
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private boolean evictOldest() {
+    long limit = baseAddress + logSize() / 2;
+    List<Long> victims = new ArrayList<Long>();
+    for (Long encoding : owner.encodingSet()) {
+      if (encoding <= limit) {
+        victims.add(encoding);
+      }
+    }
+    boolean evicted = false;
+    for (Long encoding : victims) {
+      Integer slot = owner.getSlotForHashAndEncoding(readKeyHash(encoding), encoding, ~0L);
+      if (slot != null) {
+        evicted |= owner.evict(slot, false);
+      }
+    }
+    return evicted;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    flushWriteBuffer();
+    channel.force(false);
+  }
+
+  @Override
+  public void close() throws IOException {
+    FileChannel current = channel;
+    if (current != null) {
+      try {
+        flushWriteBuffer();
+      } finally {
+        channel = null;
+        current.close();
+      }
+    }
+    if (compactor != null) {
+      compactor.shutdown();
+    }
+  }
+
+  @Override
+  public void destroy() {
+    try {
+      close();
+    } catch (IOException e) {
+      LOGGER.warn("Exception while trying to close log structured storage engine", e);
+    }
+  }
+
+  @Override
+  public void persist(ObjectOutput output) throws IOException {
+    flushWriteBuffer();
+    output.writeInt(MAGIC);
+    ((Persistent) keyPortability).persist(output);
+    ((Persistent) valuePortability).persist(output);
+    output.writeLong(baseAddress);
+    output.writeLong(logEnd());
+    output.writeLong(liveBytes);
+    output.writeLong(garbageBytes);
+  }
+
+  @Override
+  public void bootstrap(ObjectInput input) throws IOException {
+    if (input.readInt() != MAGIC) {
+      throw new IOException("Wrong magic number");
+    }
+    ((Persistent) keyPortability).bootstrap(input);
+    ((Persistent) valuePortability).bootstrap(input);
+    long base = input.readLong();
+    long end = input.readLong();
+    long live = input.readLong();
+    long garbage = input.readLong();
+    if (channel.size() < end - base) {
+      throw new IOException("Log " + file.getName() + " is shorter than its index : " + channel.size() + " < " + (end - base));
+    }
+    channel.truncate(end - base);
+    baseAddress = base;
+    bufferAddress = end;
+    liveBytes = live;
+    garbageBytes = garbage;
+    space.recover(live, end - base);
+  }
+
+  /**
+   * Space budget shared by all the segment logs of a store.
+   */
+  static final class LogSpace {
+
+    private final long capacity;
+    private final long maximumSize;
+    private final AtomicLong live = new AtomicLong();
+    private final AtomicLong size = new AtomicLong();
+
+    LogSpace(long capacity, float compactionThreshold) {
+      if (compactionThreshold <= 0f || compactionThreshold >= 1f) {
+        throw new IllegalArgumentException("Compaction threshold must be strictly between 0 and 1 : " + compactionThreshold);
+      }
+      this.capacity = capacity;
+      this.maximumSize = (long) (capacity / (1f - compactionThreshold));
+    }
+
+    boolean reserve(long bytes) {
+      while (true) {
+        long current = live.get();
+        if (current + bytes > capacity) {
+          return false;
+        } else if (live.compareAndSet(current, current + bytes)) {
+          return true;
+        }
+      }
+    }
+
+    void release(long bytes) {
+      live.addAndGet(-bytes);
+    }
+
+    boolean canAppend(long bytes) {
+      return size.get() + bytes <= maximumSize;
+    }
+
+    void resize(long delta) {
+      size.addAndGet(delta);
+    }
+
+    void recover(long liveBytes, long logSize) {
+      live.addAndGet(liveBytes);
+      size.addAndGet(logSize);
+    }
+  }
+
+  /**
+   * Writes back fixed-size fields of a mapping, wherever the mapping currently lives.
+   */
+  private class LogWriteContext implements WriteContext {
+
+    private final long recordAddress;
+    private final long fieldAddress;
+
+    LogWriteContext(long recordAddress, long fieldAddress) {
+      this.recordAddress = recordAddress;
+      this.fieldAddress = fieldAddress;
+    }
+
+    @Override
+    public void setLong(int offset, long value) {
+      if (recordAddress < baseAddress) {
+        // the mapping was moved by a compaction - this write back is stale
+        return;
+      }
+      long address = fieldAddress + offset;
+      if (address >= bufferAddress) {
+        writeBuffer.putLong((int) (address - bufferAddress), value);
+      } else {
+        ByteBuffer buffer = ByteBuffer.allocate(8);
+        buffer.putLong(0, value);
+        try {
+          writeFully(channel, buffer, address - baseAddress);
+        } catch (IOException e) {
+          throw new RuntimeException(e);
+        }
+      }
+    }
+
+    @Override
+    public void flush() {
+      //no-op
+    }
+  }
+}
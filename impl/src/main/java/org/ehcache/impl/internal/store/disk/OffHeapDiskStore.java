@@ -23,8 +23,10 @@ import org.ehcache.config.EvictionAdvisor;
 import org.ehcache.config.ResourceType;
 import org.ehcache.core.spi.service.DiskResourceService;
 import org.ehcache.core.statistics.AuthoritativeTierOperationOutcomes;
+import org.ehcache.core.statistics.StatisticsLevel;
 import org.ehcache.core.statistics.StoreOperationOutcomes;
 import org.ehcache.impl.config.store.disk.OffHeapDiskStoreConfiguration;
+import org.ehcache.impl.config.store.disk.OffHeapDiskStoreConfiguration.StorageEngineType;
 import org.ehcache.config.units.MemoryUnit;
 import org.ehcache.core.events.StoreEventDispatcher;
 import org.ehcache.CachePersistenceException;
@@ -42,6 +44,7 @@ import org.ehcache.spi.persistence.PersistableResourceService.PersistenceSpaceId
 import org.ehcache.spi.persistence.StateRepository;
 import org.ehcache.spi.serialization.StatefulSerializer;
 import org.ehcache.spi.service.ServiceProvider;
+import org.ehcache.core.config.store.StoreStatisticsConfiguration;
 import org.ehcache.core.spi.store.Store;
 import org.ehcache.core.spi.store.tiering.AuthoritativeTier;
 import org.ehcache.spi.serialization.SerializationProvider;
@@ -58,6 +61,7 @@ import org.slf4j.LoggerFactory;
 import org.terracotta.offheapstore.disk.paging.MappedPageSource;
 import org.terracotta.offheapstore.disk.persistent.Persistent;
 import org.terracotta.offheapstore.disk.persistent.PersistentPortability;
+import org.terracotta.offheapstore.disk.persistent.PersistentStorageEngine;
 import org.terracotta.offheapstore.disk.storage.FileBackedStorageEngine;
 import org.terracotta.offheapstore.storage.portability.Portability;
 import org.terracotta.offheapstore.util.Factory;
@@ -97,9 +101,11 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
   private static final Logger LOGGER = LoggerFactory.getLogger(OffHeapDiskStore.class);
 
   private static final String STATISTICS_TAG = "Disk";
+  private static final String LOG_FILE_PREFIX = "ehcache-disk-store";
 
   private static final String KEY_TYPE_PROPERTY_NAME = "keyType";
   private static final String VALUE_TYPE_PROPERTY_NAME = "valueType";
+  private static final String STORAGE_ENGINE_PROPERTY_NAME = "storageEngine";
 
   protected final AtomicReference<Status> status = new AtomicReference<Status>(Status.UNINITIALIZED);
 
@@ -115,18 +121,43 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
   private final String threadPoolAlias;
   private final int writerConcurrency;
   private final int diskSegments;
+  private final StorageEngineType storageEngineType;
+  private final float compactionThreshold;
+  private final int writeBufferSize;
 
   private volatile EhcachePersistentConcurrentOffHeapClockCache<K, OffHeapValueHolder<V>> map;
 
   public OffHeapDiskStore(FileBasedPersistenceContext fileBasedPersistenceContext,
                           ExecutionService executionService, String threadPoolAlias, int writerConcurrency, int diskSegments,
                           final Configuration<K, V> config, TimeSource timeSource, StoreEventDispatcher<K, V> eventDispatcher, long sizeInBytes) {
-    super(STATISTICS_TAG, config, timeSource, eventDispatcher);
+    this(fileBasedPersistenceContext, executionService, threadPoolAlias, writerConcurrency, diskSegments,
+        OffHeapDiskStoreConfiguration.DEFAULT_STORAGE_ENGINE, OffHeapDiskStoreConfiguration.DEFAULT_COMPACTION_THRESHOLD,
+        OffHeapDiskStoreConfiguration.DEFAULT_WRITE_BUFFER_SIZE, config, timeSource, eventDispatcher, sizeInBytes);
+  }
+
+  public OffHeapDiskStore(FileBasedPersistenceContext fileBasedPersistenceContext,
+                          ExecutionService executionService, String threadPoolAlias, int writerConcurrency, int diskSegments,
+                          StorageEngineType storageEngineType, float compactionThreshold, int writeBufferSize,
+                          final Configuration<K, V> config, TimeSource timeSource, StoreEventDispatcher<K, V> eventDispatcher, long sizeInBytes) {
+    this(fileBasedPersistenceContext, executionService, threadPoolAlias, writerConcurrency, diskSegments,
+        storageEngineType, compactionThreshold, writeBufferSize, config, timeSource, eventDispatcher, sizeInBytes,
+        StoreStatisticsConfiguration.DEFAULT_STATISTICS_LEVEL);
+  }
+
+  public OffHeapDiskStore(FileBasedPersistenceContext fileBasedPersistenceContext,
+                          ExecutionService executionService, String threadPoolAlias, int writerConcurrency, int diskSegments,
+                          StorageEngineType storageEngineType, float compactionThreshold, int writeBufferSize,
+                          final Configuration<K, V> config, TimeSource timeSource, StoreEventDispatcher<K, V> eventDispatcher, long sizeInBytes,
+                          StatisticsLevel statisticsLevel) {
+    super(STATISTICS_TAG, config, timeSource, eventDispatcher, statisticsLevel);
     this.fileBasedPersistenceContext = fileBasedPersistenceContext;
     this.executionService = executionService;
     this.threadPoolAlias = threadPoolAlias;
     this.writerConcurrency = writerConcurrency;
     this.diskSegments = diskSegments;
+    this.storageEngineType = storageEngineType;
+    this.compactionThreshold = compactionThreshold;
+    this.writeBufferSize = writeBufferSize;
 
     EvictionAdvisor<? super K, ? super V> evictionAdvisor = config.getEvictionAdvisor();
     if (evictionAdvisor != null) {
@@ -152,7 +183,7 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
   }
 
   private EhcachePersistentConcurrentOffHeapClockCache<K, OffHeapValueHolder<V>> getBackingMap(long size, Serializer<K> keySerializer, Serializer<V> valueSerializer, SwitchableEvictionAdvisor<K, OffHeapValueHolder<V>> evictionAdvisor) {
-    File dataFile = getDataFile();
+    File dataFile = getPageSourceFile();
     File indexFile = getIndexFile();
     File metadataFile = getMetadataFile();
 
@@ -172,7 +203,7 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
   }
 
   private EhcachePersistentConcurrentOffHeapClockCache<K, OffHeapValueHolder<V>> recoverBackingMap(long size, Serializer<K> keySerializer, Serializer<V> valueSerializer, SwitchableEvictionAdvisor<K, OffHeapValueHolder<V>> evictionAdvisor) throws IOException {
-    File dataFile = getDataFile();
+    File dataFile = getPageSourceFile();
     File indexFile = getIndexFile();
     File metadataFile = getMetadataFile();
 
@@ -199,6 +230,12 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
     } catch (ClassNotFoundException cnfe) {
       throw new IllegalStateException("Persisted value type class not found", cnfe);
     }
+    String persistedStorageEngine = properties.getProperty(STORAGE_ENGINE_PROPERTY_NAME, StorageEngineType.MAPPED.name());
+    if (!storageEngineType.name().equals(persistedStorageEngine)) {
+      LOGGER.warn("Persisted storage engine '{}' is not the same as the configured storage engine '{}'. Creating a new empty store.",
+                  persistedStorageEngine, storageEngineType);
+      return createBackingMap(size, keySerializer, valueSerializer, evictionAdvisor);
+    }
 
     FileInputStream fin = new FileInputStream(indexFile);
     try {
@@ -220,19 +257,7 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
 
       MappedPageSource source = new MappedPageSource(dataFile, false, size);
       try {
-        PersistentPortability<K> keyPortability = persistent(new SerializerPortability<K>(keySerializer));
-        PersistentPortability<OffHeapValueHolder<V>> elementPortability = persistent(new OffHeapValueHolderPortability<V>(valueSerializer));
-        DiskWriteThreadPool writeWorkers = new DiskWriteThreadPool(executionService, threadPoolAlias, writerConcurrency);
-
-        Factory<FileBackedStorageEngine<K, OffHeapValueHolder<V>>> storageEngineFactory = FileBackedStorageEngine.createFactory(source,
-                max((size / diskSegments) / 10, 1024), BYTES, keyPortability, elementPortability, writeWorkers, false);
-
-        EhcachePersistentSegmentFactory<K, OffHeapValueHolder<V>> factory = new EhcachePersistentSegmentFactory<K, OffHeapValueHolder<V>>(
-            source,
-            storageEngineFactory,
-            64,
-            evictionAdvisor,
-            mapEvictionListener, false);
+        EhcachePersistentSegmentFactory<K, OffHeapValueHolder<V>> factory = createSegmentFactory(source, size, keySerializer, valueSerializer, evictionAdvisor, false);
         EhcachePersistentConcurrentOffHeapClockCache<K, OffHeapValueHolder<V>> m = new EhcachePersistentConcurrentOffHeapClockCache<K, OffHeapValueHolder<V>>(input, evictionAdvisor, factory);
 
         m.bootstrap(input);
@@ -257,27 +282,43 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
       Properties properties = new Properties();
       properties.put(KEY_TYPE_PROPERTY_NAME, keyType.getName());
       properties.put(VALUE_TYPE_PROPERTY_NAME, valueType.getName());
+      properties.put(STORAGE_ENGINE_PROPERTY_NAME, storageEngineType.name());
       properties.store(fos, "Key and value types");
     } finally {
       fos.close();
     }
 
-    MappedPageSource source = new MappedPageSource(getDataFile(), size);
+    MappedPageSource source = new MappedPageSource(getPageSourceFile(), size);
+    EhcachePersistentSegmentFactory<K, OffHeapValueHolder<V>> factory = createSegmentFactory(source, size, keySerializer, valueSerializer, evictionAdvisor, true);
+    return new EhcachePersistentConcurrentOffHeapClockCache<K, OffHeapValueHolder<V>>(evictionAdvisor, factory, diskSegments);
+
+  }
+
+  private EhcachePersistentSegmentFactory<K, OffHeapValueHolder<V>> createSegmentFactory(MappedPageSource source, long size, Serializer<K> keySerializer, Serializer<V> valueSerializer, SwitchableEvictionAdvisor<K, OffHeapValueHolder<V>> evictionAdvisor, boolean bootstrap) {
     PersistentPortability<K> keyPortability = persistent(new SerializerPortability<K>(keySerializer));
     PersistentPortability<OffHeapValueHolder<V>> elementPortability = persistent(new OffHeapValueHolderPortability<V>(valueSerializer));
     DiskWriteThreadPool writeWorkers = new DiskWriteThreadPool(executionService, threadPoolAlias, writerConcurrency);
 
-    Factory<FileBackedStorageEngine<K, OffHeapValueHolder<V>>> storageEngineFactory = FileBackedStorageEngine.createFactory(source,
-        max((size / diskSegments) / 10, 1024), BYTES, keyPortability, elementPortability, writeWorkers, true);
+    Factory<? extends PersistentStorageEngine<K, OffHeapValueHolder<V>>> storageEngineFactory;
+    switch (storageEngineType) {
+      case MAPPED:
+        storageEngineFactory = FileBackedStorageEngine.createFactory(source,
+            max((size / diskSegments) / 10, 1024), BYTES, keyPortability, elementPortability, writeWorkers, bootstrap);
+        break;
+      case LOG_STRUCTURED:
+        storageEngineFactory = LogStructuredStorageEngine.createFactory(fileBasedPersistenceContext.getDirectory(), LOG_FILE_PREFIX,
+            size, compactionThreshold, writeBufferSize, keyPortability, elementPortability, writeWorkers, bootstrap);
+        break;
+      default:
+        throw new AssertionError("Unsupported storage engine type " + storageEngineType);
+    }
 
-    EhcachePersistentSegmentFactory<K, OffHeapValueHolder<V>> factory = new EhcachePersistentSegmentFactory<K, OffHeapValueHolder<V>>(
+    return new EhcachePersistentSegmentFactory<K, OffHeapValueHolder<V>>(
         source,
         storageEngineFactory,
         64,
         evictionAdvisor,
-        mapEvictionListener, true);
-    return new EhcachePersistentConcurrentOffHeapClockCache<K, OffHeapValueHolder<V>>(evictionAdvisor, factory, diskSegments);
-
+        mapEvictionListener, bootstrap);
   }
 
   @Override
@@ -294,6 +335,18 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
     return new File(fileBasedPersistenceContext.getDirectory(), "ehcache-disk-store.data");
   }
 
+  private File getTableFile() {
+    return new File(fileBasedPersistenceContext.getDirectory(), "ehcache-disk-store.table");
+  }
+
+  /*
+   * The mapped storage engine shares its page source between the hash tables and the mappings, the log structured
+   * one only uses it for the hash tables.
+   */
+  private File getPageSourceFile() {
+    return storageEngineType == StorageEngineType.LOG_STRUCTURED ? getTableFile() : getDataFile();
+  }
+
   private File getIndexFile() {
     return new File(fileBasedPersistenceContext.getDirectory(), "ehcache-disk-store.index");
   }
@@ -331,22 +384,24 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
 
     @Override
     public <K, V> OffHeapDiskStore<K, V> createStore(Configuration<K, V> storeConfig, ServiceConfiguration<?>... serviceConfigs) {
-      OffHeapDiskStore<K, V> store = createStoreInternal(storeConfig, new ThreadLocalStoreEventDispatcher<K, V>(storeConfig.getDispatcherConcurrency()), serviceConfigs);
-      Collection<MappedOperationStatistic<?, ?>> tieredOps = new ArrayList<MappedOperationStatistic<?, ?>>();
-
-      MappedOperationStatistic<StoreOperationOutcomes.GetOutcome, TierOperationOutcomes.GetOutcome> get =
-              new MappedOperationStatistic<StoreOperationOutcomes.GetOutcome, TierOperationOutcomes.GetOutcome>(
-                      store, TierOperationOutcomes.GET_TRANSLATION, "get", ResourceType.Core.DISK.getTierHeight(), "get", STATISTICS_TAG);
-      StatisticsManager.associate(get).withParent(store);
-      tieredOps.add(get);
-
-      MappedOperationStatistic<StoreOperationOutcomes.EvictionOutcome, TierOperationOutcomes.EvictionOutcome> evict =
-              new MappedOperationStatistic<StoreOperationOutcomes.EvictionOutcome, TierOperationOutcomes.EvictionOutcome>(
-                      store, TierOperationOutcomes.EVICTION_TRANSLATION, "eviction", ResourceType.Core.DISK.getTierHeight(), "eviction", STATISTICS_TAG);
-      StatisticsManager.associate(evict).withParent(store);
-      tieredOps.add(evict);
-
-      tierOperationStatistics.put(store, tieredOps);
+      OffHeapDiskStore<K, V> store = createStoreInternal(storeConfig, ThreadLocalStoreEventDispatcher.<K, V>forStore(storeConfig, serviceConfigs), serviceConfigs);
+      if (StatisticsLevel.of((Object[]) serviceConfigs).countsOperations()) {
+        Collection<MappedOperationStatistic<?, ?>> tieredOps = new ArrayList<MappedOperationStatistic<?, ?>>();
+
+        MappedOperationStatistic<StoreOperationOutcomes.GetOutcome, TierOperationOutcomes.GetOutcome> get =
+                new MappedOperationStatistic<StoreOperationOutcomes.GetOutcome, TierOperationOutcomes.GetOutcome>(
+                        store, TierOperationOutcomes.GET_TRANSLATION, "get", ResourceType.Core.DISK.getTierHeight(), "get", STATISTICS_TAG);
+        StatisticsManager.associate(get).withParent(store);
+        tieredOps.add(get);
+
+        MappedOperationStatistic<StoreOperationOutcomes.EvictionOutcome, TierOperationOutcomes.EvictionOutcome> evict =
+                new MappedOperationStatistic<StoreOperationOutcomes.EvictionOutcome, TierOperationOutcomes.EvictionOutcome>(
+                        store, TierOperationOutcomes.EVICTION_TRANSLATION, "eviction", ResourceType.Core.DISK.getTierHeight(), "eviction", STATISTICS_TAG);
+        StatisticsManager.associate(evict).withParent(store);
+        tieredOps.add(evict);
+
+        tierOperationStatistics.put(store, tieredOps);
+      }
       return store;
     }
 
@@ -366,15 +421,24 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
       String threadPoolAlias;
       int writerConcurrency;
       int diskSegments;
+      StorageEngineType storageEngineType;
+      float compactionThreshold;
+      int writeBufferSize;
       OffHeapDiskStoreConfiguration config = findSingletonAmongst(OffHeapDiskStoreConfiguration.class, (Object[]) serviceConfigs);
       if (config == null) {
         threadPoolAlias = defaultThreadPool;
         writerConcurrency = OffHeapDiskStoreConfiguration.DEFAULT_WRITER_CONCURRENCY;
         diskSegments = OffHeapDiskStoreConfiguration.DEFAULT_DISK_SEGMENTS;
+        storageEngineType = OffHeapDiskStoreConfiguration.DEFAULT_STORAGE_ENGINE;
+        compactionThreshold = OffHeapDiskStoreConfiguration.DEFAULT_COMPACTION_THRESHOLD;
+        writeBufferSize = OffHeapDiskStoreConfiguration.DEFAULT_WRITE_BUFFER_SIZE;
       } else {
         threadPoolAlias = config.getThreadPoolAlias();
         writerConcurrency = config.getWriterConcurrency();
         diskSegments = config.getDiskSegments();
+        storageEngineType = config.getStorageEngineType();
+        compactionThreshold = config.getCompactionThreshold();
+        writeBufferSize = config.getWriteBufferSize();
       }
       PersistenceSpaceIdentifier<?> space = findSingletonAmongst(PersistenceSpaceIdentifier.class, (Object[]) serviceConfigs);
       if (space == null) {
@@ -385,7 +449,9 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
 
         OffHeapDiskStore<K, V> offHeapStore = new OffHeapDiskStore<K, V>(persistenceContext,
                 executionService, threadPoolAlias, writerConcurrency, diskSegments,
-                storeConfig, timeSource, eventDispatcher, unit.toBytes(diskPool.getSize()));
+                storageEngineType, compactionThreshold, writeBufferSize,
+                storeConfig, timeSource, eventDispatcher, unit.toBytes(diskPool.getSize()),
+                StatisticsLevel.of((Object[]) serviceConfigs));
         createdStores.put(offHeapStore, space);
         return offHeapStore;
       } catch (CachePersistenceException cpex) {
@@ -478,22 +544,24 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
 
     @Override
     public <K, V> AuthoritativeTier<K, V> createAuthoritativeTier(Configuration<K, V> storeConfig, ServiceConfiguration<?>... serviceConfigs) {
-      OffHeapDiskStore<K, V> authoritativeTier = createStoreInternal(storeConfig, new ThreadLocalStoreEventDispatcher<K, V>(storeConfig.getDispatcherConcurrency()), serviceConfigs);
-      Collection<MappedOperationStatistic<?, ?>> tieredOps = new ArrayList<MappedOperationStatistic<?, ?>>();
-
-      MappedOperationStatistic<AuthoritativeTierOperationOutcomes.GetAndFaultOutcome, TierOperationOutcomes.GetOutcome> get =
-              new MappedOperationStatistic<AuthoritativeTierOperationOutcomes.GetAndFaultOutcome, TierOperationOutcomes.GetOutcome>(
-                      authoritativeTier, TierOperationOutcomes.GET_AND_FAULT_TRANSLATION, "get", ResourceType.Core.DISK.getTierHeight(), "getAndFault", STATISTICS_TAG);
-      StatisticsManager.associate(get).withParent(authoritativeTier);
-      tieredOps.add(get);
-
-      MappedOperationStatistic<StoreOperationOutcomes.EvictionOutcome, TierOperationOutcomes.EvictionOutcome> evict =
-              new MappedOperationStatistic<StoreOperationOutcomes.EvictionOutcome, TierOperationOutcomes.EvictionOutcome>(
-                      authoritativeTier, TierOperationOutcomes.EVICTION_TRANSLATION, "eviction", ResourceType.Core.DISK.getTierHeight(), "eviction", STATISTICS_TAG);
-      StatisticsManager.associate(evict).withParent(authoritativeTier);
-      tieredOps.add(evict);
-
-      tierOperationStatistics.put(authoritativeTier, tieredOps);
+      OffHeapDiskStore<K, V> authoritativeTier = createStoreInternal(storeConfig, ThreadLocalStoreEventDispatcher.<K, V>forStore(storeConfig, serviceConfigs), serviceConfigs);
+      if (StatisticsLevel.of((Object[]) serviceConfigs).countsOperations()) {
+        Collection<MappedOperationStatistic<?, ?>> tieredOps = new ArrayList<MappedOperationStatistic<?, ?>>();
+
+        MappedOperationStatistic<AuthoritativeTierOperationOutcomes.GetAndFaultOutcome, TierOperationOutcomes.GetOutcome> get =
+                new MappedOperationStatistic<AuthoritativeTierOperationOutcomes.GetAndFaultOutcome, TierOperationOutcomes.GetOutcome>(
+                        authoritativeTier, TierOperationOutcomes.GET_AND_FAULT_TRANSLATION, "get", ResourceType.Core.DISK.getTierHeight(), "getAndFault", STATISTICS_TAG);
+        StatisticsManager.associate(get).withParent(authoritativeTier);
+        tieredOps.add(get);
+
+        MappedOperationStatistic<StoreOperationOutcomes.EvictionOutcome, TierOperationOutcomes.EvictionOutcome> evict =
+                new MappedOperationStatistic<StoreOperationOutcomes.EvictionOutcome, TierOperationOutcomes.EvictionOutcome>(
+                        authoritativeTier, TierOperationOutcomes.EVICTION_TRANSLATION, "eviction", ResourceType.Core.DISK.getTierHeight(), "eviction", STATISTICS_TAG);
+        StatisticsManager.associate(evict).withParent(authoritativeTier);
+        tieredOps.add(evict);
+
+        tierOperationStatistics.put(authoritativeTier, tieredOps);
+      }
       return authoritativeTier;
     }
 
@@ -543,4 +611,8 @@ public class OffHeapDiskStore<K, V> extends AbstractOffHeapStore<K, V> implement
   int getDiskSegments() {
     return diskSegments;
   }
+
+  StorageEngineType getStorageEngineType() {
+    return storageEngineType;
+  }
 }
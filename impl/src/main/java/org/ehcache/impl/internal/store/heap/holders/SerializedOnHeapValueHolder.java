@@ -20,6 +20,7 @@ import org.ehcache.expiry.Duration;
 import org.ehcache.sizeof.annotations.IgnoreSizeOf;
 import org.ehcache.core.spi.store.Store;
 import org.ehcache.impl.internal.store.BinaryValueHolder;
+import org.ehcache.spi.serialization.BinaryComparableSerializer;
 import org.ehcache.spi.serialization.Serializer;
 
 import java.nio.ByteBuffer;
@@ -91,10 +92,14 @@ public class SerializedOnHeapValueHolder<V> extends OnHeapValueHolder<V> impleme
     SerializedOnHeapValueHolder<V> that = (SerializedOnHeapValueHolder<V>)other;
 
     if (!super.equals(that)) return false;
-    try {
-      if (!serializer.equals(that.value(), buffer)) return false;
-    } catch (ClassNotFoundException cnfe) {
-      throw new SerializerException(cnfe);
+    if (serializer instanceof BinaryComparableSerializer) {
+      if (!buffer.equals(that.buffer)) return false;
+    } else {
+      try {
+        if (!serializer.equals(that.value(), buffer)) return false;
+      } catch (ClassNotFoundException cnfe) {
+        throw new SerializerException(cnfe);
+      }
     }
 
     return true;
@@ -39,6 +39,7 @@ import org.ehcache.core.spi.function.Function;
 import org.ehcache.core.spi.function.NullaryFunction;
 import org.ehcache.core.spi.time.TimeSource;
 import org.ehcache.impl.internal.store.offheap.factories.EhcacheSegmentFactory;
+import org.ehcache.core.config.store.StoreStatisticsConfiguration;
 import org.ehcache.core.spi.store.Store;
 import org.ehcache.core.spi.store.events.StoreEventSource;
 import org.ehcache.core.spi.store.tiering.AuthoritativeTier;
@@ -46,6 +47,7 @@ import org.ehcache.core.spi.store.tiering.CachingTier;
 import org.ehcache.core.spi.store.tiering.LowerCachingTier;
 import org.ehcache.core.statistics.AuthoritativeTierOperationOutcomes;
 import org.ehcache.core.statistics.LowerCachingTierOperationsOutcome;
+import org.ehcache.core.statistics.StatisticsLevel;
 import org.ehcache.core.statistics.StoreOperationOutcomes;
 import org.ehcache.impl.internal.store.BinaryValueHolder;
 import org.ehcache.impl.store.HashUtils;
@@ -106,34 +108,40 @@ public abstract class AbstractOffHeapStore<K, V> implements AuthoritativeTier<K,
   private volatile CachingTier.InvalidationListener<K, V> invalidationListener = (CachingTier.InvalidationListener<K, V>) NULL_INVALIDATION_LISTENER;
 
   public AbstractOffHeapStore(String statisticsTag, Configuration<K, V> config, TimeSource timeSource, StoreEventDispatcher<K, V> eventDispatcher) {
+    this(statisticsTag, config, timeSource, eventDispatcher, StoreStatisticsConfiguration.DEFAULT_STATISTICS_LEVEL);
+  }
+
+  public AbstractOffHeapStore(String statisticsTag, Configuration<K, V> config, TimeSource timeSource, StoreEventDispatcher<K, V> eventDispatcher,
+                              StatisticsLevel statisticsLevel) {
     keyType = config.getKeyType();
     valueType = config.getValueType();
     expiry = config.getExpiry();
 
     this.timeSource = timeSource;
     this.eventDispatcher = eventDispatcher;
-
-    this.getObserver = operation(StoreOperationOutcomes.GetOutcome.class).of(this).named("get").tag(statisticsTag).build();
-    this.putObserver = operation(StoreOperationOutcomes.PutOutcome.class).of(this).named("put").tag(statisticsTag).build();
-    this.putIfAbsentObserver = operation(StoreOperationOutcomes.PutIfAbsentOutcome.class).of(this).named("putIfAbsent").tag(statisticsTag).build();
-    this.removeObserver = operation(StoreOperationOutcomes.RemoveOutcome.class).of(this).named("remove").tag(statisticsTag).build();
-    this.conditionalRemoveObserver = operation(StoreOperationOutcomes.ConditionalRemoveOutcome.class).of(this).named("conditionalRemove").tag(statisticsTag).build();
-    this.replaceObserver = operation(StoreOperationOutcomes.ReplaceOutcome.class).of(this).named("replace").tag(statisticsTag).build();
-    this.conditionalReplaceObserver = operation(StoreOperationOutcomes.ConditionalReplaceOutcome.class).of(this).named("conditionalReplace").tag(statisticsTag).build();
-    this.computeObserver = operation(StoreOperationOutcomes.ComputeOutcome.class).of(this).named("compute").tag(statisticsTag).build();
-    this.computeIfAbsentObserver = operation(StoreOperationOutcomes.ComputeIfAbsentOutcome.class).of(this).named("computeIfAbsent").tag(statisticsTag).build();
-    this.evictionObserver = operation(StoreOperationOutcomes.EvictionOutcome.class).of(this).named("eviction").tag(statisticsTag).build();
-    this.expirationObserver = operation(StoreOperationOutcomes.ExpirationOutcome.class).of(this).named("expiration").tag(statisticsTag).build();
-
-    this.getAndFaultObserver = operation(AuthoritativeTierOperationOutcomes.GetAndFaultOutcome.class).of(this).named("getAndFault").tag(statisticsTag).build();
-    this.computeIfAbsentAndFaultObserver = operation(AuthoritativeTierOperationOutcomes.ComputeIfAbsentAndFaultOutcome.class).of(this).named("computeIfAbsentAndFault").tag(statisticsTag).build();
-    this.flushObserver = operation(AuthoritativeTierOperationOutcomes.FlushOutcome.class).of(this).named("flush").tag(statisticsTag).build();
-
-    this.invalidateObserver = operation(LowerCachingTierOperationsOutcome.InvalidateOutcome.class).of(this).named("invalidate").tag(statisticsTag).build();
-    this.invalidateAllObserver = operation(LowerCachingTierOperationsOutcome.InvalidateAllOutcome.class).of(this).named("invalidateAll").tag(statisticsTag).build();
-    this.invalidateAllWithHashObserver = operation(LowerCachingTierOperationsOutcome.InvalidateAllWithHashOutcome.class).of(this).named("invalidateAllWithHash").tag(statisticsTag).build();
-    this.getAndRemoveObserver= operation(LowerCachingTierOperationsOutcome.GetAndRemoveOutcome.class).of(this).named("getAndRemove").tag(statisticsTag).build();
-    this.installMappingObserver= operation(LowerCachingTierOperationsOutcome.InstallMappingOutcome.class).of(this).named("installMapping").tag(statisticsTag).build();
+    StatisticsManager.associate(eventDispatcher).withParent(this);
+
+    this.getObserver = statisticsLevel.observer(operation(StoreOperationOutcomes.GetOutcome.class).of(this).named("get").tag(statisticsTag));
+    this.putObserver = statisticsLevel.observer(operation(StoreOperationOutcomes.PutOutcome.class).of(this).named("put").tag(statisticsTag));
+    this.putIfAbsentObserver = statisticsLevel.observer(operation(StoreOperationOutcomes.PutIfAbsentOutcome.class).of(this).named("putIfAbsent").tag(statisticsTag));
+    this.removeObserver = statisticsLevel.observer(operation(StoreOperationOutcomes.RemoveOutcome.class).of(this).named("remove").tag(statisticsTag));
+    this.conditionalRemoveObserver = statisticsLevel.observer(operation(StoreOperationOutcomes.ConditionalRemoveOutcome.class).of(this).named("conditionalRemove").tag(statisticsTag));
+    this.replaceObserver = statisticsLevel.observer(operation(StoreOperationOutcomes.ReplaceOutcome.class).of(this).named("replace").tag(statisticsTag));
+    this.conditionalReplaceObserver = statisticsLevel.observer(operation(StoreOperationOutcomes.ConditionalReplaceOutcome.class).of(this).named("conditionalReplace").tag(statisticsTag));
+    this.computeObserver = statisticsLevel.observer(operation(StoreOperationOutcomes.ComputeOutcome.class).of(this).named("compute").tag(statisticsTag));
+    this.computeIfAbsentObserver = statisticsLevel.observer(operation(StoreOperationOutcomes.ComputeIfAbsentOutcome.class).of(this).named("computeIfAbsent").tag(statisticsTag));
+    this.evictionObserver = statisticsLevel.observer(operation(StoreOperationOutcomes.EvictionOutcome.class).of(this).named("eviction").tag(statisticsTag));
+    this.expirationObserver = statisticsLevel.observer(operation(StoreOperationOutcomes.ExpirationOutcome.class).of(this).named("expiration").tag(statisticsTag));
+
+    this.getAndFaultObserver = statisticsLevel.observer(operation(AuthoritativeTierOperationOutcomes.GetAndFaultOutcome.class).of(this).named("getAndFault").tag(statisticsTag));
+    this.computeIfAbsentAndFaultObserver = statisticsLevel.observer(operation(AuthoritativeTierOperationOutcomes.ComputeIfAbsentAndFaultOutcome.class).of(this).named("computeIfAbsentAndFault").tag(statisticsTag));
+    this.flushObserver = statisticsLevel.observer(operation(AuthoritativeTierOperationOutcomes.FlushOutcome.class).of(this).named("flush").tag(statisticsTag));
+
+    this.invalidateObserver = statisticsLevel.observer(operation(LowerCachingTierOperationsOutcome.InvalidateOutcome.class).of(this).named("invalidate").tag(statisticsTag));
+    this.invalidateAllObserver = statisticsLevel.observer(operation(LowerCachingTierOperationsOutcome.InvalidateAllOutcome.class).of(this).named("invalidateAll").tag(statisticsTag));
+    this.invalidateAllWithHashObserver = statisticsLevel.observer(operation(LowerCachingTierOperationsOutcome.InvalidateAllWithHashOutcome.class).of(this).named("invalidateAllWithHash").tag(statisticsTag));
+    this.getAndRemoveObserver= statisticsLevel.observer(operation(LowerCachingTierOperationsOutcome.GetAndRemoveOutcome.class).of(this).named("getAndRemove").tag(statisticsTag));
+    this.installMappingObserver= statisticsLevel.observer(operation(LowerCachingTierOperationsOutcome.InstallMappingOutcome.class).of(this).named("installMapping").tag(statisticsTag));
 
     Set<String> tags = new HashSet<String>(Arrays.asList(statisticsTag, "tier"));
     StatisticsManager.createPassThroughStatistic(this, "allocatedMemory", tags, new Callable<Number>() {
@@ -443,7 +451,7 @@ public abstract class AbstractOffHeapStore<K, V> implements AuthoritativeTier<K,
           if (mappedValue.isExpired(now, TimeUnit.MILLISECONDS)) {
             onExpiration(mappedKey, mappedValue, eventSink);
             return null;
-          } else if (mappedValue.value().equals(value)) {
+          } else if (mappedValue.valueEquals(value)) {
             removed.set(true);
             eventSink.removed(mappedKey, mappedValue);
             return null;
@@ -540,7 +548,7 @@ public abstract class AbstractOffHeapStore<K, V> implements AuthoritativeTier<K,
             onExpiration(mappedKey, mappedValue, eventSink);
           }
           return null;
-        } else if (oldValue.equals(mappedValue.value())) {
+        } else if (mappedValue.valueEquals(oldValue)) {
           replaced.set(true);
           return newUpdatedValueHolder(mappedKey, newValue, mappedValue, now, eventSink);
         } else {
@@ -17,6 +17,7 @@
 package org.ehcache.impl.internal.store.offheap;
 
 import org.ehcache.core.spi.store.Store;
+import org.ehcache.impl.internal.store.BinaryEquality;
 import org.ehcache.impl.internal.store.BinaryValueHolder;
 import org.ehcache.spi.serialization.SerializerException;
 import org.ehcache.impl.internal.store.offheap.portability.OffHeapValueHolderPortability;
@@ -68,6 +69,19 @@ public final class LazyOffHeapValueHolder<V> extends OffHeapValueHolder<V> imple
     return mode == Mode.DETACHED;
   }
 
+  /**
+   * Compares against the binary value unless already deserialized.
+   * Must be called under offheap lock when still attached.
+   */
+  @Override
+  boolean valueEquals(V other) {
+    if (value == null) {
+      return BinaryEquality.equals(valueSerializer, other, binaryValue);
+    } else {
+      return value.equals(other);
+    }
+  }
+
   @Override
   void updateMetadata(final Store.ValueHolder<V> valueFlushed) {
     if(getId() != valueFlushed.getId()) {
@@ -57,6 +57,13 @@ public abstract class OffHeapValueHolder<V> extends AbstractValueHolder<V> {
     return result;
   }
 
+  /**
+   * Checks the held value against the given one, the way conditional operations do.
+   */
+  boolean valueEquals(V other) {
+    return value().equals(other);
+  }
+
   abstract void updateMetadata(Store.ValueHolder<V> valueFlushed);
 
   abstract void writeBack();
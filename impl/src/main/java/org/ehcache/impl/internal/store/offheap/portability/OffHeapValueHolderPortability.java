@@ -19,6 +19,7 @@ package org.ehcache.impl.internal.store.offheap.portability;
 import org.ehcache.impl.internal.store.BinaryValueHolder;
 import org.ehcache.impl.internal.store.offheap.LazyOffHeapValueHolder;
 import org.ehcache.impl.internal.store.offheap.OffHeapValueHolder;
+import org.ehcache.spi.serialization.BufferWritingSerializer;
 import org.ehcache.spi.serialization.Serializer;
 import org.terracotta.offheapstore.storage.portability.WriteBackPortability;
 import org.terracotta.offheapstore.storage.portability.WriteContext;
@@ -38,28 +39,46 @@ public class OffHeapValueHolderPortability<V> implements WriteBackPortability<Of
   private static final int FIELDS_OVERHEAD = 40;
 
   private final Serializer<V> serializer;
+  private final BufferWritingSerializer<V> bufferWritingSerializer;
 
   public OffHeapValueHolderPortability(Serializer<V> serializer) {
     this.serializer = serializer;
+    if (serializer instanceof BufferWritingSerializer) {
+      this.bufferWritingSerializer = (BufferWritingSerializer<V>) serializer;
+    } else {
+      this.bufferWritingSerializer = null;
+    }
   }
 
   @Override
   public ByteBuffer encode(OffHeapValueHolder<V> valueHolder) {
-    ByteBuffer serialized;
+    ByteBuffer byteBuffer;
     if (valueHolder instanceof BinaryValueHolder && ((BinaryValueHolder)valueHolder).isBinaryValueAvailable()) {
-      serialized = ((BinaryValueHolder)valueHolder).getBinaryValue();
+      ByteBuffer serialized = ((BinaryValueHolder)valueHolder).getBinaryValue();
+      byteBuffer = ByteBuffer.allocate(serialized.remaining() + FIELDS_OVERHEAD);
+      writeFields(valueHolder, byteBuffer);
+      byteBuffer.put(serialized);
+    } else if (bufferWritingSerializer != null) {
+      V value = valueHolder.value();
+      byteBuffer = ByteBuffer.allocate(bufferWritingSerializer.serializedSize(value) + FIELDS_OVERHEAD);
+      writeFields(valueHolder, byteBuffer);
+      bufferWritingSerializer.serialize(value, byteBuffer);
     } else {
-      serialized = serializer.serialize(valueHolder.value());
+      ByteBuffer serialized = serializer.serialize(valueHolder.value());
+      byteBuffer = ByteBuffer.allocate(serialized.remaining() + FIELDS_OVERHEAD);
+      writeFields(valueHolder, byteBuffer);
+      byteBuffer.put(serialized);
     }
-    ByteBuffer byteBuffer = ByteBuffer.allocate(serialized.remaining() + FIELDS_OVERHEAD);
+    byteBuffer.flip();
+    return byteBuffer;
+  }
+
+  private static void writeFields(OffHeapValueHolder<?> valueHolder, ByteBuffer byteBuffer) {
     byteBuffer.putLong(valueHolder.getId());
     byteBuffer.putLong(valueHolder.creationTime(OffHeapValueHolder.TIME_UNIT));
     byteBuffer.putLong(valueHolder.lastAccessTime(OffHeapValueHolder.TIME_UNIT));
     byteBuffer.putLong(valueHolder.expirationTime(OffHeapValueHolder.TIME_UNIT));
     byteBuffer.putLong(valueHolder.hits());
-    byteBuffer.put(serialized);
-    byteBuffer.flip();
-    return byteBuffer;
   }
 
   @Override
@@ -16,6 +16,7 @@
 
 package org.ehcache.impl.internal.store.offheap.portability;
 
+import org.ehcache.impl.internal.store.BinaryEquality;
 import org.ehcache.spi.serialization.SerializerException;
 import org.ehcache.spi.serialization.Serializer;
 
@@ -50,12 +51,8 @@ public class SerializerPortability<T> implements Portability<T> {
 
   @Override
   public boolean equals(Object o, ByteBuffer byteBuffer) {
-    try {
-      @SuppressWarnings("unchecked")
-      T otherValue = (T) o;
-      return serializer.equals(otherValue, byteBuffer);
-    } catch (ClassNotFoundException e) {
-      throw new SerializerException(e);
-    }
+    @SuppressWarnings("unchecked")
+    T otherValue = (T) o;
+    return BinaryEquality.equals(serializer, otherValue, byteBuffer);
   }
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.impl.internal.store.snapshot;
+
+import org.ehcache.CachePersistenceException;
+import org.ehcache.config.ResourcePools;
+import org.ehcache.config.ResourceType;
+import org.ehcache.core.InternalCache;
+import org.ehcache.core.spi.LifeCycled;
+import org.ehcache.core.spi.service.ExecutionService;
+import org.ehcache.core.spi.service.HotKeySnapshotService;
+import org.ehcache.core.spi.service.LocalPersistenceService;
+import org.ehcache.core.spi.service.LocalPersistenceService.SafeSpaceIdentifier;
+import org.ehcache.core.spi.store.Store;
+import org.ehcache.expiry.Expiry;
+import org.ehcache.impl.config.store.snapshot.HotKeySnapshotConfiguration;
+import org.ehcache.spi.service.Service;
+import org.ehcache.spi.service.ServiceConfiguration;
+import org.ehcache.spi.service.ServiceDependencies;
+import org.ehcache.spi.service.ServiceProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static org.ehcache.core.spi.service.ServiceUtils.findSingletonAmongst;
+
+/**
+ * Default {@link HotKeySnapshotService}, keeping one snapshot per cache alias under the
+ * {@link LocalPersistenceService} root and restoring them on an {@link ExecutionService} pool.
+ */
+@ServiceDependencies(ExecutionService.class)
+public class DefaultHotKeySnapshotService implements HotKeySnapshotService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DefaultHotKeySnapshotService.class);
+
+  private static final String SNAPSHOT_OWNER = "hot-keys";
+
+  private final String threadPoolAlias;
+
+  private volatile ExecutorService executor;
+  private volatile LocalPersistenceService persistenceService;
+
+  public DefaultHotKeySnapshotService(String threadPoolAlias) {
+    this.threadPoolAlias = threadPoolAlias;
+  }
+
+  @Override
+  public void start(ServiceProvider<Service> serviceProvider) {
+    executor = serviceProvider.getService(ExecutionService.class).getUnorderedExecutor(threadPoolAlias, new LinkedBlockingQueue<Runnable>());
+    // not a declared dependency so that a missing persistence directory is reported against the snapshot configuration
+    persistenceService = serviceProvider.getService(LocalPersistenceService.class);
+  }
+
+  @Override
+  public void stop() {
+    executor.shutdownNow();
+  }
+
+  @Override
+  public <K, V> LifeCycled createSnapshotHook(String alias, InternalCache<K, V> cache, Store<K, V> store,
+                                              ServiceConfiguration<?>... serviceConfigs) {
+    HotKeySnapshotConfiguration configuration = findSingletonAmongst(HotKeySnapshotConfiguration.class, (Object[]) serviceConfigs);
+    if (configuration == null) {
+      return null;
+    }
+    if (isPersistent(cache.getRuntimeConfiguration().getResourcePools())) {
+      LOGGER.info("Cache '{}' has a persistent resource, its hot keys will not be snapshot.", alias);
+      return null;
+    }
+    if (persistenceService == null) {
+      throw new IllegalStateException("Hot key snapshot of cache '" + alias + "' requires a persistence directory to be configured");
+    }
+    SafeSpaceIdentifier space = persistenceService.createSafeSpaceIdentifier(SNAPSHOT_OWNER, alias);
+    try {
+      persistenceService.createSafeSpace(space);
+    } catch (CachePersistenceException e) {
+      throw new IllegalStateException("Could not create hot key snapshot space of cache '" + alias + "'", e);
+    }
+    return new HotKeySnapshot<K, V>(alias, cache, store, configuration.getMaxKeys(), configuration.isIncludeValues(),
+        space.getRoot(), executor);
+  }
+
+  @Override
+  public <K, V> Expiry<? super K, ? super V> adjustExpiry(Expiry<? super K, ? super V> expiry, ServiceConfiguration<?>... serviceConfigs) {
+    HotKeySnapshotConfiguration configuration = findSingletonAmongst(HotKeySnapshotConfiguration.class, (Object[]) serviceConfigs);
+    if (configuration != null && configuration.isIncludeValues()) {
+      return new RestoredExpiry<K, V>(expiry);
+    } else {
+      return expiry;
+    }
+  }
+
+  private static boolean isPersistent(ResourcePools resourcePools) {
+    for (ResourceType<?> type : resourcePools.getResourceTypeSet()) {
+      if (resourcePools.getPoolForResource(type).isPersistent()) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
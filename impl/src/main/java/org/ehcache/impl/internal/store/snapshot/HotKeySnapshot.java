@@ -0,0 +1,380 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.impl.internal.store.snapshot;
+
+import org.ehcache.Cache;
+import org.ehcache.core.InternalCache;
+import org.ehcache.core.spi.LifeCycled;
+import org.ehcache.core.spi.store.Store;
+import org.ehcache.core.spi.store.StoreAccessException;
+import org.ehcache.core.spi.store.tiering.CachingTier;
+import org.ehcache.expiry.Duration;
+import org.ehcache.impl.config.loaderwriter.warming.CacheWarmingConfiguration;
+import org.ehcache.impl.internal.loaderwriter.warming.CacheWarming;
+import org.ehcache.impl.internal.store.tiering.CompoundCachingTier;
+import org.ehcache.impl.internal.store.tiering.TieredStore;
+import org.ehcache.impl.serialization.PlainJavaSerializer;
+import org.ehcache.spi.serialization.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Snapshot of the hottest keys of a single cache, written when the cache closes and restored when it initializes.
+ * <p>
+ * The snapshot file holds a header, the key count and then each key, followed by its value and expiration time when
+ * values are included, as length prefixed Java serialized forms. Keys are written hottest first so that they are also
+ * restored first. Restored values live for the time they had left when snapshot, through {@link RestoredExpiry}.
+ */
+class HotKeySnapshot<K, V> implements LifeCycled {
+
+  static final String SNAPSHOT_FILE = "hot-keys.snapshot";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(HotKeySnapshot.class);
+
+  private static final int MAGIC = 0xEC4C5348;
+  private static final int VERSION = 2;
+
+  private static final Comparator<Ranked<?, ?>> COLDEST_FIRST = new Comparator<Ranked<?, ?>>() {
+    @Override
+    public int compare(Ranked<?, ?> a, Ranked<?, ?> b) {
+      if (a.hits != b.hits) {
+        return a.hits < b.hits ? -1 : 1;
+      } else if (a.lastAccessTime != b.lastAccessTime) {
+        return a.lastAccessTime < b.lastAccessTime ? -1 : 1;
+      } else {
+        return 0;
+      }
+    }
+  };
+
+  private final String alias;
+  private final InternalCache<K, V> cache;
+  private final Store<K, V> store;
+  private final int maxKeys;
+  private final boolean includeValues;
+  private final File snapshotFile;
+  private final ExecutorService executor;
+  private final Serializer<Object> serializer;
+
+  private volatile boolean closed;
+  private volatile CacheWarming<K, V> warming;
+
+  HotKeySnapshot(String alias, InternalCache<K, V> cache, Store<K, V> store, int maxKeys, boolean includeValues,
+                 File directory, ExecutorService executor) {
+    this.alias = alias;
+    this.cache = cache;
+    this.store = store;
+    this.maxKeys = maxKeys;
+    this.includeValues = includeValues;
+    this.snapshotFile = new File(directory, SNAPSHOT_FILE);
+    this.executor = executor;
+    this.serializer = new PlainJavaSerializer<Object>(cache.getRuntimeConfiguration().getClassLoader());
+  }
+
+  @Override
+  public void init() {
+    closed = false;
+    if (!snapshotFile.isFile()) {
+      return;
+    }
+    try {
+      executor.execute(new Runnable() {
+        @Override
+        public void run() {
+          restore();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      LOGGER.warn("Hot key snapshot of cache '{}' could not be restored", alias, e);
+    }
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    CacheWarming<K, V> reload = warming;
+    if (reload != null) {
+      reload.cancel(true);
+      warming = null;
+    }
+    try {
+      write();
+    } catch (Exception e) {
+      LOGGER.warn("Hot key snapshot of cache '{}' could not be written", alias, e);
+    }
+  }
+
+  private void restore() {
+    Map<K, Snapshotted<V>> snapshot;
+    try {
+      snapshot = read();
+    } catch (Exception e) {
+      LOGGER.warn("Hot key snapshot of cache '{}' could not be read", alias, e);
+      return;
+    } finally {
+      // a snapshot is only ever restored once, so that stale values are not resurrected after a crash
+      if (!snapshotFile.delete()) {
+        LOGGER.debug("Hot key snapshot of cache '{}' could not be deleted", alias);
+      }
+    }
+    if (snapshot.isEmpty() || closed) {
+      return;
+    }
+
+    if (snapshot.values().iterator().next().value != null) {
+      restoreValues(snapshot);
+    } else if (cache.getCacheLoaderWriter() != null) {
+      CacheWarming<K, V> reload = new CacheWarming<K, V>(alias, cache, snapshot.keySet(),
+          CacheWarmingConfiguration.DEFAULT_CHUNK_SIZE, CacheWarmingConfiguration.DEFAULT_CONCURRENCY, 0, executor);
+      warming = reload;
+      reload.start();
+    } else {
+      LOGGER.warn("Hot key snapshot of cache '{}' holds no values and the cache has no loader-writer to load them", alias);
+    }
+  }
+
+  private void restoreValues(Map<K, Snapshotted<V>> snapshot) {
+    int restored = 0;
+    try {
+      for (Map.Entry<K, Snapshotted<V>> entry : snapshot.entrySet()) {
+        if (closed) {
+          break;
+        }
+        Snapshotted<V> mapping = entry.getValue();
+        Duration remaining;
+        if (mapping.expirationTime == Store.ValueHolder.NO_EXPIRE) {
+          remaining = Duration.INFINITE;
+        } else {
+          long millis = mapping.expirationTime - System.currentTimeMillis();
+          if (millis <= 0) {
+            continue;
+          }
+          remaining = new Duration(millis, MILLISECONDS);
+        }
+        RestoredExpiry.restoring(remaining);
+        try {
+          if (store.putIfAbsent(entry.getKey(), mapping.value) == null) {
+            restored++;
+          }
+        } finally {
+          RestoredExpiry.restored();
+        }
+      }
+    } catch (StoreAccessException e) {
+      LOGGER.warn("Restoring hot key snapshot of cache '{}' aborted", alias, e);
+    }
+    LOGGER.info("Cache '{}' restored {} of {} snapshot mappings.", alias, restored, snapshot.size());
+  }
+
+  /**
+   * Ranks the live mappings of the store by hits, then last access time, and writes the hottest {@code maxKeys}.
+   * <p>
+   * The access data of a tiered store is taken from its caching tier too, as its authority only counts the misses of
+   * the caching tier.
+   */
+  private void write() throws IOException, StoreAccessException {
+    Map<K, Store.ValueHolder<V>> cached = cachingTierHolders();
+    PriorityQueue<Ranked<K, V>> hottest = new PriorityQueue<Ranked<K, V>>(maxKeys, COLDEST_FIRST);
+    long now = System.currentTimeMillis();
+    Store.Iterator<Cache.Entry<K, Store.ValueHolder<V>>> iterator = store.iterator();
+    while (iterator.hasNext()) {
+      Cache.Entry<K, Store.ValueHolder<V>> entry = iterator.next();
+      Store.ValueHolder<V> holder = entry.getValue();
+      if (holder == null || holder.isExpired(now, MILLISECONDS)) {
+        continue;
+      }
+      long hits = holder.hits();
+      long lastAccessTime = holder.lastAccessTime(MILLISECONDS);
+      long expirationTime = holder.expirationTime(MILLISECONDS);
+      Store.ValueHolder<V> cachedHolder = cached.get(entry.getKey());
+      if (cachedHolder != null) {
+        if (cachedHolder.isExpired(now, MILLISECONDS)) {
+          continue;
+        }
+        hits += cachedHolder.hits();
+        lastAccessTime = Math.max(lastAccessTime, cachedHolder.lastAccessTime(MILLISECONDS));
+        expirationTime = cachedHolder.expirationTime(MILLISECONDS);
+      }
+      Ranked<K, V> ranked = new Ranked<K, V>(entry.getKey(), hits, lastAccessTime, expirationTime,
+          includeValues ? holder.value() : null);
+      if (hottest.size() < maxKeys) {
+        hottest.add(ranked);
+      } else if (COLDEST_FIRST.compare(ranked, hottest.peek()) > 0) {
+        hottest.poll();
+        hottest.add(ranked);
+      }
+    }
+
+    if (hottest.isEmpty()) {
+      if (snapshotFile.exists() && !snapshotFile.delete()) {
+        throw new IOException("Could not delete " + snapshotFile);
+      }
+      return;
+    }
+
+    List<Ranked<K, V>> ranking = new ArrayList<Ranked<K, V>>(hottest);
+    Collections.sort(ranking, Collections.reverseOrder(COLDEST_FIRST));
+
+    File tempFile = new File(snapshotFile.getParentFile(), SNAPSHOT_FILE + ".tmp");
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+    try {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeBoolean(includeValues);
+      out.writeInt(ranking.size());
+      for (Ranked<K, V> ranked : ranking) {
+        writeBuffer(out, serializer.serialize(ranked.key));
+        if (includeValues) {
+          writeBuffer(out, serializer.serialize(ranked.value));
+          out.writeLong(ranked.expirationTime);
+        }
+      }
+    } finally {
+      out.close();
+    }
+    if ((snapshotFile.exists() && !snapshotFile.delete()) || !tempFile.renameTo(snapshotFile)) {
+      throw new IOException("Could not move " + tempFile + " to " + snapshotFile);
+    }
+    LOGGER.debug("Cache '{}' snapshot {} hot keys.", alias, ranking.size());
+  }
+
+  /**
+   * Collects the value holders of the caching tier of a tiered store, by key.
+   */
+  @SuppressWarnings("unchecked")
+  private Map<K, Store.ValueHolder<V>> cachingTierHolders() throws StoreAccessException {
+    Map<K, Store.ValueHolder<V>> holders = new HashMap<K, Store.ValueHolder<V>>();
+    if (store instanceof TieredStore<?, ?>) {
+      CachingTier<K, V> cachingTier = ((TieredStore<K, V>) store).getCachingTier();
+      if (cachingTier instanceof CompoundCachingTier<?, ?>) {
+        collectHolders(((CompoundCachingTier<K, V>) cachingTier).getHigherTier(), holders);
+        collectHolders(((CompoundCachingTier<K, V>) cachingTier).getLowerTier(), holders);
+      } else {
+        collectHolders(cachingTier, holders);
+      }
+    }
+    return holders;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <K, V> void collectHolders(Object tier, Map<K, Store.ValueHolder<V>> holders) throws StoreAccessException {
+    if (tier instanceof Store<?, ?>) {
+      Store.Iterator<Cache.Entry<K, Store.ValueHolder<V>>> iterator = ((Store<K, V>) tier).iterator();
+      while (iterator.hasNext()) {
+        Cache.Entry<K, Store.ValueHolder<V>> entry = iterator.next();
+        if (entry.getValue() != null) {
+          holders.put(entry.getKey(), entry.getValue());
+        }
+      }
+    }
+  }
+
+  /**
+   * Reads the snapshot, hottest key first. Values are {@code null} when the snapshot holds keys only, and keys or
+   * values no longer matching the cache types are skipped.
+   */
+  private Map<K, Snapshotted<V>> read() throws IOException, ClassNotFoundException {
+    Class<K> keyType = cache.getRuntimeConfiguration().getKeyType();
+    Class<V> valueType = cache.getRuntimeConfiguration().getValueType();
+    DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)));
+    try {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        throw new IOException(snapshotFile + " is not a hot key snapshot");
+      }
+      boolean withValues = in.readBoolean();
+      int count = in.readInt();
+      Map<K, Snapshotted<V>> snapshot = new LinkedHashMap<K, Snapshotted<V>>();
+      for (int i = 0; i < count; i++) {
+        Object key = serializer.read(readBuffer(in));
+        Object value = withValues ? serializer.read(readBuffer(in)) : null;
+        long expirationTime = withValues ? in.readLong() : Store.ValueHolder.NO_EXPIRE;
+        if (keyType.isInstance(key) && (!withValues || valueType.isInstance(value))) {
+          snapshot.put(keyType.cast(key), new Snapshotted<V>(withValues ? valueType.cast(value) : null, expirationTime));
+        }
+      }
+      return snapshot;
+    } finally {
+      in.close();
+    }
+  }
+
+  private static void writeBuffer(DataOutputStream out, ByteBuffer buffer) throws IOException {
+    out.writeInt(buffer.remaining());
+    if (buffer.hasArray()) {
+      out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+    } else {
+      byte[] bytes = new byte[buffer.remaining()];
+      buffer.get(bytes);
+      out.write(bytes);
+    }
+  }
+
+  private static ByteBuffer readBuffer(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return ByteBuffer.wrap(bytes);
+  }
+
+  private static final class Ranked<K, V> {
+
+    private final K key;
+    private final long hits;
+    private final long lastAccessTime;
+    private final long expirationTime;
+    private final V value;
+
+    Ranked(K key, long hits, long lastAccessTime, long expirationTime, V value) {
+      this.key = key;
+      this.hits = hits;
+      this.lastAccessTime = lastAccessTime;
+      this.expirationTime = expirationTime;
+      this.value = value;
+    }
+  }
+
+  private static final class Snapshotted<V> {
+
+    private final V value;
+    private final long expirationTime;
+
+    Snapshotted(V value, long expirationTime) {
+      this.value = value;
+      this.expirationTime = expirationTime;
+    }
+  }
+}
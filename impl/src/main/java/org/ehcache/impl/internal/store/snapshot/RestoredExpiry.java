@@ -0,0 +1,64 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.impl.internal.store.snapshot;
+
+import org.ehcache.ValueSupplier;
+import org.ehcache.expiry.Duration;
+import org.ehcache.expiry.Expiry;
+
+/**
+ * {@link Expiry} giving the mappings restored from a {@link HotKeySnapshot} the time they had left to live when they
+ * were snapshot, and delegating to another one for everything else.
+ * <p>
+ * The remaining time is handed over by the restoring thread, around each mapping it installs.
+ */
+class RestoredExpiry<K, V> implements Expiry<K, V> {
+
+  private static final ThreadLocal<Duration> RESTORING = new ThreadLocal<Duration>();
+
+  private final Expiry<? super K, ? super V> delegate;
+
+  RestoredExpiry(Expiry<? super K, ? super V> delegate) {
+    this.delegate = delegate;
+  }
+
+  /**
+   * Makes the mappings created by the current thread live for {@code remaining}, until {@link #restored()} is called.
+   */
+  static void restoring(Duration remaining) {
+    RESTORING.set(remaining);
+  }
+
+  static void restored() {
+    RESTORING.remove();
+  }
+
+  @Override
+  public Duration getExpiryForCreation(K key, V value) {
+    Duration remaining = RESTORING.get();
+    return remaining == null ? delegate.getExpiryForCreation(key, value) : remaining;
+  }
+
+  @Override
+  public Duration getExpiryForAccess(K key, ValueSupplier<? extends V> value) {
+    return delegate.getExpiryForAccess(key, value);
+  }
+
+  @Override
+  public Duration getExpiryForUpdate(K key, ValueSupplier<? extends V> oldValue, V newValue) {
+    return delegate.getExpiryForUpdate(key, oldValue, newValue);
+  }
+}
@@ -81,6 +81,24 @@ public class CompoundCachingTier<K, V> implements CachingTier<K, V> {
     StatisticsManager.associate(lower).withParent(this);
   }
 
+  /**
+   * Returns the higher of the two tiers.
+   *
+   * @return the higher tier
+   */
+  public HigherCachingTier<K, V> getHigherTier() {
+    return higher;
+  }
+
+  /**
+   * Returns the lower of the two tiers.
+   *
+   * @return the lower tier
+   */
+  public LowerCachingTier<K, V> getLowerTier() {
+    return lower;
+  }
+
   private void notifyInvalidation(K key, Store.ValueHolder<V> p) {
     final InvalidationListener<K, V> invalidationListener = this.invalidationListener;
     if (invalidationListener != null) {
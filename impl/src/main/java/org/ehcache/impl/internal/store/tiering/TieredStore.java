@@ -324,6 +324,16 @@ public class TieredStore<K, V> implements Store<K, V> {
     return cachingTierRef.get();
   }
 
+  /**
+   * Returns the caching tier of this store, whose value holders carry the access data of the mappings it holds: the
+   * authoritative tier only sees the caching tier misses.
+   *
+   * @return the caching tier
+   */
+  public CachingTier<K, V> getCachingTier() {
+    return realCachingTier;
+  }
+
   @ServiceDependencies({CachingTier.Provider.class, AuthoritativeTier.Provider.class})
   public static class Provider implements Store.Provider {
 
@@ -16,6 +16,8 @@
 
 package org.ehcache.impl.serialization;
 
+import org.ehcache.spi.serialization.BinaryComparableSerializer;
+import org.ehcache.spi.serialization.BufferWritingSerializer;
 import org.ehcache.spi.serialization.Serializer;
 
 import java.nio.ByteBuffer;
@@ -24,7 +26,7 @@ import java.nio.ByteBuffer;
  * Default {@link Serializer} for {@code Char} type. Simply writes the char value
  * to a byte buffer.
  */
-public class CharSerializer implements Serializer<Character> {
+public class CharSerializer implements BufferWritingSerializer<Character>, BinaryComparableSerializer<Character> {
 
   /**
    * No arg constructor
@@ -54,6 +56,22 @@ public class CharSerializer implements Serializer<Character> {
     return byteBuffer;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int serializedSize(Character object) {
+    return 2;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void serialize(Character object, ByteBuffer target) {
+    target.putChar(object);
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -68,6 +86,6 @@ public class CharSerializer implements Serializer<Character> {
    */
   @Override
   public boolean equals(Character object, ByteBuffer binary) throws ClassNotFoundException {
-    return object.equals(read(binary));
+    return object.charValue() == binary.getChar();
   }
 }
@@ -16,6 +16,7 @@
 
 package org.ehcache.impl.serialization;
 
+import org.ehcache.spi.serialization.BufferWritingSerializer;
 import org.ehcache.spi.serialization.Serializer;
 
 import java.nio.ByteBuffer;
@@ -24,7 +25,7 @@ import java.nio.ByteBuffer;
  * Default {@link Serializer} for {@code Double} type. Simply writes the double value
  * to a byte buffer.
  */
-public class DoubleSerializer implements Serializer<Double> {
+public class DoubleSerializer implements BufferWritingSerializer<Double> {
 
   /**
    * No arg constructor
@@ -54,6 +55,22 @@ public class DoubleSerializer implements Serializer<Double> {
     return byteBuffer;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int serializedSize(Double object) {
+    return 8;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void serialize(Double object, ByteBuffer target) {
+    target.putDouble(object);
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -68,6 +85,6 @@ public class DoubleSerializer implements Serializer<Double> {
    */
   @Override
   public boolean equals(Double object, ByteBuffer binary) throws ClassNotFoundException {
-    return object.equals(read(binary));
+    return Double.doubleToLongBits(object) == Double.doubleToLongBits(binary.getDouble());
   }
 }
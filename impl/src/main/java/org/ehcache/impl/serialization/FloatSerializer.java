@@ -16,6 +16,7 @@
 
 package org.ehcache.impl.serialization;
 
+import org.ehcache.spi.serialization.BufferWritingSerializer;
 import org.ehcache.spi.serialization.Serializer;
 
 import java.nio.ByteBuffer;
@@ -24,7 +25,7 @@ import java.nio.ByteBuffer;
  * Default {@link Serializer} for {@code Float} type. Simply writes the float value
  * to a byte buffer.
  */
-public class FloatSerializer implements Serializer<Float> {
+public class FloatSerializer implements BufferWritingSerializer<Float> {
 
   /**
    * No arg constructor
@@ -54,6 +55,22 @@ public class FloatSerializer implements Serializer<Float> {
     return byteBuffer;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int serializedSize(Float object) {
+    return 4;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void serialize(Float object, ByteBuffer target) {
+    target.putFloat(object);
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -68,6 +85,6 @@ public class FloatSerializer implements Serializer<Float> {
    */
   @Override
   public boolean equals(Float object, ByteBuffer binary) throws ClassNotFoundException {
-    return object.equals(read(binary));
+    return Float.floatToIntBits(object) == Float.floatToIntBits(binary.getFloat());
   }
 }
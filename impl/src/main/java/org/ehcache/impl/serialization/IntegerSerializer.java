@@ -16,6 +16,8 @@
 
 package org.ehcache.impl.serialization;
 
+import org.ehcache.spi.serialization.BinaryComparableSerializer;
+import org.ehcache.spi.serialization.BufferWritingSerializer;
 import org.ehcache.spi.serialization.Serializer;
 
 import java.nio.ByteBuffer;
@@ -24,7 +26,7 @@ import java.nio.ByteBuffer;
  * Default {@link Serializer} for {@code Integer} type. Simply writes the integer value
  * to a byte buffer.
  */
-public class IntegerSerializer implements Serializer<Integer> {
+public class IntegerSerializer implements BufferWritingSerializer<Integer>, BinaryComparableSerializer<Integer> {
 
   /**
    * No arg constructor
@@ -54,6 +56,22 @@ public class IntegerSerializer implements Serializer<Integer> {
     return byteBuffer;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int serializedSize(Integer object) {
+    return 4;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void serialize(Integer object, ByteBuffer target) {
+    target.putInt(object);
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -68,6 +86,6 @@ public class IntegerSerializer implements Serializer<Integer> {
    */
   @Override
   public boolean equals(Integer object, ByteBuffer binary) throws ClassNotFoundException {
-    return object.equals(read(binary));
+    return object.intValue() == binary.getInt();
   }
 }
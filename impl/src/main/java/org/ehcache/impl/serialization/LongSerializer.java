@@ -16,6 +16,8 @@
 
 package org.ehcache.impl.serialization;
 
+import org.ehcache.spi.serialization.BinaryComparableSerializer;
+import org.ehcache.spi.serialization.BufferWritingSerializer;
 import org.ehcache.spi.serialization.Serializer;
 
 import java.nio.ByteBuffer;
@@ -24,7 +26,7 @@ import java.nio.ByteBuffer;
  * Default {@link Serializer} for {@code Long} type. Simply writes the long value
  * to a byte buffer.
  */
-public class LongSerializer implements Serializer<Long> {
+public class LongSerializer implements BufferWritingSerializer<Long>, BinaryComparableSerializer<Long> {
 
   /**
    * No arg constructor
@@ -54,6 +56,22 @@ public class LongSerializer implements Serializer<Long> {
     return byteBuffer;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int serializedSize(Long object) {
+    return 8;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void serialize(Long object, ByteBuffer target) {
+    target.putLong(object);
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -68,6 +86,6 @@ public class LongSerializer implements Serializer<Long> {
    */
   @Override
   public boolean equals(Long object, ByteBuffer binary) throws ClassNotFoundException {
-    return object.equals(read(binary));
+    return object.longValue() == binary.getLong();
   }
 }
@@ -0,0 +1,790 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.serialization;
+
+import org.ehcache.spi.persistence.StateHolder;
+import org.ehcache.spi.persistence.StateRepository;
+import org.ehcache.spi.serialization.Serializer;
+import org.ehcache.spi.serialization.SerializerException;
+import org.ehcache.spi.serialization.StatefulSerializer;
+
+import java.io.Externalizable;
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A schema aware serializer for plain Java objects.
+ * <p>
+ * Instances of eligible classes are written field by field in a compact tagged binary format, using field accessors
+ * computed once per class. The field layout of each class, its schema, is recorded once in the
+ * {@link StateRepository} and referenced by an integer index in the serial form, so that the schema survives restarts
+ * of persistent and clustered caches.
+ * <p>
+ * A class is eligible if it declares a no-argument constructor, is not a JDK class, does not rely on custom
+ * serialization ({@code Externalizable}, {@code writeObject}, {@code readObject}, {@code writeReplace} or
+ * {@code readResolve}) and does not inherit state from a JDK class. Strings, primitive wrappers, enums and
+ * {@code byte[]} have dedicated encodings. Any other value, as well as a value whose object graph contains a cycle, is
+ * written using {@link CompactJavaSerializer}.
+ * <p>
+ * Static and transient fields are not serialized, transient fields keep the value assigned by the no-argument
+ * constructor. Unlike Java serialization, instances referenced more than once within a graph are written, and read
+ * back, as distinct copies.
+ * <p>
+ * Schemas evolve the way Java serialization does: fields removed from a class are ignored when reading, fields added
+ * to a class keep the value assigned by its no-argument constructor, and primitive fields may be widened. Any other
+ * change of field type results in a {@link SerializerException} when reading older data.
+ */
+public class PojoSerializer<T> implements StatefulSerializer<T> {
+
+  private static final byte NULL = 0;
+  private static final byte TRUE = 1;
+  private static final byte FALSE = 2;
+  private static final byte BYTE = 3;
+  private static final byte SHORT = 4;
+  private static final byte CHAR = 5;
+  private static final byte INT = 6;
+  private static final byte LONG = 7;
+  private static final byte FLOAT = 8;
+  private static final byte DOUBLE = 9;
+  private static final byte STRING = 10;
+  private static final byte BYTES = 11;
+  private static final byte ENUM = 12;
+  private static final byte OBJECT = 13;
+  private static final byte JAVA = 14;
+
+  private static final ClassWriter NOT_ELIGIBLE = new ClassWriter(-1, null, null);
+
+  private volatile StateHolder<Integer, ClassSchema> readLookup;
+  private final ConcurrentMap<Integer, ClassSchema> readLookupLocalCache = new ConcurrentHashMap<Integer, ClassSchema>();
+  private final ConcurrentMap<ClassSchema, Integer> writeLookup = new ConcurrentHashMap<ClassSchema, Integer>();
+  private final ConcurrentMap<Class<?>, ClassWriter> writers = new ConcurrentHashMap<Class<?>, ClassWriter>();
+  private final ConcurrentMap<Integer, ClassReader> readers = new ConcurrentHashMap<Integer, ClassReader>();
+
+  private final Lock lock = new ReentrantLock();
+  private int nextSchemaIndex = 0;
+
+  private final CompactJavaSerializer<Object> fallback;
+  private final transient ClassLoader loader;
+
+  /**
+   * Constructor to enable this serializer as a transient one.
+   *
+   * @param loader the classloader to use
+   *
+   * @see Serializer
+   */
+  public PojoSerializer(ClassLoader loader) {
+    this.loader = loader;
+    this.fallback = new CompactJavaSerializer<Object>(loader);
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <T> Class<? extends Serializer<T>> asTypedSerializer() {
+    return (Class) PojoSerializer.class;
+  }
+
+  @Override
+  public void init(StateRepository stateRepository) {
+    this.readLookup = stateRepository.getPersistentStateHolder("PojoSerializer-ClassSchemaIndex", Integer.class, ClassSchema.class);
+    for (Entry<Integer, ClassSchema> entry : readLookup.entrySet()) {
+      Integer index = entry.getKey();
+      readLookupLocalCache.put(index, entry.getValue());
+      if (writeLookup.putIfAbsent(entry.getValue(), index) != null) {
+        throw new AssertionError("Corrupted data " + readLookup);
+      }
+      if (nextSchemaIndex < index + 1) {
+        nextSchemaIndex = index + 1;
+      }
+    }
+    fallback.init(stateRepository);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ByteBuffer serialize(T object) throws SerializerException {
+    Output out = new Output();
+    try {
+      writeValue(out, object, new ArrayList<Object>());
+    } catch (CyclicGraphException e) {
+      out.reset();
+      writeJava(out, object);
+    }
+    return out.toByteBuffer();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public T read(ByteBuffer binary) throws ClassNotFoundException, SerializerException {
+    @SuppressWarnings("unchecked")
+    T value = (T) readValue(binary, binary.get());
+    return value;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean equals(T object, ByteBuffer binary) throws ClassNotFoundException, SerializerException {
+    return object.equals(read(binary));
+  }
+
+  private void writeValue(Output out, Object value, List<Object> path) {
+    if (value == null) {
+      out.writeByte(NULL);
+      return;
+    }
+    Class<?> type = value.getClass();
+    if (type == String.class) {
+      out.writeByte(STRING);
+      out.writeString((String) value);
+    } else if (type == Integer.class) {
+      out.writeByte(INT);
+      out.writeSignedVarInt((Integer) value);
+    } else if (type == Long.class) {
+      out.writeByte(LONG);
+      out.writeSignedVarLong((Long) value);
+    } else if (type == Boolean.class) {
+      out.writeByte((Boolean) value ? TRUE : FALSE);
+    } else if (type == Double.class) {
+      out.writeByte(DOUBLE);
+      out.writeLong(Double.doubleToRawLongBits((Double) value));
+    } else if (type == Float.class) {
+      out.writeByte(FLOAT);
+      out.writeInt(Float.floatToRawIntBits((Float) value));
+    } else if (type == Short.class) {
+      out.writeByte(SHORT);
+      out.writeSignedVarInt((Short) value);
+    } else if (type == Character.class) {
+      out.writeByte(CHAR);
+      out.writeVarInt((Character) value);
+    } else if (type == Byte.class) {
+      out.writeByte(BYTE);
+      out.writeByte((Byte) value);
+    } else if (type == byte[].class) {
+      byte[] bytes = (byte[]) value;
+      out.writeByte(BYTES);
+      out.writeVarInt(bytes.length);
+      out.writeBytes(bytes);
+    } else if (value instanceof Enum<?>) {
+      Enum<?> constant = (Enum<?>) value;
+      out.writeByte(ENUM);
+      out.writeVarInt(getWriter(constant.getDeclaringClass()).index);
+      out.writeString(constant.name());
+    } else {
+      ClassWriter writer = getWriter(type);
+      if (writer == NOT_ELIGIBLE) {
+        writeJava(out, value);
+      } else {
+        for (Object ancestor : path) {
+          if (ancestor == value) {
+            throw new CyclicGraphException();
+          }
+        }
+        path.add(value);
+        out.writeByte(OBJECT);
+        out.writeVarInt(writer.index);
+        writer.writeFields(this, out, value, path);
+        path.remove(path.size() - 1);
+      }
+    }
+  }
+
+  private void writeJava(Output out, Object value) {
+    ByteBuffer serialized = fallback.serialize(value);
+    out.writeByte(JAVA);
+    out.writeVarInt(serialized.remaining());
+    out.writeBytes(serialized.array(), serialized.arrayOffset() + serialized.position(), serialized.remaining());
+  }
+
+  private Object readValue(ByteBuffer in, byte tag) throws ClassNotFoundException {
+    switch (tag) {
+      case NULL:
+        return null;
+      case TRUE:
+        return Boolean.TRUE;
+      case FALSE:
+        return Boolean.FALSE;
+      case BYTE:
+        return in.get();
+      case SHORT:
+        return (short) readSignedVarInt(in);
+      case CHAR:
+        return (char) readVarInt(in);
+      case INT:
+        return readSignedVarInt(in);
+      case LONG:
+        return readSignedVarLong(in);
+      case FLOAT:
+        return Float.intBitsToFloat(in.getInt());
+      case DOUBLE:
+        return Double.longBitsToDouble(in.getLong());
+      case STRING:
+        return readString(in);
+      case BYTES: {
+        byte[] bytes = new byte[readVarInt(in)];
+        in.get(bytes);
+        return bytes;
+      }
+      case ENUM:
+        return readEnum(resolveClass(getSchema(readVarInt(in)).className), readString(in));
+      case OBJECT:
+        return getReader(readVarInt(in)).readFields(this, in);
+      case JAVA: {
+        int length = readVarInt(in);
+        ByteBuffer serialized = in.slice();
+        serialized.limit(length);
+        in.position(in.position() + length);
+        return fallback.read(serialized);
+      }
+      default:
+        throw new SerializerException("Unknown value tag " + tag);
+    }
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Object readEnum(Class<?> type, String name) {
+    return Enum.valueOf((Class) type, name);
+  }
+
+  private ClassWriter getWriter(Class<?> type) {
+    ClassWriter writer = writers.get(type);
+    if (writer == null) {
+      writer = createWriter(type);
+      ClassWriter racer = writers.putIfAbsent(type, writer);
+      if (racer != null) {
+        writer = racer;
+      }
+    }
+    return writer;
+  }
+
+  private ClassWriter createWriter(Class<?> type) {
+    if (type.isEnum()) {
+      return new ClassWriter(getOrAddMapping(new ClassSchema(type.getName(), new String[0], new String[0], new String[0])), null, null);
+    } else if (!isEligible(type)) {
+      return NOT_ELIGIBLE;
+    }
+    List<Field> fields = serializableFields(type);
+    String[] declaringClasses = new String[fields.size()];
+    String[] names = new String[fields.size()];
+    String[] types = new String[fields.size()];
+    for (int i = 0; i < fields.size(); i++) {
+      Field field = fields.get(i);
+      declaringClasses[i] = field.getDeclaringClass().getName();
+      names[i] = field.getName();
+      types[i] = field.getType().getName();
+    }
+    int index = getOrAddMapping(new ClassSchema(type.getName(), declaringClasses, names, types));
+    Field[] accessors = fields.toArray(new Field[fields.size()]);
+    byte[] kinds = new byte[accessors.length];
+    for (int i = 0; i < accessors.length; i++) {
+      kinds[i] = kindOf(accessors[i].getType());
+    }
+    return new ClassWriter(index, accessors, kinds);
+  }
+
+  private ClassReader getReader(int index) throws ClassNotFoundException {
+    ClassLoader classLoader = effectiveLoader();
+    ClassReader reader = readers.get(index);
+    if (reader == null || reader.loader != classLoader) {
+      reader = createReader(getSchema(index), classLoader);
+      readers.put(index, reader);
+    }
+    return reader;
+  }
+
+  private ClassReader createReader(ClassSchema schema, ClassLoader classLoader) throws ClassNotFoundException {
+    Class<?> type = resolveClass(schema.className);
+    if (!isEligible(type)) {
+      throw new SerializerException(type + " is no longer eligible for field based serialization");
+    }
+    List<Field> fields = serializableFields(type);
+    Field[] targets = new Field[schema.names.length];
+    byte[] kinds = new byte[targets.length];
+    for (int i = 0; i < targets.length; i++) {
+      for (Field field : fields) {
+        if (field.getName().equals(schema.names[i]) && field.getDeclaringClass().getName().equals(schema.declaringClasses[i])) {
+          targets[i] = field;
+          kinds[i] = kindOf(field.getType());
+          break;
+        }
+      }
+    }
+    try {
+      Constructor<?> constructor = type.getDeclaredConstructor();
+      constructor.setAccessible(true);
+      return new ClassReader(classLoader, constructor, targets, kinds);
+    } catch (NoSuchMethodException e) {
+      throw new SerializerException(e);
+    }
+  }
+
+  private ClassSchema getSchema(int index) {
+    ClassSchema schema = readLookupLocalCache.get(index);
+    if (schema == null) {
+      schema = readLookup.get(index);
+      if (schema == null) {
+        throw new SerializerException("Unknown class schema " + index);
+      }
+      readLookupLocalCache.put(index, schema);
+      writeLookup.putIfAbsent(schema, index);
+    }
+    return schema;
+  }
+
+  private int getOrAddMapping(ClassSchema schema) {
+    Integer rep = writeLookup.get(schema);
+    if (rep != null) {
+      return rep;
+    }
+
+    lock.lock();
+    try {
+      while (true) {
+        rep = writeLookup.get(schema);
+        if (rep != null) {
+          return rep;
+        }
+        rep = nextSchemaIndex++;
+
+        ClassSchema existing = readLookup.putIfAbsent(rep, schema);
+        if (existing == null) {
+          writeLookup.put(schema, rep);
+          readLookupLocalCache.put(rep, schema);
+          return rep;
+        } else {
+          writeLookup.putIfAbsent(existing, rep);
+          readLookupLocalCache.put(rep, existing);
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private ClassLoader effectiveLoader() {
+    return loader == null ? Thread.currentThread().getContextClassLoader() : loader;
+  }
+
+  private Class<?> resolveClass(String name) throws ClassNotFoundException {
+    ClassLoader classLoader = effectiveLoader();
+    if (classLoader != null) {
+      try {
+        return Class.forName(name, false, classLoader);
+      } catch (ClassNotFoundException e) {
+        // fall through to this class' own loader
+      }
+    }
+    return Class.forName(name, false, PojoSerializer.class.getClassLoader());
+  }
+
+  private static boolean isEligible(Class<?> type) {
+    if (type.isArray() || type.isInterface() || Modifier.isAbstract(type.getModifiers()) || isJdkClass(type)
+        || Externalizable.class.isAssignableFrom(type)) {
+      return false;
+    }
+    try {
+      type.getDeclaredConstructor();
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+    for (Class<?> c = type; c != Object.class; c = c.getSuperclass()) {
+      if (isJdkClass(c)) {
+        for (Field field : c.getDeclaredFields()) {
+          if (isSerializable(field)) {
+            return false;
+          }
+        }
+      } else {
+        for (Method method : c.getDeclaredMethods()) {
+          String name = method.getName();
+          if (name.equals("writeObject") || name.equals("readObject") || name.equals("writeReplace")
+              || name.equals("readResolve") || name.equals("readObjectNoData")) {
+            return false;
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  private static boolean isJdkClass(Class<?> type) {
+    String name = type.getName();
+    return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("sun.") || name.startsWith("com.sun.");
+  }
+
+  private static boolean isSerializable(Field field) {
+    int modifiers = field.getModifiers();
+    return !Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers);
+  }
+
+  private static List<Field> serializableFields(Class<?> type) {
+    List<Field> fields = new ArrayList<Field>();
+    for (Class<?> c = type; c != Object.class; c = c.getSuperclass()) {
+      for (Field field : c.getDeclaredFields()) {
+        if (isSerializable(field)) {
+          field.setAccessible(true);
+          fields.add(field);
+        }
+      }
+    }
+    return fields;
+  }
+
+  private static byte kindOf(Class<?> type) {
+    if (type == int.class) {
+      return INT;
+    } else if (type == long.class) {
+      return LONG;
+    } else if (type == boolean.class) {
+      return TRUE;
+    } else if (type == double.class) {
+      return DOUBLE;
+    } else if (type == float.class) {
+      return FLOAT;
+    } else if (type == short.class) {
+      return SHORT;
+    } else if (type == char.class) {
+      return CHAR;
+    } else if (type == byte.class) {
+      return BYTE;
+    } else {
+      return OBJECT;
+    }
+  }
+
+  private static int readVarInt(ByteBuffer in) {
+    int value = 0;
+    for (int shift = 0; ; shift += 7) {
+      byte b = in.get();
+      value |= (b & 0x7f) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+  }
+
+  private static int readSignedVarInt(ByteBuffer in) {
+    int raw = readVarInt(in);
+    return (raw >>> 1) ^ -(raw & 1);
+  }
+
+  private static long readSignedVarLong(ByteBuffer in) {
+    long raw = 0;
+    for (int shift = 0; ; shift += 7) {
+      byte b = in.get();
+      raw |= (long) (b & 0x7f) << shift;
+      if (b >= 0) {
+        return (raw >>> 1) ^ -(raw & 1);
+      }
+    }
+  }
+
+  private static String readString(ByteBuffer in) {
+    int length = readVarInt(in);
+    char[] chars = new char[length];
+    for (int i = 0; i < length; i++) {
+      byte b = in.get();
+      if (b >= 0) {
+        chars[i] = (char) b;
+      } else {
+        in.position(in.position() - 1);
+        chars[i] = (char) readVarInt(in);
+      }
+    }
+    return new String(chars);
+  }
+
+  private static final class ClassWriter {
+
+    private final int index;
+    private final Field[] fields;
+    private final byte[] kinds;
+
+    ClassWriter(int index, Field[] fields, byte[] kinds) {
+      this.index = index;
+      this.fields = fields;
+      this.kinds = kinds;
+    }
+
+    void writeFields(PojoSerializer<?> serializer, Output out, Object object, List<Object> path) {
+      try {
+        for (int i = 0; i < fields.length; i++) {
+          Field field = fields[i];
+          switch (kinds[i]) {
+            case INT:
+              out.writeByte(INT);
+              out.writeSignedVarInt(field.getInt(object));
+              break;
+            case LONG:
+              out.writeByte(LONG);
+              out.writeSignedVarLong(field.getLong(object));
+              break;
+            case TRUE:
+              out.writeByte(field.getBoolean(object) ? TRUE : FALSE);
+              break;
+            case DOUBLE:
+              out.writeByte(DOUBLE);
+              out.writeLong(Double.doubleToRawLongBits(field.getDouble(object)));
+              break;
+            case FLOAT:
+              out.writeByte(FLOAT);
+              out.writeInt(Float.floatToRawIntBits(field.getFloat(object)));
+              break;
+            case SHORT:
+              out.writeByte(SHORT);
+              out.writeSignedVarInt(field.getShort(object));
+              break;
+            case CHAR:
+              out.writeByte(CHAR);
+              out.writeVarInt(field.getChar(object));
+              break;
+            case BYTE:
+              out.writeByte(BYTE);
+              out.writeByte(field.getByte(object));
+              break;
+            default:
+              serializer.writeValue(out, field.get(object), path);
+          }
+        }
+      } catch (IllegalAccessException e) {
+        throw new SerializerException(e);
+      }
+    }
+  }
+
+  private static final class ClassReader {
+
+    private final ClassLoader loader;
+    private final Constructor<?> constructor;
+    private final Field[] fields;
+    private final byte[] kinds;
+
+    ClassReader(ClassLoader loader, Constructor<?> constructor, Field[] fields, byte[] kinds) {
+      this.loader = loader;
+      this.constructor = constructor;
+      this.fields = fields;
+      this.kinds = kinds;
+    }
+
+    Object readFields(PojoSerializer<?> serializer, ByteBuffer in) throws ClassNotFoundException {
+      try {
+        Object object = constructor.newInstance();
+        for (int i = 0; i < fields.length; i++) {
+          Field field = fields[i];
+          byte tag = in.get();
+          if (field == null) {
+            serializer.readValue(in, tag);
+          } else if (tag == kinds[i]) {
+            switch (tag) {
+              case INT:
+                field.setInt(object, readSignedVarInt(in));
+                break;
+              case LONG:
+                field.setLong(object, readSignedVarLong(in));
+                break;
+              case DOUBLE:
+                field.setDouble(object, Double.longBitsToDouble(in.getLong()));
+                break;
+              case FLOAT:
+                field.setFloat(object, Float.intBitsToFloat(in.getInt()));
+                break;
+              case SHORT:
+                field.setShort(object, (short) readSignedVarInt(in));
+                break;
+              case CHAR:
+                field.setChar(object, (char) readVarInt(in));
+                break;
+              case BYTE:
+                field.setByte(object, in.get());
+                break;
+              default:
+                field.set(object, serializer.readValue(in, tag));
+            }
+          } else {
+            field.set(object, serializer.readValue(in, tag));
+          }
+        }
+        return object;
+      } catch (InstantiationException e) {
+        throw new SerializerException(e);
+      } catch (IllegalAccessException e) {
+        throw new SerializerException(e);
+      } catch (InvocationTargetException e) {
+        throw new SerializerException(e.getCause());
+      } catch (IllegalArgumentException e) {
+        throw new SerializerException("Incompatible field type change in " + constructor.getDeclaringClass(), e);
+      }
+    }
+  }
+
+  /**
+   * Describes the serialized fields of a class, identified by their declaring class and name.
+   */
+  static final class ClassSchema implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String className;
+    private final String[] declaringClasses;
+    private final String[] names;
+    private final String[] types;
+
+    ClassSchema(String className, String[] declaringClasses, String[] names, String[] types) {
+      this.className = className;
+      this.declaringClasses = declaringClasses;
+      this.names = names;
+      this.types = types;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof ClassSchema)) return false;
+
+      ClassSchema that = (ClassSchema) o;
+      return className.equals(that.className) && Arrays.equals(declaringClasses, that.declaringClasses)
+             && Arrays.equals(names, that.names) && Arrays.equals(types, that.types);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = className.hashCode();
+      result = 31 * result + Arrays.hashCode(names);
+      result = 31 * result + Arrays.hashCode(types);
+      return result;
+    }
+
+    @Override
+    public String toString() {
+      return className + Arrays.toString(names);
+    }
+  }
+
+  private static final class Output {
+
+    private byte[] buffer = new byte[64];
+    private int size;
+
+    void reset() {
+      size = 0;
+    }
+
+    ByteBuffer toByteBuffer() {
+      return ByteBuffer.wrap(Arrays.copyOf(buffer, size));
+    }
+
+    private void ensureCapacity(int extra) {
+      if (size + extra > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, size + extra));
+      }
+    }
+
+    void writeByte(int b) {
+      ensureCapacity(1);
+      buffer[size++] = (byte) b;
+    }
+
+    void writeBytes(byte[] bytes) {
+      writeBytes(bytes, 0, bytes.length);
+    }
+
+    void writeBytes(byte[] bytes, int offset, int length) {
+      ensureCapacity(length);
+      System.arraycopy(bytes, offset, buffer, size, length);
+      size += length;
+    }
+
+    void writeInt(int value) {
+      ensureCapacity(4);
+      buffer[size++] = (byte) (value >>> 24);
+      buffer[size++] = (byte) (value >>> 16);
+      buffer[size++] = (byte) (value >>> 8);
+      buffer[size++] = (byte) value;
+    }
+
+    void writeLong(long value) {
+      writeInt((int) (value >>> 32));
+      writeInt((int) value);
+    }
+
+    void writeVarInt(int value) {
+      ensureCapacity(5);
+      while ((value & ~0x7f) != 0) {
+        buffer[size++] = (byte) ((value & 0x7f) | 0x80);
+        value >>>= 7;
+      }
+      buffer[size++] = (byte) value;
+    }
+
+    void writeSignedVarInt(int value) {
+      writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    void writeSignedVarLong(long value) {
+      long raw = (value << 1) ^ (value >> 63);
+      ensureCapacity(10);
+      while ((raw & ~0x7fL) != 0) {
+        buffer[size++] = (byte) ((raw & 0x7f) | 0x80);
+        raw >>>= 7;
+      }
+      buffer[size++] = (byte) raw;
+    }
+
+    void writeString(String value) {
+      int length = value.length();
+      writeVarInt(length);
+      ensureCapacity(length);
+      for (int i = 0; i < length; i++) {
+        char c = value.charAt(i);
+        if (c < 0x80) {
+          buffer[size++] = (byte) c;
+        } else {
+          writeVarInt(c);
+          ensureCapacity(length - i - 1);
+        }
+      }
+    }
+  }
+
+  private static final class CyclicGraphException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+      return this;
+    }
+  }
+}
@@ -16,10 +16,9 @@
 
 package org.ehcache.impl.serialization;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.nio.ByteBuffer;
 
+import org.ehcache.spi.serialization.BufferWritingSerializer;
 import org.ehcache.spi.serialization.Serializer;
 import org.ehcache.spi.serialization.SerializerException;
 
@@ -27,7 +26,7 @@ import org.ehcache.spi.serialization.SerializerException;
  * Default {@link Serializer} for {@code String} type. Simply writes the string bytes in modified UTF-8
  * to a byte buffer.
  */
-public class StringSerializer implements Serializer<String> {
+public class StringSerializer implements BufferWritingSerializer<String> {
 
   /**
    * No arg constructor
@@ -52,41 +51,62 @@ public class StringSerializer implements Serializer<String> {
    */
   @Override
   public ByteBuffer serialize(String object) {
-    ByteArrayOutputStream bout = new ByteArrayOutputStream(object.length());
-    try {
-      int length = object.length();
-      int i = 0;
-
-      for (; i < length; i++) {
-        char c = object.charAt(i);
-        if ((c == 0x0000) || (c > 0x007f)) break;
-        bout.write(c);
-      }
+    ByteBuffer byteBuffer = ByteBuffer.allocate(serializedSize(object));
+    serialize(object, byteBuffer);
+    byteBuffer.flip();
+    return byteBuffer;
+  }
 
-      for (; i < length; i++) {
-        char c = object.charAt(i);
-        if (c == 0x0000) {
-          bout.write(0xc0);
-          bout.write(0x80);
-        } else if (c < 0x0080) {
-          bout.write(c);
-        } else if (c < 0x800) {
-          bout.write(0xc0 | ((c >>> 6) & 0x1f));
-          bout.write(0x80 | (c & 0x3f));
-        } else {
-          bout.write(0xe0 | ((c >>> 12) & 0x1f));
-          bout.write(0x80 | ((c >>> 6) & 0x3f));
-          bout.write(0x80 | (c & 0x3f));
-        }
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int serializedSize(String object) {
+    int length = object.length();
+    int size = length;
+    for (int i = 0; i < length; i++) {
+      char c = object.charAt(i);
+      if (c == 0x0000) {
+        size++;
+      } else if (c >= 0x0800) {
+        size += 2;
+      } else if (c >= 0x0080) {
+        size++;
       }
-    } finally {
-      try {
-        bout.close();
-      } catch (IOException ex) {
-        throw new AssertionError(ex);
+    }
+    return size;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void serialize(String object, ByteBuffer target) {
+    int length = object.length();
+    int i = 0;
+
+    for (; i < length; i++) {
+      char c = object.charAt(i);
+      if ((c == 0x0000) || (c > 0x007f)) break;
+      target.put((byte) c);
+    }
+
+    for (; i < length; i++) {
+      char c = object.charAt(i);
+      if (c == 0x0000) {
+        target.put((byte) 0xc0);
+        target.put((byte) 0x80);
+      } else if (c < 0x0080) {
+        target.put((byte) c);
+      } else if (c < 0x800) {
+        target.put((byte) (0xc0 | ((c >>> 6) & 0x1f)));
+        target.put((byte) (0x80 | (c & 0x3f)));
+      } else {
+        target.put((byte) (0xe0 | ((c >>> 12) & 0x1f)));
+        target.put((byte) (0x80 | ((c >>> 6) & 0x3f)));
+        target.put((byte) (0x80 | (c & 0x3f)));
       }
     }
-    return ByteBuffer.wrap(bout.toByteArray());
   }
 
   /**
@@ -20,12 +20,14 @@ import org.ehcache.config.*;
 import org.ehcache.config.units.EntryUnit;
 import org.ehcache.config.units.MemoryUnit;
 import org.ehcache.core.spi.service.ServiceUtils;
+import org.ehcache.core.statistics.StatisticsLevel;
 import org.ehcache.expiry.Duration;
 import org.ehcache.expiry.Expirations;
 import org.ehcache.expiry.Expiry;
 import org.ehcache.impl.config.copy.DefaultCopierConfiguration;
 import org.ehcache.impl.config.loaderwriter.DefaultCacheLoaderWriterConfiguration;
 import org.ehcache.impl.config.serializer.DefaultSerializerConfiguration;
+import org.ehcache.impl.config.statistics.DefaultStatisticsConfiguration;
 import org.ehcache.impl.config.store.heap.DefaultSizeOfEngineConfiguration;
 import org.ehcache.impl.internal.classes.ClassInstanceConfiguration;
 import org.ehcache.spi.copy.Copier;
@@ -281,6 +283,17 @@ public class CacheConfigurationBuilderTest {
 
   }
 
+  @Test
+  public void testStatisticsLevel() {
+    CacheConfigurationBuilder<String, String> builder = CacheConfigurationBuilder.newCacheConfigurationBuilder(String.class, String.class, heap(10));
+
+    CacheConfiguration<String, String> configuration = builder.withStatisticsLevel(StatisticsLevel.OFF).withStatisticsLevel(StatisticsLevel.COUNTERS).build();
+
+    assertThat(ServiceUtils.findAmongst(DefaultStatisticsConfiguration.class, configuration.getServiceConfigurations()).size(), is(1));
+    assertThat(StatisticsLevel.of(configuration.getServiceConfigurations()), is(StatisticsLevel.COUNTERS));
+    assertThat(StatisticsLevel.of(builder.build().getServiceConfigurations()), is(StatisticsLevel.FULL));
+  }
+
   @Test
   public void testCopyingOfExistingConfiguration() {
     Class<Integer> keyClass = Integer.class;
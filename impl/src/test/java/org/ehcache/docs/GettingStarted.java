@@ -32,6 +32,7 @@ import org.ehcache.docs.plugs.ListenerObject;
 import org.ehcache.expiry.Duration;
 import org.ehcache.expiry.Expirations;
 import org.ehcache.expiry.Expiry;
+import org.ehcache.impl.config.event.DefaultEventSourceConfiguration;
 import org.ehcache.impl.serialization.JavaSerializer;
 import org.ehcache.docs.plugs.OddKeysEvictionAdvisor;
 import org.ehcache.docs.plugs.SampleLoaderWriter;
@@ -208,7 +209,8 @@ public class GettingStarted {
     CacheConfiguration<Long, String> cacheConfiguration = CacheConfigurationBuilder.newCacheConfigurationBuilder(Long.class, String.class,
                                                                                           ResourcePoolsBuilder.heap(5L))
         .withDispatcherConcurrency(10) // <1>
-        .withEventListenersThreadPool("listeners-pool")
+        .withOrderedEventQueue(1000, DefaultEventSourceConfiguration.OverflowPolicy.BLOCK) // <2>
+        .withEventListenersThreadPool("listeners-pool") // <3>
         .build();
     // end::configuringEventProcessingQueues[]
     CacheManager cacheManager = CacheManagerBuilder.newCacheManagerBuilder().withCache("cache", cacheConfiguration)
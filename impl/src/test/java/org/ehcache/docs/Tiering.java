@@ -34,6 +34,7 @@ import org.ehcache.config.units.MemoryUnit;
 import org.ehcache.docs.plugs.ListenerObject;
 import org.ehcache.event.EventType;
 import org.ehcache.impl.config.store.disk.OffHeapDiskStoreConfiguration;
+import org.ehcache.impl.config.store.disk.OffHeapDiskStoreConfiguration.StorageEngineType;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -120,6 +121,23 @@ public class Tiering {
     // end::diskSegments[]
   }
 
+  @Test
+  public void logStructuredDisk() throws Exception {
+    // tag::logStructuredDisk[]
+    String storagePath = getStoragePath();
+    PersistentCacheManager persistentCacheManager = CacheManagerBuilder.newCacheManagerBuilder()
+      .with(CacheManagerBuilder.persistence(new File(storagePath, "myData")))
+      .withCache("write-heavy",
+        CacheConfigurationBuilder.newCacheConfigurationBuilder(Long.class, String.class,
+          ResourcePoolsBuilder.newResourcePoolsBuilder().disk(10, MemoryUnit.MB))
+        .add(new OffHeapDiskStoreConfiguration(null, 1, 16, StorageEngineType.LOG_STRUCTURED, 0.5f, 64 * 1024)) // <1>
+      )
+      .build(true);
+
+    persistentCacheManager.close();
+    // end::logStructuredDisk[]
+  }
+
   @Test
   public void updateResourcesAtRuntime() throws InterruptedException {
     ListenerObject listener = new ListenerObject();
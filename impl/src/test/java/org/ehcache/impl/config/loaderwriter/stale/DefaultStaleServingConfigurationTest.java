@@ -0,0 +1,270 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.impl.config.loaderwriter.stale;
+
+import org.ehcache.Cache;
+import org.ehcache.CacheManager;
+import org.ehcache.core.statistics.CacheStatistics;
+import org.ehcache.expiry.Duration;
+import org.ehcache.expiry.Expirations;
+import org.ehcache.expiry.Expiry;
+import org.ehcache.impl.config.loaderwriter.refreshahead.RefreshAheadProviderConfiguration;
+import org.ehcache.impl.internal.TimeSourceConfiguration;
+import org.ehcache.impl.internal.statistics.DefaultStatisticsService;
+import org.ehcache.internal.TestTimeSource;
+import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
+import org.ehcache.spi.loaderwriter.CacheLoadingException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.ehcache.config.builders.CacheConfigurationBuilder.newCacheConfigurationBuilder;
+import static org.ehcache.config.builders.CacheManagerBuilder.newCacheManagerBuilder;
+import static org.ehcache.config.builders.ResourcePoolsBuilder.heap;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DefaultStaleServingConfigurationTest {
+
+  private static final long TIME_TO_LIVE = 100;
+  private static final long GRACE_PERIOD = 100;
+
+  private final TestTimeSource timeSource = new TestTimeSource(System.currentTimeMillis());
+  private final VersionedLoaderWriter loaderWriter = new VersionedLoaderWriter();
+  private CacheManager cacheManager;
+  private Cache<Long, String> cache;
+  private CacheStatistics statistics;
+
+  private void createCache(boolean revalidatingInBackground) {
+    createCache(Expirations.timeToLiveExpiration(new Duration(TIME_TO_LIVE, MILLISECONDS)), revalidatingInBackground);
+  }
+
+  private void createCache(Expiry<Object, Object> expiry, boolean revalidatingInBackground) {
+    DefaultStatisticsService statisticsService = new DefaultStatisticsService();
+    cacheManager = newCacheManagerBuilder()
+        .using(statisticsService)
+        .using(new TimeSourceConfiguration(timeSource))
+        .using(new RefreshAheadProviderConfiguration())
+        .withCache("cache", newCacheConfigurationBuilder(Long.class, String.class, heap(100))
+            .withLoaderWriter(loaderWriter)
+            .withExpiry(expiry)
+            .add(new DefaultStaleServingConfiguration(new Duration(GRACE_PERIOD, MILLISECONDS), revalidatingInBackground)))
+        .build(true);
+    cache = cacheManager.getCache("cache", Long.class, String.class);
+    statistics = statisticsService.getCacheStatistics("cache");
+  }
+
+  @After
+  public void tearDown() {
+    if (cacheManager != null) {
+      cacheManager.close();
+    }
+  }
+
+  @Test
+  public void testStaleMappingIsServedWhileRevalidatedInTheBackground() throws Exception {
+    createCache(true);
+    assertThat(cache.get(1L), is("value-1-1"));
+
+    timeSource.advanceTime(150);
+    assertThat(cache.get(1L), is("value-1-1"));
+    awaitRefreshes(1);
+    assertThat(cache.get(1L), is("value-1-2"));
+    assertThat(loaderWriter.loads.get(), is(1));
+  }
+
+  @Test
+  public void testFreshMappingIsNotRevalidated() throws Exception {
+    createCache(true);
+    cache.get(1L);
+
+    timeSource.advanceTime(90);
+    assertThat(cache.get(1L), is("value-1-1"));
+    Thread.sleep(100);
+    assertThat(loaderWriter.bulkLoads.get(), is(0));
+  }
+
+  @Test
+  public void testMappingPastGracePeriodIsLoaded() throws Exception {
+    createCache(true);
+    cache.get(1L);
+
+    timeSource.advanceTime(250);
+    assertThat(cache.get(1L), is("value-1-2"));
+    assertThat(loaderWriter.loads.get(), is(2));
+  }
+
+  @Test
+  public void testStaleMappingIsRevalidatedSynchronously() throws Exception {
+    createCache(false);
+    cache.get(1L);
+
+    timeSource.advanceTime(150);
+    assertThat(cache.get(1L), is("value-1-2"));
+    assertThat(loaderWriter.loads.get(), is(2));
+
+    // the reloaded mapping has a fresh time-to-live
+    timeSource.advanceTime(50);
+    assertThat(cache.get(1L), is("value-1-2"));
+    assertThat(loaderWriter.loads.get(), is(2));
+  }
+
+  @Test
+  public void testStaleMappingIsServedOnLoaderFailure() throws Exception {
+    createCache(false);
+    cache.get(1L);
+
+    timeSource.advanceTime(150);
+    loaderWriter.failing = true;
+    assertThat(cache.get(1L), is("value-1-1"));
+
+    timeSource.advanceTime(100);
+    try {
+      cache.get(1L);
+      fail("Expected CacheLoadingException");
+    } catch (CacheLoadingException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testStaleMappingIsNotRenewedByReadWithTimeToIdle() throws Exception {
+    createCache(Expirations.timeToIdleExpiration(new Duration(TIME_TO_LIVE, MILLISECONDS)), false);
+    cache.get(1L);
+
+    timeSource.advanceTime(50);
+    assertThat(cache.get(1L), is("value-1-1"));
+
+    timeSource.advanceTime(150);
+    assertFalse(cache.containsKey(1L));
+    assertThat(cache.get(1L), is("value-1-2"));
+    assertThat(loaderWriter.loads.get(), is(2));
+  }
+
+  @Test
+  public void testStaleMappingIsAbsentToOtherReads() throws Exception {
+    createCache(false);
+    cache.get(1L);
+
+    timeSource.advanceTime(150);
+    assertFalse(cache.containsKey(1L));
+    assertFalse(cache.iterator().hasNext());
+    assertThat(cache.getAll(Collections.singleton(1L)), hasEntry(1L, "value-1-2"));
+  }
+
+  @Test
+  public void testStaleMappingIsAbsentToConditionalOperations() throws Exception {
+    createCache(false);
+    cache.get(1L);
+    cache.get(2L);
+
+    timeSource.advanceTime(150);
+    assertThat(cache.putIfAbsent(1L, "written"), is("value-1-2"));
+    assertFalse(cache.replace(2L, "value-2-1", "written"));
+    assertThat(cache.get(2L), is("value-2-2"));
+  }
+
+  @Test
+  public void testStaleServingRequiresLoaderWriter() {
+    cacheManager = newCacheManagerBuilder().build(true);
+    try {
+      cacheManager.createCache("cache", newCacheConfigurationBuilder(Long.class, String.class, heap(100))
+          .add(new DefaultStaleServingConfiguration(new Duration(GRACE_PERIOD, MILLISECONDS), false)));
+      fail("Expected IllegalStateException");
+    } catch (IllegalStateException e) {
+      assertThat(e.getCause().getMessage(), containsString("loader-writer"));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testGracePeriodMustBePositive() {
+    new DefaultStaleServingConfiguration(Duration.ZERO, true);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testGracePeriodMustBeFinite() {
+    new DefaultStaleServingConfiguration(Duration.INFINITE, false);
+  }
+
+  private void awaitRefreshes(long count) throws InterruptedException {
+    long deadline = System.nanoTime() + SECONDS.toNanos(10);
+    while (statistics.getCacheRefreshHits() < count && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertTrue(statistics.getCacheRefreshHits() >= count);
+  }
+
+  private static class VersionedLoaderWriter implements CacheLoaderWriter<Long, String> {
+
+    private final Map<Long, Integer> versions = new HashMap<Long, Integer>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AtomicInteger bulkLoads = new AtomicInteger();
+    private volatile boolean failing;
+
+    private synchronized String nextValue(Long key) throws Exception {
+      if (failing) {
+        throw new Exception("Loader failure");
+      }
+      Integer version = versions.get(key);
+      version = version == null ? 1 : version + 1;
+      versions.put(key, version);
+      return "value-" + key + "-" + version;
+    }
+
+    @Override
+    public String load(Long key) throws Exception {
+      loads.incrementAndGet();
+      return nextValue(key);
+    }
+
+    @Override
+    public Map<Long, String> loadAll(Iterable<? extends Long> keys) throws Exception {
+      bulkLoads.incrementAndGet();
+      Map<Long, String> values = new HashMap<Long, String>();
+      for (Long key : keys) {
+        values.put(key, nextValue(key));
+      }
+      return values;
+    }
+
+    @Override
+    public void write(Long key, String value) throws Exception {
+    }
+
+    @Override
+    public void writeAll(Iterable<? extends Map.Entry<? extends Long, ? extends String>> entries) throws Exception {
+    }
+
+    @Override
+    public void delete(Long key) throws Exception {
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Long> keys) throws Exception {
+    }
+  }
+}
@@ -16,14 +16,17 @@
 
 package org.ehcache.impl.internal.copy;
 
+import org.ehcache.impl.copy.Immutable;
 import org.ehcache.impl.copy.SerializingCopier;
 import org.ehcache.spi.serialization.Serializer;
 import org.junit.Test;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 /**
@@ -46,8 +49,33 @@ public class SerializingCopierTest {
     assertEquals(in, copied);
   }
 
+  @Test
+  public void testCopySkippingImmutables() throws Exception {
+    @SuppressWarnings("unchecked")
+    Serializer<Object> serializer = mock(Serializer.class);
+    SerializingCopier<Object> serializingCopier = new SerializingCopier<Object>(serializer, true);
+
+    String string = new String("foo");
+    assertSame(string, serializingCopier.copy(string));
+    Long number = 42L;
+    assertSame(number, serializingCopier.copy(number));
+    ImmutableValue immutable = new ImmutableValue();
+    assertSame(immutable, serializingCopier.copy(immutable));
+    verifyZeroInteractions(serializer);
+
+    ArrayList<String> list = new ArrayList<String>();
+    ByteBuffer buff = mock(ByteBuffer.class);
+    when(serializer.serialize(list)).thenReturn(buff);
+    when(serializer.read(buff)).thenReturn(new ArrayList<String>());
+    assertNotSame(list, serializingCopier.copy(list));
+  }
+
   @Test(expected = NullPointerException.class)
   public void testThrowsNPEWhenNoSerializerPassedToConstructor() {
     new SerializingCopier<Object>(null);
   }
+
+  @Immutable
+  private static final class ImmutableValue {
+  }
 }
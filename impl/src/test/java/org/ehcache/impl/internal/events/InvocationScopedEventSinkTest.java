@@ -20,14 +20,13 @@ import org.ehcache.core.spi.store.events.StoreEvent;
 import org.ehcache.core.spi.store.events.StoreEventFilter;
 import org.ehcache.core.spi.store.events.StoreEventListener;
 import org.ehcache.event.EventType;
+import org.ehcache.impl.config.event.DefaultEventSourceConfiguration.OverflowPolicy;
 import org.hamcrest.Matcher;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InOrder;
 
 import java.util.HashSet;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
 
 import static org.ehcache.core.internal.util.ValueSuppliers.supplierOf;
 import static org.ehcache.impl.internal.store.offheap.AbstractOffHeapStoreTest.eventType;
@@ -51,7 +50,7 @@ public class InvocationScopedEventSinkTest {
     listener = mock(StoreEventListener.class);
     storeEventListeners.add(listener);
     eventSink = new InvocationScopedEventSink<String, String>(new HashSet<StoreEventFilter<String, String>>(),
-        false, new BlockingQueue[] { new ArrayBlockingQueue<FireableStoreEventHolder<String, String>>(10) }, storeEventListeners);
+        false, new OrderedEventQueue[] { new OrderedEventQueue<String, String>(10, OverflowPolicy.BLOCK) }, storeEventListeners);
 
   }
 
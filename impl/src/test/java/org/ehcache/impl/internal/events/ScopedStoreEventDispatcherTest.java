@@ -17,20 +17,25 @@
 package org.ehcache.impl.internal.events;
 
 import org.ehcache.event.EventType;
+import org.ehcache.impl.config.event.DefaultEventSourceConfiguration.OverflowPolicy;
 import org.ehcache.core.events.StoreEventSink;
 import org.ehcache.core.spi.function.BiFunction;
 import org.ehcache.impl.internal.concurrent.ConcurrentHashMap;
 import org.ehcache.core.spi.store.events.StoreEvent;
 import org.ehcache.core.spi.store.events.StoreEventFilter;
 import org.ehcache.core.spi.store.events.StoreEventListener;
+import org.hamcrest.Description;
 import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.mockito.Matchers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Random;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.ehcache.core.internal.util.ValueSuppliers.supplierOf;
 import static org.ehcache.impl.internal.util.Matchers.eventOfType;
@@ -40,6 +45,7 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.argThat;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -117,6 +123,88 @@ public class ScopedStoreEventDispatcherTest {
     verifyNoMoreInteractions(listener);
   }
 
+  @Test
+  public void testOrderedEventOverflowDropsEvent() {
+    ScopedStoreEventDispatcher<String, String> dispatcher = new ScopedStoreEventDispatcher<String, String>(1, 1, OverflowPolicy.DROP);
+    @SuppressWarnings("unchecked")
+    StoreEventListener<String, String> listener = mock(StoreEventListener.class);
+    dispatcher.addEventListener(listener);
+    dispatcher.setEventOrdering(true);
+
+    StoreEventSink<String, String> first = dispatcher.eventSink();
+    first.created("a", "a");
+    StoreEventSink<String, String> second = dispatcher.eventSink();
+    second.created("b", "b");
+    assertThat(dispatcher.getOrderedQueueDepth(), is(1));
+    assertThat(dispatcher.getDroppedOrderedEventCount(), is(1L));
+
+    dispatcher.releaseEventSink(second);
+    verifyNoMoreInteractions(listener);
+
+    dispatcher.releaseEventSink(first);
+    Matcher<StoreEvent<String, String>> matcher = eventOfType(EventType.CREATED);
+    verify(listener).onEvent(argThat(matcher));
+    verifyNoMoreInteractions(listener);
+    assertThat(dispatcher.getOrderedQueueDepth(), is(0));
+  }
+
+  @Test
+  public void testOrderedEventOverflowDeliversUnordered() {
+    ScopedStoreEventDispatcher<String, String> dispatcher = new ScopedStoreEventDispatcher<String, String>(1, 1, OverflowPolicy.UNORDERED);
+    @SuppressWarnings("unchecked")
+    StoreEventListener<String, String> listener = mock(StoreEventListener.class);
+    dispatcher.addEventListener(listener);
+    dispatcher.setEventOrdering(true);
+
+    StoreEventSink<String, String> first = dispatcher.eventSink();
+    first.created("a", "a");
+    StoreEventSink<String, String> second = dispatcher.eventSink();
+    second.created("b", "b");
+    assertThat(dispatcher.getUnorderedOverflowEventCount(), is(1L));
+
+    dispatcher.releaseEventSink(second);
+    verify(listener).onEvent(argThat(eventWithKey("b")));
+    verifyNoMoreInteractions(listener);
+
+    dispatcher.releaseEventSink(first);
+    verify(listener).onEvent(argThat(eventWithKey("a")));
+    assertThat(dispatcher.getOrderedQueueDepth(), is(0));
+  }
+
+  @Test
+  public void testOrderedEventOverflowBlocksUntilDrained() throws Exception {
+    final ScopedStoreEventDispatcher<String, String> dispatcher = new ScopedStoreEventDispatcher<String, String>(1, 1, OverflowPolicy.BLOCK);
+    @SuppressWarnings("unchecked")
+    StoreEventListener<String, String> listener = mock(StoreEventListener.class);
+    dispatcher.addEventListener(listener);
+    dispatcher.setEventOrdering(true);
+
+    StoreEventSink<String, String> first = dispatcher.eventSink();
+    first.created("a", "a");
+
+    final CountDownLatch enqueued = new CountDownLatch(1);
+    Thread blocked = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        StoreEventSink<String, String> second = dispatcher.eventSink();
+        second.created("b", "b");
+        enqueued.countDown();
+        dispatcher.releaseEventSink(second);
+      }
+    });
+    blocked.start();
+
+    assertThat(enqueued.await(100, TimeUnit.MILLISECONDS), is(false));
+    dispatcher.releaseEventSink(first);
+    assertThat(enqueued.await(10, TimeUnit.SECONDS), is(true));
+    blocked.join();
+
+    InOrder inOrder = inOrder(listener);
+    inOrder.verify(listener).onEvent(argThat(eventWithKey("a")));
+    inOrder.verify(listener).onEvent(argThat(eventWithKey("b")));
+    assertThat(dispatcher.getDroppedOrderedEventCount(), is(0L));
+  }
+
   @Test
   public void testOrderedEventDelivery() throws Exception {
     final ScopedStoreEventDispatcher<Long, Boolean> dispatcher = new ScopedStoreEventDispatcher<Long, Boolean>(4);
@@ -195,4 +283,18 @@ public class ScopedStoreEventDispatcherTest {
 
     assertThat(resultMap, is(map));
   }
+
+  private static Matcher<StoreEvent<String, String>> eventWithKey(final String key) {
+    return new TypeSafeMatcher<StoreEvent<String, String>>() {
+      @Override
+      protected boolean matchesSafely(StoreEvent<String, String> item) {
+        return item.getKey().equals(key);
+      }
+
+      @Override
+      public void describeTo(Description description) {
+        description.appendText("event on key ").appendValue(key);
+      }
+    };
+  }
 }
@@ -0,0 +1,240 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.impl.internal.loaderwriter.refreshahead;
+
+import org.ehcache.Cache;
+import org.ehcache.CacheManager;
+import org.ehcache.core.InternalCache;
+import org.ehcache.core.statistics.CacheStatistics;
+import org.ehcache.expiry.Duration;
+import org.ehcache.expiry.Expirations;
+import org.ehcache.impl.config.loaderwriter.refreshahead.RefreshAheadConfiguration;
+import org.ehcache.impl.config.loaderwriter.refreshahead.RefreshAheadProviderConfiguration;
+import org.ehcache.impl.internal.TimeSourceConfiguration;
+import org.ehcache.impl.internal.statistics.DefaultStatisticsService;
+import org.ehcache.internal.TestTimeSource;
+import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.ehcache.config.builders.CacheConfigurationBuilder.newCacheConfigurationBuilder;
+import static org.ehcache.config.builders.CacheManagerBuilder.newCacheManagerBuilder;
+import static org.ehcache.config.builders.ResourcePoolsBuilder.heap;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class DefaultRefreshAheadProviderTest {
+
+  private static final long TIME_TO_LIVE = 100;
+
+  private final TestTimeSource timeSource = new TestTimeSource(System.currentTimeMillis());
+  private VersionedLoaderWriter loaderWriter;
+  private CacheManager cacheManager;
+  private Cache<Long, String> cache;
+  private CacheStatistics statistics;
+
+  @Before
+  public void setUp() {
+    loaderWriter = new VersionedLoaderWriter();
+    DefaultStatisticsService statisticsService = new DefaultStatisticsService();
+    cacheManager = newCacheManagerBuilder()
+        .using(statisticsService)
+        .using(new TimeSourceConfiguration(timeSource))
+        .using(new RefreshAheadProviderConfiguration())
+        .withCache("cache", newCacheConfigurationBuilder(Long.class, String.class, heap(100))
+            .withLoaderWriter(loaderWriter)
+            .withExpiry(Expirations.timeToLiveExpiration(new Duration(TIME_TO_LIVE, MILLISECONDS)))
+            .add(new RefreshAheadConfiguration(0.25)))
+        .build(true);
+    cache = cacheManager.getCache("cache", Long.class, String.class);
+    statistics = statisticsService.getCacheStatistics("cache");
+  }
+
+  @After
+  public void tearDown() {
+    loaderWriter.release();
+    cacheManager.close();
+  }
+
+  @Test
+  public void testMappingReadNearExpiryIsRefreshedInTheBackground() throws Exception {
+    assertThat(cache.get(1L), is("value-1-1"));
+
+    timeSource.advanceTime(80);
+    assertThat(cache.get(1L), is("value-1-1"));
+    awaitRefreshes(1);
+    assertThat(cache.get(1L), is("value-1-2"));
+    assertThat(statistics.getCacheRefreshHits(), is(1L));
+
+    // the refreshed mapping lives past the original expiration without a load on the reading thread
+    timeSource.advanceTime(50);
+    assertThat(cache.get(1L), is("value-1-2"));
+    assertThat(loaderWriter.loads.get(), is(1));
+  }
+
+  @Test
+  public void testMappingReadEarlyIsNotRefreshed() throws Exception {
+    cache.get(1L);
+    timeSource.advanceTime(50);
+    cache.get(1L);
+    Thread.sleep(100);
+    assertThat(loaderWriter.batches(), empty());
+    assertThat(statistics.getCacheRefreshHits(), is(0L));
+  }
+
+  @Test
+  public void testKeysDueMeanwhileAreBatched() throws Exception {
+    for (long key = 0; key < 5; key++) {
+      cache.get(key);
+    }
+    timeSource.advanceTime(80);
+    loaderWriter.block();
+    for (long key = 0; key < 5; key++) {
+      cache.get(key);
+    }
+    loaderWriter.release();
+    awaitRefreshes(5);
+
+    assertThat(loaderWriter.batches().size(), lessThanOrEqualTo(2));
+    List<Long> refreshed = new ArrayList<Long>();
+    for (List<Long> batch : loaderWriter.batches()) {
+      refreshed.addAll(batch);
+    }
+    assertThat(refreshed, containsInAnyOrder(0L, 1L, 2L, 3L, 4L));
+  }
+
+  @Test
+  public void testRefreshDoesNotResurrectRemovedMapping() throws Exception {
+    cache.get(1L);
+    timeSource.advanceTime(80);
+    loaderWriter.block();
+    cache.get(1L);
+    ((InternalCache<Long, String>) cache).getJsr107Cache().getAndRemove(1L);
+    loaderWriter.release();
+    awaitRefreshes(1);
+
+    assertFalse(cache.containsKey(1L));
+    assertThat(statistics.getCacheRefreshHits(), is(0L));
+    assertThat(statistics.getCacheRefreshMisses(), is(1L));
+  }
+
+  @Test
+  public void testRefreshDoesNotOverwriteValueWrittenMeanwhile() throws Exception {
+    cache.get(1L);
+    timeSource.advanceTime(80);
+    loaderWriter.block();
+    cache.get(1L);
+    cache.put(1L, "written");
+    loaderWriter.release();
+    awaitRefreshes(1);
+
+    assertThat(cache.get(1L), is("written"));
+    assertThat(statistics.getCacheRefreshHits(), is(0L));
+    assertThat(statistics.getCacheRefreshMisses(), is(1L));
+  }
+
+  private void awaitRefreshes(long count) throws InterruptedException {
+    long deadline = System.nanoTime() + SECONDS.toNanos(10);
+    while (statistics.getCacheRefreshHits() + statistics.getCacheRefreshMisses() < count && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertTrue(statistics.getCacheRefreshHits() + statistics.getCacheRefreshMisses() >= count);
+  }
+
+  private static class VersionedLoaderWriter implements CacheLoaderWriter<Long, String> {
+
+    private final ConcurrentMap<Long, AtomicInteger> versions = new ConcurrentHashMap<Long, AtomicInteger>();
+    private final List<List<Long>> batches = Collections.synchronizedList(new ArrayList<List<Long>>());
+    private final AtomicInteger loads = new AtomicInteger();
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+
+    void block() {
+      gate = new CountDownLatch(1);
+    }
+
+    void release() {
+      gate.countDown();
+    }
+
+    List<List<Long>> batches() {
+      return batches;
+    }
+
+    private String nextValue(Long key) {
+      AtomicInteger version = versions.get(key);
+      if (version == null) {
+        AtomicInteger existing = versions.putIfAbsent(key, version = new AtomicInteger());
+        if (existing != null) {
+          version = existing;
+        }
+      }
+      return "value-" + key + "-" + version.incrementAndGet();
+    }
+
+    @Override
+    public String load(Long key) throws Exception {
+      loads.incrementAndGet();
+      return nextValue(key);
+    }
+
+    @Override
+    public Map<Long, String> loadAll(Iterable<? extends Long> keys) throws Exception {
+      gate.await(10, SECONDS);
+      List<Long> batch = new ArrayList<Long>();
+      Map<Long, String> values = new HashMap<Long, String>();
+      for (Long key : keys) {
+        batch.add(key);
+        values.put(key, nextValue(key));
+      }
+      batches.add(batch);
+      return values;
+    }
+
+    @Override
+    public void write(Long key, String value) throws Exception {
+    }
+
+    @Override
+    public void writeAll(Iterable<? extends Map.Entry<? extends Long, ? extends String>> entries) throws Exception {
+    }
+
+    @Override
+    public void delete(Long key) throws Exception {
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Long> keys) throws Exception {
+    }
+  }
+}
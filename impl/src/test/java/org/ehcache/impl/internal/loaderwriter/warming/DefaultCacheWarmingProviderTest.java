@@ -0,0 +1,217 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.loaderwriter.warming;
+
+import org.ehcache.Cache;
+import org.ehcache.CacheManager;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.impl.config.loaderwriter.warming.CacheWarmingConfiguration;
+import org.ehcache.impl.config.loaderwriter.warming.CacheWarmingKeySource;
+import org.ehcache.impl.config.loaderwriter.warming.CacheWarmingProviderConfiguration;
+import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.ehcache.config.builders.CacheConfigurationBuilder.newCacheConfigurationBuilder;
+import static org.ehcache.config.builders.CacheManagerBuilder.newCacheManagerBuilder;
+import static org.ehcache.config.builders.ResourcePoolsBuilder.heap;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class DefaultCacheWarmingProviderTest {
+
+  @Test
+  public void testConfiguredCacheIsWarmedBeforeInitReturns() throws Exception {
+    RecordingLoaderWriter loaderWriter = new RecordingLoaderWriter(null);
+    CacheManager cacheManager = newCacheManagerBuilder()
+        .using(new CacheWarmingProviderConfiguration())
+        .withCache("cache", cacheConfiguration(loaderWriter, new CacheWarmingConfiguration(new RangeKeySource(95), 10, 4, 0, true)))
+        .build(true);
+    try {
+      assertThat(loaderWriter.loadedKeys(), hasSize(95));
+      assertThat(loaderWriter.batchSizes(), hasSize(10));
+      assertThat(loaderWriter.batchSizes(), everyItem(lessThanOrEqualTo(10)));
+      Cache<Long, String> cache = cacheManager.getCache("cache", Long.class, String.class);
+      assertThat(cache.get(42L), is("value-42"));
+      assertThat(loaderWriter.loadedKeys(), hasSize(95));
+    } finally {
+      cacheManager.close();
+    }
+  }
+
+  @Test
+  public void testCreatedCacheIsWarmedBeforeBeingReturned() throws Exception {
+    RecordingLoaderWriter loaderWriter = new RecordingLoaderWriter(null);
+    CacheManager cacheManager = newCacheManagerBuilder().using(new CacheWarmingProviderConfiguration()).build(true);
+    try {
+      cacheManager.createCache("cache", cacheConfiguration(loaderWriter, new CacheWarmingConfiguration(new RangeKeySource(20))));
+      assertThat(loaderWriter.loadedKeys(), hasSize(20));
+      assertThat(loaderWriter.batchSizes(), hasSize(1));
+    } finally {
+      cacheManager.close();
+    }
+  }
+
+  @Test
+  public void testBackgroundWarming() throws Exception {
+    CountDownLatch latch = new CountDownLatch(50);
+    RecordingLoaderWriter loaderWriter = new RecordingLoaderWriter(latch);
+    CacheManager cacheManager = newCacheManagerBuilder()
+        .using(new CacheWarmingProviderConfiguration())
+        .withCache("cache", cacheConfiguration(loaderWriter, new CacheWarmingConfiguration(new RangeKeySource(50), 5, 2, 0, false)))
+        .build(true);
+    try {
+      assertTrue(latch.await(10, SECONDS));
+    } finally {
+      cacheManager.close();
+    }
+  }
+
+  @Test
+  public void testWarmingIsRateLimited() throws Exception {
+    RecordingLoaderWriter loaderWriter = new RecordingLoaderWriter(null);
+    long start = System.nanoTime();
+    CacheManager cacheManager = newCacheManagerBuilder()
+        .using(new CacheWarmingProviderConfiguration())
+        .withCache("cache", cacheConfiguration(loaderWriter, new CacheWarmingConfiguration(new RangeKeySource(50), 10, 2, 100, true)))
+        .build(true);
+    try {
+      assertThat(loaderWriter.loadedKeys(), hasSize(50));
+      // the first chunk is loaded right away, the four others are paced at 100 keys per second
+      assertThat(NANOSECONDS.toMillis(System.nanoTime() - start), greaterThanOrEqualTo(350L));
+    } finally {
+      cacheManager.close();
+    }
+  }
+
+  @Test
+  public void testFailingKeySourceDoesNotPreventCacheCreation() throws Exception {
+    RecordingLoaderWriter loaderWriter = new RecordingLoaderWriter(null);
+    CacheManager cacheManager = newCacheManagerBuilder()
+        .using(new CacheWarmingProviderConfiguration())
+        .withCache("cache", cacheConfiguration(loaderWriter, new CacheWarmingConfiguration(new CacheWarmingKeySource<Long>() {
+          @Override
+          public Iterable<? extends Long> keys(String alias) throws Exception {
+            throw new Exception("no keys for " + alias);
+          }
+        })))
+        .build(true);
+    try {
+      assertThat(loaderWriter.loadedKeys(), hasSize(0));
+      assertThat(cacheManager.getCache("cache", Long.class, String.class).get(1L), is("value-1"));
+    } finally {
+      cacheManager.close();
+    }
+  }
+
+  private static CacheConfigurationBuilder<Long, String> cacheConfiguration(RecordingLoaderWriter loaderWriter, CacheWarmingConfiguration warming) {
+    return newCacheConfigurationBuilder(Long.class, String.class, heap(1000))
+        .withLoaderWriter(loaderWriter)
+        .add(warming);
+  }
+
+  private static class RangeKeySource implements CacheWarmingKeySource<Long> {
+
+    private final int count;
+
+    RangeKeySource(int count) {
+      this.count = count;
+    }
+
+    @Override
+    public Iterable<Long> keys(String alias) {
+      List<Long> keys = new ArrayList<Long>(count);
+      for (long i = 0; i < count; i++) {
+        keys.add(i);
+      }
+      return keys;
+    }
+  }
+
+  private static class RecordingLoaderWriter implements CacheLoaderWriter<Long, String> {
+
+    private final CountDownLatch latch;
+    private final List<Long> loadedKeys = Collections.synchronizedList(new ArrayList<Long>());
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<Integer>());
+
+    RecordingLoaderWriter(CountDownLatch latch) {
+      this.latch = latch;
+    }
+
+    List<Long> loadedKeys() {
+      return loadedKeys;
+    }
+
+    List<Integer> batchSizes() {
+      return batchSizes;
+    }
+
+    @Override
+    public String load(Long key) throws Exception {
+      loadedKeys.add(key);
+      return "value-" + key;
+    }
+
+    @Override
+    public Map<Long, String> loadAll(Iterable<? extends Long> keys) throws Exception {
+      Map<Long, String> values = new HashMap<Long, String>();
+      for (Long key : keys) {
+        values.put(key, "value-" + key);
+        loadedKeys.add(key);
+        if (latch != null) {
+          latch.countDown();
+        }
+      }
+      batchSizes.add(values.size());
+      return values;
+    }
+
+    @Override
+    public void write(Long key, String value) throws Exception {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void writeAll(Iterable<? extends Map.Entry<? extends Long, ? extends String>> entries) throws Exception {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void delete(Long key) throws Exception {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Long> keys) throws Exception {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.loaderwriter.writebehind;
+
+import org.ehcache.Cache;
+import org.ehcache.CacheManager;
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheManagerBuilder;
+import org.ehcache.impl.internal.loaderwriter.writebehind.operations.DeleteOperation;
+import org.ehcache.impl.internal.loaderwriter.writebehind.operations.SingleOperation;
+import org.ehcache.impl.internal.loaderwriter.writebehind.operations.WriteOperation;
+import org.ehcache.impl.serialization.PlainJavaSerializer;
+import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
+import org.ehcache.spi.loaderwriter.CacheLoaderWriterProvider;
+import org.ehcache.spi.loaderwriter.WriteBehindConfiguration;
+import org.ehcache.spi.serialization.Serializer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.ehcache.config.builders.CacheConfigurationBuilder.newCacheConfigurationBuilder;
+import static org.ehcache.config.builders.CacheManagerBuilder.newCacheManagerBuilder;
+import static org.ehcache.config.builders.CacheManagerBuilder.persistence;
+import static org.ehcache.config.builders.ResourcePoolsBuilder.heap;
+import static org.ehcache.config.builders.WriteBehindConfigurationBuilder.newBatchedWriteBehindConfiguration;
+import static org.ehcache.config.builders.WriteBehindConfigurationBuilder.newUnBatchedWriteBehindConfiguration;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PersistentWriteBehindTest {
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testUnprocessedOperationsAreReplayedOnRestart() throws Exception {
+    File root = folder.newFolder();
+    File directory;
+    CacheManager first = managerBuilder(root, new WriteBehindTestLoaderWriter<String, String>()).build(true);
+    try {
+      first.createCache("cache", newCacheConfigurationBuilder(String.class, String.class, heap(10))
+          .add(newUnBatchedWriteBehindConfiguration().persistentQueue("queue").build()).build());
+      directory = journalSegments(root).get(0).getParentFile();
+    } finally {
+      first.close();
+    }
+
+    // operations journaled but never processed, as left behind by a crash
+    Serializer<Object> serializer = new PlainJavaSerializer<Object>(getClass().getClassLoader());
+    WriteBehindJournal<String, String> journal = new WriteBehindJournal<String, String>(directory, 0,
+        WriteBehindJournal.nextSegmentId(WriteBehindJournal.existingSegments(directory)), WriteBehindJournal.DEFAULT_SEGMENT_SIZE, serializer);
+    journal.append(new WriteOperation<String, String>("a", "1"));
+    journal.append(new WriteOperation<String, String>("b", "2"));
+    journal.append(new WriteOperation<String, String>("a", "3"));
+    journal.append(new DeleteOperation<String, String>("b"));
+    journal.close();
+
+    WriteBehindTestLoaderWriter<String, String> loaderWriter = new WriteBehindTestLoaderWriter<String, String>();
+    CountDownLatch latch = new CountDownLatch(4);
+    loaderWriter.setLatch(latch);
+    CacheManager recovering = managerBuilder(root, loaderWriter).build(true);
+    try {
+      recovering.createCache("cache", newCacheConfigurationBuilder(String.class, String.class, heap(10))
+          .add(newBatchedWriteBehindConfiguration(1, SECONDS, 2).persistentQueue("queue").build()).build());
+      assertTrue(latch.await(10, SECONDS));
+      assertThat(loaderWriter.getData().get("a"), contains("1", "3"));
+      assertThat(loaderWriter.getData().get("b"), contains("2", null));
+    } finally {
+      recovering.close();
+    }
+  }
+
+  @Test
+  public void testFailedWritesAreNotReplayed() throws Exception {
+    File root = folder.newFolder();
+    WriteBehindConfiguration writeBehind = newBatchedWriteBehindConfiguration(Long.MAX_VALUE, SECONDS, 2)
+        .concurrencyLevel(2).persistentQueue("queue").build();
+
+    CacheManager failing = managerBuilder(root, new FailingLoaderWriter()).build(true);
+    try {
+      Cache<String, String> cache = failing.createCache("cache", newCacheConfigurationBuilder(String.class, String.class, heap(10))
+          .add(writeBehind).build());
+      cache.put("a", "1");
+      cache.put("b", "2");
+      cache.put("a", "3");
+      cache.remove("b");
+    } finally {
+      failing.close();
+    }
+
+    // a failed operation is dropped, replaying it could overwrite a later successful write of the same key
+    assertThat(journalSegments(root), empty());
+  }
+
+  @Test
+  public void testJournalIsTruncatedOnceWritten() throws Exception {
+    File root = folder.newFolder();
+    WriteBehindTestLoaderWriter<String, String> loaderWriter = new WriteBehindTestLoaderWriter<String, String>();
+    CountDownLatch latch = new CountDownLatch(3);
+    loaderWriter.setLatch(latch);
+
+    CacheManager cacheManager = managerBuilder(root, loaderWriter).build(true);
+    try {
+      Cache<String, String> cache = cacheManager.createCache("cache", newCacheConfigurationBuilder(String.class, String.class, heap(10))
+          .add(newUnBatchedWriteBehindConfiguration().persistentQueue("queue").build()).build());
+      cache.put("a", "1");
+      cache.put("b", "2");
+      cache.remove("a");
+      assertTrue(latch.await(10, SECONDS));
+    } finally {
+      cacheManager.close();
+    }
+
+    assertThat(journalSegments(root), empty());
+  }
+
+  @Test
+  public void testTornRecordIsIgnoredOnRecovery() throws Exception {
+    File directory = folder.newFolder();
+    Serializer<Object> serializer = new PlainJavaSerializer<Object>(getClass().getClassLoader());
+    WriteBehindJournal<String, String> journal = new WriteBehindJournal<String, String>(directory, 0, 0, WriteBehindJournal.DEFAULT_SEGMENT_SIZE, serializer);
+    journal.append(new WriteOperation<String, String>("a", "1"));
+    journal.append(new DeleteOperation<String, String>("b"));
+    journal.close();
+
+    List<File> segments = WriteBehindJournal.existingSegments(directory);
+    assertThat(segments, hasSize(1));
+    RandomAccessFile raf = new RandomAccessFile(segments.get(0), "rw");
+    try {
+      raf.setLength(raf.length() - 1);
+    } finally {
+      raf.close();
+    }
+
+    List<SingleOperation<String, String>> operations = WriteBehindJournal.recover(segments, serializer);
+    assertThat(operations, hasSize(1));
+    assertThat(operations.get(0), instanceOf(WriteOperation.class));
+    assertThat(((WriteOperation<String, String>) operations.get(0)).getValue(), is("1"));
+    assertThat(WriteBehindJournal.nextSegmentId(segments), is(1L));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testPersistentQueueRequiresPersistence() throws Exception {
+    CacheManager cacheManager = newCacheManagerBuilder()
+        .using(loaderWriterProvider(new WriteBehindTestLoaderWriter<String, String>())).build(true);
+    try {
+      cacheManager.createCache("cache", newCacheConfigurationBuilder(String.class, String.class, heap(10))
+          .add(newUnBatchedWriteBehindConfiguration().persistentQueue("queue").build()).build());
+    } finally {
+      cacheManager.close();
+    }
+  }
+
+  private static List<File> journalSegments(File root) {
+    List<File> segments = new ArrayList<File>();
+    File[] children = root.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        if (child.isDirectory()) {
+          segments.addAll(journalSegments(child));
+        } else if (child.getName().endsWith(".log")) {
+          segments.add(child);
+        }
+      }
+    }
+    return segments;
+  }
+
+  private static CacheManagerBuilder<? extends CacheManager> managerBuilder(File root, CacheLoaderWriter<String, String> loaderWriter) {
+    return newCacheManagerBuilder().with(persistence(root)).using(loaderWriterProvider(loaderWriter));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static CacheLoaderWriterProvider loaderWriterProvider(CacheLoaderWriter<String, String> loaderWriter) {
+    CacheLoaderWriterProvider provider = mock(CacheLoaderWriterProvider.class);
+    when(provider.createCacheLoaderWriter(anyString(), any(CacheConfiguration.class))).thenReturn((CacheLoaderWriter) loaderWriter);
+    return provider;
+  }
+
+  private static class FailingLoaderWriter extends WriteBehindTestLoaderWriter<String, String> {
+
+    @Override
+    public synchronized void writeAll(Iterable<? extends Map.Entry<? extends String, ? extends String>> entries) throws Exception {
+      throw new Exception("failing writeAll");
+    }
+
+    @Override
+    public synchronized void deleteAll(Iterable<? extends String> keys) throws Exception {
+      throw new Exception("failing deleteAll");
+    }
+  }
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.loaderwriter.writebehind;
+
+import org.ehcache.Cache;
+import org.ehcache.CacheManager;
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.impl.internal.loaderwriter.writebehind.WriteBehindOperationWriter.AdaptiveBatchSize;
+import org.ehcache.spi.loaderwriter.BulkCacheWritingException;
+import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
+import org.ehcache.spi.loaderwriter.CacheLoaderWriterProvider;
+import org.ehcache.spi.loaderwriter.WriteBehindDeadLetterHandler;
+import org.junit.Test;
+import org.terracotta.context.ContextElement;
+import org.terracotta.context.TreeNode;
+import org.terracotta.context.query.Matchers;
+import org.terracotta.context.query.QueryBuilder;
+import org.terracotta.statistics.StatisticsManager;
+import org.terracotta.statistics.ValueStatistic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.ehcache.config.builders.CacheConfigurationBuilder.newCacheConfigurationBuilder;
+import static org.ehcache.config.builders.CacheManagerBuilder.newCacheManagerBuilder;
+import static org.ehcache.config.builders.ResourcePoolsBuilder.heap;
+import static org.ehcache.config.builders.WriteBehindConfigurationBuilder.newBatchedWriteBehindConfiguration;
+import static org.ehcache.config.builders.WriteBehindConfigurationBuilder.newUnBatchedWriteBehindConfiguration;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class WriteBehindFailureHandlingTest {
+
+  @Test
+  public void testFailedWriteIsRetried() throws Exception {
+    FlakyLoaderWriter loaderWriter = new FlakyLoaderWriter(2);
+    CountDownLatch latch = new CountDownLatch(1);
+    loaderWriter.setLatch(latch);
+
+    CacheManager cacheManager = newCacheManagerBuilder().using(loaderWriterProvider(loaderWriter)).build(true);
+    try {
+      Cache<String, String> cache = cacheManager.createCache("cache", newCacheConfigurationBuilder(String.class, String.class, heap(10))
+          .add(newUnBatchedWriteBehindConfiguration().retry(3, 1, 10, MILLISECONDS).build()).build());
+      cache.put("key", "value");
+      assertTrue(latch.await(10, SECONDS));
+      assertThat(loaderWriter.getData().get("key"), contains("value"));
+      assertThat(statistic(cache, "retries").value().longValue(), is(2L));
+    } finally {
+      cacheManager.close();
+    }
+  }
+
+  @Test
+  public void testPoisonEntryIsIsolatedAndDeadLettered() throws Exception {
+    PoisonLoaderWriter loaderWriter = new PoisonLoaderWriter("poison", false);
+    CountDownLatch latch = new CountDownLatch(3);
+    loaderWriter.setLatch(latch);
+    RecordingDeadLetterHandler handler = new RecordingDeadLetterHandler();
+
+    CacheManager cacheManager = newCacheManagerBuilder().using(loaderWriterProvider(loaderWriter)).build(true);
+    try {
+      Cache<String, String> cache = cacheManager.createCache("cache", newCacheConfigurationBuilder(String.class, String.class, heap(10))
+          .add(newBatchedWriteBehindConfiguration(Long.MAX_VALUE, SECONDS, 4).retry(1, 1, 1, MILLISECONDS).deadLetterHandler(handler).build()).build());
+      cache.put("a", "1");
+      cache.put("poison", "2");
+      cache.put("b", "3");
+      cache.remove("c");
+      assertTrue(latch.await(10, SECONDS));
+    } finally {
+      cacheManager.close();
+    }
+    assertThat(loaderWriter.getData().keySet(), containsInAnyOrder("a", "b", "c"));
+    assertThat(handler.deadLetters, contains("poison=2"));
+  }
+
+  @Test
+  public void testPoisonEntryIsIsolatedAndDroppedWithoutDeadLetterHandler() throws Exception {
+    PoisonLoaderWriter loaderWriter = new PoisonLoaderWriter("poison", false);
+    CountDownLatch latch = new CountDownLatch(3);
+    loaderWriter.setLatch(latch);
+
+    CacheManager cacheManager = newCacheManagerBuilder().using(loaderWriterProvider(loaderWriter)).build(true);
+    try {
+      Cache<String, String> cache = cacheManager.createCache("cache", newCacheConfigurationBuilder(String.class, String.class, heap(10))
+          .add(newBatchedWriteBehindConfiguration(Long.MAX_VALUE, SECONDS, 4).build()).build());
+      cache.put("a", "1");
+      cache.put("poison", "2");
+      cache.put("b", "3");
+      cache.remove("c");
+      assertTrue(latch.await(10, SECONDS));
+      assertThat(statistic(cache, "deadLetters").value().longValue(), is(1L));
+    } finally {
+      cacheManager.close();
+    }
+    assertThat(loaderWriter.getData().keySet(), containsInAnyOrder("a", "b", "c"));
+  }
+
+  @Test
+  public void testBulkFailureOnlyRetriesFailedKeys() throws Exception {
+    PoisonLoaderWriter loaderWriter = new PoisonLoaderWriter("poison", true);
+    CountDownLatch latch = new CountDownLatch(2);
+    loaderWriter.setLatch(latch);
+    RecordingDeadLetterHandler handler = new RecordingDeadLetterHandler();
+
+    CacheManager cacheManager = newCacheManagerBuilder().using(loaderWriterProvider(loaderWriter)).build(true);
+    try {
+      Cache<String, String> cache = cacheManager.createCache("cache", newCacheConfigurationBuilder(String.class, String.class, heap(10))
+          .add(newBatchedWriteBehindConfiguration(Long.MAX_VALUE, SECONDS, 3).deadLetterHandler(handler).build()).build());
+      cache.put("a", "1");
+      cache.put("poison", "2");
+      cache.put("b", "3");
+      assertTrue(latch.await(10, SECONDS));
+    } finally {
+      cacheManager.close();
+    }
+    assertThat(loaderWriter.getData().get("a"), contains("1"));
+    assertThat(loaderWriter.getData().get("b"), contains("3"));
+    assertThat(handler.deadLetters, contains("poison=2"));
+  }
+
+  @Test
+  public void testDeleteIsDeadLetteredWithNullValue() throws Exception {
+    PoisonLoaderWriter loaderWriter = new PoisonLoaderWriter("poison", false);
+    RecordingDeadLetterHandler handler = new RecordingDeadLetterHandler();
+
+    CacheManager cacheManager = newCacheManagerBuilder().using(loaderWriterProvider(loaderWriter)).build(true);
+    try {
+      Cache<String, String> cache = cacheManager.createCache("cache", newCacheConfigurationBuilder(String.class, String.class, heap(10))
+          .add(newUnBatchedWriteBehindConfiguration().deadLetterHandler(handler).build()).build());
+      cache.remove("poison");
+    } finally {
+      cacheManager.close();
+    }
+    assertThat(handler.deadLetters, contains("poison=null"));
+  }
+
+  @Test
+  public void testAdaptiveBatchSizeFollowsThroughput() {
+    AdaptiveBatchSize batchSize = new AdaptiveBatchSize(10, 100);
+    // throughput grows with batch size: keep growing
+    for (int i = 0; i < 30 * AdaptiveBatchSize.WINDOW; i++) {
+      int size = batchSize.current();
+      batchSize.record(size, 1000L);
+    }
+    assertThat(batchSize.current(), is(100));
+
+    // latency now grows faster than batch size: shrink
+    for (int i = 0; i < 4 * AdaptiveBatchSize.WINDOW; i++) {
+      int size = batchSize.current();
+      batchSize.record(size, 1000L * size * size);
+    }
+    assertThat(batchSize.current(), lessThan(100));
+    assertThat(batchSize.current(), greaterThan(0));
+  }
+
+  @Test
+  public void testStaticBatchSizeIsNotAdapted() {
+    AdaptiveBatchSize batchSize = new AdaptiveBatchSize(10, 10);
+    for (int i = 0; i < 4 * AdaptiveBatchSize.WINDOW; i++) {
+      batchSize.record(i, 1000L * i);
+    }
+    assertThat(batchSize.current(), is(10));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ValueStatistic<Number> statistic(Cache<?, ?> cache, String name) {
+    StatisticsManager statisticsManager = new StatisticsManager();
+    statisticsManager.root(cache);
+    TreeNode node = statisticsManager.queryForSingleton(QueryBuilder.queryBuilder()
+        .descendants()
+        .filter(Matchers.context(Matchers.<ContextElement>allOf(
+            Matchers.identifier(Matchers.subclassOf(ValueStatistic.class)),
+            Matchers.attributes(Matchers.hasAttribute("name", name)))))
+        .build());
+    return (ValueStatistic<Number>) node.getContext().attributes().get("this");
+  }
+
+  @SuppressWarnings("unchecked")
+  private static CacheLoaderWriterProvider loaderWriterProvider(CacheLoaderWriter<String, String> loaderWriter) {
+    CacheLoaderWriterProvider provider = mock(CacheLoaderWriterProvider.class);
+    when(provider.createCacheLoaderWriter(anyString(), any(CacheConfiguration.class))).thenReturn((CacheLoaderWriter) loaderWriter);
+    return provider;
+  }
+
+  private static class RecordingDeadLetterHandler implements WriteBehindDeadLetterHandler<String, String> {
+
+    final List<String> deadLetters = Collections.synchronizedList(new ArrayList<String>());
+
+    @Override
+    public void deadLetter(String key, String value, Exception failure) {
+      deadLetters.add(key + "=" + value);
+    }
+  }
+
+  private static class FlakyLoaderWriter extends WriteBehindTestLoaderWriter<String, String> {
+
+    private final AtomicInteger failures;
+
+    FlakyLoaderWriter(int failures) {
+      this.failures = new AtomicInteger(failures);
+    }
+
+    @Override
+    public synchronized void write(String key, String value) throws Exception {
+      if (failures.getAndDecrement() > 0) {
+        throw new Exception("flaky write");
+      }
+      super.write(key, value);
+    }
+  }
+
+  private static class PoisonLoaderWriter extends WriteBehindTestLoaderWriter<String, String> {
+
+    private final String poison;
+    private final boolean bulkException;
+
+    PoisonLoaderWriter(String poison, boolean bulkException) {
+      this.poison = poison;
+      this.bulkException = bulkException;
+    }
+
+    @Override
+    public synchronized void write(String key, String value) throws Exception {
+      if (poison.equals(key)) {
+        throw new Exception("poisoned write");
+      }
+      super.write(key, value);
+    }
+
+    @Override
+    public synchronized void writeAll(Iterable<? extends Map.Entry<? extends String, ? extends String>> entries) throws Exception {
+      if (bulkException) {
+        Map<String, Exception> failures = new HashMap<String, Exception>();
+        Set<String> successes = new HashSet<String>();
+        for (Map.Entry<? extends String, ? extends String> entry : entries) {
+          if (poison.equals(entry.getKey())) {
+            failures.put(entry.getKey(), new Exception("poisoned write"));
+          } else {
+            super.write(entry.getKey(), entry.getValue());
+            successes.add(entry.getKey());
+          }
+        }
+        if (!failures.isEmpty()) {
+          throw new BulkCacheWritingException(failures, successes);
+        }
+      } else {
+        for (Map.Entry<? extends String, ? extends String> entry : entries) {
+          if (poison.equals(entry.getKey())) {
+            throw new Exception("poisoned batch");
+          }
+        }
+        super.writeAll(entries);
+      }
+    }
+
+    @Override
+    public synchronized void delete(String key) throws Exception {
+      if (poison.equals(key)) {
+        throw new Exception("poisoned delete");
+      }
+      super.delete(key);
+    }
+  }
+}
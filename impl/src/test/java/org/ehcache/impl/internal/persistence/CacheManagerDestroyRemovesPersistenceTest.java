@@ -23,7 +23,9 @@ import org.ehcache.config.builders.CacheManagerBuilder;
 import org.ehcache.config.units.EntryUnit;
 import org.ehcache.config.units.MemoryUnit;
 import org.ehcache.impl.config.persistence.CacheManagerPersistenceConfiguration;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
 import java.net.URISyntaxException;
@@ -41,11 +43,15 @@ import static org.junit.Assert.assertNotNull;
 public class CacheManagerDestroyRemovesPersistenceTest {
 
   public static final String PERSISTENT_CACHE = "persistent-cache";
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
   private PersistentCacheManager persistentCacheManager;
 
   @Test
   public void testDestroyRemovesPersistenceData () throws URISyntaxException, CachePersistenceException {
-    File file = new File(getStoragePath(), "myData");
+    File file = new File(temporaryFolder.getRoot(), "myData");
     initCacheManager(file);
     putValuesInCacheAndCloseCacheManager();
 
@@ -58,7 +64,7 @@ public class CacheManagerDestroyRemovesPersistenceTest {
 
   @Test
   public void testDestroyCacheDestroysPersistenceContext() throws URISyntaxException, CachePersistenceException {
-    File file = new File(getStoragePath(), "testDestroy");
+    File file = new File(temporaryFolder.getRoot(), "testDestroy");
     initCacheManager(file);
 
     persistentCacheManager.destroyCache(PERSISTENT_CACHE);
@@ -68,7 +74,7 @@ public class CacheManagerDestroyRemovesPersistenceTest {
 
   @Test
   public void testCreateCacheWithSameAliasAfterDestroy() throws URISyntaxException, CachePersistenceException {
-    File file = new File(getStoragePath(), "testDestroy");
+    File file = new File(temporaryFolder.getRoot(), "testDestroy");
     initCacheManager(file);
 
     persistentCacheManager.destroyCache(PERSISTENT_CACHE);
@@ -86,7 +92,7 @@ public class CacheManagerDestroyRemovesPersistenceTest {
 
   @Test
   public void testDestroyCacheWithUnknownAlias() throws URISyntaxException, CachePersistenceException {
-    File file = new File(getStoragePath(), "testDestroyUnknownAlias");
+    File file = new File(temporaryFolder.getRoot(), "testDestroyUnknownAlias");
     initCacheManager(file);
 
     Cache<Long, String > cache = persistentCacheManager.getCache(PERSISTENT_CACHE, Long.class, String.class);
@@ -120,9 +126,4 @@ public class CacheManagerDestroyRemovesPersistenceTest {
     preConfigured.put(1L, "foo");
     persistentCacheManager.close();
   }
-
-  @SuppressWarnings("ConstantConditions")
-  private String getStoragePath() throws URISyntaxException {
-    return getClass().getClassLoader().getResource(".").toURI().getPath();
-  }
 }
@@ -31,6 +31,7 @@ import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
 /**
@@ -96,6 +97,32 @@ public class DefaultCopyProviderTest {
     assertThat(copyProvider.createValueCopier(Long.class, serializer, config), instanceOf(SerializingCopier.class));
   }
 
+  @Test
+  public void testCreateValueCopierSkippingImmutablesForImmutableType() throws Exception {
+    DefaultCopyProvider copyProvider = new DefaultCopyProvider(null);
+    DefaultCopierConfiguration<String> config = new DefaultCopierConfiguration<String>(
+        SerializingCopier.<String>asCopierClass(), DefaultCopierConfiguration.Type.VALUE, true);
+
+    @SuppressWarnings("unchecked")
+    Serializer<String> serializer = mock(Serializer.class);
+    Copier<String> copier = copyProvider.createValueCopier(String.class, serializer, config);
+    assertThat(copier, instanceOf(IdentityCopier.class));
+    copyProvider.releaseCopier(copier);
+  }
+
+  @Test
+  public void testCreateValueCopierSkippingImmutablesForMutableType() {
+    DefaultCopyProvider copyProvider = new DefaultCopyProvider(null);
+    DefaultCopierConfiguration<Object> config = new DefaultCopierConfiguration<Object>(
+        SerializingCopier.<Object>asCopierClass(), DefaultCopierConfiguration.Type.VALUE, true);
+
+    @SuppressWarnings("unchecked")
+    Serializer<Object> serializer = mock(Serializer.class);
+    Copier<Object> copier = copyProvider.createValueCopier(Object.class, serializer, config);
+    assertThat(copier, instanceOf(SerializingCopier.class));
+    assertTrue(((SerializingCopier<Object>) copier).skipsCopyOf("foo"));
+  }
+
   @Test
   public void testUserProvidedCloseableCopierInstanceDoesNotCloseOnRelease() throws Exception {
     DefaultCopyProvider copyProvider = new DefaultCopyProvider(null);
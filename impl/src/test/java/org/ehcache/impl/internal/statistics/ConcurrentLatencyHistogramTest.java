@@ -0,0 +1,76 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.statistics;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConcurrentLatencyHistogramTest {
+
+  @Test
+  public void emptyHistogram() {
+    ConcurrentLatencyHistogram histogram = new ConcurrentLatencyHistogram();
+    assertThat(histogram.getCount()).isEqualTo(0L);
+    assertThat(histogram.getMaximum()).isEqualTo(0L);
+    assertThat(histogram.getValueAtPercentile(99.0)).isEqualTo(0L);
+  }
+
+  @Test
+  public void bucketsAreContiguous() {
+    for (long value = 0; value < 1L << 20; value++) {
+      int index = ConcurrentLatencyHistogram.bucketIndex(value);
+      assertThat(ConcurrentLatencyHistogram.highestEquivalentValue(index)).isGreaterThanOrEqualTo(value);
+      if (index > 0) {
+        assertThat(ConcurrentLatencyHistogram.highestEquivalentValue(index - 1)).isLessThan(value);
+      }
+    }
+  }
+
+  @Test
+  public void percentilesAreWithinPrecision() {
+    ConcurrentLatencyHistogram histogram = new ConcurrentLatencyHistogram();
+    for (long i = 1; i <= 100000; i++) {
+      histogram.record(i * 1000);
+    }
+    assertThat(histogram.getCount()).isEqualTo(100000L);
+    assertThat(histogram.getMaximum()).isEqualTo(100000000L);
+    assertThat(histogram.getValueAtPercentile(50.0)).isBetween(50000000L, 50000000L * 107 / 100);
+    assertThat(histogram.getValueAtPercentile(99.0)).isBetween(99000000L, 99000000L * 107 / 100);
+    assertThat(histogram.getValueAtPercentile(99.9)).isBetween(99900000L, 100000000L);
+    assertThat(histogram.getValueAtPercentile(100.0)).isEqualTo(100000000L);
+  }
+
+  @Test
+  public void outliersAreCappedAndNegativesFloored() {
+    ConcurrentLatencyHistogram histogram = new ConcurrentLatencyHistogram();
+    histogram.record(-5);
+    histogram.record(Long.MAX_VALUE);
+    assertThat(histogram.getCount()).isEqualTo(2L);
+    assertThat(histogram.getValueAtPercentile(50.0)).isEqualTo(0L);
+    assertThat(histogram.getMaximum()).isEqualTo((1L << 40) - 1);
+  }
+
+  @Test
+  public void clear() {
+    ConcurrentLatencyHistogram histogram = new ConcurrentLatencyHistogram();
+    histogram.record(42);
+    histogram.clear();
+    assertThat(histogram.getCount()).isEqualTo(0L);
+    assertThat(histogram.getMaximum()).isEqualTo(0L);
+  }
+}
@@ -24,6 +24,7 @@ import org.ehcache.config.CacheConfiguration;
 import org.ehcache.config.builders.CacheConfigurationBuilder;
 import org.ehcache.config.builders.CacheManagerBuilder;
 import org.ehcache.core.InternalCache;
+import org.ehcache.core.statistics.StatisticsLevel;
 import org.ehcache.expiry.Duration;
 import org.ehcache.expiry.Expirations;
 import org.ehcache.impl.internal.TimeSourceConfiguration;
@@ -73,9 +74,75 @@ public class DefaultCacheStatisticsTest {
   public void getKnownStatistics() {
     assertThat(cacheStatistics.getKnownStatistics()).containsOnlyKeys("Cache:HitCount", "Cache:MissCount",
       "Cache:UpdateCount", "Cache:RemovalCount", "Cache:EvictionCount", "Cache:PutCount",
-      "OnHeap:ExpirationCount", "Cache:ExpirationCount", "OnHeap:HitCount", "OnHeap:MissCount",
+      "OnHeap:ExpirationCount", "Cache:ExpirationCount", "Cache:RefreshHitCount", "Cache:RefreshMissCount",
+      "OnHeap:HitCount", "OnHeap:MissCount",
       "OnHeap:PutCount", "OnHeap:RemovalCount", "OnHeap:UpdateCount", "OnHeap:EvictionCount",
-      "OnHeap:MappingCount", "OnHeap:OccupiedByteSize");
+      "OnHeap:MappingCount", "OnHeap:OccupiedByteSize",
+      "Cache:HitLatencyP50", "Cache:HitLatencyP99", "Cache:HitLatencyP999",
+      "Cache:MissLatencyP50", "Cache:MissLatencyP99", "Cache:MissLatencyP999",
+      "Cache:PutLatencyP50", "Cache:PutLatencyP99", "Cache:PutLatencyP999",
+      "Cache:RemoveLatencyP50", "Cache:RemoveLatencyP99", "Cache:RemoveLatencyP999",
+      "OnHeap:HitLatencyP50", "OnHeap:HitLatencyP99", "OnHeap:HitLatencyP999",
+      "OnHeap:MissLatencyP50", "OnHeap:MissLatencyP99", "OnHeap:MissLatencyP999",
+      "OnHeap:PutLatencyP50", "OnHeap:PutLatencyP99", "OnHeap:PutLatencyP999",
+      "OnHeap:EvictionLatencyP50", "OnHeap:EvictionLatencyP99", "OnHeap:EvictionLatencyP999");
+  }
+
+  @Test
+  public void getCacheLatencies() throws Exception {
+    for (long i = 0; i < 1000; i++) {
+      cache.put(1L, "a");
+      cache.get(1L);
+      cache.get(2L);
+      cache.remove(3L);
+    }
+    assertThat(cacheStatistics.getCacheGetHitLatency().getCount()).isGreaterThan(0L);
+    assertThat(cacheStatistics.getCacheGetMissLatency().getCount()).isGreaterThan(0L);
+    assertThat(cacheStatistics.getCachePutLatency().getCount()).isGreaterThan(0L);
+    assertThat(cacheStatistics.getCacheRemoveLatency().getCount()).isGreaterThan(0L);
+    assertThat(cacheStatistics.getCacheGetHitLatency().getMaximum()).isGreaterThan(0L);
+
+    cacheStatistics.clear();
+    assertThat(cacheStatistics.getCacheGetHitLatency().getCount()).isEqualTo(0L);
+    assertThat(cacheStatistics.getTierStatistics().get("OnHeap").getHitLatency().getCount()).isEqualTo(0L);
+  }
+
+  @Test
+  public void statisticsLevelOff() throws Exception {
+    InternalCache<Long, String> offCache = createCache("offCache", StatisticsLevel.OFF);
+    DefaultCacheStatistics offStatistics = new DefaultCacheStatistics(offCache);
+
+    offCache.put(1L, "a");
+    offCache.get(1L);
+    offCache.get(2L);
+
+    assertThat(offStatistics.getKnownStatistics()).isEmpty();
+    assertThat(offStatistics.getTierStatistics()).isEmpty();
+    assertThat(offStatistics.getCacheHits()).isEqualTo(0L);
+    assertThat(offStatistics.getCacheMisses()).isEqualTo(0L);
+    assertThat(offStatistics.getCacheEvictions()).isEqualTo(0L);
+    assertThat(offStatistics.getCacheGetHitLatency().getCount()).isEqualTo(0L);
+    assertThat(StatsUtils.<Object>findStatisticOnDescendants(offCache, "cache", "get")).isNull();
+    assertThat(StatsUtils.<Object>findStatisticOnDescendants(offCache, "OnHeap", "get")).isNull();
+  }
+
+  @Test
+  public void statisticsLevelCounters() throws Exception {
+    InternalCache<Long, String> countersCache = createCache("countersCache", StatisticsLevel.COUNTERS);
+    DefaultCacheStatistics countersStatistics = new DefaultCacheStatistics(countersCache);
+
+    countersCache.put(1L, "a");
+    countersCache.get(1L);
+    countersCache.get(2L);
+
+    assertThat(countersStatistics.getKnownStatistics()).containsKeys("Cache:HitCount", "OnHeap:HitCount");
+    assertThat(countersStatistics.getKnownStatistics()).doesNotContainKey("Cache:HitLatencyP99");
+    assertThat(countersStatistics.getKnownStatistics()).doesNotContainKey("OnHeap:HitLatencyP99");
+    assertThat(countersStatistics.getCacheHits()).isEqualTo(1L);
+    assertThat(countersStatistics.getCacheMisses()).isEqualTo(1L);
+    assertThat(countersStatistics.getTierStatistics().get("OnHeap").getHits()).isEqualTo(1L);
+    assertThat(countersStatistics.getCacheAverageGetTime()).isEqualTo(0.0f);
+    assertThat(countersStatistics.getCacheGetHitLatency().getCount()).isEqualTo(0L);
   }
 
   @Test
@@ -163,6 +230,12 @@ public class DefaultCacheStatisticsTest {
     assertThat(cacheStatistics.getCacheAverageRemoveTime()).isGreaterThan(0);
   }
 
+  private InternalCache<Long, String> createCache(String alias, StatisticsLevel statisticsLevel) {
+    return (InternalCache<Long, String>) cacheManager.createCache(alias,
+      CacheConfigurationBuilder.newCacheConfigurationBuilder(Long.class, String.class, newResourcePoolsBuilder().heap(10))
+        .withStatisticsLevel(statisticsLevel));
+  }
+
   private AbstractObjectAssert<?, Number> assertStat(String key) {
     return assertThat(cacheStatistics.getKnownStatistics().get(key).value());
   }
@@ -73,7 +73,28 @@ public class DefaultTierStatisticsTest {
   public void getKnownStatistics() {
     assertThat(onHeap.getKnownStatistics()).containsOnlyKeys("OnHeap:HitCount", "OnHeap:MissCount", "OnHeap:UpdateCount",
       "OnHeap:PutCount", "OnHeap:RemovalCount", "OnHeap:EvictionCount", "OnHeap:ExpirationCount", "OnHeap:MappingCount",
-      "OnHeap:OccupiedByteSize");
+      "OnHeap:OccupiedByteSize",
+      "OnHeap:HitLatencyP50", "OnHeap:HitLatencyP99", "OnHeap:HitLatencyP999",
+      "OnHeap:MissLatencyP50", "OnHeap:MissLatencyP99", "OnHeap:MissLatencyP999",
+      "OnHeap:PutLatencyP50", "OnHeap:PutLatencyP99", "OnHeap:PutLatencyP999",
+      "OnHeap:EvictionLatencyP50", "OnHeap:EvictionLatencyP99", "OnHeap:EvictionLatencyP999");
+  }
+
+  @Test
+  public void getLatencies() throws Exception {
+    for (long i = 0; i < 1000; i++) {
+      cache.put(i % 10, "a");
+      cache.get(i % 10);
+      cache.get(-1L);
+    }
+    assertThat(onHeap.getHitLatency().getCount()).isGreaterThan(0L);
+    assertThat(onHeap.getMissLatency().getCount()).isGreaterThan(0L);
+    assertThat(onHeap.getPutLatency().getCount()).isGreaterThan(0L);
+    assertThat(onHeap.getHitLatency().getValueAtPercentile(99.0)).isLessThanOrEqualTo(onHeap.getHitLatency().getMaximum());
+
+    onHeap.clear();
+    assertThat(onHeap.getHitLatency().getCount()).isEqualTo(0L);
+    assertStat("OnHeap:HitLatencyP99").isEqualTo(0L);
   }
 
   @Test
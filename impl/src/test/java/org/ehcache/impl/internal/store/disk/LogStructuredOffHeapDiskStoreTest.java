@@ -0,0 +1,250 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.internal.store.disk;
+
+import org.ehcache.CachePersistenceException;
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.EvictionAdvisor;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.core.internal.service.ServiceLocator;
+import org.ehcache.core.internal.store.StoreConfigurationImpl;
+import org.ehcache.core.spi.service.FileBasedPersistenceContext;
+import org.ehcache.core.spi.store.Store;
+import org.ehcache.core.spi.time.SystemTimeSource;
+import org.ehcache.core.spi.time.TimeSource;
+import org.ehcache.expiry.Expiry;
+import org.ehcache.impl.config.store.disk.OffHeapDiskStoreConfiguration;
+import org.ehcache.impl.internal.events.TestStoreEventDispatcher;
+import org.ehcache.impl.internal.executor.OnDemandExecutionService;
+import org.ehcache.impl.internal.persistence.TestDiskResourceService;
+import org.ehcache.impl.internal.spi.serialization.DefaultSerializationProvider;
+import org.ehcache.impl.internal.store.offheap.AbstractOffHeapStore;
+import org.ehcache.impl.internal.store.offheap.AbstractOffHeapStoreTest;
+import org.ehcache.spi.persistence.PersistableResourceService.PersistenceSpaceIdentifier;
+import org.ehcache.spi.serialization.SerializationProvider;
+import org.ehcache.spi.serialization.Serializer;
+import org.ehcache.spi.serialization.UnsupportedTypeException;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.ehcache.config.builders.ResourcePoolsBuilder.newResourcePoolsBuilder;
+import static org.ehcache.config.units.MemoryUnit.KB;
+import static org.ehcache.config.units.MemoryUnit.MB;
+import static org.ehcache.core.internal.service.ServiceLocator.dependencySet;
+import static org.ehcache.expiry.Expirations.noExpiration;
+import static org.ehcache.impl.internal.spi.TestServiceProvider.providerContaining;
+import static org.ehcache.impl.config.store.disk.OffHeapDiskStoreConfiguration.DEFAULT_COMPACTION_THRESHOLD;
+import static org.ehcache.impl.config.store.disk.OffHeapDiskStoreConfiguration.DEFAULT_DISK_SEGMENTS;
+import static org.ehcache.impl.config.store.disk.OffHeapDiskStoreConfiguration.DEFAULT_WRITER_CONCURRENCY;
+import static org.ehcache.impl.config.store.disk.OffHeapDiskStoreConfiguration.StorageEngineType.LOG_STRUCTURED;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the offheap store test suite against the log structured disk storage engine.
+ */
+public class LogStructuredOffHeapDiskStoreTest extends AbstractOffHeapStoreTest {
+
+  @Rule
+  public final TestDiskResourceService diskResourceService = new TestDiskResourceService();
+
+  @Test
+  public void testRecovery() throws Exception {
+    OffHeapDiskStore<String, String> offHeapDiskStore = createAndInitStore(SystemTimeSource.INSTANCE, noExpiration());
+    try {
+      for (int i = 0; i < 100; i++) {
+        offHeapDiskStore.put("key" + i, "value" + i);
+      }
+      offHeapDiskStore.remove("key0");
+
+      OffHeapDiskStore.Provider.close(offHeapDiskStore);
+
+      OffHeapDiskStore.Provider.init(offHeapDiskStore);
+      assertThat(offHeapDiskStore.get("key0"), is((Store.ValueHolder<String>) null));
+      for (int i = 1; i < 100; i++) {
+        assertThat(offHeapDiskStore.get("key" + i).value(), is("value" + i));
+      }
+    } finally {
+      destroyStore(offHeapDiskStore);
+    }
+  }
+
+  @Test
+  public void testRecoveryAfterInterruptedCompaction() throws Exception {
+    OffHeapDiskStore<String, String> offHeapDiskStore = createAndInitStore(SystemTimeSource.INSTANCE, noExpiration());
+    try {
+      for (int i = 0; i < 100; i++) {
+        offHeapDiskStore.put("key" + i, "value" + i);
+      }
+
+      OffHeapDiskStore.Provider.close(offHeapDiskStore);
+
+      File[] logs = getPersistenceContext().getDirectory().listFiles(new FilenameFilter() {
+        @Override
+        public boolean accept(File dir, String name) {
+          return name.endsWith(".log");
+        }
+      });
+      assertThat(logs.length, greaterThan(1));
+      // a crash while the current log was moved aside, and another one before the compacted log was complete
+      File moved = new File(logs[0].getParentFile(), logs[0].getName() + ".previous");
+      assertTrue(logs[0].renameTo(moved));
+      File partial = new File(logs[1].getParentFile(), logs[1].getName() + ".compact");
+      assertTrue(partial.createNewFile());
+
+      OffHeapDiskStore.Provider.init(offHeapDiskStore);
+      for (int i = 0; i < 100; i++) {
+        assertThat(offHeapDiskStore.get("key" + i).value(), is("value" + i));
+      }
+      assertTrue(logs[0].exists());
+      assertFalse(moved.exists());
+      assertFalse(partial.exists());
+    } finally {
+      destroyStore(offHeapDiskStore);
+    }
+  }
+
+  @Test
+  public void testCompactionKeepsLogBounded() throws Exception {
+    OffHeapDiskStore<String, byte[]> offHeapDiskStore = createAndInitStore(SystemTimeSource.INSTANCE, noExpiration(), null);
+    try {
+      byte[] value = new byte[1024];
+      for (int round = 0; round < 20; round++) {
+        for (int i = 0; i < 200; i++) {
+          Arrays.fill(value, (byte) round);
+          offHeapDiskStore.put("key" + i, value.clone());
+        }
+      }
+
+      long maximumLogSize = (long) (MB.toBytes(1) / (1f - DEFAULT_COMPACTION_THRESHOLD));
+      assertThat(offHeapDiskStore.backingMap().dataAllocatedMemory(), lessThanOrEqualTo(maximumLogSize));
+      for (int i = 0; i < 200; i++) {
+        Store.ValueHolder<byte[]> valueHolder = offHeapDiskStore.get("key" + i);
+        if (valueHolder != null) {
+          assertThat(valueHolder.value()[0], is((byte) 19));
+        }
+      }
+    } finally {
+      destroyStore(offHeapDiskStore);
+    }
+  }
+
+  @Test
+  public void testProvidingLogStructuredConfiguration() throws Exception {
+    OffHeapDiskStore.Provider provider = new OffHeapDiskStore.Provider();
+    ServiceLocator serviceLocator = dependencySet().with(diskResourceService).with(provider).build();
+    serviceLocator.startAllServices();
+
+    CacheConfiguration cacheConfiguration = mock(CacheConfiguration.class);
+    when(cacheConfiguration.getResourcePools()).thenReturn(newResourcePoolsBuilder().disk(1, MB, false).build());
+    PersistenceSpaceIdentifier space = diskResourceService.getPersistenceSpaceIdentifier("cache", cacheConfiguration);
+
+    @SuppressWarnings("unchecked")
+    Store.Configuration<Long, String> storeConfig = mock(Store.Configuration.class);
+    when(storeConfig.getKeyType()).thenReturn(Long.class);
+    when(storeConfig.getValueType()).thenReturn(String.class);
+    when(storeConfig.getResourcePools()).thenReturn(ResourcePoolsBuilder.newResourcePoolsBuilder()
+        .disk(10, MB)
+        .build());
+    when(storeConfig.getDispatcherConcurrency()).thenReturn(1);
+
+    OffHeapDiskStore<Long, String> offHeapDiskStore = provider.createStore(storeConfig, space,
+        new OffHeapDiskStoreConfiguration(null, 1, 4, LOG_STRUCTURED, 0.3f, (int) KB.toBytes(16)));
+    assertThat(offHeapDiskStore.getStorageEngineType(), is(LOG_STRUCTURED));
+    provider.initStore(offHeapDiskStore);
+    provider.releaseStore(offHeapDiskStore);
+  }
+
+  @Override
+  protected OffHeapDiskStore<String, String> createAndInitStore(TimeSource timeSource, Expiry<? super String, ? super String> expiry) {
+    try {
+      SerializationProvider serializationProvider = new DefaultSerializationProvider(null);
+      serializationProvider.start(providerContaining(diskResourceService));
+      ClassLoader classLoader = getClass().getClassLoader();
+      Serializer<String> keySerializer = serializationProvider.createKeySerializer(String.class, classLoader);
+      Serializer<String> valueSerializer = serializationProvider.createValueSerializer(String.class, classLoader);
+      StoreConfigurationImpl<String, String> storeConfiguration = new StoreConfigurationImpl<String, String>(String.class, String.class,
+          null, classLoader, expiry, null, 0, keySerializer, valueSerializer);
+      OffHeapDiskStore<String, String> offHeapStore = new OffHeapDiskStore<String, String>(
+          getPersistenceContext(),
+          new OnDemandExecutionService(), null, DEFAULT_WRITER_CONCURRENCY, DEFAULT_DISK_SEGMENTS,
+          LOG_STRUCTURED, DEFAULT_COMPACTION_THRESHOLD, (int) KB.toBytes(4),
+          storeConfiguration, timeSource,
+          new TestStoreEventDispatcher<String, String>(),
+          MB.toBytes(1));
+      OffHeapDiskStore.Provider.init(offHeapStore);
+      return offHeapStore;
+    } catch (UnsupportedTypeException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  @Override
+  protected OffHeapDiskStore<String, byte[]> createAndInitStore(TimeSource timeSource, Expiry<? super String, ? super byte[]> expiry, EvictionAdvisor<? super String, ? super byte[]> evictionAdvisor) {
+    try {
+      SerializationProvider serializationProvider = new DefaultSerializationProvider(null);
+      serializationProvider.start(providerContaining(diskResourceService));
+      ClassLoader classLoader = getClass().getClassLoader();
+      Serializer<String> keySerializer = serializationProvider.createKeySerializer(String.class, classLoader);
+      Serializer<byte[]> valueSerializer = serializationProvider.createValueSerializer(byte[].class, classLoader);
+      StoreConfigurationImpl<String, byte[]> storeConfiguration = new StoreConfigurationImpl<String, byte[]>(String.class, byte[].class,
+          evictionAdvisor, getClass().getClassLoader(), expiry, null, 0, keySerializer, valueSerializer);
+      OffHeapDiskStore<String, byte[]> offHeapStore = new OffHeapDiskStore<String, byte[]>(
+          getPersistenceContext(),
+          new OnDemandExecutionService(), null, DEFAULT_WRITER_CONCURRENCY, DEFAULT_DISK_SEGMENTS,
+          LOG_STRUCTURED, DEFAULT_COMPACTION_THRESHOLD, (int) KB.toBytes(4),
+          storeConfiguration, timeSource,
+          new TestStoreEventDispatcher<String, byte[]>(),
+          MB.toBytes(1));
+      OffHeapDiskStore.Provider.init(offHeapStore);
+      return offHeapStore;
+    } catch (UnsupportedTypeException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  @Override
+  protected void destroyStore(AbstractOffHeapStore<?, ?> store) {
+    try {
+      OffHeapDiskStore.Provider.close((OffHeapDiskStore<?, ?>) store);
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  private FileBasedPersistenceContext getPersistenceContext() {
+    try {
+      CacheConfiguration cacheConfiguration = mock(CacheConfiguration.class);
+      when(cacheConfiguration.getResourcePools()).thenReturn(newResourcePoolsBuilder().disk(1, MB, false).build());
+      PersistenceSpaceIdentifier space = diskResourceService.getPersistenceSpaceIdentifier("cache", cacheConfiguration);
+      return diskResourceService.createPersistenceContextWithin(space, "store");
+    } catch (CachePersistenceException e) {
+      throw new AssertionError(e);
+    }
+  }
+}
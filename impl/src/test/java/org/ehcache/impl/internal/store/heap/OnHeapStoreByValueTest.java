@@ -44,6 +44,8 @@ import java.util.concurrent.TimeUnit;
 
 import static org.ehcache.config.builders.ResourcePoolsBuilder.heap;
 import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.fail;
@@ -136,6 +138,21 @@ public abstract class OnHeapStoreByValueTest extends BaseOnHeapStoreTest {
     }
   }
 
+  @Test
+  public void testImmutableValuesAreNotCopiedWhenSkippingImmutables() throws Exception {
+    OnHeapStore<Serializable, Serializable> store = newStore(SystemTimeSource.INSTANCE, Expirations.noExpiration(), Eviction.noAdvice(),
+        new SerializingCopier<Serializable>(new JavaSerializer<Serializable>(getClass().getClassLoader())),
+        new SerializingCopier<Serializable>(new JavaSerializer<Serializable>(getClass().getClassLoader()), true), 100);
+
+    String immutable = new String("value");
+    store.put("immutable", immutable);
+    List<String> mutable = new ArrayList<String>();
+    store.put("mutable", (Serializable) mutable);
+
+    assertThat(store.get("immutable").value(), sameInstance((Serializable) immutable));
+    assertThat(store.get("mutable").value(), not(sameInstance((Serializable) mutable)));
+  }
+
   @Test
   public void testKeyUniqueObject() throws Exception {
     OnHeapStore<Serializable, Serializable> store = newStore();
@@ -0,0 +1,324 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.impl.internal.store.snapshot;
+
+import org.ehcache.Cache;
+import org.ehcache.PersistentCacheManager;
+import org.ehcache.ValueSupplier;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.CacheManagerBuilder;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.expiry.Duration;
+import org.ehcache.expiry.Expiry;
+import org.ehcache.impl.config.store.snapshot.HotKeySnapshotConfiguration;
+import org.ehcache.impl.config.store.snapshot.HotKeySnapshotServiceConfiguration;
+import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.ehcache.config.builders.CacheConfigurationBuilder.newCacheConfigurationBuilder;
+import static org.ehcache.config.builders.CacheManagerBuilder.newCacheManagerBuilder;
+import static org.ehcache.config.builders.CacheManagerBuilder.persistence;
+import static org.ehcache.config.builders.ResourcePoolsBuilder.heap;
+import static org.ehcache.config.builders.ResourcePoolsBuilder.newResourcePoolsBuilder;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class DefaultHotKeySnapshotServiceTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testHottestMappingsAreRestoredWithTheirValues() throws Exception {
+    File root = folder.newFolder();
+    PersistentCacheManager cacheManager = cacheManager(root, newCacheConfigurationBuilder(Long.class, String.class, heap(100))
+        .add(new HotKeySnapshotConfiguration(2, true)));
+    Cache<Long, String> cache = cacheManager.getCache("cache", Long.class, String.class);
+    for (long i = 0; i < 10; i++) {
+      cache.put(i, "value-" + i);
+    }
+    for (int i = 0; i < 3; i++) {
+      cache.get(3L);
+      cache.get(7L);
+    }
+    cache.get(5L);
+    cacheManager.close();
+
+    cacheManager = cacheManager(root, newCacheConfigurationBuilder(Long.class, String.class, heap(100))
+        .add(new HotKeySnapshotConfiguration(2, true)));
+    try {
+      cache = cacheManager.getCache("cache", Long.class, String.class);
+      awaitMapping(cache, 7L);
+      awaitMapping(cache, 3L);
+      assertThat(cache.get(3L), is("value-3"));
+      assertThat(cache.get(7L), is("value-7"));
+      assertThat(cache.get(5L), nullValue());
+    } finally {
+      cacheManager.close();
+    }
+  }
+
+  @Test
+  public void testHottestMappingsOfATieredCacheAreRankedWithTheirCachingTierHits() throws Exception {
+    File root = folder.newFolder();
+    CacheConfigurationBuilder<Long, String> configuration = newCacheConfigurationBuilder(Long.class, String.class,
+        newResourcePoolsBuilder().heap(3, EntryUnit.ENTRIES).offheap(1, MemoryUnit.MB))
+        .add(new HotKeySnapshotConfiguration(2, true));
+    PersistentCacheManager cacheManager = cacheManager(root, configuration);
+    Cache<Long, String> cache = cacheManager.getCache("cache", Long.class, String.class);
+    for (long i = 0; i < 10; i++) {
+      cache.put(i, "value-" + i);
+    }
+    // cycling through more keys than the heap holds only ever hits the authority
+    for (int round = 0; round < 3; round++) {
+      for (long key : new long[] { 0L, 1L, 2L, 4L, 5L }) {
+        cache.get(key);
+      }
+    }
+    for (int i = 0; i < 10; i++) {
+      cache.get(3L);
+    }
+    for (int i = 0; i < 10; i++) {
+      cache.get(7L);
+    }
+    cacheManager.close();
+
+    cacheManager = cacheManager(root, configuration);
+    try {
+      cache = cacheManager.getCache("cache", Long.class, String.class);
+      awaitMapping(cache, 7L);
+      awaitMapping(cache, 3L);
+      for (long i = 0; i < 10; i++) {
+        if (i != 3L && i != 7L) {
+          assertThat(cache.get(i), nullValue());
+        }
+      }
+    } finally {
+      cacheManager.close();
+    }
+  }
+
+  @Test
+  public void testRestoredMappingsKeepTheirRemainingTimeToLive() throws Exception {
+    File root = folder.newFolder();
+    CacheConfigurationBuilder<Long, String> configuration = newCacheConfigurationBuilder(Long.class, String.class, heap(100))
+        .withExpiry(new PerKeyExpiry())
+        .add(new HotKeySnapshotConfiguration(3, true));
+    PersistentCacheManager cacheManager = cacheManager(root, configuration);
+    Cache<Long, String> cache = cacheManager.getCache("cache", Long.class, String.class);
+    // restored hottest first: 1 expires in 500ms, 2 in 1500ms and 3 never
+    for (long i = 1; i <= 3; i++) {
+      cache.put(i, "value-" + i);
+      for (long j = i; j <= 3; j++) {
+        cache.get(i);
+      }
+    }
+    cacheManager.close();
+    Thread.sleep(700);
+
+    cacheManager = cacheManager(root, configuration);
+    try {
+      cache = cacheManager.getCache("cache", Long.class, String.class);
+      awaitMapping(cache, 3L);
+      assertThat(cache.get(1L), nullValue());
+      assertThat(cache.get(2L), is("value-2"));
+      Thread.sleep(1000);
+      assertThat(cache.get(2L), nullValue());
+    } finally {
+      cacheManager.close();
+    }
+  }
+
+  @Test
+  public void testHottestKeysAreReloadedThroughTheLoaderWriter() throws Exception {
+    File root = folder.newFolder();
+    RecordingLoaderWriter loaderWriter = new RecordingLoaderWriter(null);
+    PersistentCacheManager cacheManager = cacheManager(root, newCacheConfigurationBuilder(Long.class, String.class, heap(100))
+        .withLoaderWriter(loaderWriter)
+        .add(new HotKeySnapshotConfiguration(3)));
+    Cache<Long, String> cache = cacheManager.getCache("cache", Long.class, String.class);
+    for (long i = 0; i < 10; i++) {
+      cache.put(i, "value-" + i);
+    }
+    for (long i = 4; i < 7; i++) {
+      cache.get(i);
+    }
+    cacheManager.close();
+
+    CountDownLatch latch = new CountDownLatch(3);
+    loaderWriter = new RecordingLoaderWriter(latch);
+    cacheManager = cacheManager(root, newCacheConfigurationBuilder(Long.class, String.class, heap(100))
+        .withLoaderWriter(loaderWriter)
+        .add(new HotKeySnapshotConfiguration(3)));
+    try {
+      assertTrue(latch.await(10, SECONDS));
+      assertThat(loaderWriter.loadedKeys(), containsInAnyOrder(4L, 5L, 6L));
+    } finally {
+      cacheManager.close();
+    }
+  }
+
+  @Test
+  public void testSnapshotIsDeletedOnceRestored() throws Exception {
+    File root = folder.newFolder();
+    PersistentCacheManager cacheManager = cacheManager(root, newCacheConfigurationBuilder(Long.class, String.class, heap(100))
+        .add(new HotKeySnapshotConfiguration(10, true)));
+    cacheManager.getCache("cache", Long.class, String.class).put(1L, "one");
+    cacheManager.close();
+    assertTrue(snapshotExists(root));
+
+    cacheManager = cacheManager(root, newCacheConfigurationBuilder(Long.class, String.class, heap(100))
+        .add(new HotKeySnapshotConfiguration(10, true)));
+    try {
+      awaitMapping(cacheManager.getCache("cache", Long.class, String.class), 1L);
+      assertFalse(snapshotExists(root));
+    } finally {
+      cacheManager.close();
+    }
+  }
+
+  @Test
+  public void testPersistentCachesAreNotSnapshot() throws Exception {
+    File root = folder.newFolder();
+    PersistentCacheManager cacheManager = cacheManager(root, newCacheConfigurationBuilder(Long.class, String.class,
+        newResourcePoolsBuilder().heap(10).disk(10, MemoryUnit.MB, true))
+        .add(new HotKeySnapshotConfiguration(10, true)));
+    try {
+      cacheManager.getCache("cache", Long.class, String.class).put(1L, "one");
+    } finally {
+      cacheManager.close();
+    }
+    assertFalse(snapshotExists(root));
+  }
+
+  private static PersistentCacheManager cacheManager(File root, CacheConfigurationBuilder<Long, String> cacheConfiguration) {
+    return newCacheManagerBuilder()
+        .with(persistence(root))
+        .using(new HotKeySnapshotServiceConfiguration())
+        .withCache("cache", cacheConfiguration)
+        .build(true);
+  }
+
+  private static void awaitMapping(Cache<Long, String> cache, Long key) throws InterruptedException {
+    long deadline = System.nanoTime() + SECONDS.toNanos(10);
+    while (!cache.containsKey(key) && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertTrue("No mapping for " + key, cache.containsKey(key));
+  }
+
+  private static boolean snapshotExists(File directory) {
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        if (file.isDirectory() ? snapshotExists(file) : file.getName().equals(HotKeySnapshot.SNAPSHOT_FILE)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static class PerKeyExpiry implements Expiry<Long, String> {
+
+    @Override
+    public Duration getExpiryForCreation(Long key, String value) {
+      switch (key.intValue()) {
+        case 1:
+          return new Duration(500, MILLISECONDS);
+        case 2:
+          return new Duration(1500, MILLISECONDS);
+        default:
+          return Duration.INFINITE;
+      }
+    }
+
+    @Override
+    public Duration getExpiryForAccess(Long key, ValueSupplier<? extends String> value) {
+      return null;
+    }
+
+    @Override
+    public Duration getExpiryForUpdate(Long key, ValueSupplier<? extends String> oldValue, String newValue) {
+      return null;
+    }
+  }
+
+  private static class RecordingLoaderWriter implements CacheLoaderWriter<Long, String> {
+
+    private final CountDownLatch latch;
+    private final List<Long> loadedKeys = Collections.synchronizedList(new ArrayList<Long>());
+
+    RecordingLoaderWriter(CountDownLatch latch) {
+      this.latch = latch;
+    }
+
+    List<Long> loadedKeys() {
+      return loadedKeys;
+    }
+
+    @Override
+    public String load(Long key) throws Exception {
+      return loadAll(Collections.singleton(key)).get(key);
+    }
+
+    @Override
+    public Map<Long, String> loadAll(Iterable<? extends Long> keys) throws Exception {
+      Map<Long, String> values = new HashMap<Long, String>();
+      for (Long key : keys) {
+        loadedKeys.add(key);
+        values.put(key, "value-" + key);
+        if (latch != null) {
+          latch.countDown();
+        }
+      }
+      return values;
+    }
+
+    @Override
+    public void write(Long key, String value) throws Exception {
+    }
+
+    @Override
+    public void writeAll(Iterable<? extends Map.Entry<? extends Long, ? extends String>> entries) throws Exception {
+    }
+
+    @Override
+    public void delete(Long key) throws Exception {
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Long> keys) throws Exception {
+    }
+  }
+}
@@ -43,6 +43,15 @@ public class DoubleSerializerTest {
     }
   }
 
+  @Test
+  public void testEqualsFollowsDoubleEquals() throws ClassNotFoundException {
+    DoubleSerializer serializer = new DoubleSerializer();
+    assertThat(serializer.equals(42.0, serializer.serialize(42.0)), is(true));
+    assertThat(serializer.equals(42.0, serializer.serialize(43.0)), is(false));
+    assertThat(serializer.equals(Double.NaN, serializer.serialize(Double.NaN)), is(true));
+    assertThat(serializer.equals(0.0, serializer.serialize(-0.0)), is(false));
+  }
+
   @Test(expected = NullPointerException.class)
   public void testReadThrowsOnNullInput() throws ClassNotFoundException {
     new DoubleSerializer().read(null);
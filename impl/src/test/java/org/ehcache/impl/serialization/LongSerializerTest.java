@@ -16,10 +16,12 @@
 
 package org.ehcache.impl.serialization;
 
+import org.ehcache.impl.internal.store.BinaryEquality;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
 import java.util.Random;
 
 import static org.hamcrest.Matchers.is;
@@ -46,6 +48,17 @@ public class LongSerializerTest {
     }
   }
 
+  @Test
+  public void testEqualsComparesBinaryForm() throws ClassNotFoundException {
+    LongSerializer serializer = new LongSerializer();
+    ByteBuffer binary = serializer.serialize(42L);
+    assertThat(serializer.equals(42L, binary), is(true));
+    assertThat(binary.remaining(), is(0));
+    assertThat(serializer.equals(43L, serializer.serialize(42L)), is(false));
+    assertThat(BinaryEquality.equals(serializer, 42L, serializer.serialize(42L)), is(true));
+    assertThat(BinaryEquality.equals(serializer, 43L, serializer.serialize(42L)), is(false));
+  }
+
   @Test(expected = NullPointerException.class)
   public void testReadThrowsOnNullInput() throws ClassNotFoundException {
     new LongSerializer().read(null);
@@ -0,0 +1,224 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ehcache.impl.serialization;
+
+import org.ehcache.spi.serialization.SerializerException;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.ehcache.impl.serialization.SerializerTestUtilities.createClassNameRewritingLoader;
+import static org.ehcache.impl.serialization.SerializerTestUtilities.newClassName;
+import static org.ehcache.impl.serialization.SerializerTestUtilities.popTccl;
+import static org.ehcache.impl.serialization.SerializerTestUtilities.pushTccl;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class PojoSerializerTest {
+
+  @Test
+  public void testRoundTripsPojoGraph() throws Exception {
+    PojoSerializer<Person> serializer = newSerializer(new TransientStateRepository());
+
+    Person person = new Person("Jörg 😀", 42, TimeUnit.DAYS);
+    person.address = new Address("Rue du Rhône", 1204);
+    person.scores = new byte[] {1, 2, 3};
+    person.savings = -1234.5;
+    person.tags = new ArrayList<String>(Arrays.asList("a", "b"));
+    person.cache = "cached";
+
+    Person read = serializer.read(serializer.serialize(person));
+
+    assertThat(read.name, is(person.name));
+    assertThat(read.age, is(42));
+    assertThat(read.id, is(person.id));
+    assertThat(read.unit, sameInstance(TimeUnit.DAYS));
+    assertThat(read.address.street, is("Rue du Rhône"));
+    assertThat(read.address.zip, is(1204));
+    assertThat(read.scores, is(new byte[] {1, 2, 3}));
+    assertThat(read.savings, is(-1234.5));
+    assertThat(read.tags, contains("a", "b"));
+    assertThat(read.cache, is(not((Object) "cached")));
+    assertThat(read.nickname, nullValue());
+  }
+
+  @Test
+  public void testIsMoreCompactThanJavaSerialization() throws Exception {
+    TransientStateRepository stateRepository = new TransientStateRepository();
+    PojoSerializer<Person> serializer = newSerializer(stateRepository);
+    CompactJavaSerializer<Person> javaSerializer = new CompactJavaSerializer<Person>(null);
+    javaSerializer.init(stateRepository);
+
+    Person person = new Person("Joe", 42, TimeUnit.DAYS);
+    person.address = new Address("Main Street", 1204);
+
+    assertThat(serializer.serialize(person).remaining(), lessThan(javaSerializer.serialize(person).remaining()));
+  }
+
+  @Test
+  public void testCyclicGraphFallsBackToJavaSerialization() throws Exception {
+    PojoSerializer<Node> serializer = newSerializer(new TransientStateRepository());
+
+    Node node = new Node();
+    node.next = new Node();
+    node.next.next = node;
+
+    Node read = serializer.read(serializer.serialize(node));
+    assertThat(read.next.next, sameInstance(read));
+  }
+
+  @Test
+  public void testSchemasAreSharedThroughStateRepository() throws Exception {
+    TransientStateRepository stateRepository = new TransientStateRepository();
+    PojoSerializer<Address> writer = newSerializer(stateRepository);
+    ByteBuffer binary = writer.serialize(new Address("Main Street", 1204));
+
+    PojoSerializer<Address> reader = newSerializer(stateRepository);
+    Address read = reader.read(binary);
+    assertThat(read.street, is("Main Street"));
+    assertThat(reader.equals(new Address("Main Street", 1204), writer.serialize(read)), is(true));
+  }
+
+  @Test
+  public void testAddedRemovedAndWidenedFields() throws Exception {
+    PojoSerializer<Serializable> serializer = newSerializer(new TransientStateRepository());
+
+    ClassLoader loaderW = createClassNameRewritingLoader(Evolving_write.class);
+    Serializable written = (Serializable) loaderW.loadClass(newClassName(Evolving_write.class)).newInstance();
+    ByteBuffer binary = serializer.serialize(written);
+
+    pushTccl(createClassNameRewritingLoader(Evolving_read.class));
+    try {
+      Serializable read = serializer.read(binary);
+      assertThat(read.getClass().getField("kept").getLong(read), is(7L));
+      assertThat((String) read.getClass().getField("added").get(read), is("default"));
+    } finally {
+      popTccl();
+    }
+  }
+
+  @Test(expected = SerializerException.class)
+  public void testIncompatibleFieldTypeChange() throws Exception {
+    PojoSerializer<Serializable> serializer = newSerializer(new TransientStateRepository());
+
+    ClassLoader loaderW = createClassNameRewritingLoader(Incompatible_write.class);
+    Serializable written = (Serializable) loaderW.loadClass(newClassName(Incompatible_write.class)).newInstance();
+    ByteBuffer binary = serializer.serialize(written);
+
+    pushTccl(createClassNameRewritingLoader(Incompatible_read.class));
+    try {
+      serializer.read(binary);
+    } finally {
+      popTccl();
+    }
+  }
+
+  private static <T> PojoSerializer<T> newSerializer(TransientStateRepository stateRepository) {
+    PojoSerializer<T> serializer = new PojoSerializer<T>(null);
+    serializer.init(stateRepository);
+    return serializer;
+  }
+
+  public static class Identified implements Serializable {
+    private static final long serialVersionUID = 1L;
+    long id = System.nanoTime();
+  }
+
+  public static class Person extends Identified {
+    private static final long serialVersionUID = 1L;
+    private final String name;
+    private int age;
+    private TimeUnit unit;
+    private Address address;
+    private byte[] scores;
+    private double savings;
+    private List<String> tags;
+    private String nickname;
+    private transient Object cache = new Object();
+
+    Person() {
+      this(null, 0, null);
+    }
+
+    Person(String name, int age, TimeUnit unit) {
+      this.name = name;
+      this.age = age;
+      this.unit = unit;
+    }
+  }
+
+  public static class Address implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private String street;
+    private Integer zip;
+
+    private Address() {
+    }
+
+    Address(String street, Integer zip) {
+      this.street = street;
+      this.zip = zip;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Address && street.equals(((Address) o).street) && zip.equals(((Address) o).zip);
+    }
+
+    @Override
+    public int hashCode() {
+      return street.hashCode();
+    }
+  }
+
+  public static class Node implements Serializable {
+    private static final long serialVersionUID = 1L;
+    Node next;
+  }
+
+  public static class Evolving_write implements Serializable {
+    private static final long serialVersionUID = 1L;
+    public int kept = 7;
+    public String removed = "removed";
+  }
+
+  public static class Evolving_read implements Serializable {
+    private static final long serialVersionUID = 1L;
+    public long kept;
+    public String added = "default";
+  }
+
+  public static class Incompatible_write implements Serializable {
+    private static final long serialVersionUID = 1L;
+    public String value = "value";
+  }
+
+  public static class Incompatible_read implements Serializable {
+    private static final long serialVersionUID = 1L;
+    public int value;
+  }
+}
@@ -52,9 +52,26 @@ public class StringSerializerTest {
     } while (c != Character.MIN_VALUE);
   }
 
+  @Test
+  public void testInPlaceSerializationMatchesSerialize() throws ClassNotFoundException {
+    StringSerializer serializer = new StringSerializer();
+    String s = "plain\u0000\u007f\u0080\u07ff\u0800\uffff\ud83c\udcb1";
+    ByteBuffer expected = serializer.serialize(s);
+    assertThat(serializer.serializedSize(s), is(expected.remaining()));
+
+    ByteBuffer target = ByteBuffer.allocate(serializer.serializedSize(s) + 4);
+    target.putInt(42);
+    serializer.serialize(s, target);
+    assertThat(target.remaining(), is(0));
+    target.flip().position(4);
+    assertThat(target, is(expected));
+    assertThat(serializer.read(target), is(s));
+  }
+
   private static void testString(String s) throws ClassNotFoundException {
     StringSerializer serializer = new StringSerializer();
     ByteBuffer serialized = serializer.serialize(s);
+    assertThat(serializer.serializedSize(s), is(serialized.remaining()));
 
     String read = serializer.read(serialized.asReadOnlyBuffer());
     assertThat(read, is(s));
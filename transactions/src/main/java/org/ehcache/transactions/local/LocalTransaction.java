@@ -0,0 +1,303 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.transactions.local;
+
+import org.ehcache.Cache;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A local, non-XA, transaction over one or more caches of a {@link org.ehcache.CacheManager}.
+ * <p>
+ * Writes are buffered in the transaction and only become visible to other threads once {@link #commit()} returns,
+ * all at once with respect to other local transactions. Reads see the transaction's own writes and are otherwise
+ * served by the cache; every value read from a cache is validated at commit time and the transaction fails with a
+ * {@link LocalTransactionConflictException} if it was changed in the meantime.
+ * <p>
+ * Values are compared using {@link Object#equals(Object)}, so there is no protection against the ABA problem.
+ * Non-transactional writes to the same caches are not ordered with respect to commits. Instances are not thread-safe.
+ * <p>
+ * Writes are applied cache by cache, so a commit spanning several caches is not failure-atomic: should a cache fail to
+ * apply its writes, the writes already applied are undone by restoring the values they replaced. Only when undoing them
+ * fails as well does the transaction end up {@link #isPartiallyCommitted() partially committed}.
+ */
+public final class LocalTransaction {
+
+  private enum Status {
+    ACTIVE, COMMITTED, ROLLED_BACK, PARTIALLY_COMMITTED
+  }
+
+  private final LocalTransactionManager manager;
+  private final Map<Cache<?, ?>, Map<Object, Access>> accesses = new IdentityHashMap<Cache<?, ?>, Map<Object, Access>>();
+  private Status status = Status.ACTIVE;
+
+  LocalTransaction(LocalTransactionManager manager) {
+    this.manager = manager;
+  }
+
+  /**
+   * Returns the value mapped to the given key as seen by this transaction.
+   *
+   * @param cache the cache to read from
+   * @param key the key to look up
+   * @param <K> the key type
+   * @param <V> the value type
+   * @return the value, or {@code null} if there is none
+   */
+  @SuppressWarnings("unchecked")
+  public <K, V> V get(Cache<K, V> cache, K key) {
+    Access access = access(cache, key);
+    if (!access.written && !access.read) {
+      access.observed = cache.get(key);
+      access.read = true;
+    }
+    return (V) (access.written ? access.value : access.observed);
+  }
+
+  /**
+   * Maps the given value to the given key when this transaction commits.
+   *
+   * @param cache the cache to write to
+   * @param key the key
+   * @param value the value
+   * @param <K> the key type
+   * @param <V> the value type
+   */
+  public <K, V> void put(Cache<K, V> cache, K key, V value) {
+    if (value == null) {
+      throw new NullPointerException("Value cannot be null");
+    }
+    write(cache, key, value);
+  }
+
+  /**
+   * Removes the mapping of the given key when this transaction commits.
+   *
+   * @param cache the cache to write to
+   * @param key the key
+   * @param <K> the key type
+   * @param <V> the value type
+   */
+  public <K, V> void remove(Cache<K, V> cache, K key) {
+    write(cache, key, null);
+  }
+
+  /**
+   * Atomically applies the writes of this transaction.
+   *
+   * @throws LocalTransactionConflictException if a value read by this transaction was concurrently modified, in
+   *         which case none of the writes are applied
+   * @throws IllegalStateException if the transaction is no longer active
+   * @throws RuntimeException if a cache failed to apply the writes, which are then undone unless this transaction
+   *         ends up {@link #isPartiallyCommitted() partially committed}
+   */
+  public void commit() throws LocalTransactionConflictException {
+    checkActive();
+    status = Status.ROLLED_BACK;
+
+    Set<Integer> stripes = new TreeSet<Integer>();
+    for (Map.Entry<Cache<?, ?>, Map<Object, Access>> entry : accesses.entrySet()) {
+      for (Object key : entry.getValue().keySet()) {
+        stripes.add(manager.stripeFor(entry.getKey(), key));
+      }
+    }
+
+    List<ReentrantLock> held = new ArrayList<ReentrantLock>(stripes.size());
+    try {
+      for (Integer stripe : stripes) {
+        ReentrantLock lock = manager.lock(stripe);
+        lock.lock();
+        held.add(lock);
+      }
+      validate();
+      apply();
+      status = Status.COMMITTED;
+    } finally {
+      for (int i = held.size() - 1; i >= 0; i--) {
+        held.get(i).unlock();
+      }
+      accesses.clear();
+    }
+  }
+
+  /**
+   * Discards the writes of this transaction.
+   *
+   * @throws IllegalStateException if the transaction is no longer active
+   */
+  public void rollback() {
+    checkActive();
+    status = Status.ROLLED_BACK;
+    accesses.clear();
+  }
+
+  /**
+   * Checks whether this transaction has been neither committed nor rolled back.
+   *
+   * @return {@code true} if this transaction is active
+   */
+  public boolean isActive() {
+    return status == Status.ACTIVE;
+  }
+
+  /**
+   * Checks whether this transaction failed to commit and could not undo the writes it had already applied, leaving
+   * some of them, possibly only partially, in the caches.
+   *
+   * @return {@code true} if this transaction is partially committed
+   */
+  public boolean isPartiallyCommitted() {
+    return status == Status.PARTIALLY_COMMITTED;
+  }
+
+  private void validate() {
+    for (Map.Entry<Cache<?, ?>, Map<Object, Access>> entry : accesses.entrySet()) {
+      @SuppressWarnings("unchecked")
+      Cache<Object, Object> cache = (Cache<Object, Object>) entry.getKey();
+      for (Map.Entry<Object, Access> keyAccess : entry.getValue().entrySet()) {
+        Access access = keyAccess.getValue();
+        if (access.read) {
+          Object current = cache.get(keyAccess.getKey());
+          if (current == null ? access.observed != null : !current.equals(access.observed)) {
+            throw new LocalTransactionConflictException("Value of key " + keyAccess.getKey() + " in cache " + cache
+                + " was concurrently modified");
+          }
+        }
+      }
+    }
+  }
+
+  private void apply() {
+    List<Map.Entry<Cache<Object, Object>, Map<Object, Object>>> applied = new ArrayList<Map.Entry<Cache<Object, Object>, Map<Object, Object>>>();
+    try {
+      for (Map.Entry<Cache<?, ?>, Map<Object, Access>> entry : accesses.entrySet()) {
+        @SuppressWarnings("unchecked")
+        Cache<Object, Object> cache = (Cache<Object, Object>) entry.getKey();
+        Map<Object, Object> writes = new HashMap<Object, Object>();
+        Map<Object, Object> previous = new HashMap<Object, Object>();
+        Set<Object> unread = new HashSet<Object>();
+        for (Map.Entry<Object, Access> keyAccess : entry.getValue().entrySet()) {
+          Access access = keyAccess.getValue();
+          if (access.written) {
+            writes.put(keyAccess.getKey(), access.value);
+            if (access.read) {
+              // validated, so still the current value
+              previous.put(keyAccess.getKey(), access.observed);
+            } else {
+              unread.add(keyAccess.getKey());
+            }
+          }
+        }
+        if (!unread.isEmpty()) {
+          previous.putAll(cache.getAll(unread));
+        }
+        // recorded first, as a failing write may still have been partially applied
+        applied.add(new AbstractMap.SimpleImmutableEntry<Cache<Object, Object>, Map<Object, Object>>(cache, previous));
+        writeAll(cache, writes);
+      }
+    } catch (RuntimeException e) {
+      undo(applied);
+      throw e;
+    }
+  }
+
+  /**
+   * Restores the values replaced by the writes applied so far, leaving this transaction partially committed if that
+   * fails for any cache.
+   */
+  private void undo(List<Map.Entry<Cache<Object, Object>, Map<Object, Object>>> applied) {
+    for (int i = applied.size() - 1; i >= 0; i--) {
+      try {
+        writeAll(applied.get(i).getKey(), applied.get(i).getValue());
+      } catch (RuntimeException e) {
+        status = Status.PARTIALLY_COMMITTED;
+      }
+    }
+  }
+
+  /**
+   * Applies the given values to the given cache, a {@code null} value removing the mapping.
+   */
+  private static void writeAll(Cache<Object, Object> cache, Map<Object, Object> values) {
+    Map<Object, Object> puts = new HashMap<Object, Object>();
+    Set<Object> removes = new HashSet<Object>();
+    for (Map.Entry<Object, Object> value : values.entrySet()) {
+      if (value.getValue() == null) {
+        removes.add(value.getKey());
+      } else {
+        puts.put(value.getKey(), value.getValue());
+      }
+    }
+    if (!puts.isEmpty()) {
+      cache.putAll(puts);
+    }
+    if (!removes.isEmpty()) {
+      cache.removeAll(removes);
+    }
+  }
+
+  private void write(Cache<?, ?> cache, Object key, Object value) {
+    Access access = access(cache, key);
+    access.written = true;
+    access.value = value;
+  }
+
+  private Access access(Cache<?, ?> cache, Object key) {
+    checkActive();
+    if (cache == null) {
+      throw new NullPointerException("Cache cannot be null");
+    }
+    if (key == null) {
+      throw new NullPointerException("Key cannot be null");
+    }
+    Map<Object, Access> cacheAccesses = accesses.get(cache);
+    if (cacheAccesses == null) {
+      cacheAccesses = new HashMap<Object, Access>();
+      accesses.put(cache, cacheAccesses);
+    }
+    Access access = cacheAccesses.get(key);
+    if (access == null) {
+      access = new Access();
+      cacheAccesses.put(key, access);
+    }
+    return access;
+  }
+
+  private void checkActive() {
+    if (status != Status.ACTIVE) {
+      throw new IllegalStateException("Transaction is " + status);
+    }
+  }
+
+  /**
+   * What this transaction did with a single key.
+   */
+  private static final class Access {
+    boolean read;
+    Object observed;
+    boolean written;
+    Object value;
+  }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.transactions.local;
+
+/**
+ * Thrown when a {@link LocalTransaction} cannot commit because a value it read was concurrently modified.
+ * <p>
+ * The transaction is rolled back when this exception is thrown and can safely be retried.
+ */
+public class LocalTransactionConflictException extends RuntimeException {
+
+  private static final long serialVersionUID = -2785243196370549632L;
+
+  public LocalTransactionConflictException(String message) {
+    super(message);
+  }
+}
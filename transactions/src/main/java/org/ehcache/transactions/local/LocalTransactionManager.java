@@ -0,0 +1,85 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.transactions.local;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Creates {@link LocalTransaction}s spanning the caches of a single {@link org.ehcache.CacheManager}.
+ * <p>
+ * Local transactions do not need a JTA transaction manager nor any special cache configuration: they buffer their
+ * writes and apply them to plain caches on {@link LocalTransaction#commit() commit}. Commits lock the touched keys
+ * in a global order, so that concurrent local transactions never observe each other half-applied nor deadlock, and
+ * validate the values read by the transaction, so that a transaction whose reads were invalidated by a concurrent
+ * commit fails instead of overwriting it.
+ * <p>
+ * All local transactions working on the same caches must be created by the same manager.
+ */
+public final class LocalTransactionManager {
+
+  private static final int DEFAULT_CONCURRENCY = 1024;
+
+  private final ReentrantLock[] locks;
+
+  /**
+   * Creates a manager using the default lock concurrency.
+   */
+  public LocalTransactionManager() {
+    this(DEFAULT_CONCURRENCY);
+  }
+
+  /**
+   * Creates a manager striping its key locks over the given number of locks.
+   *
+   * @param concurrency the number of lock stripes, rounded up to a power of two
+   */
+  public LocalTransactionManager(int concurrency) {
+    if (concurrency <= 0) {
+      throw new IllegalArgumentException("Concurrency must be positive: " + concurrency);
+    }
+    int stripes = Integer.highestOneBit(concurrency);
+    if (stripes < concurrency) {
+      stripes <<= 1;
+    }
+    this.locks = new ReentrantLock[stripes];
+    for (int i = 0; i < stripes; i++) {
+      locks[i] = new ReentrantLock();
+    }
+  }
+
+  /**
+   * Starts a new transaction.
+   * <p>
+   * The returned transaction must be confined to a single thread and ended by either
+   * {@link LocalTransaction#commit()} or {@link LocalTransaction#rollback()}.
+   *
+   * @return a new active transaction
+   */
+  public LocalTransaction begin() {
+    return new LocalTransaction(this);
+  }
+
+  int stripeFor(Object cache, Object key) {
+    int hash = System.identityHashCode(cache) * 31 + key.hashCode();
+    hash ^= (hash >>> 20) ^ (hash >>> 12);
+    hash ^= (hash >>> 7) ^ (hash >>> 4);
+    return hash & (locks.length - 1);
+  }
+
+  ReentrantLock lock(int stripe) {
+    return locks[stripe];
+  }
+}
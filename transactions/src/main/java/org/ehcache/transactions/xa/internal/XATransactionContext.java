@@ -16,11 +16,11 @@
 
 package org.ehcache.transactions.xa.internal;
 
+import org.ehcache.core.spi.function.BiFunction;
+import org.ehcache.core.spi.function.Function;
 import org.ehcache.core.spi.store.StoreAccessException;
 import org.ehcache.core.spi.time.TimeSource;
 import org.ehcache.core.spi.store.Store;
-import org.ehcache.core.spi.store.Store.RemoveStatus;
-import org.ehcache.core.spi.store.Store.ReplaceStatus;
 import org.ehcache.transactions.xa.internal.commands.Command;
 import org.ehcache.transactions.xa.internal.commands.StoreEvictCommand;
 import org.ehcache.transactions.xa.internal.commands.StorePutCommand;
@@ -29,8 +29,12 @@ import org.ehcache.transactions.xa.internal.journal.Journal;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -134,34 +138,22 @@ public class XATransactionContext<K, V> {
       if (journal.isInDoubt(transactionId)) {
         throw new IllegalStateException("Cannot prepare transaction that is not in-flight : " + transactionId);
       }
+      if (commands.isEmpty()) {
+        // read-only transaction: there is nothing to stage nor to recover, so the journal is left untouched
+        return 0;
+      }
 
       journal.saveInDoubt(transactionId, commands.keySet());
-      for (Map.Entry<K, Command<V>> entry : commands.entrySet()) {
-        if (entry.getValue() instanceof StoreEvictCommand) {
-          evictFromUnderlyingStore(entry.getKey());
-          continue;
-        }
-        V oldValue = entry.getValue().getOldValue();
-        SoftLock<V> oldSoftLock = oldValue == null ? null : new SoftLock<V>(null, oldValue, null);
-        SoftLock<V> newSoftLock = new SoftLock<V>(transactionId, oldValue, entry.getValue().getNewValueHolder());
-        if (oldSoftLock != null) {
-          boolean replaced = replaceInUnderlyingStore(entry.getKey(), oldSoftLock, newSoftLock);
-          if (!replaced) {
-            LOGGER.debug("prepare failed replace of softlock (concurrent modification?)");
-            evictFromUnderlyingStore(entry.getKey());
-          }
-        } else {
-          Store.ValueHolder<SoftLock<V>> existing = putIfAbsentInUnderlyingStore(entry, newSoftLock);
-          if (existing != null) {
-            LOGGER.debug("prepare failed putIfAbsent of softlock (concurrent modification?)");
-            evictFromUnderlyingStore(entry.getKey());
+      underlyingStore.bulkCompute(commands.keySet(), new Function<Iterable<? extends Map.Entry<? extends K, ? extends SoftLock<V>>>, Iterable<? extends Map.Entry<? extends K, ? extends SoftLock<V>>>>() {
+        @Override
+        public Iterable<? extends Map.Entry<? extends K, ? extends SoftLock<V>>> apply(Iterable<? extends Map.Entry<? extends K, ? extends SoftLock<V>>> entries) {
+          List<Map.Entry<K, SoftLock<V>>> result = new ArrayList<Map.Entry<K, SoftLock<V>>>();
+          for (Map.Entry<? extends K, ? extends SoftLock<V>> entry : entries) {
+            result.add(new AbstractMap.SimpleEntry<K, SoftLock<V>>(entry.getKey(), stage(commands.get(entry.getKey()), entry.getValue())));
           }
+          return result;
         }
-      }
-
-      if (commands.isEmpty()) {
-        journal.saveRolledBack(transactionId, false);
-      }
+      });
 
       return commands.size();
     } finally {
@@ -182,46 +174,42 @@ public class XATransactionContext<K, V> {
       }
     }
 
-    Collection<K> keys = journal.getInDoubtKeys(transactionId);
-    for (K key : keys) {
-      SoftLock<V> preparedSoftLock = getFromUnderlyingStore(key);
-      XAValueHolder<V> newValueHolder = preparedSoftLock == null ? null : preparedSoftLock.getNewValueHolder();
-      SoftLock<V> definitiveSoftLock = newValueHolder == null ? null : new SoftLock<V>(null, newValueHolder.value(), null);
-
-      if (preparedSoftLock != null) {
-        if (preparedSoftLock.getTransactionId() != null && !preparedSoftLock.getTransactionId().equals(transactionId)) {
-          LOGGER.debug("commit skipping prepared softlock with non-matching TX ID (concurrent modification?)");
-          evictFromUnderlyingStore(key);
-          continue;
-        }
-
-        if (definitiveSoftLock != null) {
-          boolean replaced = replaceInUnderlyingStore(key, preparedSoftLock, definitiveSoftLock);
-          if (!replaced) {
-            LOGGER.debug("commit failed replace of softlock (concurrent modification?)");
-            evictFromUnderlyingStore(key);
-          }
-        } else {
-          boolean removed = removeFromUnderlyingStore(key, preparedSoftLock);
-          if (!removed) {
-            LOGGER.debug("commit failed remove of softlock (concurrent modification?)");
-            evictFromUnderlyingStore(key);
-          }
-        }
-      } else {
-        LOGGER.debug("commit skipping evicted prepared softlock");
-      }
-
-    }
-
+    resolve(journal.getInDoubtKeys(transactionId), true);
     journal.saveCommitted(transactionId, false);
   }
 
+  /**
+   * Commits without going through the prepared state when this resource is the only one enlisted in the transaction.
+   * <p>
+   * A transaction touching a single key is applied with a single atomic store computation and never journaled, as it
+   * cannot be left partially applied nor be observed half-way. Transactions touching several keys still stage
+   * {@link SoftLock}s so that concurrent readers and recovery never see a partial outcome.
+   */
   public void commitInOnePhase() throws StoreAccessException, IllegalStateException, TransactionTimeoutException {
     if (journal.isInDoubt(transactionId)) {
       throw new IllegalStateException("Cannot commit-one-phase transaction that has been prepared : " + transactionId);
     }
 
+    if (commands.size() == 1) {
+      try {
+        if (hasTimedOut()) {
+          throw new TransactionTimeoutException();
+        }
+        Map.Entry<K, Command<V>> entry = commands.entrySet().iterator().next();
+        final Command<V> command = entry.getValue();
+        underlyingStore.compute(entry.getKey(), new BiFunction<K, SoftLock<V>, SoftLock<V>>() {
+          @Override
+          public SoftLock<V> apply(K key, SoftLock<V> current) {
+            SoftLock<V> staged = stage(command, current);
+            return staged == null ? null : resolve(staged, true);
+          }
+        });
+      } finally {
+        commands.clear();
+      }
+      return;
+    }
+
     int prepared = prepare();
     if (prepared > 0) {
       commit(false);
@@ -236,38 +224,7 @@ public class XATransactionContext<K, V> {
 
     if (inDoubt) {
       // phase 2 rollback
-
-      Collection<K> keys = journal.getInDoubtKeys(transactionId);
-      for (K key : keys) {
-        SoftLock<V> preparedSoftLock = getFromUnderlyingStore(key);
-        V oldValue = preparedSoftLock == null ? null : preparedSoftLock.getOldValue();
-        SoftLock<V> definitiveSoftLock = oldValue == null ? null : new SoftLock<V>(null, oldValue, null);
-
-        if (preparedSoftLock != null) {
-          if (preparedSoftLock.getTransactionId() != null && !preparedSoftLock.getTransactionId().equals(transactionId)) {
-            LOGGER.debug("rollback skipping prepared softlock with non-matching TX ID (concurrent modification?)");
-            evictFromUnderlyingStore(key);
-            continue;
-          }
-
-          if (definitiveSoftLock != null) {
-            boolean replaced = replaceInUnderlyingStore(key, preparedSoftLock, definitiveSoftLock);
-            if (!replaced) {
-              LOGGER.debug("rollback failed replace of softlock (concurrent modification?)");
-              evictFromUnderlyingStore(key);
-            }
-          } else {
-            boolean removed = removeFromUnderlyingStore(key, preparedSoftLock);
-            if (!removed) {
-              LOGGER.debug("rollback failed remove of softlock (concurrent modification?)");
-              evictFromUnderlyingStore(key);
-            }
-          }
-        } else {
-          LOGGER.debug("rollback skipping evicted prepared softlock");
-        }
-      }
-
+      resolve(journal.getInDoubtKeys(transactionId), false);
       journal.saveRolledBack(transactionId, false);
     } else if (recovering) {
       throw new IllegalStateException("Cannot rollback unknown transaction : " + transactionId);
@@ -277,32 +234,55 @@ public class XATransactionContext<K, V> {
     }
   }
 
-
-  private boolean removeFromUnderlyingStore(K key, SoftLock<V> preparedSoftLock) throws StoreAccessException {
-    if (underlyingStore.remove(key, preparedSoftLock).equals(RemoveStatus.REMOVED)) {
-      return true;
+  /**
+   * Computes the {@link SoftLock} a prepared command installs over the current mapping, or {@code null} if the
+   * mapping must be evicted.
+   */
+  private SoftLock<V> stage(Command<V> command, SoftLock<V> current) {
+    if (command instanceof StoreEvictCommand) {
+      return null;
     }
-    return false;
-  }
-
-  private boolean replaceInUnderlyingStore(K key, SoftLock<V> preparedSoftLock, SoftLock<V> definitiveSoftLock) throws StoreAccessException {
-    if (underlyingStore.replace(key, preparedSoftLock, definitiveSoftLock).equals(ReplaceStatus.HIT)) {
-      return true;
+    V oldValue = command.getOldValue();
+    SoftLock<V> expected = oldValue == null ? null : new SoftLock<V>(null, oldValue, null);
+    if (expected == null ? current != null : !expected.equals(current)) {
+      LOGGER.debug("prepare failed to stage softlock (concurrent modification?)");
+      return null;
     }
-    return false;
+    return new SoftLock<V>(transactionId, oldValue, command.getNewValueHolder());
   }
 
-  private Store.ValueHolder<SoftLock<V>> putIfAbsentInUnderlyingStore(Map.Entry<K, Command<V>> entry, SoftLock<V> newSoftLock) throws StoreAccessException {
-    return underlyingStore.putIfAbsent(entry.getKey(), newSoftLock);
-  }
-
-  private SoftLock<V> getFromUnderlyingStore(K key) throws StoreAccessException {
-    Store.ValueHolder<SoftLock<V>> softLockValueHolder = underlyingStore.get(key);
-    return softLockValueHolder == null ? null : softLockValueHolder.value();
+  private void resolve(Collection<K> keys, final boolean commit) throws StoreAccessException {
+    underlyingStore.bulkCompute(new HashSet<K>(keys), new Function<Iterable<? extends Map.Entry<? extends K, ? extends SoftLock<V>>>, Iterable<? extends Map.Entry<? extends K, ? extends SoftLock<V>>>>() {
+      @Override
+      public Iterable<? extends Map.Entry<? extends K, ? extends SoftLock<V>>> apply(Iterable<? extends Map.Entry<? extends K, ? extends SoftLock<V>>> entries) {
+        List<Map.Entry<K, SoftLock<V>>> result = new ArrayList<Map.Entry<K, SoftLock<V>>>();
+        for (Map.Entry<? extends K, ? extends SoftLock<V>> entry : entries) {
+          SoftLock<V> preparedSoftLock = entry.getValue();
+          SoftLock<V> definitiveSoftLock;
+          if (preparedSoftLock == null) {
+            LOGGER.debug("{} skipping evicted prepared softlock", commit ? "commit" : "rollback");
+            definitiveSoftLock = null;
+          } else if (preparedSoftLock.getTransactionId() != null && !preparedSoftLock.getTransactionId().equals(transactionId)) {
+            LOGGER.debug("{} evicting prepared softlock with non-matching TX ID (concurrent modification?)", commit ? "commit" : "rollback");
+            definitiveSoftLock = null;
+          } else {
+            definitiveSoftLock = resolve(preparedSoftLock, commit);
+          }
+          result.add(new AbstractMap.SimpleEntry<K, SoftLock<V>>(entry.getKey(), definitiveSoftLock));
+        }
+        return result;
+      }
+    });
   }
 
-  private void evictFromUnderlyingStore(K key) throws StoreAccessException {
-    underlyingStore.remove(key);
+  private SoftLock<V> resolve(SoftLock<V> preparedSoftLock, boolean commit) {
+    if (commit) {
+      XAValueHolder<V> newValueHolder = preparedSoftLock.getNewValueHolder();
+      return newValueHolder == null ? null : new SoftLock<V>(null, newValueHolder.value(), null);
+    } else {
+      V oldValue = preparedSoftLock.getOldValue();
+      return oldValue == null ? null : new SoftLock<V>(null, oldValue, null);
+    }
   }
 
   static class TransactionTimeoutException extends RuntimeException {
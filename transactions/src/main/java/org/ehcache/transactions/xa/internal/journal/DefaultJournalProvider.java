@@ -57,7 +57,7 @@ public class DefaultJournalProvider implements JournalProvider {
     try {
       LOGGER.info("Using persistent XAStore journal");
       FileBasedPersistenceContext persistenceContext = diskResourceService.createPersistenceContextWithin(persistentSpaceId, "XAJournal");
-      return new PersistentJournal<K>(persistenceContext.getDirectory(), keySerializer);
+      return new WriteAheadJournal<K>(persistenceContext.getDirectory(), keySerializer);
     } catch (CachePersistenceException cpe) {
       throw new RuntimeException(cpe);
     }
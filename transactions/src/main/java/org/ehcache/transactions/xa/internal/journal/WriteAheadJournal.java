@@ -0,0 +1,511 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.transactions.xa.internal.journal;
+
+import org.ehcache.spi.serialization.Serializer;
+import org.ehcache.transactions.xa.internal.SerializableXid;
+import org.ehcache.transactions.xa.internal.TransactionId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import javax.transaction.xa.Xid;
+
+/**
+ * A {@link Journal} that appends every state transition to a segmented write-ahead log.
+ * <p>
+ * Each transition is forced to disk before the corresponding {@code save} or {@link #forget(TransactionId)} call
+ * returns. Concurrent transactions share a single {@code fsync} (group commit): the first thread to reach the sync
+ * lock forces everything appended so far, and threads whose records were covered by that force return without
+ * syncing again.
+ * <p>
+ * Once more than the segment size has been appended since the last checkpoint a new one is taken: the live transaction
+ * states are written to a fresh segment, which is forced, and all older segments are deleted. Measuring growth since
+ * the checkpoint, rather than the segment length, keeps a large set of live states from triggering a checkpoint on
+ * every append. A checkpoint is also taken when the journal is opened and closed, so that replay normally only has to
+ * read a single compact segment.
+ * <p>
+ * A segment channel closed by an interrupt is reopened on its next use, the records written so far are still in the
+ * file.
+ * <p>
+ * Each record is laid out as {@code [payload length][crc32][payload]}, a torn or corrupt record at the tail of a
+ * segment marks the end of the usable data in that segment.
+ */
+public class WriteAheadJournal<K> extends TransientJournal<K> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(WriteAheadJournal.class);
+
+  static final long DEFAULT_SEGMENT_SIZE = 1024L * 1024;
+
+  private static final String LEGACY_JOURNAL_FILENAME = "journal.data";
+  private static final Pattern SEGMENT_NAME = Pattern.compile("xa-journal-(\\d+)\\.log");
+  private static final int RECORD_HEADER_SIZE = 12;
+
+  private static final byte IN_DOUBT = 1;
+  private static final byte COMMITTED = 2;
+  private static final byte ROLLED_BACK = 3;
+  private static final byte FORGET = 4;
+
+  private final File directory;
+  private final Serializer<K> keySerializer;
+  private final long segmentSize;
+
+  private final List<Segment> segments = new LinkedList<Segment>();
+  private final Object syncLock = new Object();
+
+  private Segment active;
+  private long checkpointLength;
+  private long nextSegmentId;
+  private long appended;
+  private long synced;
+
+  public WriteAheadJournal(File directory, Serializer<K> keySerializer) {
+    this(directory, keySerializer, DEFAULT_SEGMENT_SIZE);
+  }
+
+  public WriteAheadJournal(File directory, Serializer<K> keySerializer, long segmentSize) {
+    if (directory == null) {
+      throw new NullPointerException("directory must not be null");
+    }
+    if (keySerializer == null) {
+      throw new NullPointerException("keySerializer must not be null");
+    }
+    if (segmentSize <= 0) {
+      throw new IllegalArgumentException("segmentSize must be positive");
+    }
+    this.directory = directory;
+    this.keySerializer = keySerializer;
+    this.segmentSize = segmentSize;
+  }
+
+  @Override
+  public void saveInDoubt(TransactionId transactionId, Collection<K> inDoubtKeys) {
+    super.saveInDoubt(transactionId, inDoubtKeys);
+    try {
+      append(encode(IN_DOUBT, false, transactionId, inDoubtKeys));
+    } catch (RuntimeException e) {
+      states.remove(transactionId);
+      throw e;
+    }
+  }
+
+  @Override
+  public void saveCommitted(TransactionId transactionId, boolean heuristicDecision) {
+    super.saveCommitted(transactionId, heuristicDecision);
+    append(encode(COMMITTED, heuristicDecision, transactionId, Collections.<K>emptySet()));
+  }
+
+  @Override
+  public void saveRolledBack(TransactionId transactionId, boolean heuristicDecision) {
+    super.saveRolledBack(transactionId, heuristicDecision);
+    append(encode(ROLLED_BACK, heuristicDecision, transactionId, Collections.<K>emptySet()));
+  }
+
+  @Override
+  public void forget(TransactionId transactionId) {
+    super.forget(transactionId);
+    append(encode(FORGET, false, transactionId, Collections.<K>emptySet()));
+  }
+
+  @Override
+  public synchronized void open() throws IOException {
+    states.clear();
+    List<File> existing = existingSegments(directory);
+    try {
+      for (File file : existing) {
+        replay(file);
+      }
+    } catch (ClassNotFoundException cnfe) {
+      LOGGER.warn("Cannot deserialize XA journal contents, truncating it", cnfe);
+      states.clear();
+    }
+    File legacy = new File(directory, LEGACY_JOURNAL_FILENAME);
+    if (legacy.isFile()) {
+      PersistentJournal<K> legacyJournal = new PersistentJournal<K>(directory, keySerializer);
+      legacyJournal.open();
+      states.putAll(legacyJournal.states);
+    }
+
+    nextSegmentId = nextSegmentId(existing);
+    checkpoint();
+    for (File file : existing) {
+      delete(file);
+    }
+    if (legacy.isFile()) {
+      delete(legacy);
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (active == null) {
+      return;
+    }
+    try {
+      checkpoint();
+    } finally {
+      active.close();
+      active = null;
+      states.clear();
+    }
+  }
+
+  private void append(ByteBuffer record) {
+    long sequence;
+    synchronized (this) {
+      if (active == null) {
+        throw new IllegalStateException("XA journal is closed");
+      }
+      try {
+        if (active.length - checkpointLength >= segmentSize) {
+          checkpoint();
+        }
+        active.write(record);
+      } catch (IOException ioe) {
+        throw new RuntimeException("Cannot write to XA journal", ioe);
+      }
+      sequence = ++appended;
+    }
+    try {
+      sync(sequence);
+    } catch (IOException ioe) {
+      throw new RuntimeException("Cannot force XA journal to disk", ioe);
+    }
+  }
+
+  private void sync(long sequence) throws IOException {
+    synchronized (syncLock) {
+      if (synced >= sequence) {
+        return;
+      }
+      Segment segment;
+      long target;
+      synchronized (this) {
+        segment = active;
+        target = appended;
+      }
+      if (segment != null) {
+        try {
+          segment.force();
+        } catch (ClosedChannelException e) {
+          synchronized (this) {
+            if (segment == active) {
+              // closed by an interrupt, nothing is known to be durable
+              throw e;
+            }
+          }
+          //segment was replaced by a checkpoint, which forces the checkpointed states first
+        }
+      }
+      synced = target;
+    }
+  }
+
+  /**
+   * Writes the current states to a new segment, forces it and deletes all older segments.
+   */
+  private void checkpoint() throws IOException {
+    Segment checkpoint = new Segment(new File(directory, segmentName(nextSegmentId++)));
+    try {
+      for (Map.Entry<TransactionId, Entry<K>> entry : states.entrySet()) {
+        Entry<K> value = entry.getValue();
+        byte type = value.state == XAState.IN_DOUBT ? IN_DOUBT : value.state == XAState.COMMITTED ? COMMITTED : ROLLED_BACK;
+        checkpoint.write(encode(type, value.heuristic, entry.getKey(), value.keys));
+      }
+      checkpoint.force();
+    } catch (IOException ioe) {
+      checkpoint.delete();
+      throw ioe;
+    }
+    for (Segment segment : segments) {
+      segment.delete();
+    }
+    segments.clear();
+    segments.add(checkpoint);
+    active = checkpoint;
+    checkpointLength = checkpoint.length;
+  }
+
+  private ByteBuffer encode(byte type, boolean heuristic, TransactionId transactionId, Collection<K> keys) {
+    SerializableXid xid = transactionId.getSerializableXid();
+    byte[] gtrid = xid.getGlobalTransactionId();
+    byte[] bqual = xid.getBranchQualifier();
+    List<ByteBuffer> serializedKeys = new ArrayList<ByteBuffer>(keys.size());
+    int payloadSize = 1 + 1 + 4 + 4 + gtrid.length + 4 + bqual.length + 4;
+    for (K key : keys) {
+      ByteBuffer serializedKey = keySerializer.serialize(key);
+      serializedKeys.add(serializedKey);
+      payloadSize += 4 + serializedKey.remaining();
+    }
+    ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payloadSize);
+    record.putInt(payloadSize).putLong(0L).put(type).put((byte) (heuristic ? 1 : 0));
+    record.putInt(xid.getFormatId()).putInt(gtrid.length).put(gtrid).putInt(bqual.length).put(bqual);
+    record.putInt(serializedKeys.size());
+    for (ByteBuffer serializedKey : serializedKeys) {
+      record.putInt(serializedKey.remaining()).put(serializedKey);
+    }
+    CRC32 crc = new CRC32();
+    crc.update(record.array(), RECORD_HEADER_SIZE, payloadSize);
+    record.putLong(4, crc.getValue());
+    record.flip();
+    return record;
+  }
+
+  private void replay(File file) throws IOException, ClassNotFoundException {
+    RandomAccessFile raf = new RandomAccessFile(file, "r");
+    try {
+      FileChannel channel = raf.getChannel();
+      ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+      long position = 0;
+      while (readFully(channel, header, position)) {
+        header.flip();
+        int payloadSize = header.getInt();
+        long checksum = header.getLong();
+        header.clear();
+        if (payloadSize < 18 || position + RECORD_HEADER_SIZE + payloadSize > channel.size()) {
+          LOGGER.warn("Ignoring truncated XA journal record at {} in {}", position, file);
+          break;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(payloadSize);
+        readFully(channel, payload, position + RECORD_HEADER_SIZE);
+        CRC32 crc = new CRC32();
+        crc.update(payload.array(), 0, payloadSize);
+        if (crc.getValue() != checksum) {
+          LOGGER.warn("Ignoring corrupt XA journal record at {} in {}", position, file);
+          break;
+        }
+        payload.flip();
+        if (!apply(payload)) {
+          LOGGER.warn("Ignoring unknown XA journal record at {} in {}", position, file);
+          break;
+        }
+        position += RECORD_HEADER_SIZE + payloadSize;
+      }
+    } finally {
+      raf.close();
+    }
+  }
+
+  private boolean apply(ByteBuffer payload) throws ClassNotFoundException {
+    byte type = payload.get();
+    boolean heuristic = payload.get() != 0;
+    int formatId = payload.getInt();
+    byte[] gtrid = new byte[payload.getInt()];
+    payload.get(gtrid);
+    byte[] bqual = new byte[payload.getInt()];
+    payload.get(bqual);
+    TransactionId transactionId = new TransactionId(new RecordedXid(formatId, gtrid, bqual));
+    int keyCount = payload.getInt();
+    List<K> keys = new ArrayList<K>(keyCount);
+    for (int i = 0; i < keyCount; i++) {
+      int keySize = payload.getInt();
+      ByteBuffer keyBuffer = payload.slice();
+      keyBuffer.limit(keySize);
+      payload.position(payload.position() + keySize);
+      keys.add(keySerializer.read(keyBuffer));
+    }
+
+    switch (type) {
+      case IN_DOUBT:
+        states.put(transactionId, new Entry<K>(XAState.IN_DOUBT, false, keys));
+        return true;
+      case COMMITTED:
+      case ROLLED_BACK:
+        if (heuristic) {
+          states.put(transactionId, new Entry<K>(type == COMMITTED ? XAState.COMMITTED : XAState.ROLLED_BACK, true, keys));
+        } else {
+          states.remove(transactionId);
+        }
+        return true;
+      case FORGET:
+        states.remove(transactionId);
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      int read = channel.read(buffer, position);
+      if (read < 0) {
+        return false;
+      }
+      position += read;
+    }
+    return true;
+  }
+
+  private static void delete(File file) throws IOException {
+    if (file.exists() && !file.delete()) {
+      throw new IOException("Could not delete " + file);
+    }
+  }
+
+  /**
+   * Lists the journal segments present in the given directory, ordered by segment id.
+   *
+   * @param directory the journal directory
+   * @return the existing segments
+   */
+  static List<File> existingSegments(File directory) {
+    File[] files = directory.listFiles(new FileFilter() {
+      @Override
+      public boolean accept(File file) {
+        return SEGMENT_NAME.matcher(file.getName()).matches();
+      }
+    });
+    if (files == null) {
+      return new ArrayList<File>();
+    }
+    Arrays.sort(files, new Comparator<File>() {
+      @Override
+      public int compare(File a, File b) {
+        long ida = segmentId(a);
+        long idb = segmentId(b);
+        return ida < idb ? -1 : (ida == idb ? 0 : 1);
+      }
+    });
+    return new ArrayList<File>(Arrays.asList(files));
+  }
+
+  private static long nextSegmentId(List<File> segments) {
+    long next = 0;
+    for (File segment : segments) {
+      next = Math.max(next, segmentId(segment) + 1);
+    }
+    return next;
+  }
+
+  private static String segmentName(long id) {
+    return "xa-journal-" + id + ".log";
+  }
+
+  private static long segmentId(File file) {
+    Matcher matcher = SEGMENT_NAME.matcher(file.getName());
+    if (matcher.matches()) {
+      return Long.parseLong(matcher.group(1));
+    } else {
+      throw new IllegalArgumentException("Not a journal segment: " + file);
+    }
+  }
+
+  /**
+   * The {@link Xid} read back from a journal record.
+   */
+  private static final class RecordedXid implements Xid {
+
+    private final int formatId;
+    private final byte[] globalTransactionId;
+    private final byte[] branchQualifier;
+
+    private RecordedXid(int formatId, byte[] globalTransactionId, byte[] branchQualifier) {
+      this.formatId = formatId;
+      this.globalTransactionId = globalTransactionId;
+      this.branchQualifier = branchQualifier;
+    }
+
+    @Override
+    public int getFormatId() {
+      return formatId;
+    }
+
+    @Override
+    public byte[] getGlobalTransactionId() {
+      return globalTransactionId;
+    }
+
+    @Override
+    public byte[] getBranchQualifier() {
+      return branchQualifier;
+    }
+  }
+
+  /**
+   * A single file of the journal.
+   */
+  private static final class Segment {
+
+    private final File file;
+    private RandomAccessFile raf;
+    private FileChannel channel;
+    private boolean closed;
+    private long length;
+
+    private Segment(File file) throws IOException {
+      this.file = file;
+      this.raf = new RandomAccessFile(file, "rw");
+      this.channel = raf.getChannel();
+      this.channel.truncate(0);
+    }
+
+    private synchronized FileChannel channel() throws IOException {
+      if (!channel.isOpen()) {
+        if (closed) {
+          throw new ClosedChannelException();
+        }
+        raf = new RandomAccessFile(file, "rw");
+        channel = raf.getChannel();
+      }
+      return channel;
+    }
+
+    private void write(ByteBuffer record) throws IOException {
+      long start = length;
+      try {
+        while (record.hasRemaining()) {
+          length += channel().write(record, length);
+        }
+      } catch (IOException e) {
+        // the next record overwrites whatever was torn
+        length = start;
+        throw e;
+      }
+    }
+
+    private void force() throws IOException {
+      channel().force(false);
+    }
+
+    private synchronized void close() throws IOException {
+      closed = true;
+      raf.close();
+    }
+
+    private void delete() throws IOException {
+      close();
+      WriteAheadJournal.delete(file);
+    }
+  }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.transactions.local;
+
+import org.ehcache.Cache;
+import org.ehcache.CacheManager;
+import org.ehcache.spi.loaderwriter.CacheLoaderWriter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.ehcache.config.builders.CacheConfigurationBuilder.newCacheConfigurationBuilder;
+import static org.ehcache.config.builders.CacheManagerBuilder.newCacheManagerBuilder;
+import static org.ehcache.config.builders.ResourcePoolsBuilder.heap;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class LocalTransactionTest {
+
+  private CacheManager cacheManager;
+  private Cache<String, Long> accounts;
+  private Cache<String, String> audit;
+  private LocalTransactionManager transactionManager;
+
+  @Before
+  public void setUp() {
+    cacheManager = newCacheManagerBuilder().build(true);
+    accounts = cacheManager.createCache("accounts", newCacheConfigurationBuilder(String.class, Long.class, heap(100)).build());
+    audit = cacheManager.createCache("audit", newCacheConfigurationBuilder(String.class, String.class, heap(100)).build());
+    transactionManager = new LocalTransactionManager();
+  }
+
+  @After
+  public void tearDown() {
+    cacheManager.close();
+  }
+
+  @Test
+  public void testCommitAppliesAllWrites() {
+    accounts.put("c", 3L);
+
+    LocalTransaction transaction = transactionManager.begin();
+    transaction.put(accounts, "a", 1L);
+    transaction.put(accounts, "b", 2L);
+    transaction.remove(accounts, "c");
+    transaction.put(audit, "last", "a,b");
+
+    assertThat(accounts.get("a"), is(nullValue()));
+    assertThat(transaction.get(accounts, "a"), is(1L));
+    assertThat(transaction.get(accounts, "c"), is(nullValue()));
+
+    transaction.commit();
+
+    assertThat(transaction.isActive(), is(false));
+    assertThat(accounts.get("a"), is(1L));
+    assertThat(accounts.get("b"), is(2L));
+    assertThat(accounts.get("c"), is(nullValue()));
+    assertThat(audit.get("last"), is("a,b"));
+  }
+
+  @Test
+  public void testRollbackDiscardsWrites() {
+    LocalTransaction transaction = transactionManager.begin();
+    transaction.put(accounts, "a", 1L);
+    transaction.rollback();
+
+    assertThat(accounts.get("a"), is(nullValue()));
+    try {
+      transaction.put(accounts, "a", 1L);
+      fail("expected IllegalStateException");
+    } catch (IllegalStateException ise) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testConcurrentlyModifiedReadFailsCommit() {
+    accounts.put("a", 10L);
+
+    LocalTransaction transaction = transactionManager.begin();
+    long balance = transaction.get(accounts, "a");
+    transaction.put(accounts, "a", balance - 5L);
+    transaction.put(accounts, "b", 5L);
+
+    accounts.put("a", 20L);
+
+    try {
+      transaction.commit();
+      fail("expected LocalTransactionConflictException");
+    } catch (LocalTransactionConflictException e) {
+      // expected
+    }
+    assertThat(transaction.isActive(), is(false));
+    assertThat(accounts.get("a"), is(20L));
+    assertThat(accounts.get("b"), is(nullValue()));
+  }
+
+  @Test
+  public void testFailedCommitUndoesAppliedWrites() {
+    Cache<String, String> failing = cacheManager.createCache("failing", newCacheConfigurationBuilder(String.class, String.class, heap(100))
+        .withLoaderWriter(new FailingWriter(false)).build());
+    accounts.put("a", 1L);
+
+    LocalTransaction transaction = transactionManager.begin();
+    transaction.put(accounts, "a", 2L);
+    transaction.put(accounts, "b", 3L);
+    transaction.put(failing, "x", "y");
+
+    try {
+      transaction.commit();
+      fail("expected RuntimeException");
+    } catch (RuntimeException e) {
+      // expected
+    }
+    assertThat(transaction.isActive(), is(false));
+    assertThat(transaction.isPartiallyCommitted(), is(false));
+    assertThat(accounts.get("a"), is(1L));
+    assertThat(accounts.get("b"), is(nullValue()));
+  }
+
+  @Test
+  public void testFailedUndoLeavesTransactionPartiallyCommitted() {
+    Cache<String, String> failing = cacheManager.createCache("failing", newCacheConfigurationBuilder(String.class, String.class, heap(100))
+        .withLoaderWriter(new FailingWriter(true)).build());
+
+    LocalTransaction transaction = transactionManager.begin();
+    transaction.put(failing, "x", "y");
+
+    try {
+      transaction.commit();
+      fail("expected RuntimeException");
+    } catch (RuntimeException e) {
+      // expected
+    }
+    assertThat(transaction.isActive(), is(false));
+    assertThat(transaction.isPartiallyCommitted(), is(true));
+  }
+
+  @Test
+  public void testConcurrentTransfersPreserveTotal() throws Exception {
+    final int accountCount = 10;
+    for (int i = 0; i < accountCount; i++) {
+      accounts.put("account-" + i, 100L);
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Void>> futures = new ArrayList<Future<Void>>();
+      for (int t = 0; t < 4; t++) {
+        final Random random = new Random(t);
+        futures.add(executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() throws Exception {
+            for (int i = 0; i < 500; i++) {
+              String from = "account-" + random.nextInt(accountCount);
+              String to = "account-" + random.nextInt(accountCount);
+              while (true) {
+                LocalTransaction transaction = transactionManager.begin();
+                transaction.put(accounts, from, transaction.get(accounts, from) - 1L);
+                transaction.put(accounts, to, transaction.get(accounts, to) + 1L);
+                try {
+                  transaction.commit();
+                  break;
+                } catch (LocalTransactionConflictException e) {
+                  // retry
+                }
+              }
+            }
+            return null;
+          }
+        }));
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    long total = 0;
+    for (int i = 0; i < accountCount; i++) {
+      total += accounts.get("account-" + i);
+    }
+    assertThat(total, is(accountCount * 100L));
+  }
+
+  /**
+   * Fails every write, and every delete too if so configured.
+   */
+  private static final class FailingWriter implements CacheLoaderWriter<String, String> {
+
+    private final boolean failDeletes;
+
+    FailingWriter(boolean failDeletes) {
+      this.failDeletes = failDeletes;
+    }
+
+    @Override
+    public String load(String key) {
+      return null;
+    }
+
+    @Override
+    public Map<String, String> loadAll(Iterable<? extends String> keys) {
+      return Collections.emptyMap();
+    }
+
+    @Override
+    public void write(String key, String value) {
+      throw new IllegalStateException("write failed");
+    }
+
+    @Override
+    public void writeAll(Iterable<? extends Map.Entry<? extends String, ? extends String>> entries) {
+      throw new IllegalStateException("write failed");
+    }
+
+    @Override
+    public void delete(String key) {
+      if (failDeletes) {
+        throw new IllegalStateException("delete failed");
+      }
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends String> keys) {
+      if (failDeletes) {
+        throw new IllegalStateException("delete failed");
+      }
+    }
+  }
+}
@@ -17,14 +17,13 @@
 package org.ehcache.transactions.xa.internal;
 
 import org.ehcache.internal.TestTimeSource;
-import org.ehcache.core.spi.store.AbstractValueHolder;
+import org.ehcache.core.spi.function.BiFunction;
+import org.ehcache.core.spi.function.Function;
 import org.ehcache.core.spi.store.Store;
-import org.ehcache.core.spi.store.Store.RemoveStatus;
 import org.ehcache.transactions.xa.internal.commands.StoreEvictCommand;
 import org.ehcache.transactions.xa.internal.commands.StorePutCommand;
 import org.ehcache.transactions.xa.internal.commands.StoreRemoveCommand;
 import org.ehcache.transactions.xa.internal.journal.Journal;
-import org.ehcache.core.spi.store.Store.ReplaceStatus;
 import org.ehcache.transactions.xa.utils.TestXid;
 import org.hamcrest.BaseMatcher;
 import org.hamcrest.Description;
@@ -37,11 +36,15 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.concurrent.TimeUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -52,9 +55,9 @@ import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyCollection;
+import static org.mockito.Matchers.anySet;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
-import static org.mockito.Matchers.isA;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -215,9 +218,10 @@ public class XATransactionContextTest {
 
     assertThat(xaTransactionContext.prepare(), is(0));
 
-    verify(journal, times(1)).saveInDoubt(eq(new TransactionId(new TestXid(0, 0))), eq(Collections.<Long>emptySet()));
+    verify(journal, times(0)).saveInDoubt(eq(new TransactionId(new TestXid(0, 0))), anyCollection());
     verify(journal, times(0)).saveCommitted(eq(new TransactionId(new TestXid(0, 0))), anyBoolean());
-    verify(journal, times(1)).saveRolledBack(eq(new TransactionId(new TestXid(0, 0))), eq(false));
+    verify(journal, times(0)).saveRolledBack(eq(new TransactionId(new TestXid(0, 0))), anyBoolean());
+    verifyNoMoreInteractions(underlyingStore);
   }
 
   @Test
@@ -231,10 +235,9 @@ public class XATransactionContextTest {
     xaTransactionContext.addCommand(2L, new StoreRemoveCommand<String>("two"));
     xaTransactionContext.addCommand(3L, new StoreEvictCommand<String>("three"));
 
-    Store.ValueHolder<SoftLock<String>> mockValueHolder = mock(Store.ValueHolder.class);
-    when(mockValueHolder.value()).thenReturn(new SoftLock<String>(null, "two", null));
-    when(underlyingStore.get(eq(2L))).thenReturn(mockValueHolder);
-    when(underlyingStore.replace(eq(2L), eq(new SoftLock<String>(null, "two", null)), eq(new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "two", null)))).thenReturn(ReplaceStatus.HIT);
+    Map<Long, SoftLock<String>> contents = backUnderlyingStore();
+    contents.put(2L, new SoftLock<String>(null, "two", null));
+    contents.put(3L, new SoftLock<String>(null, "three", null));
 
     final AtomicReference<Collection<Long>> savedInDoubt = new AtomicReference<Collection<Long>>();
     // doAnswer is required to make a copy of the keys collection because xaTransactionContext.prepare() clears it before the verify(journal, times(1)).saveInDoubt(...) assertion can be made.
@@ -256,12 +259,10 @@ public class XATransactionContextTest {
     verify(journal, times(0)).saveCommitted(eq(new TransactionId(new TestXid(0, 0))), anyBoolean());
     verify(journal, times(0)).saveRolledBack(eq(new TransactionId(new TestXid(0, 0))), anyBoolean());
 
-    verify(underlyingStore, times(0)).get(1L);
-    verify(underlyingStore, times(1)).putIfAbsent(eq(1L), eq(new SoftLock<String>(new TransactionId(new TestXid(0, 0)), null, new XAValueHolder<String>("un", timeSource.getTimeMillis()))));
-    verify(underlyingStore, times(0)).get(2L);
-    verify(underlyingStore, times(1)).replace(eq(2L), eq(new SoftLock<String>(null, "two", null)), eq(new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "two", null)));
-    verify(underlyingStore, times(0)).get(3L);
-    verify(underlyingStore, times(1)).remove(eq(3L));
+    verify(underlyingStore, times(1)).bulkCompute(anySet(), any(Function.class));
+    assertThat(contents.get(1L), equalTo(new SoftLock<String>(new TransactionId(new TestXid(0, 0)), null, new XAValueHolder<String>("un", timeSource.getTimeMillis()))));
+    assertThat(contents.get(2L), equalTo(new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "two", null)));
+    assertThat(contents.containsKey(3L), is(false));
   }
 
   @Test
@@ -293,37 +294,22 @@ public class XATransactionContextTest {
 
     XATransactionContext<Long, String> xaTransactionContext = new XATransactionContext<Long, String>(new TransactionId(new TestXid(0, 0)), underlyingStore, journal, timeSource, timeSource.getTimeMillis() + 30000);
 
-    xaTransactionContext.addCommand(1L, new StorePutCommand<String>("one", new XAValueHolder<String>("un", timeSource.getTimeMillis())));
-    xaTransactionContext.addCommand(2L, new StoreRemoveCommand<String>("two"));
-    xaTransactionContext.addCommand(3L, new StoreEvictCommand<String>("three"));
-
-    Store.ValueHolder<SoftLock<String>> mockValueHolder1 = mock(Store.ValueHolder.class);
-    when(mockValueHolder1.value()).thenReturn(new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "one", new XAValueHolder<String>("un", timeSource.getTimeMillis())));
-    when(underlyingStore.get(eq(1L))).thenReturn(mockValueHolder1);
-    Store.ValueHolder<SoftLock<String>> mockValueHolder2 = mock(Store.ValueHolder.class);
-    when(mockValueHolder2.value()).thenReturn(new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "two", null));
-    when(underlyingStore.get(eq(2L))).thenReturn(mockValueHolder2);
-    Store.ValueHolder<SoftLock<String>> mockValueHolder3 = mock(Store.ValueHolder.class);
-    when(mockValueHolder3.value()).thenReturn(new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "three", null));
-    when(underlyingStore.get(eq(3L))).thenReturn(mockValueHolder3);
+    Map<Long, SoftLock<String>> contents = backUnderlyingStore();
+    contents.put(1L, new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "one", new XAValueHolder<String>("un", timeSource.getTimeMillis())));
+    contents.put(2L, new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "two", null));
 
     when(journal.isInDoubt(eq(new TransactionId(new TestXid(0, 0))))).thenReturn(true);
     when(journal.getInDoubtKeys(eq(new TransactionId(new TestXid(0, 0))))).thenReturn(Arrays.asList(1L, 2L, 3L));
 
-    when(underlyingStore.replace(any(Long.class), any(SoftLock.class), any(SoftLock.class))).thenReturn(ReplaceStatus.MISS_NOT_PRESENT);
-    when(underlyingStore.remove(any(Long.class), any(SoftLock.class))).thenReturn(RemoveStatus.KEY_MISSING);
-
     xaTransactionContext.commit(false);
     verify(journal, times(1)).saveCommitted(eq(new TransactionId(new TestXid(0, 0))), eq(false));
     verify(journal, times(0)).saveRolledBack(eq(new TransactionId(new TestXid(0, 0))), anyBoolean());
     verify(journal, times(0)).saveInDoubt(eq(new TransactionId(new TestXid(0, 0))), anyCollection());
 
-    verify(underlyingStore, times(1)).get(1L);
-    verify(underlyingStore, times(1)).replace(eq(1L), eq(new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "one", new XAValueHolder<String>("un", timeSource.getTimeMillis()))), eq(new SoftLock<String>(null, "un", null)));
-    verify(underlyingStore, times(1)).get(2L);
-    verify(underlyingStore, times(1)).remove(eq(2L), eq(new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "two", null)));
-    verify(underlyingStore, times(1)).get(3L);
-    verify(underlyingStore, times(1)).remove(eq(3L));
+    verify(underlyingStore, times(1)).bulkCompute(anySet(), any(Function.class));
+    assertThat(contents.get(1L), equalTo(new SoftLock<String>(null, "un", null)));
+    assertThat(contents.containsKey(2L), is(false));
+    assertThat(contents.containsKey(3L), is(false));
   }
 
   @Test
@@ -353,9 +339,9 @@ public class XATransactionContextTest {
     xaTransactionContext.addCommand(2L, new StoreRemoveCommand<String>("two"));
     xaTransactionContext.addCommand(3L, new StoreEvictCommand<String>("three"));
 
-    Store.ValueHolder<SoftLock<String>> mockValueHolder = mock(Store.ValueHolder.class);
-    when(mockValueHolder.value()).thenReturn(new SoftLock<String>(null, "two", null));
-    when(underlyingStore.get(eq(2L))).thenReturn(mockValueHolder);
+    Map<Long, SoftLock<String>> contents = backUnderlyingStore();
+    contents.put(2L, new SoftLock<String>(null, "two", null));
+    contents.put(3L, new SoftLock<String>(null, "three", null));
 
     final AtomicReference<Collection<Long>> savedInDoubtCollectionRef = new AtomicReference<Collection<Long>>();
     doAnswer(new Answer() {
@@ -377,63 +363,6 @@ public class XATransactionContextTest {
         return savedInDoubtCollectionRef.get();
       }
     });
-    final AtomicReference<SoftLock> softLock1Ref = new AtomicReference<SoftLock>();
-    when(underlyingStore.get(eq(1L))).then(new Answer<Object>() {
-      @Override
-      public Object answer(InvocationOnMock invocation) throws Throwable {
-        return softLock1Ref.get() == null ? null : new AbstractValueHolder(-1, -1) {
-          @Override
-          public Object value() {
-            return softLock1Ref.get();
-          }
-          @Override
-          protected TimeUnit nativeTimeUnit() {
-            return TimeUnit.MILLISECONDS;
-          }
-        };
-      }
-    });
-    when(underlyingStore.putIfAbsent(eq(1L), isA(SoftLock.class))).then(new Answer<Object>() {
-      @Override
-      public Object answer(InvocationOnMock invocation) throws Throwable {
-        softLock1Ref.set((SoftLock) invocation.getArguments()[1]);
-        return null;
-      }
-    });
-    when(underlyingStore.replace(eq(1L), isA(SoftLock.class), isA(SoftLock.class))).then(new Answer<Object>() {
-      @Override
-      public Object answer(InvocationOnMock invocation) throws Throwable {
-        if (softLock1Ref.get() != null) {
-          return ReplaceStatus.HIT;
-        }
-        return ReplaceStatus.MISS_PRESENT;
-      }
-    });
-    final AtomicReference<SoftLock> softLock2Ref = new AtomicReference<SoftLock>(new SoftLock(null, "two", null));
-    when(underlyingStore.get(eq(2L))).then(new Answer<Object>() {
-      @Override
-      public Object answer(InvocationOnMock invocation) throws Throwable {
-        return softLock2Ref.get() == null ? null : new AbstractValueHolder(-1, -1) {
-          @Override
-          public Object value() {
-            return softLock2Ref.get();
-          }
-          @Override
-          protected TimeUnit nativeTimeUnit() {
-            return TimeUnit.MILLISECONDS;
-          }
-        };
-      }
-    });
-    when(underlyingStore.replace(eq(2L), isA(SoftLock.class), isA(SoftLock.class))).then(new Answer<Object>() {
-      @Override
-      public Object answer(InvocationOnMock invocation) throws Throwable {
-        softLock2Ref.set((SoftLock) invocation.getArguments()[2]);
-        return ReplaceStatus.HIT;
-      }
-    });
-
-    when(underlyingStore.remove(any(Long.class), any(SoftLock.class))).thenReturn(RemoveStatus.REMOVED);
 
     xaTransactionContext.commitInOnePhase();
 
@@ -443,16 +372,49 @@ public class XATransactionContextTest {
     verify(journal, times(0)).saveRolledBack(eq(new TransactionId(new TestXid(0, 0))), anyBoolean());
     verify(journal, times(1)).saveInDoubt(eq(new TransactionId(new TestXid(0, 0))), anyCollection());
 
-    verify(underlyingStore, times(1)).putIfAbsent(eq(1L), eq(new SoftLock<String>(new TransactionId(new TestXid(0, 0)), null, new XAValueHolder<String>("un", timeSource.getTimeMillis()))));
-    verify(underlyingStore, times(1)).replace(eq(2L), eq(new SoftLock<String>(null, "two", null)), eq(new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "two", null)));
-    verify(underlyingStore, times(1)).remove(eq(3L));
+    verify(underlyingStore, times(2)).bulkCompute(anySet(), any(Function.class));
+    assertThat(contents.get(1L), equalTo(new SoftLock<String>(null, "un", null)));
+    assertThat(contents.containsKey(2L), is(false));
+    assertThat(contents.containsKey(3L), is(false));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testCommitInOnePhaseSingleKeyIsAppliedDirectly() throws Exception {
+    TestTimeSource timeSource = new TestTimeSource();
+
+    XATransactionContext<Long, String> xaTransactionContext = new XATransactionContext<Long, String>(new TransactionId(new TestXid(0, 0)), underlyingStore, journal, timeSource, timeSource.getTimeMillis() + 30000);
+
+    xaTransactionContext.addCommand(1L, new StorePutCommand<String>("one", new XAValueHolder<String>("un", timeSource.getTimeMillis())));
+
+    Map<Long, SoftLock<String>> contents = backUnderlyingStore();
+    contents.put(1L, new SoftLock<String>(null, "one", null));
+
+    xaTransactionContext.commitInOnePhase();
+
+    verify(journal, times(0)).saveInDoubt(eq(new TransactionId(new TestXid(0, 0))), anyCollection());
+    verify(journal, times(0)).saveCommitted(eq(new TransactionId(new TestXid(0, 0))), anyBoolean());
+    verify(underlyingStore, times(1)).compute(eq(1L), any(BiFunction.class));
+    verify(underlyingStore, times(0)).bulkCompute(anySet(), any(Function.class));
+    assertThat(contents.get(1L), equalTo(new SoftLock<String>(null, "un", null)));
+    assertThat(xaTransactionContext.touched(1L), is(false));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testCommitInOnePhaseSingleKeyConflictEvicts() throws Exception {
+    TestTimeSource timeSource = new TestTimeSource();
+
+    XATransactionContext<Long, String> xaTransactionContext = new XATransactionContext<Long, String>(new TransactionId(new TestXid(0, 0)), underlyingStore, journal, timeSource, timeSource.getTimeMillis() + 30000);
+
+    xaTransactionContext.addCommand(1L, new StorePutCommand<String>("one", new XAValueHolder<String>("un", timeSource.getTimeMillis())));
 
-    verify(underlyingStore, times(1)).get(1L);
-    verify(underlyingStore, times(1)).replace(eq(1L), eq(new SoftLock<String>(new TransactionId(new TestXid(0, 0)), null, new XAValueHolder<String>("un", timeSource.getTimeMillis()))), eq(new SoftLock<String>(null, "un", null)));
-    verify(underlyingStore, times(1)).get(2L);
-    verify(underlyingStore, times(1)).remove(eq(2L), eq(new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "two", null)));
-    verify(underlyingStore, times(1)).get(3L);
-    verify(underlyingStore, times(1)).remove(eq(3L));
+    Map<Long, SoftLock<String>> contents = backUnderlyingStore();
+    contents.put(1L, new SoftLock<String>(null, "uno", null));
+
+    xaTransactionContext.commitInOnePhase();
+
+    assertThat(contents.containsKey(1L), is(false));
   }
 
   @Test
@@ -482,34 +444,16 @@ public class XATransactionContextTest {
     when(journal.isInDoubt(eq(new TransactionId(new TestXid(0, 0))))).thenReturn(true);
     when(journal.getInDoubtKeys(eq(new TransactionId(new TestXid(0, 0))))).thenReturn(Arrays.asList(1L, 2L));
 
-    when(underlyingStore.get(1L)).thenReturn(new AbstractValueHolder<SoftLock<String>>(-1, -1) {
-      @Override
-      protected TimeUnit nativeTimeUnit() {
-        return TimeUnit.MILLISECONDS;
-      }
-      @Override
-      public SoftLock<String> value() {
-        return new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "one", new XAValueHolder<String>("un", timeSource.getTimeMillis()));
-      }
-    });
-    when(underlyingStore.get(2L)).thenReturn(new AbstractValueHolder<SoftLock<String>>(-1, -1) {
-      @Override
-      protected TimeUnit nativeTimeUnit() {
-        return TimeUnit.MILLISECONDS;
-      }
-      @Override
-      public SoftLock<String> value() {
-        return new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "two", null);
-      }
-    });
+    Map<Long, SoftLock<String>> contents = backUnderlyingStore();
+    contents.put(1L, new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "one", new XAValueHolder<String>("un", timeSource.getTimeMillis())));
+    contents.put(2L, new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "two", null));
 
-    when(underlyingStore.replace(any(Long.class), any(SoftLock.class), any(SoftLock.class))).thenReturn(ReplaceStatus.HIT);
     xaTransactionContext.rollback(false);
 
-    verify(underlyingStore, times(1)).get(1L);
-    verify(underlyingStore, times(1)).replace(eq(1L), eq(new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "one", new XAValueHolder<String>("un", timeSource.getTimeMillis()))), eq(new SoftLock<String>(null, "one", null)));
-    verify(underlyingStore, times(1)).get(2L);
-    verify(underlyingStore, times(1)).replace(eq(2L), eq(new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "two", null)), eq(new SoftLock<String>(null, "two", null)));
+    verify(journal, times(1)).saveRolledBack(eq(new TransactionId(new TestXid(0, 0))), eq(false));
+    verify(underlyingStore, times(1)).bulkCompute(anySet(), any(Function.class));
+    assertThat(contents.get(1L), equalTo(new SoftLock<String>(null, "one", null)));
+    assertThat(contents.get(2L), equalTo(new SoftLock<String>(null, "two", null)));
   }
 
   @Test
@@ -551,7 +495,6 @@ public class XATransactionContextTest {
   }
 
   @Test
-  @SuppressWarnings("unchecked")
   public void testCommitConflictsEvicts() throws Exception {
     final TestTimeSource timeSource = new TestTimeSource();
 
@@ -559,40 +502,17 @@ public class XATransactionContextTest {
 
     when(journal.isInDoubt(eq(new TransactionId(new TestXid(0, 0))))).thenReturn(true);
     when(journal.getInDoubtKeys(eq(new TransactionId(new TestXid(0, 0))))).thenReturn(Arrays.asList(1L, 2L));
-    when(underlyingStore.get(eq(1L))).thenReturn(new AbstractValueHolder<SoftLock<String>>(-1, -1) {
-      @Override
-      protected TimeUnit nativeTimeUnit() {
-        return TimeUnit.MILLISECONDS;
-      }
-      @Override
-      public SoftLock<String> value() {
-        return new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "old1", new XAValueHolder<String>("new1", timeSource.getTimeMillis()));
-      }
-    });
-    when(underlyingStore.get(eq(2L))).thenReturn(new AbstractValueHolder<SoftLock<String>>(-1, -1) {
-      @Override
-      protected TimeUnit nativeTimeUnit() {
-        return TimeUnit.MILLISECONDS;
-      }
-      @Override
-      public SoftLock<String> value() {
-        return new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "old2", null);
-      }
-    });
 
-    when(underlyingStore.replace(any(Long.class), any(SoftLock.class), any(SoftLock.class))).thenReturn(ReplaceStatus.MISS_NOT_PRESENT);
-    when(underlyingStore.remove(any(Long.class), any(SoftLock.class))).thenReturn(RemoveStatus.KEY_MISSING);
+    Map<Long, SoftLock<String>> contents = backUnderlyingStore();
+    contents.put(1L, new SoftLock<String>(new TransactionId(new TestXid(1, 0)), "old1", new XAValueHolder<String>("new1", timeSource.getTimeMillis())));
+    contents.put(2L, new SoftLock<String>(new TransactionId(new TestXid(1, 0)), "old2", null));
 
     xaTransactionContext.commit(false);
 
-    verify(underlyingStore, times(1)).replace(eq(1L), eq(new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "old1", new XAValueHolder<String>("new1", timeSource.getTimeMillis()))), eq(new SoftLock<String>(null, "new1", null)));
-    verify(underlyingStore, times(1)).remove(eq(1L));
-    verify(underlyingStore, times(1)).remove(eq(2L), eq(new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "old2", null)));
-    verify(underlyingStore, times(1)).remove(eq(2L));
+    assertThat(contents.isEmpty(), is(true));
   }
 
   @Test
-  @SuppressWarnings("unchecked")
   public void testPrepareConflictsEvicts() throws Exception {
     final TestTimeSource timeSource = new TestTimeSource();
 
@@ -601,18 +521,16 @@ public class XATransactionContextTest {
     xaTransactionContext.addCommand(1L, new StorePutCommand<String>("one", new XAValueHolder<String>("un", timeSource.getTimeMillis())));
     xaTransactionContext.addCommand(2L, new StoreRemoveCommand<String>("two"));
 
-    when(underlyingStore.replace(any(Long.class), any(SoftLock.class), any(SoftLock.class))).thenReturn(ReplaceStatus.MISS_NOT_PRESENT);
+    Map<Long, SoftLock<String>> contents = backUnderlyingStore();
+    contents.put(1L, new SoftLock<String>(null, "uno", null));
+    contents.put(2L, new SoftLock<String>(new TransactionId(new TestXid(1, 0)), "two", null));
 
     xaTransactionContext.prepare();
 
-    verify(underlyingStore).replace(eq(1L), eq(new SoftLock<String>(null, "one", null)), eq(new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "one", new XAValueHolder<String>("un", timeSource.getTimeMillis()))));
-    verify(underlyingStore).remove(1L);
-    verify(underlyingStore).replace(eq(2L), eq(new SoftLock<String>(null, "two", null)), eq(new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "two", null)));
-    verify(underlyingStore).remove(2L);
+    assertThat(contents.isEmpty(), is(true));
   }
 
   @Test
-  @SuppressWarnings("unchecked")
   public void testRollbackConflictsEvicts() throws Exception {
     final TestTimeSource timeSource = new TestTimeSource();
 
@@ -620,36 +538,56 @@ public class XATransactionContextTest {
 
     when(journal.isInDoubt(eq(new TransactionId(new TestXid(0, 0))))).thenReturn(true);
     when(journal.getInDoubtKeys(eq(new TransactionId(new TestXid(0, 0))))).thenReturn(Arrays.asList(1L, 2L));
-    when(underlyingStore.get(eq(1L))).thenReturn(new AbstractValueHolder<SoftLock<String>>(-1, -1) {
-      @Override
-      protected TimeUnit nativeTimeUnit() {
-        return TimeUnit.MILLISECONDS;
-      }
+
+    Map<Long, SoftLock<String>> contents = backUnderlyingStore();
+    contents.put(1L, new SoftLock<String>(new TransactionId(new TestXid(1, 0)), "old1", new XAValueHolder<String>("new1", timeSource.getTimeMillis())));
+    contents.put(2L, new SoftLock<String>(new TransactionId(new TestXid(1, 0)), "old2", null));
+
+    xaTransactionContext.rollback(false);
+
+    assertThat(contents.isEmpty(), is(true));
+  }
+
+  /**
+   * Backs the mocked underlying store's {@code compute} and {@code bulkCompute} with the returned map.
+   */
+  @SuppressWarnings("unchecked")
+  private Map<Long, SoftLock<String>> backUnderlyingStore() throws Exception {
+    final Map<Long, SoftLock<String>> contents = new HashMap<Long, SoftLock<String>>();
+    when(underlyingStore.bulkCompute(anySet(), any(Function.class))).then(new Answer<Object>() {
       @Override
-      public SoftLock<String> value() {
-        return new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "old1", new XAValueHolder<String>("new1", timeSource.getTimeMillis()));
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        Set<Long> keys = (Set<Long>) invocation.getArguments()[0];
+        Function<Iterable<? extends Map.Entry<? extends Long, ? extends SoftLock<String>>>, Iterable<? extends Map.Entry<? extends Long, ? extends SoftLock<String>>>> function =
+            (Function<Iterable<? extends Map.Entry<? extends Long, ? extends SoftLock<String>>>, Iterable<? extends Map.Entry<? extends Long, ? extends SoftLock<String>>>>) invocation.getArguments()[1];
+        List<Map.Entry<Long, SoftLock<String>>> entries = new ArrayList<Map.Entry<Long, SoftLock<String>>>();
+        for (Long key : keys) {
+          entries.add(new AbstractMap.SimpleEntry<Long, SoftLock<String>>(key, contents.get(key)));
+        }
+        for (Map.Entry<? extends Long, ? extends SoftLock<String>> entry : function.apply(entries)) {
+          update(contents, entry.getKey(), entry.getValue());
+        }
+        return null;
       }
     });
-    when(underlyingStore.get(eq(2L))).thenReturn(new AbstractValueHolder<SoftLock<String>>(-1, -1) {
-      @Override
-      protected TimeUnit nativeTimeUnit() {
-        return TimeUnit.MILLISECONDS;
-      }
+    when(underlyingStore.compute(any(Long.class), any(BiFunction.class))).then(new Answer<Object>() {
       @Override
-      public SoftLock<String> value() {
-        return new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "old2", null);
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        Long key = (Long) invocation.getArguments()[0];
+        BiFunction<Long, SoftLock<String>, SoftLock<String>> function = (BiFunction<Long, SoftLock<String>, SoftLock<String>>) invocation.getArguments()[1];
+        update(contents, key, function.apply(key, contents.get(key)));
+        return null;
       }
     });
+    return contents;
+  }
 
-    when(underlyingStore.replace(any(Long.class), any(SoftLock.class), any(SoftLock.class))).thenReturn(ReplaceStatus.MISS_NOT_PRESENT);
-    when(underlyingStore.remove(any(Long.class), any(SoftLock.class))).thenReturn(RemoveStatus.KEY_MISSING);
-
-    xaTransactionContext.rollback(false);
-
-    verify(underlyingStore, times(1)).replace(eq(1L), eq(new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "old1", new XAValueHolder<String>("new1", timeSource.getTimeMillis()))), eq(new SoftLock<String>(null, "old1", null)));
-    verify(underlyingStore, times(1)).remove(eq(1L));
-    verify(underlyingStore, times(1)).replace(eq(2L), eq(new SoftLock<String>(new TransactionId(new TestXid(0, 0)), "old2", null)), eq(new SoftLock<String>(null, "old2", null)));
-    verify(underlyingStore, times(1)).remove(eq(2L));
+  private static void update(Map<Long, SoftLock<String>> contents, Long key, SoftLock<String> value) {
+    if (value == null) {
+      contents.remove(key);
+    } else {
+      contents.put(key, value);
+    }
   }
 
 
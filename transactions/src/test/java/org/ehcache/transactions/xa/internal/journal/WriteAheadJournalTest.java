@@ -0,0 +1,218 @@
+/*
+ * Copyright Terracotta, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ehcache.transactions.xa.internal.journal;
+
+import org.ehcache.transactions.xa.internal.TransactionId;
+import org.ehcache.transactions.xa.utils.JavaSerializer;
+import org.ehcache.transactions.xa.utils.TestXid;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class WriteAheadJournalTest extends AbstractJournalTest {
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  @Override
+  protected Journal<Long> createJournal() {
+    return new WriteAheadJournal<Long>(folder.getRoot(), new JavaSerializer<Long>(ClassLoader.getSystemClassLoader()), 512);
+  }
+
+  @Test
+  public void testPersistence() throws Exception {
+    journal.saveInDoubt(new TransactionId(new TestXid(0, 0)), Arrays.asList(1L, 2L, 3L));
+    journal.saveInDoubt(new TransactionId(new TestXid(1, 0)), Arrays.asList(4L, 5L, 6L));
+    journal.saveCommitted(new TransactionId(new TestXid(1, 0)), true);
+
+    journal.close();
+    journal = createJournal();
+    journal.open();
+
+    assertThat(journal.recover().keySet(), containsInAnyOrder(new TransactionId(new TestXid(0, 0))));
+    assertThat(journal.getInDoubtKeys(new TransactionId(new TestXid(0, 0))), containsInAnyOrder(1L, 2L, 3L));
+    assertThat(journal.heuristicDecisions().keySet(), containsInAnyOrder(new TransactionId(new TestXid(1, 0))));
+
+    journal.saveRolledBack(new TransactionId(new TestXid(0, 0)), false);
+    journal.forget(new TransactionId(new TestXid(1, 0)));
+
+    journal.close();
+    journal = createJournal();
+    journal.open();
+
+    assertThat(journal.recover().isEmpty(), is(true));
+    assertThat(journal.heuristicDecisions().isEmpty(), is(true));
+  }
+
+  @Test
+  public void testStatesAreReplayedWithoutClose() throws Exception {
+    journal.saveInDoubt(new TransactionId(new TestXid(0, 0)), Arrays.asList(1L, 2L));
+    journal.saveInDoubt(new TransactionId(new TestXid(1, 0)), Arrays.asList(3L));
+    journal.saveCommitted(new TransactionId(new TestXid(1, 0)), false);
+    journal.saveInDoubt(new TransactionId(new TestXid(2, 0)), Arrays.asList(4L));
+    journal.saveRolledBack(new TransactionId(new TestXid(2, 0)), true);
+
+    // simulate a crash: the first journal is never closed
+    Journal<Long> recovered = createJournal();
+    recovered.open();
+    try {
+      assertThat(recovered.recover().keySet(), containsInAnyOrder(new TransactionId(new TestXid(0, 0))));
+      assertThat(recovered.heuristicDecisions().get(new TransactionId(new TestXid(2, 0))), is(false));
+    } finally {
+      recovered.close();
+    }
+  }
+
+  @Test
+  public void testTornRecordIsIgnoredOnReplay() throws Exception {
+    journal.saveInDoubt(new TransactionId(new TestXid(0, 0)), Arrays.asList(1L));
+    journal.saveInDoubt(new TransactionId(new TestXid(1, 0)), Arrays.asList(2L));
+
+    List<File> segments = WriteAheadJournal.existingSegments(folder.getRoot());
+    assertThat(segments, hasSize(1));
+    RandomAccessFile raf = new RandomAccessFile(segments.get(0), "rw");
+    try {
+      raf.setLength(raf.length() - 1);
+    } finally {
+      raf.close();
+    }
+
+    Journal<Long> recovered = createJournal();
+    recovered.open();
+    try {
+      assertThat(recovered.recover().keySet(), containsInAnyOrder(new TransactionId(new TestXid(0, 0))));
+    } finally {
+      recovered.close();
+    }
+  }
+
+  @Test
+  public void testCheckpointTruncatesTheJournal() throws Exception {
+    for (int i = 0; i < 100; i++) {
+      TransactionId transactionId = new TransactionId(new TestXid(i, 0));
+      journal.saveInDoubt(transactionId, Collections.singleton((long) i));
+      journal.saveCommitted(transactionId, false);
+    }
+    journal.saveInDoubt(new TransactionId(new TestXid(100, 0)), Arrays.asList(1L));
+
+    List<File> segments = WriteAheadJournal.existingSegments(folder.getRoot());
+    assertThat(segments, hasSize(1));
+    assertThat(segments.get(0).length() < 1024, is(true));
+    assertThat(journal.recover().keySet(), containsInAnyOrder(new TransactionId(new TestXid(100, 0))));
+  }
+
+  @Test
+  public void testLiveStatesLargerThanASegmentDoNotCheckpointEveryAppend() throws Exception {
+    for (int i = 0; i < 20; i++) {
+      journal.saveInDoubt(new TransactionId(new TestXid(i, 0)), Arrays.asList((long) i));
+    }
+    journal.saveInDoubt(new TransactionId(new TestXid(20, 0)), Arrays.asList(20L));
+    List<File> segments = WriteAheadJournal.existingSegments(folder.getRoot());
+
+    journal.saveInDoubt(new TransactionId(new TestXid(21, 0)), Arrays.asList(21L));
+    assertThat(WriteAheadJournal.existingSegments(folder.getRoot()), is(segments));
+  }
+
+  @Test
+  public void testInterruptedAppendFails() throws Exception {
+    Thread.currentThread().interrupt();
+    try {
+      journal.saveInDoubt(new TransactionId(new TestXid(0, 0)), Arrays.asList(1L));
+      fail("Expected RuntimeException");
+    } catch (RuntimeException e) {
+      // expected
+    } finally {
+      Thread.interrupted();
+    }
+    journal.saveInDoubt(new TransactionId(new TestXid(1, 0)), Arrays.asList(2L));
+
+    Journal<Long> recovered = createJournal();
+    recovered.open();
+    try {
+      assertThat(recovered.recover().keySet(), containsInAnyOrder(new TransactionId(new TestXid(1, 0))));
+    } finally {
+      recovered.close();
+    }
+  }
+
+  @Test
+  public void testConcurrentTransactionsAreAllDurable() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      Future<?>[] futures = new Future<?>[8];
+      for (int t = 0; t < futures.length; t++) {
+        final int thread = t;
+        futures[t] = executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() throws Exception {
+            for (int i = 0; i < 50; i++) {
+              TransactionId transactionId = new TransactionId(new TestXid(thread, i));
+              journal.saveInDoubt(transactionId, Collections.singleton((long) i));
+              if (i % 2 == 0) {
+                journal.saveCommitted(transactionId, false);
+              }
+            }
+            return null;
+          }
+        });
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    Journal<Long> recovered = createJournal();
+    recovered.open();
+    try {
+      assertThat(recovered.recover().size(), is(8 * 25));
+    } finally {
+      recovered.close();
+    }
+  }
+
+  @Test
+  public void testLegacyJournalIsMigrated() throws Exception {
+    journal.close();
+    PersistentJournal<Long> legacy = new PersistentJournal<Long>(folder.getRoot(), new JavaSerializer<Long>(ClassLoader.getSystemClassLoader()));
+    legacy.open();
+    legacy.saveInDoubt(new TransactionId(new TestXid(0, 0)), Arrays.asList(1L, 2L));
+    legacy.close();
+
+    journal = createJournal();
+    journal.open();
+
+    assertThat(journal.getInDoubtKeys(new TransactionId(new TestXid(0, 0))), containsInAnyOrder(1L, 2L));
+    assertThat(new File(folder.getRoot(), "journal.data").exists(), is(false));
+  }
+}
@@ -22,6 +22,7 @@ import org.ehcache.config.SizedResourcePool;
 import org.ehcache.config.units.EntryUnit;
 import org.ehcache.config.units.MemoryUnit;
 import org.ehcache.core.config.SizedResourcePoolImpl;
+import org.ehcache.core.statistics.StatisticsLevel;
 import org.ehcache.xml.exceptions.XmlConfigurationException;
 import org.ehcache.xml.model.BaseCacheType;
 import org.ehcache.xml.model.CacheLoaderWriterType;
@@ -47,7 +48,9 @@ import org.ehcache.xml.model.ResourcesType;
 import org.ehcache.xml.model.SerializerType;
 import org.ehcache.xml.model.ServiceType;
 import org.ehcache.xml.model.SizeofType;
+import org.ehcache.xml.model.StatisticsType;
 import org.ehcache.xml.model.TimeType;
+import org.ehcache.xml.model.WarmingType;
 import org.ehcache.spi.service.ServiceConfiguration;
 import org.ehcache.spi.service.ServiceCreationConfiguration;
 import org.ehcache.core.internal.util.ClassLoading;
@@ -68,6 +71,7 @@ import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.Source;
 import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
 
 import java.io.IOException;
@@ -107,6 +111,9 @@ class ConfigurationParser {
   private static final String CORE_SCHEMA_ROOT_ELEMENT = "config";
   private static final String CORE_SCHEMA_JAXB_MODEL_PACKAGE = ConfigType.class.getPackage().getName();
 
+  private static Schema schema;
+  private static JAXBContext jaxbContext;
+
   private final Map<URI, CacheManagerServiceConfigurationParser<?>> xmlParsers = new HashMap<URI, CacheManagerServiceConfigurationParser<?>>();
   private final Map<URI, CacheServiceConfigurationParser<?>> cacheXmlParsers = new HashMap<URI, CacheServiceConfigurationParser<?>>();
   private final Unmarshaller unmarshaller;
@@ -131,20 +138,27 @@ class ConfigurationParser {
   }
 
   public ConfigurationParser(String xml) throws IOException, SAXException, JAXBException, ParserConfigurationException {
-    Collection<Source> schemaSources = new ArrayList<Source>();
-    schemaSources.add(new StreamSource(CORE_SCHEMA_URL.openStream()));
+    this(xml, true);
+  }
 
+  /**
+   * Parses the given XML document.
+   * <p>
+   * When {@code validate} is {@code false} the document is not checked against the schemas, which also means that
+   * default attribute values declared in the schemas of extensions are not applied.
+   *
+   * @param xml the XML document location
+   * @param validate whether to validate the document against the core and extension schemas
+   */
+  public ConfigurationParser(String xml, boolean validate) throws IOException, SAXException, JAXBException, ParserConfigurationException {
     for (CacheManagerServiceConfigurationParser<?> parser : ClassLoading.libraryServiceLoaderFor(CacheManagerServiceConfigurationParser.class)) {
-      schemaSources.add(parser.getXmlSchema());
       xmlParsers.put(parser.getNamespace(), parser);
     }
     for (CacheServiceConfigurationParser<?> parser : ClassLoading.libraryServiceLoaderFor(CacheServiceConfigurationParser.class)) {
-      schemaSources.add(parser.getXmlSchema());
       cacheXmlParsers.put(parser.getNamespace(), parser);
     }
     // Parsers for /config/cache/resources extensions
     for (CacheResourceConfigurationParser parser : ClassLoading.libraryServiceLoaderFor(CacheResourceConfigurationParser.class)) {
-      schemaSources.add(parser.getXmlSchema());
       resourceXmlParsers.put(parser.getNamespace(), parser);
     }
 
@@ -152,7 +166,9 @@ class ConfigurationParser {
     factory.setNamespaceAware(true);
     factory.setIgnoringComments(true);
     factory.setIgnoringElementContentWhitespace(true);
-    factory.setSchema(XSD_SCHEMA_FACTORY.newSchema(schemaSources.toArray(new Source[schemaSources.size()])));
+    if (validate) {
+      factory.setSchema(schema());
+    }
 
     DocumentBuilder domBuilder = factory.newDocumentBuilder();
     domBuilder.setErrorHandler(new FatalErrorHandler());
@@ -166,11 +182,44 @@ class ConfigurationParser {
     }
 
     Class<ConfigType> configTypeClass = ConfigType.class;
-    JAXBContext jc = JAXBContext.newInstance(CORE_SCHEMA_JAXB_MODEL_PACKAGE, configTypeClass.getClassLoader());
-    this.unmarshaller = jc.createUnmarshaller();
+    this.unmarshaller = jaxbContext().createUnmarshaller();
     this.config = unmarshaller.unmarshal(dom, configTypeClass).getValue();
   }
 
+  /**
+   * Returns the schema combining the core schema and those of all extension parsers.
+   * <p>
+   * Extension parsers are loaded through the library class loader, so the combined schema cannot change once
+   * compiled and is shared by all parses. {@code Schema} instances are thread-safe.
+   */
+  static synchronized Schema schema() throws IOException, SAXException {
+    if (schema == null) {
+      Collection<Source> schemaSources = new ArrayList<Source>();
+      schemaSources.add(new StreamSource(CORE_SCHEMA_URL.openStream()));
+      for (CacheManagerServiceConfigurationParser<?> parser : ClassLoading.libraryServiceLoaderFor(CacheManagerServiceConfigurationParser.class)) {
+        schemaSources.add(parser.getXmlSchema());
+      }
+      for (CacheServiceConfigurationParser<?> parser : ClassLoading.libraryServiceLoaderFor(CacheServiceConfigurationParser.class)) {
+        schemaSources.add(parser.getXmlSchema());
+      }
+      for (CacheResourceConfigurationParser parser : ClassLoading.libraryServiceLoaderFor(CacheResourceConfigurationParser.class)) {
+        schemaSources.add(parser.getXmlSchema());
+      }
+      schema = XSD_SCHEMA_FACTORY.newSchema(schemaSources.toArray(new Source[schemaSources.size()]));
+    }
+    return schema;
+  }
+
+  /**
+   * Returns the shared {@code JAXBContext} for the core model, {@code JAXBContext} instances are thread-safe.
+   */
+  static synchronized JAXBContext jaxbContext() throws JAXBException {
+    if (jaxbContext == null) {
+      jaxbContext = JAXBContext.newInstance(CORE_SCHEMA_JAXB_MODEL_PACKAGE, ConfigType.class.getClassLoader());
+    }
+    return jaxbContext;
+  }
+
   private void substituteSystemProperties(final Element dom) {
     final Properties properties = System.getProperties();
     Stack<NodeList> nodeLists = new Stack<NodeList>();
@@ -230,6 +279,10 @@ class ConfigurationParser {
     return config.getDiskStore();
   }
 
+  public ThreadPoolReferenceType getWarming() {
+    return config.getWarming();
+  }
+
   public ThreadPoolsType getThreadPools() {
     return config.getThreadPools();
   }
@@ -454,6 +507,26 @@ class ConfigurationParser {
             }
             return sizeofType != null ? new XmlSizeOfEngineLimits(sizeofType) : null;
           }
+
+          @Override
+          public StatisticsLevel statisticsLevel() {
+            StatisticsType statisticsType = null;
+            for (BaseCacheType source : sources) {
+              statisticsType = source.getStatistics();
+              if (statisticsType != null) break;
+            }
+            return statisticsType != null ? parseStatisticsLevel(statisticsType) : null;
+          }
+
+          @Override
+          public Warming warming() {
+            WarmingType warmingType = null;
+            for (BaseCacheType source : sources) {
+              warmingType = source.getWarming();
+              if (warmingType != null) break;
+            }
+            return warmingType != null ? new XmlWarming(warmingType) : null;
+          }
         });
       }
     }
@@ -576,12 +649,28 @@ class ConfigurationParser {
             SizeofType type = cacheTemplate.getHeapStoreSettings();
             return type == null ? null : new XmlSizeOfEngineLimits(type);
           }
+
+          @Override
+          public StatisticsLevel statisticsLevel() {
+            StatisticsType type = cacheTemplate.getStatistics();
+            return type == null ? null : parseStatisticsLevel(type);
+          }
+
+          @Override
+          public Warming warming() {
+            WarmingType type = cacheTemplate.getWarming();
+            return type == null ? null : new XmlWarming(type);
+          }
         });
       }
     }
     return Collections.unmodifiableMap(templates);
   }
 
+  private static StatisticsLevel parseStatisticsLevel(StatisticsType statisticsType) {
+    return StatisticsLevel.valueOf(statisticsType.getLevel().value().toUpperCase());
+  }
+
   private Collection<ResourcePool> parseResources(ResourcesType resources) {
     Collection<ResourcePool> resourcePools = new ArrayList<ResourcePool>();
     for (Element resource : resources.getResource()) {
@@ -712,6 +801,10 @@ class ConfigurationParser {
 
     SizeOfEngineLimits heapStoreSettings();
 
+    StatisticsLevel statisticsLevel();
+
+    Warming warming();
+
   }
 
   interface CacheDefinition extends CacheTemplate {
@@ -788,6 +881,19 @@ class ConfigurationParser {
     int diskSegments();
   }
 
+  interface Warming {
+
+    String keySource();
+
+    int chunkSize();
+
+    int concurrency();
+
+    long maxKeysPerSecond();
+
+    boolean blocking();
+  }
+
 
   interface SizeOfEngineLimits {
 
@@ -1050,4 +1156,38 @@ class ConfigurationParser {
     }
   }
 
+  private static class XmlWarming implements Warming {
+
+    private final WarmingType warming;
+
+    private XmlWarming(WarmingType warming) {
+      this.warming = warming;
+    }
+
+    @Override
+    public String keySource() {
+      return this.warming.getKeySource();
+    }
+
+    @Override
+    public int chunkSize() {
+      return this.warming.getChunkSize().intValue();
+    }
+
+    @Override
+    public int concurrency() {
+      return this.warming.getConcurrency().intValue();
+    }
+
+    @Override
+    public long maxKeysPerSecond() {
+      return this.warming.getMaxKeysPerSecond().longValue();
+    }
+
+    @Override
+    public boolean blocking() {
+      return this.warming.isBlocking();
+    }
+  }
+
 }
@@ -40,6 +40,9 @@ import org.ehcache.impl.config.event.CacheEventDispatcherFactoryConfiguration;
 import org.ehcache.impl.config.event.DefaultCacheEventDispatcherConfiguration;
 import org.ehcache.impl.config.executor.PooledExecutionServiceConfiguration;
 import org.ehcache.impl.config.loaderwriter.DefaultCacheLoaderWriterConfiguration;
+import org.ehcache.impl.config.loaderwriter.warming.CacheWarmingConfiguration;
+import org.ehcache.impl.config.loaderwriter.warming.CacheWarmingKeySource;
+import org.ehcache.impl.config.loaderwriter.warming.CacheWarmingProviderConfiguration;
 import org.ehcache.impl.config.loaderwriter.writebehind.WriteBehindProviderConfiguration;
 import org.ehcache.impl.config.persistence.CacheManagerPersistenceConfiguration;
 import org.ehcache.impl.config.serializer.DefaultSerializationProviderConfiguration;
@@ -82,6 +85,7 @@ import java.util.Set;
 
 import static org.ehcache.config.builders.CacheConfigurationBuilder.newCacheConfigurationBuilder;
 import static org.ehcache.config.builders.ResourcePoolsBuilder.newResourcePoolsBuilder;
+import static org.ehcache.core.spi.service.ServiceUtils.findSingletonAmongst;
 
 /**
  * Exposes {@link org.ehcache.config.Configuration} and {@link CacheConfigurationBuilder} expressed
@@ -96,6 +100,7 @@ public class XmlConfiguration implements Configuration {
   private final URL xml;
   private final ClassLoader classLoader;
   private final Map<String, ClassLoader> cacheClassLoaders;
+  private final boolean validate;
 
   private final Collection<ServiceCreationConfiguration<?>> serviceConfigurations = new ArrayList<ServiceCreationConfiguration<?>>();
   private final Map<String, CacheConfiguration<?, ?>> cacheConfigurations = new HashMap<String, CacheConfiguration<?, ?>>();
@@ -147,6 +152,28 @@ public class XmlConfiguration implements Configuration {
    */
   public XmlConfiguration(URL url, final ClassLoader classLoader, final Map<String, ClassLoader> cacheClassLoaders)
       throws XmlConfigurationException {
+    this(url, classLoader, cacheClassLoaders, true);
+  }
+
+  /**
+   * Constructs an instance of XmlConfiguration mapping to the XML file located at {@code url} and using the provided
+   * {@code classLoader} to load user types (e.g. key and value Class instances). The {@code cacheClassLoaders} will
+   * let you specify a different {@link java.lang.ClassLoader} to use for each {@link org.ehcache.Cache} managed by
+   * the {@link org.ehcache.CacheManager} configured using this {@link org.ehcache.xml.XmlConfiguration}
+   * <p>
+   * Parses the XML file at the {@code url} provided, validating it against the core and extension schemas only if
+   * {@code validate} is {@code true}. Skipping validation is only meant for trusted, previously validated files:
+   * default attribute values declared by extension schemas are then not applied, so such files must spell them out.
+   *
+   * @param url URL pointing to the XML file's location
+   * @param classLoader ClassLoader to use to load user types.
+   * @param cacheClassLoaders the map with mappings between cache names and the corresponding class loaders
+   * @param validate whether to validate the XML file against its schemas
+   *
+   * @throws XmlConfigurationException if anything went wrong parsing the XML
+   */
+  public XmlConfiguration(URL url, final ClassLoader classLoader, final Map<String, ClassLoader> cacheClassLoaders, boolean validate)
+      throws XmlConfigurationException {
     if(url == null) {
       throw new NullPointerException("The url can not be null");
     }
@@ -159,6 +186,7 @@ public class XmlConfiguration implements Configuration {
     this.xml = url;
     this.classLoader = classLoader;
     this.cacheClassLoaders = new HashMap<String, ClassLoader>(cacheClassLoaders);
+    this.validate = validate;
     try {
       parseConfiguration();
     } catch (XmlConfigurationException e) {
@@ -172,7 +200,7 @@ public class XmlConfiguration implements Configuration {
   private void parseConfiguration()
       throws ClassNotFoundException, IOException, SAXException, InstantiationException, IllegalAccessException, JAXBException, ParserConfigurationException {
     LOGGER.info("Loading Ehcache XML configuration from {}.", xml.getPath());
-    ConfigurationParser configurationParser = new ConfigurationParser(xml.toExternalForm());
+    ConfigurationParser configurationParser = new ConfigurationParser(xml.toExternalForm(), validate);
 
     final ArrayList<ServiceCreationConfiguration<?>> serviceConfigs = new ArrayList<ServiceCreationConfiguration<?>>();
 
@@ -229,6 +257,9 @@ public class XmlConfiguration implements Configuration {
       ThreadPoolReferenceType diskStoreThreading = configurationParser.getDiskStore();
       serviceConfigs.add(new OffHeapDiskStoreProviderConfiguration(diskStoreThreading.getThreadPool()));
     }
+    if (configurationParser.getWarming() != null) {
+      serviceConfigs.add(new CacheWarmingProviderConfiguration(configurationParser.getWarming().getThreadPool()));
+    }
 
     for (ServiceCreationConfiguration<?> serviceConfiguration : Collections.unmodifiableList(serviceConfigs)) {
       serviceConfigurations.add(serviceConfiguration);
@@ -295,6 +326,12 @@ public class XmlConfiguration implements Configuration {
       if (parsedDiskStoreSettings != null) {
         builder = builder.add(new OffHeapDiskStoreConfiguration(parsedDiskStoreSettings.threadPool(), parsedDiskStoreSettings.writerConcurrency(), parsedDiskStoreSettings.diskSegments()));
       }
+      if (cacheDefinition.statisticsLevel() != null) {
+        builder = builder.withStatisticsLevel(cacheDefinition.statisticsLevel());
+      }
+      if (cacheDefinition.warming() != null) {
+        builder = builder.add(parseWarming(cacheDefinition.warming(), cacheClassLoader));
+      }
       for (ServiceConfiguration<?> serviceConfig : cacheDefinition.serviceConfigs()) {
         builder = builder.add(serviceConfig);
       }
@@ -326,6 +363,26 @@ public class XmlConfiguration implements Configuration {
     }
 
     templates.putAll(configurationParser.getTemplates());
+
+    // warming caches requires the warming provider, which is added with its default thread pool if not configured
+    if (configurationParser.getWarming() == null) {
+      boolean warming = false;
+      for (CacheConfiguration<?, ?> cacheConfiguration : cacheConfigurations.values()) {
+        warming |= findSingletonAmongst(CacheWarmingConfiguration.class, cacheConfiguration.getServiceConfigurations()) != null;
+      }
+      for (ConfigurationParser.CacheTemplate cacheTemplate : templates.values()) {
+        warming |= cacheTemplate.warming() != null;
+      }
+      if (warming) {
+        serviceConfigurations.add(new CacheWarmingProviderConfiguration());
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static CacheWarmingConfiguration parseWarming(ConfigurationParser.Warming warming, ClassLoader classLoader) throws ClassNotFoundException {
+    Class<? extends CacheWarmingKeySource<?>> keySourceClass = (Class<? extends CacheWarmingKeySource<?>>) getClassForName(warming.keySource(), classLoader);
+    return new CacheWarmingConfiguration(keySourceClass, warming.chunkSize(), warming.concurrency(), warming.maxKeysPerSecond(), warming.blocking());
   }
 
   @SuppressWarnings("unchecked")
@@ -523,6 +580,12 @@ public class XmlConfiguration implements Configuration {
       builder = builder.add(new DefaultSizeOfEngineConfiguration(cacheTemplate.heapStoreSettings().getMaxObjectSize(), cacheTemplate.heapStoreSettings().getUnit(),
         cacheTemplate.heapStoreSettings().getMaxObjectGraphSize()));
     }
+    if (cacheTemplate.statisticsLevel() != null) {
+      builder = builder.withStatisticsLevel(cacheTemplate.statisticsLevel());
+    }
+    if (cacheTemplate.warming() != null) {
+      builder = builder.add(parseWarming(cacheTemplate.warming(), defaultClassLoader));
+    }
     final String loaderWriter = cacheTemplate.loaderWriter();
     if(loaderWriter!= null) {
       final Class<CacheLoaderWriter<?, ?>> cacheLoaderWriterClass = (Class<CacheLoaderWriter<?,?>>)getClassForName(loaderWriter, defaultClassLoader);
@@ -23,7 +23,9 @@ import org.ehcache.config.ResourceUnit;
 import org.ehcache.config.builders.CacheConfigurationBuilder;
 import org.ehcache.config.units.EntryUnit;
 import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.config.store.StoreStatisticsConfiguration;
 import org.ehcache.core.internal.util.ClassLoading;
+import org.ehcache.core.statistics.StatisticsLevel;
 import org.ehcache.expiry.Duration;
 import org.ehcache.expiry.Expirations;
 import org.ehcache.expiry.Expiry;
@@ -32,6 +34,8 @@ import org.ehcache.impl.config.copy.DefaultCopyProviderConfiguration;
 import org.ehcache.impl.config.event.DefaultCacheEventListenerConfiguration;
 import org.ehcache.impl.config.executor.PooledExecutionServiceConfiguration;
 import org.ehcache.impl.config.executor.PooledExecutionServiceConfiguration.PoolConfiguration;
+import org.ehcache.impl.config.loaderwriter.warming.CacheWarmingConfiguration;
+import org.ehcache.impl.config.loaderwriter.warming.CacheWarmingProviderConfiguration;
 import org.ehcache.impl.config.persistence.DefaultPersistenceConfiguration;
 import org.ehcache.impl.config.serializer.DefaultSerializationProviderConfiguration;
 import org.ehcache.impl.config.serializer.DefaultSerializerConfiguration;
@@ -67,6 +71,7 @@ import com.pany.ehcache.serializer.TestSerializer;
 import com.pany.ehcache.serializer.TestSerializer2;
 import com.pany.ehcache.serializer.TestSerializer3;
 import com.pany.ehcache.serializer.TestSerializer4;
+import com.pany.ehcache.integration.TestWarmingKeySource;
 
 import java.io.File;
 import java.net.URL;
@@ -238,6 +243,31 @@ public class XmlConfigurationTest {
     }
   }
 
+  @Test
+  public void testInvalidCoreConfigurationIsNotValidatedWhenValidationSkipped() throws Exception {
+    XmlConfiguration xmlConfiguration = new XmlConfiguration(XmlConfigurationTest.class.getResource("/configs/invalid-core.xml"),
+        ClassLoading.getDefaultClassLoader(), Collections.<String, ClassLoader>emptyMap(), false);
+    assertThat(xmlConfiguration.getCacheConfigurations().isEmpty(), is(true));
+  }
+
+  @Test
+  public void testSkippingValidationParsesSameConfiguration() throws Exception {
+    XmlConfiguration xmlConfiguration = new XmlConfiguration(XmlConfigurationTest.class.getResource("/configs/one-cache.xml"),
+        ClassLoading.getDefaultClassLoader(), Collections.<String, ClassLoader>emptyMap(), false);
+
+    CacheConfiguration<?, ?> cacheConfiguration = xmlConfiguration.getCacheConfigurations().get("bar");
+    assertThat(cacheConfiguration.getKeyType(), sameInstance((Class) String.class));
+    assertThat(cacheConfiguration.getValueType(), sameInstance((Class) String.class));
+    assertThat(cacheConfiguration.getResourcePools().getPoolForResource(ResourceType.Core.HEAP).getSize(), is(5L));
+    assertThat(cacheConfiguration.getServiceConfigurations(), IsCollectionContaining.<ServiceConfiguration<?>>hasItem(instanceOf(FooConfiguration.class)));
+  }
+
+  @Test
+  public void testSchemaIsSharedAcrossParses() throws Exception {
+    assertThat(ConfigurationParser.schema(), sameInstance(ConfigurationParser.schema()));
+    assertThat(ConfigurationParser.jaxbContext(), sameInstance(ConfigurationParser.jaxbContext()));
+  }
+
   @Test
   public void testInvalidServiceConfiguration() throws Exception {
     try {
@@ -600,6 +630,50 @@ public class XmlConfigurationTest {
     assertThat(diskConfig.getDiskSegments(), is(4));
   }
 
+  @Test
+  public void testStatisticsLevel() throws Exception {
+    final URL resource = XmlConfigurationTest.class.getResource("/configs/statistics-caches.xml");
+    XmlConfiguration xmlConfig = new XmlConfiguration(resource);
+
+    assertThat(statisticsLevelOf(xmlConfig.getCacheConfigurations().get("off")), is(StatisticsLevel.OFF));
+    assertThat(statisticsLevelOf(xmlConfig.getCacheConfigurations().get("fromTemplate")), is(StatisticsLevel.COUNTERS));
+    assertThat(findSingletonAmongst(StoreStatisticsConfiguration.class,
+        xmlConfig.getCacheConfigurations().get("default").getServiceConfigurations().toArray()), nullValue());
+
+    CacheConfigurationBuilder<String, String> templateBuilder = xmlConfig.newCacheConfigurationBuilderFromTemplate("counters",
+        String.class, String.class, heap(10));
+    assertThat(statisticsLevelOf(templateBuilder.build()), is(StatisticsLevel.COUNTERS));
+  }
+
+  @Test
+  public void testWarming() throws Exception {
+    final URL resource = XmlConfigurationTest.class.getResource("/configs/warming-caches.xml");
+    XmlConfiguration xmlConfig = new XmlConfiguration(resource);
+
+    CacheWarmingConfiguration blocking = findSingletonAmongst(CacheWarmingConfiguration.class,
+        xmlConfig.getCacheConfigurations().get("blocking").getServiceConfigurations().toArray());
+    assertThat(blocking.getClazz(), sameInstance((Class) TestWarmingKeySource.class));
+    assertThat(blocking.getChunkSize(), is(CacheWarmingConfiguration.DEFAULT_CHUNK_SIZE));
+    assertThat(blocking.getConcurrency(), is(CacheWarmingConfiguration.DEFAULT_CONCURRENCY));
+    assertThat(blocking.getMaxKeysPerSecond(), is(0L));
+    assertThat(blocking.isBlocking(), is(true));
+
+    CacheWarmingConfiguration background = findSingletonAmongst(CacheWarmingConfiguration.class,
+        xmlConfig.getCacheConfigurations().get("background").getServiceConfigurations().toArray());
+    assertThat(background.getChunkSize(), is(50));
+    assertThat(background.getConcurrency(), is(4));
+    assertThat(background.getMaxKeysPerSecond(), is(1000L));
+    assertThat(background.isBlocking(), is(false));
+
+    CacheWarmingProviderConfiguration providerConfiguration = findSingletonAmongst(CacheWarmingProviderConfiguration.class,
+        xmlConfig.getServiceCreationConfigurations().toArray());
+    assertThat(providerConfiguration.getThreadPoolAlias(), nullValue());
+  }
+
+  private static StatisticsLevel statisticsLevelOf(CacheConfiguration<?, ?> cacheConfig) {
+    return findSingletonAmongst(StoreStatisticsConfiguration.class, cacheConfig.getServiceConfigurations().toArray()).getStatisticsLevel();
+  }
+
   @Test
   public void testNullUrlInConstructorThrowsNPE() throws Exception {
     thrown.expect(NullPointerException.class);